@@ -0,0 +1,185 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Single-frame calibration of the hand and background color models.
+ * The border of the frame (top, left and right bands) is taken as background and
+ * the central region as the hand held in front of the camera. Both are downsampled
+ * and clustered with Core.kmeans; central clusters that fall inside a background
+ * range are dropped, and the remaining ones become the hand colors, largest first.
+ * A frame is only accepted when those colors cover enough of the center and
+ * clearly less of the border, so that an empty scene is not taken for a hand.
+ */
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.core.TermCriteria;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AutoCalibrator {
+    private static final int DOWNSAMPLE = 8; // each clustered pixel stands for an 8x8 block
+    private static final int MAX_ITER = 10;
+    private static final double EPSILON = 1.0;
+    private static final double MIN_HAND_COVERAGE = 0.2; // share of the center the hand colors must cover
+    private static final double MAX_BORDER_RATIO = 0.5; // border share of the hand colors relative to the center
+
+    private Mat mSmall = new Mat();
+    private Mat mSamples = new Mat();
+    private Mat mBorder = new Mat(); // border samples, kept to check the hand colors against
+    private Mat mLabels = new Mat();
+    private Mat mCenters = new Mat();
+    private List<Mat> borderParts = new ArrayList<>();
+    private TermCriteria criteria = new TermCriteria(TermCriteria.EPS + TermCriteria.MAX_ITER, MAX_ITER, EPSILON);
+
+    public boolean calibrate(Mat colorFrame, int num, double[][] handColors, double[][] backColors,
+                             double[] backLowerRadius, double[] backUpperRadius) {
+        /**
+         * Fills num hand and num background colors from one frame in the
+         * thresholding color space. Returns false when no central cluster
+         * differs from the background, or when the differing clusters cover too
+         * little of the center or too much of the border to be a hand held in
+         * front of the camera, leaving handColors untouched.
+         */
+        int cols = colorFrame.cols();
+        int rows = colorFrame.rows();
+
+        // background model from the top, left and right bands
+        int band = Math.max(DOWNSAMPLE, cols / 8);
+        borderParts.clear();
+        borderParts.add(samples(colorFrame.submat(0, rows / 6, 0, cols)));
+        borderParts.add(samples(colorFrame.submat(rows / 6, rows, 0, band)));
+        borderParts.add(samples(colorFrame.submat(rows / 6, rows, cols - band, cols)));
+        Core.vconcat(borderParts, mBorder);
+        for (Mat part : borderParts) part.release();
+        int backNum = cluster(mBorder, num);
+        if (backNum == 0) return false;
+        for (int i = 0; i < num; i++) center(i % backNum, backColors[i]);
+        double[][] backCenters = new double[backNum][3];
+        for (int i = 0; i < backNum; i++) center(i, backCenters[i]);
+
+        // hand model from the center, where isHand() expects the hand
+        Mat central = samples(colorFrame.submat(rows / 4, rows * 3 / 4, cols / 4, cols * 3 / 4));
+        central.copyTo(mSamples);
+        central.release();
+        int handNum = cluster(mSamples, num);
+
+        int[] labels = new int[mLabels.rows()];
+        mLabels.get(0, 0, labels);
+        int[] sizes = new int[handNum];
+        for (int l : labels) sizes[l]++;
+
+        double[] color = new double[3];
+        int kept = 0;
+        int[] order = new int[handNum];
+        for (int i = 0; i < handNum; i++) {
+            center(i, color);
+            if (!isBackground(color, backCenters, backLowerRadius, backUpperRadius)) order[kept++] = i;
+        }
+        if (kept == 0) return false;
+
+        // hand presence: the kept colors must fill the center and be rarer at the border
+        boolean[] isKept = new boolean[handNum];
+        int centralHits = 0;
+        for (int i = 0; i < kept; i++) {
+            isKept[order[i]] = true;
+            centralHits += sizes[order[i]];
+        }
+        double centralCoverage = (double) centralHits / labels.length;
+        if (centralCoverage < MIN_HAND_COVERAGE) return false;
+        if (borderCoverage(handNum, isKept) > centralCoverage * MAX_BORDER_RATIO) return false;
+
+        // largest clusters first, so that the fewest samples repeat the weakest colors
+        for (int i = 1; i < kept; i++) {
+            int c = order[i], j = i - 1;
+            while (j >= 0 && sizes[order[j]] < sizes[c]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = c;
+        }
+        for (int i = 0; i < num; i++) center(order[i % kept], handColors[i]);
+        return true;
+    }
+
+    private double borderCoverage(int handNum, boolean[] isKept) {
+        /**
+         * Share of the border samples whose nearest central cluster is a kept one
+         */
+        double[][] centers = new double[handNum][3];
+        for (int i = 0; i < handNum; i++) center(i, centers[i]);
+        int n = mBorder.rows();
+        float[] border = new float[n * 3];
+        mBorder.get(0, 0, border);
+        int hits = 0;
+        for (int p = 0; p < n; p++) {
+            int nearest = 0;
+            double best = Double.MAX_VALUE;
+            for (int i = 0; i < handNum; i++) {
+                double d0 = border[3 * p] - centers[i][0];
+                double d1 = border[3 * p + 1] - centers[i][1];
+                double d2 = border[3 * p + 2] - centers[i][2];
+                double d = d0 * d0 + d1 * d1 + d2 * d2;
+                if (d < best) {
+                    best = d;
+                    nearest = i;
+                }
+            }
+            if (isKept[nearest]) hits++;
+        }
+        return n == 0 ? 0 : (double) hits / n;
+    }
+
+    private Mat samples(Mat region) {
+        /**
+         * Downsamples a region and returns its pixels as rows of 3 floats
+         */
+        Imgproc.resize(region, mSmall, new Size(Math.max(1, region.cols() / DOWNSAMPLE),
+                Math.max(1, region.rows() / DOWNSAMPLE)), 0, 0, Imgproc.INTER_AREA);
+        region.release();
+        Mat floats = new Mat();
+        mSmall.convertTo(floats, CvType.CV_32F);
+        Mat rows = floats.reshape(1, (int) floats.total());
+        Mat out = rows.colRange(0, 3).clone(); // drops a possible alpha channel
+        floats.release();
+        rows.release();
+        return out;
+    }
+
+    private int cluster(Mat data, int k) {
+        /**
+         * Runs k-means with at most k clusters and returns the number used
+         */
+        k = Math.min(k, data.rows());
+        if (k == 0) return 0;
+        Core.kmeans(data, k, mLabels, criteria, 1, Core.KMEANS_PP_CENTERS, mCenters);
+        return k;
+    }
+
+    private void center(int i, double[] out) {
+        float[] c = new float[3];
+        mCenters.get(i, 0, c);
+        for (int j = 0; j < 3; j++) out[j] = c[j];
+    }
+
+    private static boolean isBackground(double[] color, double[][] backCenters, double[] lower, double[] upper) {
+        for (double[] b : backCenters) {
+            if (color[0] >= b[0] - lower[0] && color[0] <= b[0] + upper[0] &&
+                    color[1] >= b[1] - lower[1] && color[1] <= b[1] + upper[1] &&
+                    color[2] >= b[2] - lower[2] && color[2] <= b[2] + upper[2])
+                return true;
+        }
+        return false;
+    }
+
+    public void release() {
+        mSmall.release();
+        mSamples.release();
+        mBorder.release();
+        mLabels.release();
+        mCenters.release();
+    }
+}
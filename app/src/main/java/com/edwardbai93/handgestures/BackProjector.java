@@ -0,0 +1,163 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Histogram back-projection segmentation over the two chroma channels
+ * (a* and b* in Lab) of the thresholding color space.
+ * Hand and background samples fill two 2D histograms, which are turned into one
+ * quantized lookup table holding 255 * P(hand) / (P(hand) + P(background)).
+ * A single calcBackProject pass maps every pixel through it, and thresholding the
+ * resulting likelihood map gives the hand mask.
+ */
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfFloat;
+import org.opencv.core.MatOfInt;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.RotatedRect;
+import org.opencv.core.TermCriteria;
+import org.opencv.imgproc.Imgproc;
+import org.opencv.video.Video;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BackProjector {
+    private static final int BINS = 32; // bins per channel, 8 color values each
+    private static final double PRIOR = 1e-4; // keeps unseen colors from dividing by zero
+
+    private MatOfInt channels = new MatOfInt(1, 2);
+    private MatOfInt histSize = new MatOfInt(BINS, BINS);
+    private MatOfFloat ranges = new MatOfFloat(0, 256, 0, 256);
+    private Mat mHist = new Mat();
+    private Mat mNoMask = new Mat();
+    private Mat mLut = new Mat(BINS, BINS, CvType.CV_32F);
+    private Mat mLikelihood = new Mat();
+    private List<Mat> images = new ArrayList<>();
+
+    private float[] handCounts = new float[BINS * BINS];
+    private float[] backCounts = new float[BINS * BINS];
+    private float[] lut = new float[BINS * BINS];
+    private boolean handReady = false, backReady = false, lutReady = false;
+    private double threshold = 128;
+    private TermCriteria camShiftCriteria = new TermCriteria(TermCriteria.EPS + TermCriteria.COUNT, 10, 1);
+
+    public void reset() {
+        /**
+         * Forgets both histograms, e.g. after the color model was replaced
+         */
+        handReady = backReady = lutReady = false;
+    }
+
+    public boolean isReady() {
+        return handReady && backReady;
+    }
+
+    public void setThreshold(double threshold) {
+        /**
+         * Sets the likelihood (0 ~ 255) above which a pixel counts as hand,
+         * 128 means the hand is more likely than the background
+         */
+        this.threshold = threshold;
+    }
+
+    public void sampleHand(Mat img, Point[][] boxes, int num) {
+        accumulate(img, boxes, num, handCounts);
+        handReady = true;
+        lutReady = false;
+    }
+
+    public void sampleBackground(Mat img, Point[][] boxes, int num) {
+        accumulate(img, boxes, num, backCounts);
+        backReady = true;
+        lutReady = false;
+    }
+
+    public void fromRanges(ColorRanges hand, ColorRanges back) {
+        /**
+         * Builds flat histograms covering the a* and b* extent of every color
+         * range, for color models that did not come from sample boxes
+         */
+        fill(hand, handCounts);
+        fill(back, backCounts);
+        handReady = backReady = true;
+        lutReady = false;
+    }
+
+    public void project(Mat img, Mat mask) {
+        /**
+         * Computes the likelihood map of img and thresholds it into mask
+         */
+        if (!lutReady) updateLut();
+        images.clear();
+        images.add(img);
+        Imgproc.calcBackProject(images, channels, mLut, mLikelihood, ranges, 1);
+        Imgproc.threshold(mLikelihood, mask, threshold, 255, Imgproc.THRESH_BINARY);
+    }
+
+    public Mat getLikelihoodMap() {
+        /**
+         * Returns the CV_8UC1 hand likelihood of the last projected frame
+         */
+        return mLikelihood;
+    }
+
+    public RotatedRect camShift(Rect window) {
+        /**
+         * Tracks the hand on the last likelihood map, updating window in place
+         */
+        return Video.CamShift(mLikelihood, window, camShiftCriteria);
+    }
+
+    private void accumulate(Mat img, Point[][] boxes, int num, float[] counts) {
+        for (int i = 0; i < num; i++) {
+            Mat box = img.submat((int) boxes[i][0].y, (int) boxes[i][1].y, (int) boxes[i][0].x, (int) boxes[i][1].x);
+            images.clear();
+            images.add(box);
+            Imgproc.calcHist(images, channels, mNoMask, mHist, histSize, ranges, i > 0);
+            box.release();
+        }
+        mHist.get(0, 0, counts);
+    }
+
+    private static void fill(ColorRanges colorRanges, float[] counts) {
+        for (int i = 0; i < counts.length; i++) counts[i] = 0;
+        int step = 256 / BINS;
+        for (int r = 0; r < colorRanges.count(); r++) {
+            double[] lo = colorRanges.lower(r), hi = colorRanges.upper(r);
+            int a0 = bin(lo[1], step), a1 = bin(hi[1], step);
+            int b0 = bin(lo[2], step), b1 = bin(hi[2], step);
+            for (int a = a0; a <= a1; a++)
+                for (int b = b0; b <= b1; b++)
+                    counts[a * BINS + b] += 1;
+        }
+    }
+
+    private static int bin(double v, int step) {
+        return Math.max(0, Math.min(BINS - 1, (int) v / step));
+    }
+
+    private void updateLut() {
+        /**
+         * Normalizes both histograms and quantizes the hand posterior to 0 ~ 255
+         */
+        double handTotal = 0, backTotal = 0;
+        for (int i = 0; i < lut.length; i++) {
+            handTotal += handCounts[i];
+            backTotal += backCounts[i];
+        }
+        for (int i = 0; i < lut.length; i++) {
+            double ph = handTotal > 0 ? handCounts[i] / handTotal : 0;
+            double pb = backTotal > 0 ? backCounts[i] / backTotal : 0;
+            lut[i] = ph == 0 ? 0 : (float) Math.rint(255 * ph / (ph + pb + PRIOR));
+        }
+        mLut.put(0, 0, lut);
+        lutReady = true;
+    }
+
+    public void release() {
+        mHist.release();
+        mLikelihood.release();
+    }
+}
@@ -0,0 +1,352 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Headless batch run of the Frame/Hand pipeline over recorded inputs, on a
+ * desktop JVM with the OpenCV Java bindings:
+ *
+ *   java -cp opencv-248.jar:classes -Djava.library.path=... \
+ *       com.edwardbai93.handgestures.BatchProcessor [-threads n] [-prefetch n]
+ *       [-profile calibration.bin] [-out results.csv] input...
+ *
+ * An input is a video file, an image file or a directory whose images (sorted by
+ * name) form one recorded sequence. Inputs are spread over n workers, each owning
+ * its own Frame, Hand and HandResultPublisher, so workers share no pipeline state.
+ * Every worker is fed by its own decoder thread, which reads up to prefetch frames
+ * ahead into recycled Mats and moves on to the next input while the worker is
+ * still busy with the previous one.
+ * Without a profile, the first frames of each input are auto-calibrated with the
+ * hand in the middle of the frame, as in AUTO_MODE.
+ * One CSV row per frame goes to the output, the aggregate throughput to stderr.
+ */
+
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.highgui.Highgui;
+import org.opencv.highgui.VideoCapture;
+import org.opencv.imgproc.Imgproc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class BatchProcessor {
+    public static final int DEFAULT_PREFETCH = 4;
+    private static final String[] IMAGE_EXTENSIONS = {".png", ".jpg", ".jpeg", ".bmp", ".ppm", ".pgm", ".tif", ".tiff"};
+    private static final String HEADER = "source,frame,calibrated,found,fingers,x,y,width,height,centroid_x,centroid_y,millis\n";
+
+    private final int threads;
+    private final int prefetch;
+    private final CalibrationProfile profile; // null to auto-calibrate every input
+    private final Writer out;
+
+    private final ConcurrentLinkedQueue<File> inputs = new ConcurrentLinkedQueue<>();
+    private final List<Worker> workers = new ArrayList<>();
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int prefetch = DEFAULT_PREFETCH;
+        CalibrationProfile profile = null;
+        File outFile = null;
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-threads") && i + 1 < args.length) threads = Integer.parseInt(args[++i]);
+            else if (args[i].equals("-prefetch") && i + 1 < args.length) prefetch = Integer.parseInt(args[++i]);
+            else if (args[i].equals("-profile") && i + 1 < args.length) profile = readProfile(new File(args[++i]));
+            else if (args[i].equals("-out") && i + 1 < args.length) outFile = new File(args[++i]);
+            else files.add(new File(args[i]));
+        }
+        if (files.isEmpty()) {
+            System.err.println("Usage: BatchProcessor [-threads n] [-prefetch n] [-profile file] [-out file] input...");
+            System.exit(2);
+        }
+        System.loadLibrary(Core.NATIVE_LIBRARY_NAME);
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(
+                outFile != null ? new FileOutputStream(outFile) : System.out, "UTF-8"), 1 << 16);
+        try {
+            BatchProcessor processor = new BatchProcessor(threads, prefetch, profile, out);
+            System.err.print(processor.run(files));
+        } finally {
+            out.close();
+        }
+    }
+
+    public BatchProcessor(int threads, int prefetch, CalibrationProfile profile, Writer out) {
+        /**
+         * out receives the CSV rows, written by all workers and not closed here
+         */
+        if (threads < 1) throw new IllegalArgumentException("threads must be positive");
+        if (prefetch < 1) throw new IllegalArgumentException("prefetch must be positive");
+        this.threads = threads;
+        this.prefetch = prefetch;
+        this.profile = profile;
+        this.out = out;
+    }
+
+    public String run(List<File> files) throws IOException, InterruptedException {
+        /**
+         * Processes every input and returns the aggregate report
+         */
+        inputs.addAll(files);
+        out.write(HEADER);
+        long start = System.nanoTime();
+        List<Thread> running = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker();
+            workers.add(worker);
+            worker.decoderThread = new Thread(worker.decoder, "Decoder-" + i);
+            running.add(worker.decoderThread);
+            running.add(new Thread(worker, "Worker-" + i));
+        }
+        for (Thread t : running) t.start();
+        for (Thread t : running) t.join();
+        long wall = System.nanoTime() - start;
+        out.flush();
+
+        long frames = 0, processNanos = 0, decodeNanos = 0;
+        int done = 0, failed = 0;
+        for (Worker w : workers) {
+            if (w.decoder.error != null) throw new IllegalStateException("Processing failed", w.decoder.error);
+            frames += w.frames;
+            processNanos += w.processNanos;
+            decodeNanos += w.decoder.decodeNanos;
+            done += w.decoder.inputs;
+            failed += w.decoder.failed;
+        }
+        return String.format(Locale.US,
+                "%d inputs (%d failed), %d frames in %.2f s on %d workers: %.1f frames/s%n" +
+                "decode %.2f ms/frame, pipeline %.2f ms/frame, %.2f workers busy on average%n",
+                done, failed, frames, wall / 1e9, threads, frames * 1e9 / Math.max(1, wall),
+                frames > 0 ? decodeNanos / 1e6 / frames : 0, frames > 0 ? processNanos / 1e6 / frames : 0,
+                (double) processNanos / Math.max(1, wall));
+    }
+
+    private static CalibrationProfile readProfile(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return CalibrationProfile.readFrom(in);
+        }
+    }
+
+    private static boolean isImage(File file) {
+        String name = file.getName().toLowerCase(Locale.US);
+        for (String ext : IMAGE_EXTENSIONS) if (name.endsWith(ext)) return true;
+        return false;
+    }
+
+    private static VideoCapture openVideo(File file) throws IOException {
+        /**
+         * The Android bindings only open cameras; VideoCapture(String) exists in
+         * the desktop bindings this tool runs against, so it is looked up at run time
+         */
+        VideoCapture capture;
+        try {
+            capture = VideoCapture.class.getConstructor(String.class).newInstance(file.getPath());
+        } catch (NoSuchMethodException e) {
+            throw new IOException("These OpenCV bindings cannot open video files");
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("Cannot open " + file, e);
+        }
+        if (!capture.isOpened()) {
+            capture.release();
+            throw new IOException("Cannot open " + file);
+        }
+        return capture;
+    }
+
+    private static class Item {
+        final Mat rgba; // recycled between the decoder and its worker
+        String source;
+        int index; // 0 starts a new input
+
+        Item(Mat rgba) {
+            this.rgba = rgba;
+        }
+    }
+
+    private static final Item END = new Item(null); // created before the native library is loaded
+
+    private class Decoder implements Runnable {
+        final BlockingQueue<Item> free = new ArrayBlockingQueue<>(prefetch + 1);
+        // room for every item and END, so that END is never refused
+        final BlockingQueue<Item> ready = new ArrayBlockingQueue<>(prefetch + 2);
+        final Mat mBgr = new Mat();
+        long decodeNanos;
+        int inputs, failed;
+        volatile Throwable error; // first failure of the decoder or its worker
+
+        Decoder() {
+            // one more item than prefetch, held by the worker while it processes
+            for (int i = 0; i <= prefetch; i++) free.add(new Item(new Mat()));
+        }
+
+        @Override
+        public void run() {
+            try {
+                File input;
+                while ((input = BatchProcessor.this.inputs.poll()) != null) {
+                    inputs++;
+                    try {
+                        decode(input);
+                    } catch (IOException e) {
+                        failed++;
+                        System.err.println("skipping " + input + ": " + e.getMessage());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                if (error == null) error = e; // e.g. a CvException from cvtColor
+            } finally {
+                ready.offer(END);
+                mBgr.release();
+            }
+        }
+
+        private void decode(File input) throws IOException, InterruptedException {
+            String source = input.getPath();
+            if (input.isDirectory()) {
+                File[] files = input.listFiles();
+                if (files == null) throw new IOException("Cannot list " + input);
+                Arrays.sort(files);
+                int index = 0;
+                for (File f : files) {
+                    if (f.isFile() && isImage(f) && readImage(f, source, index)) index++;
+                }
+            } else if (isImage(input)) {
+                if (!readImage(input, source, 0)) throw new IOException("Cannot read image");
+            } else {
+                VideoCapture capture = openVideo(input);
+                try {
+                    for (int index = 0; ; index++) {
+                        Item item = free.take();
+                        long t0 = System.nanoTime();
+                        boolean read = capture.read(mBgr) && !mBgr.empty();
+                        if (read) Imgproc.cvtColor(mBgr, item.rgba, Imgproc.COLOR_BGR2RGBA);
+                        decodeNanos += System.nanoTime() - t0;
+                        if (!read) {
+                            free.put(item);
+                            break;
+                        }
+                        hand(item, source, index);
+                    }
+                } finally {
+                    capture.release();
+                }
+            }
+        }
+
+        private boolean readImage(File file, String source, int index) throws InterruptedException {
+            Item item = free.take();
+            long t0 = System.nanoTime();
+            Mat bgr = Highgui.imread(file.getPath(), Highgui.IMREAD_COLOR);
+            boolean read = !bgr.empty();
+            if (read) Imgproc.cvtColor(bgr, item.rgba, Imgproc.COLOR_BGR2RGBA);
+            bgr.release();
+            decodeNanos += System.nanoTime() - t0;
+            if (!read) {
+                free.put(item);
+                System.err.println("skipping unreadable " + file);
+                return false;
+            }
+            hand(item, source, index);
+            return true;
+        }
+
+        private void hand(Item item, String source, int index) throws InterruptedException {
+            item.source = source;
+            item.index = index;
+            ready.put(item);
+        }
+    }
+
+    private class Worker implements Runnable {
+        final Decoder decoder = new Decoder();
+        final Frame frame = new Frame();
+        final Hand hand = new Hand();
+        final HandResultPublisher results = new HandResultPublisher();
+        final StringBuilder row = new StringBuilder();
+        Thread decoderThread;
+        int width = -1, height = -1; // size the frame was started with
+        boolean calibrated;
+        long frames, processNanos;
+
+        @Override
+        public void run() {
+            frame.initFrame();
+            if (profile != null) frame.applyProfile(profile);
+            try {
+                Item item;
+                while ((item = decoder.ready.take()) != END) {
+                    try {
+                        process(item);
+                    } finally {
+                        decoder.free.put(item);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | RuntimeException e) {
+                if (decoder.error == null) decoder.error = e;
+                decoderThread.interrupt(); // it would block on the queue nobody drains any more
+            } finally {
+                if (width != -1) frame.releaseFrame();
+            }
+        }
+
+        private void process(Item item) throws IOException {
+            Mat rgba = item.rgba;
+            if (rgba.cols() != width || rgba.rows() != height) {
+                if (width != -1) frame.releaseFrame();
+                width = rgba.cols();
+                height = rgba.rows();
+                frame.startFrame(width, height);
+            }
+            if (item.index == 0) calibrated = profile != null;
+
+            long t0 = System.nanoTime();
+            frame.readInputFrame(rgba);
+            boolean found = false;
+            HandResult r = null;
+            if (!calibrated) {
+                calibrated = frame.autoCalibrate();
+            } else {
+                frame.produceBinaryImage();
+                frame.draw(hand);
+                found = hand.isHand(frame.getRGBAFrame());
+                results.publish(hand, found, t0);
+                r = results.getLatestHand();
+            }
+            long t = System.nanoTime() - t0;
+            processNanos += t;
+            frames++;
+
+            row.setLength(0);
+            row.append(item.source).append(',').append(item.index).append(',').append(calibrated ? 1 : 0)
+                    .append(',').append(found ? 1 : 0);
+            if (r != null) {
+                row.append(',').append(r.fingerCount).append(',').append(r.x).append(',').append(r.y)
+                        .append(',').append(r.width).append(',').append(r.height)
+                        .append(',').append(Math.round(r.centroidX)).append(',').append(Math.round(r.centroidY));
+            } else {
+                row.append(",,,,,,,");
+            }
+            row.append(',').append(String.format(Locale.US, "%.3f", t / 1e6)).append('\n');
+            synchronized (out) {
+                out.append(row);
+            }
+        }
+    }
+}
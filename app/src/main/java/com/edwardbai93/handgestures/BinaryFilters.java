@@ -0,0 +1,202 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Median and rectangular morphology filters for 0/255 masks whose cost per
+ * pixel does not depend on the kernel size.
+ * The median is a box count compared against half of the window, kept with
+ * running column and row sums. Dilation and erosion use separable
+ * van Herk/Gil-Werman passes, three max/min operations per pixel and pass.
+ * Results match Imgproc.medianBlur, dilate and erode with their default borders.
+ */
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+
+public class BinaryFilters {
+    private byte[] src = new byte[0]; // pixels of the input Mat
+    private byte[] dst = new byte[0]; // pixels of the output Mat
+    private byte[] mid = new byte[0]; // result of the first pass of close()
+    private int[] colSum = new int[0];
+    private byte[] line = new byte[0], prefix = new byte[0], suffix = new byte[0];
+    private byte[] rowPrefix = new byte[0], rowSuffix = new byte[0];
+
+    public void medianBlur(Mat in, Mat out, int ksize) {
+        /**
+         * Drop-in replacement of Imgproc.medianBlur for binary masks
+         */
+        load(in);
+        medianBlur(src, dst, in.cols(), in.rows(), ksize);
+        store(out, in.cols(), in.rows());
+    }
+
+    public void dilate(Mat in, Mat out, int kwidth, int kheight) {
+        /**
+         * Drop-in replacement of Imgproc.dilate with a MORPH_RECT kernel
+         */
+        load(in);
+        morph(src, dst, in.cols(), in.rows(), kwidth, kheight, true);
+        store(out, in.cols(), in.rows());
+    }
+
+    public void erode(Mat in, Mat out, int kwidth, int kheight) {
+        /**
+         * Drop-in replacement of Imgproc.erode with a MORPH_RECT kernel
+         */
+        load(in);
+        morph(src, dst, in.cols(), in.rows(), kwidth, kheight, false);
+        store(out, in.cols(), in.rows());
+    }
+
+    public void close(Mat in, Mat out, int kwidth, int kheight) {
+        /**
+         * Drop-in replacement of morphologyEx(MORPH_CLOSE) with a MORPH_RECT kernel
+         */
+        load(in);
+        close(src, dst, in.cols(), in.rows(), kwidth, kheight);
+        store(out, in.cols(), in.rows());
+    }
+
+    public void medianBlur(byte[] in, byte[] out, int w, int h, int ksize) {
+        /**
+         * Median of a w x h mask held row by row in in, rows outside the
+         * mask replicate the border like Imgproc.medianBlur
+         */
+        if (ksize < 3 || (ksize & 1) == 0)
+            throw new IllegalArgumentException("ksize must be odd and >= 3");
+        if (colSum.length < w) colSum = new int[w];
+        int r = ksize / 2;
+        int threshold = ksize * ksize / 2 + 1;
+
+        for (int x = 0; x < w; x++) colSum[x] = 0;
+        for (int dy = -r; dy <= r; dy++) {
+            int row = clamp(dy, h) * w;
+            for (int x = 0; x < w; x++) colSum[x] += in[row + x] != 0 ? 1 : 0;
+        }
+
+        for (int y = 0; y < h; y++) {
+            if (y > 0) {
+                int addRow = clamp(y + r, h) * w;
+                int subRow = clamp(y - r - 1, h) * w;
+                for (int x = 0; x < w; x++)
+                    colSum[x] += (in[addRow + x] != 0 ? 1 : 0) - (in[subRow + x] != 0 ? 1 : 0);
+            }
+            int sum = 0;
+            for (int dx = -r; dx <= r; dx++) sum += colSum[clamp(dx, w)];
+            int row = y * w;
+            for (int x = 0; x < w; x++) {
+                if (x > 0) sum += colSum[clamp(x + r, w)] - colSum[clamp(x - r - 1, w)];
+                out[row + x] = sum >= threshold ? (byte) 255 : 0;
+            }
+        }
+    }
+
+    public void close(byte[] in, byte[] out, int w, int h, int kwidth, int kheight) {
+        /**
+         * Dilation followed by erosion of a w x h mask
+         */
+        if (mid.length < w * h) mid = new byte[w * h];
+        morph(in, mid, w, h, kwidth, kheight, true);
+        morph(mid, out, w, h, kwidth, kheight, false);
+    }
+
+    public void morph(byte[] in, byte[] out, int w, int h, int kw, int kh, boolean dilate) {
+        /**
+         * Separable rectangular max (dilate) or min (erode) of a w x h mask.
+         * Outside the mask is 0 for dilation and 255 for erosion.
+         * in and out must not be the same array.
+         */
+        byte border = dilate ? 0 : (byte) 255;
+
+        // horizontal pass, row by row
+        for (int y = 0; y < h; y++)
+            vhgw(in, y * w, w, kw, border, dilate, out);
+
+        // vertical pass over whole rows, so the inner loops stay sequential
+        int ay = kh / 2;
+        int padded = (h + 2 * kh - 2) / kh * kh;
+        if (rowPrefix.length < padded * w) {
+            rowPrefix = new byte[padded * w];
+            rowSuffix = new byte[padded * w];
+        }
+        for (int j = 0; j < padded; j++) {
+            int y = j - ay;
+            int o = j * w;
+            boolean first = j % kh == 0;
+            for (int x = 0; x < w; x++) {
+                byte v = y >= 0 && y < h ? out[y * w + x] : border;
+                rowPrefix[o + x] = first ? v : combine(rowPrefix[o - w + x], v, dilate);
+            }
+        }
+        for (int j = padded - 1; j >= 0; j--) {
+            int y = j - ay;
+            int o = j * w;
+            boolean last = j % kh == kh - 1;
+            for (int x = 0; x < w; x++) {
+                byte v = y >= 0 && y < h ? out[y * w + x] : border;
+                rowSuffix[o + x] = last ? v : combine(rowSuffix[o + w + x], v, dilate);
+            }
+        }
+        for (int y = 0; y < h; y++) {
+            int s = y * w;
+            int p = (y + kh - 1) * w;
+            for (int x = 0; x < w; x++)
+                out[s + x] = combine(rowSuffix[s + x], rowPrefix[p + x], dilate);
+        }
+    }
+
+    private void vhgw(byte[] in, int offset, int n, int k, byte border, boolean max, byte[] out) {
+        /**
+         * van Herk/Gil-Werman running max/min of width k anchored at k / 2
+         * over the n samples of in starting at offset
+         */
+        int a = k / 2;
+        int padded = (n + 2 * k - 2) / k * k;
+        if (line.length < padded) {
+            line = new byte[padded];
+            prefix = new byte[padded];
+            suffix = new byte[padded];
+        }
+        for (int j = 0; j < padded; j++) {
+            int i = j - a;
+            line[j] = i >= 0 && i < n ? normalize(in[offset + i]) : border;
+        }
+        for (int j = 0; j < padded; j++)
+            prefix[j] = j % k == 0 ? line[j] : combine(prefix[j - 1], line[j], max);
+        for (int j = padded - 1; j >= 0; j--)
+            suffix[j] = j % k == k - 1 ? line[j] : combine(suffix[j + 1], line[j], max);
+        for (int i = 0; i < n; i++)
+            out[offset + i] = combine(suffix[i], prefix[i + k - 1], max);
+    }
+
+    private static byte normalize(byte v) {
+        // any non-zero pixel is treated as 255, so max and min reduce to OR and AND
+        return v != 0 ? (byte) 255 : 0;
+    }
+
+    private static byte combine(byte a, byte b, boolean max) {
+        return (byte) (max ? a | b : a & b);
+    }
+
+    private static int clamp(int i, int n) {
+        return i < 0 ? 0 : (i >= n ? n - 1 : i);
+    }
+
+    private void load(Mat in) {
+        /**
+         * Copies a continuous CV_8UC1 mask into src
+         */
+        if (in.type() != CvType.CV_8UC1 || !in.isContinuous())
+            throw new IllegalArgumentException("Mask must be a continuous CV_8UC1 Mat");
+        int total = in.cols() * in.rows();
+        if (src.length < total) {
+            src = new byte[total];
+            dst = new byte[total];
+        }
+        in.get(0, 0, src);
+    }
+
+    private void store(Mat out, int w, int h) {
+        out.create(h, w, CvType.CV_8UC1);
+        out.put(0, 0, dst);
+    }
+}
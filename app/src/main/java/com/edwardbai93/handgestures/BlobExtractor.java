@@ -0,0 +1,242 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Extracts the outer contour of the hand blob without tracing every speckle.
+ * A single raster pass labels 8-connected components with union-find and keeps
+ * area, boundary length and bounding box per component. The hand blob is picked
+ * with the rule of Hand.findBiggestContour() and only its boundary is traced.
+ */
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfPoint;
+import org.opencv.core.Rect;
+
+public class BlobExtractor {
+    // Neighbour offsets in the order used by findContours: E, NE, N, NW, W, SW, S, SE
+    private static final int[] DX = {1, 1, 0, -1, -1, -1, 0, 1};
+    private static final int[] DY = {0, -1, -1, -1, 0, 1, 1, 1};
+
+    private int width, height;
+    private byte[] pixels = new byte[0];
+    private int[] labels = new int[0];
+
+    // Per-label statistics, valid at the root of each union-find tree
+    private int labelNum;
+    private int[] parent = new int[0];
+    private int[] area = new int[0];
+    private int[] boundary = new int[0];
+    private int[] first = new int[0]; // first pixel in raster order, where tracing starts
+    private int[] minX = new int[0], minY = new int[0], maxX = new int[0], maxY = new int[0];
+
+    private int[] contour = new int[0];
+    private int blobLabel = -1;
+
+    public boolean extract(Mat mask, MatOfPoint out) {
+        /**
+         * Labels the mask and writes the outer contour of the hand blob to out.
+         * Returns false when the mask holds no blob.
+         */
+        if (mask.type() != CvType.CV_8UC1 || !mask.isContinuous())
+            throw new IllegalArgumentException("Mask must be a continuous CV_8UC1 Mat");
+        width = mask.cols();
+        height = mask.rows();
+        int total = width * height;
+        if (pixels.length < total) {
+            pixels = new byte[total];
+            labels = new int[total];
+        }
+        mask.get(0, 0, pixels);
+
+        label();
+        blobLabel = selectBlob();
+        if (blobLabel == -1) return false;
+
+        int n = trace(blobLabel);
+        out.alloc(n);
+        out.put(0, 0, contour); // only the first n points fit into the allocated Mat
+        return true;
+    }
+
+    public int getArea() {
+        return blobLabel == -1 ? 0 : area[blobLabel];
+    }
+
+    public Rect getBoundingRect() {
+        if (blobLabel == -1) return null;
+        return new Rect(minX[blobLabel], minY[blobLabel],
+                maxX[blobLabel] - minX[blobLabel] + 1, maxY[blobLabel] - minY[blobLabel] + 1);
+    }
+
+    private void label() {
+        /**
+         * One raster pass of union-find labelling with 8-connectivity,
+         * statistics are merged into the root on every union
+         */
+        labelNum = 0;
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                int i = row + x;
+                if (pixels[i] == 0) {
+                    labels[i] = -1;
+                    continue;
+                }
+                int l = -1;
+                if (x > 0) l = join(l, labels[i - 1]);
+                if (y > 0) {
+                    if (x > 0) l = join(l, labels[i - width - 1]);
+                    l = join(l, labels[i - width]);
+                    if (x < width - 1) l = join(l, labels[i - width + 1]);
+                }
+                if (l == -1) l = newLabel(i, x, y);
+
+                labels[i] = l;
+                area[l]++;
+                if (x < minX[l]) minX[l] = x;
+                if (x > maxX[l]) maxX[l] = x;
+                if (y > maxY[l]) maxY[l] = y;
+                if (isBoundary(i, x, y)) boundary[l]++;
+            }
+        }
+    }
+
+    private int selectBlob() {
+        /**
+         * Same rule as Hand.findBiggestContour(), with the pixel area standing for
+         * the contour area and the boundary pixel count for the contour length
+         */
+        int idx = -1;
+        int cNum = 0;
+        int maxArea = 0;
+        for (int l = 0; l < labelNum; l++) {
+            if (parent[l] != l) continue;
+            if (area[l] > maxArea || boundary[l] > cNum) {
+                idx = l;
+                maxArea = Math.max(maxArea, area[l]);
+                cNum = Math.max(cNum, boundary[l]);
+            }
+        }
+        return idx;
+    }
+
+    private int trace(int l) {
+        /**
+         * Moore-neighbour tracing of the outer boundary of blob l, starting from its
+         * first pixel in raster order and turning counterclockwise like findContours.
+         * Returns the number of points written to contour as x, y pairs.
+         */
+        int start = first[l];
+        int sx = start % width, sy = start / width;
+        int n = 0;
+        n = addPoint(n, sx, sy);
+
+        // the pixel left of the first one is background, so the search starts there
+        int back = 4;
+        int d = nextDirection(sx, sy, back, l);
+        if (d == -1) return n; // isolated pixel
+
+        int firstDir = d;
+        int x = sx, y = sy;
+        int maxSteps = 4 * area[l] + 4;
+        for (int step = 0; step < maxSteps; step++) {
+            x += DX[d];
+            y += DY[d];
+            // the direction checked just before d was background, look back towards it
+            back = (d + 5) & 7;
+            d = nextDirection(x, y, back, l);
+            if (x == sx && y == sy && d == firstDir) break;
+            n = addPoint(n, x, y);
+        }
+        return n;
+    }
+
+    private int nextDirection(int x, int y, int back, int l) {
+        /**
+         * Searches the neighbours counterclockwise after direction back and
+         * returns the direction of the first pixel of blob l, or -1
+         */
+        for (int k = 1; k <= 8; k++) {
+            int d = (back + k) & 7;
+            int nx = x + DX[d], ny = y + DY[d];
+            if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+            int nl = labels[ny * width + nx];
+            if (nl != -1 && find(nl) == l) return d;
+        }
+        return -1;
+    }
+
+    private int addPoint(int n, int x, int y) {
+        if (contour.length < 2 * n + 2) {
+            int[] grown = new int[Math.max(2 * n + 2, contour.length * 2)];
+            System.arraycopy(contour, 0, grown, 0, 2 * n);
+            contour = grown;
+        }
+        contour[2 * n] = x;
+        contour[2 * n + 1] = y;
+        return n + 1;
+    }
+
+    private boolean isBoundary(int i, int x, int y) {
+        return x == 0 || y == 0 || x == width - 1 || y == height - 1 ||
+                pixels[i - 1] == 0 || pixels[i + 1] == 0 ||
+                pixels[i - width] == 0 || pixels[i + width] == 0;
+    }
+
+    private int join(int l, int neighbour) {
+        /**
+         * Unions the current label with a neighbour label and returns the root
+         */
+        if (neighbour == -1) return l;
+        int r = find(neighbour);
+        if (l == -1 || l == r) return r;
+        // keep the older root so that first[] stays the first pixel in raster order
+        int keep = Math.min(l, r);
+        int drop = Math.max(l, r);
+        parent[drop] = keep;
+        area[keep] += area[drop];
+        boundary[keep] += boundary[drop];
+        first[keep] = Math.min(first[keep], first[drop]);
+        minX[keep] = Math.min(minX[keep], minX[drop]);
+        minY[keep] = Math.min(minY[keep], minY[drop]);
+        maxX[keep] = Math.max(maxX[keep], maxX[drop]);
+        maxY[keep] = Math.max(maxY[keep], maxY[drop]);
+        return keep;
+    }
+
+    private int find(int l) {
+        while (parent[l] != l) {
+            parent[l] = parent[parent[l]];
+            l = parent[l];
+        }
+        return l;
+    }
+
+    private int newLabel(int i, int x, int y) {
+        if (labelNum == parent.length) {
+            int size = Math.max(256, labelNum * 2);
+            parent = grow(parent, size);
+            area = grow(area, size);
+            boundary = grow(boundary, size);
+            first = grow(first, size);
+            minX = grow(minX, size);
+            minY = grow(minY, size);
+            maxX = grow(maxX, size);
+            maxY = grow(maxY, size);
+        }
+        int l = labelNum++;
+        parent[l] = l;
+        area[l] = 0;
+        boundary[l] = 0;
+        first[l] = i;
+        minX[l] = maxX[l] = x;
+        minY[l] = maxY[l] = y;
+        return l;
+    }
+
+    private static int[] grow(int[] a, int size) {
+        int[] b = new int[size];
+        System.arraycopy(a, 0, b, 0, a.length);
+        return b;
+    }
+}
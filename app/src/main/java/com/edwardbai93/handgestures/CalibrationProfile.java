@@ -0,0 +1,112 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Snapshot of the calibrated color model of a Frame, for one camera and resolution.
+ * Serialized as a small versioned binary record: magic, version, key,
+ * sample count, color space, then every color and radius value as a float.
+ * Version 1 records predate the color space and are read as Lab.
+ */
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public class CalibrationProfile {
+    private static final int MAGIC = 0x48475043; // "HGPC"
+    public static final int VERSION = 2;
+
+    public final int cameraId;
+    public final int width;
+    public final int height;
+    public final int sampleNum;
+    public final ColorSpace colorSpace;
+
+    public final double[][] handColor;
+    public final double[][] backColor;
+    public final double[][] handSampleRadius;
+    public final double[][] backSampleRadius;
+    public final double[] handLowerRadius = new double[3];
+    public final double[] handUpperRadius = new double[3];
+    public final double[] backLowerRadius = new double[3];
+    public final double[] backUpperRadius = new double[3];
+
+    public CalibrationProfile(int cameraId, int width, int height, int sampleNum, ColorSpace colorSpace) {
+        this.cameraId = cameraId;
+        this.width = width;
+        this.height = height;
+        this.sampleNum = sampleNum;
+        this.colorSpace = colorSpace;
+        handColor = new double[sampleNum][3];
+        backColor = new double[sampleNum][3];
+        handSampleRadius = new double[sampleNum][3];
+        backSampleRadius = new double[sampleNum][3];
+    }
+
+    public boolean matches(int cameraId, int width, int height) {
+        return this.cameraId == cameraId && this.width == width && this.height == height;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(cameraId);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(sampleNum);
+        out.writeInt(colorSpace.ordinal());
+        write(out, handLowerRadius);
+        write(out, handUpperRadius);
+        write(out, backLowerRadius);
+        write(out, backUpperRadius);
+        for (int i = 0; i < sampleNum; i++) {
+            write(out, handColor[i]);
+            write(out, backColor[i]);
+            write(out, handSampleRadius[i]);
+            write(out, backSampleRadius[i]);
+        }
+    }
+
+    public static CalibrationProfile readFrom(DataInputStream in) throws IOException {
+        /**
+         * Reads a profile written by writeTo(), throwing IOException when the
+         * record is not a profile or was written by a newer version
+         */
+        if (in.readInt() != MAGIC) throw new IOException("Not a calibration profile");
+        int version = in.readInt();
+        if (version < 1 || version > VERSION) throw new IOException("Unsupported profile version " + version);
+        int cameraId = in.readInt();
+        int width = in.readInt();
+        int height = in.readInt();
+        int sampleNum = in.readInt();
+        if (sampleNum < 1 || sampleNum > Frame.MAX_SAMPLE_NUM)
+            throw new IOException("Invalid sample count " + sampleNum);
+        ColorSpace colorSpace = ColorSpace.LAB;
+        if (version >= 2) {
+            int ordinal = in.readInt();
+            if (ordinal < 0 || ordinal >= ColorSpace.values().length)
+                throw new IOException("Unknown color space " + ordinal);
+            colorSpace = ColorSpace.fromOrdinal(ordinal);
+        }
+
+        CalibrationProfile p = new CalibrationProfile(cameraId, width, height, sampleNum, colorSpace);
+        read(in, p.handLowerRadius);
+        read(in, p.handUpperRadius);
+        read(in, p.backLowerRadius);
+        read(in, p.backUpperRadius);
+        for (int i = 0; i < sampleNum; i++) {
+            read(in, p.handColor[i]);
+            read(in, p.backColor[i]);
+            read(in, p.handSampleRadius[i]);
+            read(in, p.backSampleRadius[i]);
+        }
+        return p;
+    }
+
+    private static void write(DataOutputStream out, double[] values) throws IOException {
+        for (double v : values) out.writeFloat((float) v);
+    }
+
+    private static void read(DataInputStream in, double[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) values[i] = in.readFloat();
+    }
+}
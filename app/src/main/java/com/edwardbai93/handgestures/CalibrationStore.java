@@ -0,0 +1,116 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Stores one CalibrationProfile per camera and resolution in a directory.
+ * All file I/O runs on a single background thread, so the camera thread only
+ * hands over snapshots and polls the returned futures.
+ */
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class CalibrationStore {
+    private static final String TAG = "CalibrationStore";
+
+    private final File dir;
+    private final ExecutorService io = Executors.newSingleThreadExecutor();
+
+    public CalibrationStore(File dir) {
+        this.dir = dir;
+    }
+
+    public Future<CalibrationProfile> loadAsync(final int cameraId, final int width, final int height) {
+        /**
+         * Reads the profile for the camera and resolution in the background.
+         * The future yields null when there is no usable profile.
+         */
+        return io.submit(new Callable<CalibrationProfile>() {
+            @Override
+            public CalibrationProfile call() {
+                return load(cameraId, width, height);
+            }
+        });
+    }
+
+    public void saveAsync(final CalibrationProfile profile) {
+        io.execute(new Runnable() {
+            @Override
+            public void run() {
+                save(profile);
+            }
+        });
+    }
+
+    public CalibrationProfile load(int cameraId, int width, int height) {
+        File file = fileFor(cameraId, width, height);
+        if (!file.exists()) return null;
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            CalibrationProfile profile = CalibrationProfile.readFrom(in);
+            return profile.matches(cameraId, width, height) ? profile : null;
+        } catch (IOException e) {
+            Log.w(TAG, "Ignoring unreadable profile " + file.getName(), e);
+            return null;
+        } finally {
+            close(in);
+        }
+    }
+
+    public boolean save(CalibrationProfile profile) {
+        /**
+         * Writes the profile to a temporary file and renames it over the old one,
+         * so a crash never leaves a half-written profile behind
+         */
+        File file = fileFor(profile.cameraId, profile.width, profile.height);
+        File tmp = new File(dir, file.getName() + ".tmp");
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            profile.writeTo(out);
+            out.close();
+            out = null;
+            if (!tmp.renameTo(file)) throw new FileNotFoundException("Cannot rename " + tmp.getName());
+            return true;
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot save profile " + file.getName(), e);
+            tmp.delete();
+            return false;
+        } finally {
+            close(out);
+        }
+    }
+
+    public void shutdown() {
+        /**
+         * Lets pending saves finish, then stops the I/O thread
+         */
+        io.shutdown();
+    }
+
+    private File fileFor(int cameraId, int width, int height) {
+        return new File(dir, "calibration_" + cameraId + "_" + width + "x" + height + ".bin");
+    }
+
+    private static void close(Closeable c) {
+        if (c == null) return;
+        try {
+            c.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Converts RGBA frames into the thresholding color space of a Frame.
+ * LAB and YCRCB go through cvtColor. NORMALIZED_RG is computed here with integer
+ * arithmetic only: a 16.16 reciprocal table indexed by R + G + B replaces the
+ * two divisions per pixel of r = R / (R + G + B) and g = G / (R + G + B).
+ */
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.imgproc.Imgproc;
+
+public class ColorConverter {
+    private static final int SHIFT = 16;
+    private static final int HALF = 1 << (SHIFT - 1);
+    private static final int[] RECIPROCAL = new int[3 * 255 + 1]; // 255 / s in 16.16, per channel sum s
+    private static final int THIRD = ((1 << SHIFT) + 1) / 3; // 1 / 3 in 16.16
+
+    static {
+        RECIPROCAL[0] = 0;
+        for (int s = 1; s < RECIPROCAL.length; s++)
+            RECIPROCAL[s] = (int) Math.round(255.0 * (1 << SHIFT) / s);
+    }
+
+    private ColorSpace space = ColorSpace.LAB;
+    private byte[] in = new byte[0];
+    private byte[] out = new byte[0];
+
+    public void setColorSpace(ColorSpace space) {
+        this.space = space;
+    }
+
+    public ColorSpace getColorSpace() {
+        return space;
+    }
+
+    public void convert(Mat rgba, Mat dst) {
+        /**
+         * Writes the 3-channel conversion of an RGBA (or RGB) frame into dst
+         */
+        if (space.code >= 0) {
+            Imgproc.cvtColor(rgba, dst, space.code);
+            return;
+        }
+        int rows = rgba.rows(), cols = rgba.cols(), cn = rgba.channels();
+        int pixels = rows * cols;
+        if (in.length < pixels * cn) in = new byte[pixels * cn];
+        if (out.length < pixels * 3) out = new byte[pixels * 3];
+        rgba.get(0, 0, in);
+        normalizedRg(in, cn, out, pixels);
+        dst.create(rows, cols, CvType.CV_8UC3);
+        dst.put(0, 0, out);
+    }
+
+    static void normalizedRg(byte[] in, int cn, byte[] out, int pixels) {
+        /**
+         * Per pixel writes (R + G + B) / 3, 255 * R / (R + G + B) and
+         * 255 * G / (R + G + B), all rounded. Black maps to gray chroma.
+         */
+        for (int p = 0, i = 0, o = 0; p < pixels; p++, i += cn, o += 3) {
+            int r = in[i] & 0xFF, g = in[i + 1] & 0xFF, b = in[i + 2] & 0xFF;
+            int s = r + g + b;
+            out[o] = (byte) ((s * THIRD + HALF) >>> SHIFT);
+            if (s == 0) {
+                out[o + 1] = out[o + 2] = (byte) 85;
+            } else {
+                int k = RECIPROCAL[s];
+                out[o + 1] = (byte) ((r * k + HALF) >>> SHIFT);
+                out[o + 2] = (byte) ((g * k + HALF) >>> SHIFT);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Set of 3-channel color boxes used as inRange thresholds.
+ * Bounds are snapped to the integers inRange compares 8-bit pixels with, so
+ * boxes of near-identical sample colors become identical or nearly so.
+ * merge() replaces clusters of overlapping boxes by their bounding boxes, so
+ * segmentation runs at most one inRange per sample point and fewer when the
+ * sampled colors coincide. Boxes may still overlap afterwards, which is harmless
+ * since the per-range masks are ORed together.
+ */
+
+public class ColorRanges {
+    public static final double DEFAULT_MERGE_RATIO = 1.0; // only merges boxes without changing the mask
+
+    private double[][] lower = new double[0][];
+    private double[][] upper = new double[0][];
+    private int count = 0;
+
+    public void clear() {
+        count = 0;
+    }
+
+    public void add(double[] lo, double[] hi) {
+        if (count == lower.length) {
+            int size = Math.max(8, count * 2);
+            double[][] newLower = new double[size][];
+            double[][] newUpper = new double[size][];
+            for (int i = 0; i < size; i++) {
+                newLower[i] = i < count ? lower[i] : new double[3];
+                newUpper[i] = i < count ? upper[i] : new double[3];
+            }
+            lower = newLower;
+            upper = newUpper;
+        }
+        for (int j = 0; j < 3; j++) {
+            lower[count][j] = PixelKernels.bound(lo[j]);
+            upper[count][j] = PixelKernels.bound(hi[j]);
+        }
+        count++;
+    }
+
+    public void merge(double ratio) {
+        /**
+         * Repeatedly replaces two overlapping or adjoining boxes by their bounding
+         * box while the union of the two covers at least ratio of it, so that
+         * chains of merged boxes end up as the bounding box of their cluster.
+         * Never leaves more boxes than were added. A ratio of 1 only merges
+         * identical, contained or exactly adjoining boxes and leaves the
+         * thresholded mask unchanged; a ratio of 0 merges every cluster of
+         * overlapping boxes, leaving disjoint boxes.
+         */
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int a = 0; a < count && !merged; a++) {
+                for (int b = a + 1; b < count && !merged; b++) {
+                    double bboxVolume = 1, intersection = 1;
+                    boolean touching = true;
+                    for (int j = 0; j < 3; j++) {
+                        touching &= Math.max(lower[a][j], lower[b][j]) <= Math.min(upper[a][j], upper[b][j]) + 1;
+                        bboxVolume *= Math.max(upper[a][j], upper[b][j]) - Math.min(lower[a][j], lower[b][j]) + 1;
+                        intersection *= Math.max(0, Math.min(upper[a][j], upper[b][j]) - Math.max(lower[a][j], lower[b][j]) + 1);
+                    }
+                    double union = volume(a) + volume(b) - intersection;
+                    if (touching && union >= ratio * bboxVolume) {
+                        for (int j = 0; j < 3; j++) {
+                            lower[a][j] = Math.min(lower[a][j], lower[b][j]);
+                            upper[a][j] = Math.max(upper[a][j], upper[b][j]);
+                        }
+                        remove(b);
+                        merged = true;
+                    }
+                }
+            }
+        }
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public double[] lower(int i) {
+        return lower[i];
+    }
+
+    public double[] upper(int i) {
+        return upper[i];
+    }
+
+    private double volume(int i) {
+        // inRange bounds are inclusive, so a box spans width + 1 values per channel
+        return (upper[i][0] - lower[i][0] + 1) * (upper[i][1] - lower[i][1] + 1) * (upper[i][2] - lower[i][2] + 1);
+    }
+
+    private void remove(int i) {
+        double[] lo = lower[i], hi = upper[i];
+        for (int k = i; k < count - 1; k++) {
+            lower[k] = lower[k + 1];
+            upper[k] = upper[k + 1];
+        }
+        // keep the arrays of the removed box for reuse
+        lower[count - 1] = lo;
+        upper[count - 1] = hi;
+        count--;
+    }
+}
@@ -0,0 +1,141 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Region statistics for color sampling.
+ * prepare() copies a region of the color frame once, or reads it in place through
+ * a direct buffer when setDirect() is on, and builds per-channel integral images
+ * of the values and of their squares, after which the mean and variance of any
+ * box inside the region cost four lookups per channel.
+ */
+
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+
+import java.nio.ByteBuffer;
+
+public class ColorSampler {
+    private static final double STD_FACTOR = 2.5; // radius in standard deviations of the sample box
+
+    private int regionX, regionY, regionW, regionH, channels;
+    private byte[] pixels = new byte[0];
+    private int[] sum = new int[0]; // (regionW + 1) x (regionH + 1) x channels
+    private long[] sqSum = new long[0];
+    private boolean direct = false; // read the frame through Mat.dataBuffer() instead of copying the region
+
+    public void setDirect(boolean direct) {
+        this.direct = direct;
+    }
+
+    public void prepare(Mat img, Point[][] boxes, int num) {
+        /**
+         * Builds the integral images over the bounding region of the first num
+         * boxes, each given as top-left and bottom-right (exclusive) points
+         */
+        int x0 = Integer.MAX_VALUE, y0 = Integer.MAX_VALUE, x1 = 0, y1 = 0;
+        for (int i = 0; i < num; i++) {
+            x0 = Math.min(x0, (int) boxes[i][0].x);
+            y0 = Math.min(y0, (int) boxes[i][0].y);
+            x1 = Math.max(x1, (int) boxes[i][1].x);
+            y1 = Math.max(y1, (int) boxes[i][1].y);
+        }
+        prepare(img, x0, y0, x1, y1);
+    }
+
+    public void prepare(Mat img, int x0, int y0, int x1, int y1) {
+        /**
+         * Builds the integral images over columns x0..x1-1 and rows y0..y1-1
+         */
+        regionX = Math.max(0, x0);
+        regionY = Math.max(0, y0);
+        regionW = Math.max(0, Math.min(img.cols(), x1) - regionX);
+        regionH = Math.max(0, Math.min(img.rows(), y1) - regionY);
+        channels = img.channels();
+        if (regionW == 0 || regionH == 0) return;
+
+        // pixel (x, y) of the region starts at base + y * rowStride + x * channels
+        ByteBuffer data = null;
+        int base = 0, rowStride = regionW * channels;
+        if (direct) {
+            data = img.dataBuffer(); // no copy at all
+            base = regionY * img.dataStride() + regionX * channels;
+            rowStride = img.dataStride();
+        } else {
+            int total = regionW * regionH * channels;
+            if (pixels.length < total) pixels = new byte[total];
+            Mat region = img.submat(regionY, regionY + regionH, regionX, regionX + regionW);
+            region.get(0, 0, pixels); // one bulk copy instead of a JNI call per pixel
+            region.release();
+        }
+
+        int stride = (regionW + 1) * channels;
+        int size = stride * (regionH + 1);
+        if (sum.length < size) {
+            sum = new int[size];
+            sqSum = new long[size];
+        }
+        for (int i = 0; i < stride; i++) {
+            sum[i] = 0;
+            sqSum[i] = 0;
+        }
+        for (int y = 0; y < regionH; y++) {
+            int row = (y + 1) * stride;
+            for (int c = 0; c < channels; c++) {
+                sum[row + c] = 0;
+                sqSum[row + c] = 0;
+            }
+            for (int c = 0; c < channels; c++) {
+                int rowSum = 0;
+                long rowSqSum = 0;
+                for (int x = 0; x < regionW; x++) {
+                    int p = base + y * rowStride + x * channels + c;
+                    int v = (data != null ? data.get(p) : pixels[p]) & 0xff;
+                    rowSum += v;
+                    rowSqSum += v * v;
+                    int i = row + (x + 1) * channels + c;
+                    sum[i] = sum[i - stride] + rowSum;
+                    sqSum[i] = sqSum[i - stride] + rowSqSum;
+                }
+            }
+        }
+    }
+
+    public void sample(Point tl, Point br, double[] mean, double[] variance) {
+        /**
+         * Writes the per-channel mean and variance of the box from tl to br (exclusive),
+         * clipped to the prepared region. variance may be null.
+         */
+        int x0 = clamp((int) tl.x - regionX, regionW);
+        int y0 = clamp((int) tl.y - regionY, regionH);
+        int x1 = clamp((int) br.x - regionX, regionW);
+        int y1 = clamp((int) br.y - regionY, regionH);
+        int n = (x1 - x0) * (y1 - y0);
+        int stride = (regionW + 1) * channels;
+        for (int c = 0; c < mean.length && c < channels; c++) {
+            if (n == 0) {
+                mean[c] = 0;
+                if (variance != null) variance[c] = 0;
+                continue;
+            }
+            int a = y0 * stride + x0 * channels + c;
+            int b = y0 * stride + x1 * channels + c;
+            int d = y1 * stride + x0 * channels + c;
+            int e = y1 * stride + x1 * channels + c;
+            double m = (double) (sum[e] - sum[b] - sum[d] + sum[a]) / n;
+            mean[c] = m;
+            if (variance != null)
+                variance[c] = Math.max(0, (double) (sqSum[e] - sqSum[b] - sqSum[d] + sqSum[a]) / n - m * m);
+        }
+    }
+
+    public static double adaptiveRadius(double variance, double minRadius, double maxRadius) {
+        /**
+         * Threshold radius covering STD_FACTOR standard deviations of a sample,
+         * kept between minRadius and maxRadius
+         */
+        return Math.min(maxRadius, Math.max(minRadius, STD_FACTOR * Math.sqrt(variance)));
+    }
+
+    private static int clamp(int v, int max) {
+        return v < 0 ? 0 : (v > max ? max : v);
+    }
+}
@@ -0,0 +1,35 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Color spaces the frame can be thresholded in, cheapest conversion last.
+ * Every space puts a brightness channel first and two chroma channels after it,
+ * so the loose first radius and the tight chroma radii keep their meaning.
+ */
+
+import org.opencv.imgproc.Imgproc;
+
+public enum ColorSpace {
+    // CIE Lab, gamma and cube roots per pixel
+    LAB(Imgproc.COLOR_RGB2Lab, new double[]{40, 40, 10, 10, 10, 10}, new double[]{50, 50, 3, 3, 3, 3}),
+    // YCrCb, an integer matrix multiply in OpenCV's 8-bit path
+    YCRCB(Imgproc.COLOR_RGB2YCrCb, new double[]{40, 40, 8, 8, 8, 8}, new double[]{50, 50, 3, 3, 3, 3}),
+    // intensity and normalized r, g from ColorConverter's fixed-point table
+    NORMALIZED_RG(-1, new double[]{60, 60, 6, 6, 6, 6}, new double[]{60, 60, 3, 3, 3, 3});
+
+    public final int code; // cvtColor code, -1 when ColorConverter converts itself
+    final double[] handRadii; // lower and upper radius of each channel, in initCLowerUpper() order
+    final double[] backRadii;
+
+    ColorSpace(int code, double[] handRadii, double[] backRadii) {
+        this.code = code;
+        this.handRadii = handRadii;
+        this.backRadii = backRadii;
+    }
+
+    public static ColorSpace fromOrdinal(int ordinal) {
+        ColorSpace[] values = values();
+        if (ordinal < 0 || ordinal >= values.length)
+            throw new IllegalArgumentException("Unknown color space " + ordinal);
+        return values[ordinal];
+    }
+}
@@ -0,0 +1,128 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Picks the cheapest color space whose masks agree well enough with Lab.
+ * Every space segments the same golden frames: each frame is auto-calibrated,
+ * then conversion and segmentation are timed, and the mask is compared with the
+ * Lab mask of that frame by intersection over union.
+ */
+
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ColorSpaceSelector {
+    private static final int RUNS = 3; // timed segmentations per frame, the fastest counts
+
+    private final double minAgreement;
+    private final double[] agreement = new double[ColorSpace.values().length];
+    private final double[] millis = new double[ColorSpace.values().length];
+
+    public ColorSpaceSelector(double minAgreement) {
+        /**
+         * minAgreement is the mean IoU (0 ~ 1) against Lab a space must reach
+         */
+        if (minAgreement < 0 || minAgreement > 1)
+            throw new IllegalArgumentException("minAgreement must be between 0 and 1");
+        this.minAgreement = minAgreement;
+    }
+
+    public ColorSpace select(List<Mat> frames) {
+        /**
+         * Benchmarks every color space on the RGBA frames and returns the fastest
+         * one meeting the agreement threshold, Lab when none does
+         */
+        if (frames.isEmpty()) throw new IllegalArgumentException("No golden frames");
+        List<Mat> reference = new ArrayList<>();
+        try {
+            measure(ColorSpace.LAB, frames, null, reference);
+            ColorSpace best = ColorSpace.LAB;
+            for (ColorSpace space : ColorSpace.values()) {
+                if (space == ColorSpace.LAB) continue;
+                measure(space, frames, reference, null);
+                // NaN when Lab calibrated on none of the frames, so nothing vouches for the space
+                if (Double.isNaN(agreement[space.ordinal()])) continue;
+                if (agreement[space.ordinal()] >= minAgreement && millis[space.ordinal()] < millis[best.ordinal()])
+                    best = space;
+            }
+            return best;
+        } finally {
+            for (Mat m : reference) if (m != null) m.release();
+        }
+    }
+
+    public double getAgreement(ColorSpace space) {
+        /**
+         * Mean IoU against Lab of the last select(), NaN when no Lab mask was
+         * there to compare with
+         */
+        return agreement[space.ordinal()];
+    }
+
+    public double getMillis(ColorSpace space) {
+        /**
+         * Mean conversion and segmentation time per frame of the last select()
+         */
+        return millis[space.ordinal()];
+    }
+
+    private void measure(ColorSpace space, List<Mat> frames, List<Mat> reference, List<Mat> masksOut) {
+        /**
+         * Segments every frame in the given space. Fills masksOut with the masks
+         * (null where calibration failed) or scores them against reference.
+         */
+        Frame frame = new Frame();
+        frame.initFrame();
+        frame.setColorSpace(space);
+        Mat tmp = new Mat();
+        double totalMillis = 0, totalAgreement = 0;
+        int compared = 0;
+
+        for (int f = 0; f < frames.size(); f++) {
+            Mat rgba = frames.get(f);
+            if (f == 0 || !sameSize(rgba, frames.get(f - 1))) {
+                if (f > 0) frame.releaseFrame();
+                frame.startFrame(rgba.cols(), rgba.rows());
+            }
+            frame.readInputFrame(rgba);
+            boolean calibrated = frame.autoCalibrate();
+
+            long best = Long.MAX_VALUE;
+            for (int run = 0; run < RUNS; run++) {
+                long t0 = System.nanoTime();
+                frame.readInputFrame(rgba);
+                frame.produceBinaryImage();
+                best = Math.min(best, System.nanoTime() - t0);
+            }
+            totalMillis += best / 1e6;
+
+            Mat mask = frame.getMaskFrame();
+            if (masksOut != null) {
+                masksOut.add(calibrated ? mask.clone() : null);
+            } else if (reference.get(f) != null) {
+                compared++;
+                if (calibrated) totalAgreement += iou(reference.get(f), mask, tmp);
+            }
+        }
+        frame.releaseFrame();
+        tmp.release();
+
+        millis[space.ordinal()] = totalMillis / frames.size();
+        if (masksOut != null) agreement[space.ordinal()] = 1;
+        else agreement[space.ordinal()] = compared == 0 ? Double.NaN : totalAgreement / compared;
+    }
+
+    private static double iou(Mat a, Mat b, Mat tmp) {
+        Core.bitwise_and(a, b, tmp);
+        int intersection = Core.countNonZero(tmp);
+        Core.bitwise_or(a, b, tmp);
+        int union = Core.countNonZero(tmp);
+        return union == 0 ? 1 : (double) intersection / union;
+    }
+
+    private static boolean sameSize(Mat a, Mat b) {
+        return a.rows() == b.rows() && a.cols() == b.cols();
+    }
+}
@@ -0,0 +1,273 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Matches the latest hand trajectory against motion templates (swipes, circles,
+ * push and pull) with dynamic time warping.
+ * The last 16 to 48 recorded frames, in steps of 8, are each compared, so both
+ * quick and slow motions match. Trajectories are resampled to LENGTH points of
+ * (x, y, size), centered on their mean and divided by the mean hand size, so
+ * matching does not depend on where in the frame or how far from the camera
+ * the motion happens.
+ * Templates live in flat arrays together with their LB_Keogh envelopes; a template
+ * is only aligned with DTW when its lower bound beats the best distance so far,
+ * and the alignment is abandoned as soon as a whole row exceeds it.
+ * A template only matches within a share of its own squared excursion, and only
+ * motions with at least a share of that excursion are compared with it, so that
+ * templates with little motion, like push and pull, are not matched by the
+ * jitter of a hand held still.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class DtwMatcher {
+    public static final int LENGTH = 32; // points per trajectory
+    private static final int DIMS = 3; // x, y, size
+    private static final int BAND = 4; // Sakoe-Chiba band, in points
+    public static final double DEFAULT_THRESHOLD = 0.05; // mean squared distance per point, in hand sizes
+    private static final double MIN_ENERGY = 0.005; // mean squared excursion below which the hand counts as still
+    static final double RELATIVE_THRESHOLD = 0.5; // max distance as a share of the template's own excursion
+    static final double MIN_SHARE = 0.5; // min excursion of the motion as a share of the template's
+    public static final int[] WINDOWS = {16, 24, 32, 40, 48}; // frames of recorded motion compared, fast to slow gestures
+
+    private final List<String> names = new ArrayList<>();
+    private double[] series = new double[0]; // template t, point i, dim d at (t * LENGTH + i) * DIMS + d
+    private double[] upper = new double[0]; // LB_Keogh envelope, same layout
+    private double[] lower = new double[0];
+    private double[] energies = new double[0]; // squared excursion of every template, summed over its points
+    private double threshold = DEFAULT_THRESHOLD;
+
+    private final double[] query = new double[LENGTH * DIMS];
+    private final double[] windowX = new double[WINDOWS[WINDOWS.length - 1]];
+    private final double[] windowY = new double[windowX.length];
+    private final double[] windowSize = new double[windowX.length];
+    private double[] prev = new double[LENGTH], curr = new double[LENGTH];
+    private double lastDistance = Double.MAX_VALUE;
+    private int pruned = 0;
+
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public int getTemplateNum() {
+        return names.size();
+    }
+
+    public String getName(int template) {
+        return names.get(template);
+    }
+
+    public double getLastDistance() {
+        /**
+         * Mean distance per point of the best template of the last match()
+         */
+        return lastDistance == Double.MAX_VALUE ? Double.MAX_VALUE : lastDistance / LENGTH;
+    }
+
+    public int getLastPruned() {
+        /**
+         * Template comparisons skipped by the lower bound or abandoned
+         * in the last match(), over all windows
+         */
+        return pruned;
+    }
+
+    public int addTemplate(String name, double[] xs, double[] ys, double[] sizes, int n) {
+        /**
+         * Adds a template of n samples and returns its index
+         */
+        if (n < 2) throw new IllegalArgumentException("A template needs at least 2 samples");
+        int t = names.size();
+        int len = (t + 1) * LENGTH * DIMS;
+        if (series.length < len) {
+            int grown = Math.max(len, series.length * 2);
+            series = Arrays.copyOf(series, grown);
+            upper = Arrays.copyOf(upper, grown);
+            lower = Arrays.copyOf(lower, grown);
+            energies = Arrays.copyOf(energies, grown / (LENGTH * DIMS));
+        }
+        resample(xs, ys, sizes, n, series, t * LENGTH * DIMS);
+        normalize(series, t * LENGTH * DIMS);
+        envelope(t);
+        double energy = 0;
+        for (int k = t * LENGTH * DIMS; k < len; k++) energy += series[k] * series[k];
+        energies[t] = energy;
+        names.add(name);
+        return t;
+    }
+
+    public void addDefaultTemplates() {
+        /**
+         * Swipes in four directions, circles in both directions, push and pull.
+         * Motions span about three hand sizes, the size changes by half.
+         */
+        double[] x = new double[LENGTH], y = new double[LENGTH], s = new double[LENGTH];
+        String[] swipes = {"swipe right", "swipe left", "swipe down", "swipe up"};
+        double[][] dirs = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        for (int k = 0; k < swipes.length; k++) {
+            for (int i = 0; i < LENGTH; i++) {
+                double f = (double) i / (LENGTH - 1);
+                x[i] = 3 * f * dirs[k][0];
+                y[i] = 3 * f * dirs[k][1];
+                s[i] = 1;
+            }
+            addTemplate(swipes[k], x, y, s, LENGTH);
+        }
+        for (int dir = 1; dir >= -1; dir -= 2) {
+            for (int i = 0; i < LENGTH; i++) {
+                double a = 2 * Math.PI * i / (LENGTH - 1);
+                x[i] = 1.5 * Math.cos(a);
+                y[i] = 1.5 * dir * Math.sin(a); // y points down, so dir 1 is clockwise on screen
+                s[i] = 1;
+            }
+            addTemplate(dir == 1 ? "circle clockwise" : "circle counterclockwise", x, y, s, LENGTH);
+        }
+        for (int dir = 1; dir >= -1; dir -= 2) {
+            for (int i = 0; i < LENGTH; i++) {
+                double f = (double) i / (LENGTH - 1);
+                x[i] = 0;
+                y[i] = 0;
+                s[i] = 1 + 0.5 * (dir == 1 ? f : 1 - f);
+            }
+            addTemplate(dir == 1 ? "push" : "pull", x, y, s, LENGTH);
+        }
+    }
+
+    public int match(TrajectoryRecorder recorder) {
+        /**
+         * Compares the recent motion with every template and returns the index
+         * of the closest one under the threshold and under RELATIVE_THRESHOLD of
+         * its own excursion, -1 if none. Windows longer
+         * than the recorded motion are skipped.
+         */
+        int n = recorder.size();
+        lastDistance = Double.MAX_VALUE;
+        pruned = 0;
+        double best = threshold * LENGTH;
+        int bestTemplate = -1;
+        for (int w : WINDOWS) {
+            if (w > n) break;
+            for (int i = 0; i < w; i++) {
+                windowX[i] = recorder.getX(n - w + i);
+                windowY[i] = recorder.getY(n - w + i);
+                windowSize[i] = recorder.getSize(n - w + i);
+            }
+            resample(windowX, windowY, windowSize, w, query, 0);
+            normalize(query, 0);
+            double energy = 0;
+            for (double v : query) energy += v * v;
+            if (energy < MIN_ENERGY * LENGTH) continue;
+
+            for (int t = 0; t < names.size(); t++) {
+                double limit = Math.min(best, RELATIVE_THRESHOLD * energies[t]);
+                if (energy < MIN_SHARE * energies[t] || lbKeogh(t, limit) >= limit) {
+                    pruned++;
+                    continue;
+                }
+                double d = dtw(t, limit);
+                if (d < limit) {
+                    best = d;
+                    bestTemplate = t;
+                } else {
+                    pruned++;
+                }
+            }
+        }
+        if (bestTemplate >= 0) lastDistance = best;
+        return bestTemplate;
+    }
+
+    private double lbKeogh(int t, double best) {
+        /**
+         * Sum of the squared distances of the query to the template envelope,
+         * a lower bound of the banded DTW distance
+         */
+        int base = t * LENGTH * DIMS;
+        double sum = 0;
+        for (int k = 0; k < LENGTH * DIMS && sum < best; k++) {
+            double q = query[k];
+            if (q > upper[base + k]) sum += (q - upper[base + k]) * (q - upper[base + k]);
+            else if (q < lower[base + k]) sum += (q - lower[base + k]) * (q - lower[base + k]);
+        }
+        return sum;
+    }
+
+    private double dtw(int t, double best) {
+        /**
+         * Banded DTW with squared Euclidean point costs, returning
+         * Double.MAX_VALUE once every cell of a row reaches best
+         */
+        int base = t * LENGTH * DIMS;
+        for (int j = 0; j < LENGTH; j++) prev[j] = Double.MAX_VALUE;
+        for (int i = 0; i < LENGTH; i++) {
+            double rowMin = Double.MAX_VALUE;
+            int from = Math.max(0, i - BAND), to = Math.min(LENGTH - 1, i + BAND);
+            for (int j = 0; j < LENGTH; j++) curr[j] = Double.MAX_VALUE;
+            for (int j = from; j <= to; j++) {
+                double cost = 0;
+                for (int d = 0; d < DIMS; d++) {
+                    double diff = query[i * DIMS + d] - series[base + j * DIMS + d];
+                    cost += diff * diff;
+                }
+                double m;
+                if (i == 0 && j == 0) m = 0;
+                else {
+                    m = Double.MAX_VALUE;
+                    if (i > 0) m = Math.min(m, prev[j]);
+                    if (j > 0) m = Math.min(m, curr[j - 1]);
+                    if (i > 0 && j > 0) m = Math.min(m, prev[j - 1]);
+                }
+                curr[j] = m == Double.MAX_VALUE ? Double.MAX_VALUE : m + cost;
+                rowMin = Math.min(rowMin, curr[j]);
+            }
+            if (rowMin >= best) return Double.MAX_VALUE;
+            double[] swap = prev;
+            prev = curr;
+            curr = swap;
+        }
+        return prev[LENGTH - 1];
+    }
+
+    private static void resample(double[] xs, double[] ys, double[] sizes, int n, double[] out, int offset) {
+        /**
+         * Linearly interpolates n samples onto LENGTH evenly spaced points
+         */
+        for (int i = 0; i < LENGTH; i++) {
+            double pos = (double) i * (n - 1) / (LENGTH - 1);
+            int k = (int) pos, k1 = Math.min(k + 1, n - 1);
+            double f = pos - k;
+            out[offset + i * DIMS] = xs[k] + (xs[k1] - xs[k]) * f;
+            out[offset + i * DIMS + 1] = ys[k] + (ys[k1] - ys[k]) * f;
+            out[offset + i * DIMS + 2] = sizes[k] + (sizes[k1] - sizes[k]) * f;
+        }
+    }
+
+    private static void normalize(double[] v, int offset) {
+        /**
+         * Subtracts the mean of every dimension and divides by the mean size
+         */
+        double[] mean = new double[DIMS];
+        for (int i = 0; i < LENGTH; i++)
+            for (int d = 0; d < DIMS; d++) mean[d] += v[offset + i * DIMS + d] / LENGTH;
+        double scale = mean[2] > 0 ? mean[2] : 1;
+        for (int i = 0; i < LENGTH; i++)
+            for (int d = 0; d < DIMS; d++) v[offset + i * DIMS + d] = (v[offset + i * DIMS + d] - mean[d]) / scale;
+    }
+
+    private void envelope(int t) {
+        int base = t * LENGTH * DIMS;
+        for (int i = 0; i < LENGTH; i++) {
+            for (int d = 0; d < DIMS; d++) {
+                double hi = -Double.MAX_VALUE, lo = Double.MAX_VALUE;
+                for (int j = Math.max(0, i - BAND); j <= Math.min(LENGTH - 1, i + BAND); j++) {
+                    double v = series[base + j * DIMS + d];
+                    hi = Math.max(hi, v);
+                    lo = Math.min(lo, v);
+                }
+                upper[base + i * DIMS + d] = hi;
+                lower[base + i * DIMS + d] = lo;
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Append-only columnar log of per-frame recognition data for offline analysis.
+ * Records are staged in off-heap blocks of BLOCK_RECORDS records, each column in
+ * its own region, so append() on the camera thread is a few absolute puts and
+ * never blocks or allocates. Two staging blocks alternate: a full block goes to
+ * the writer thread, which deflates every column separately and writes the whole
+ * block in one sequential write, while the camera thread fills the other one.
+ * When both blocks are taken, records are dropped and counted instead of waiting.
+ *
+ * File layout, little-endian: MAGIC, VERSION, COLUMNS, BLOCK_RECORDS, then blocks of
+ * BLOCK_MAGIC, record count and per column its raw length, compressed length and
+ * deflated bytes. Timestamps are stored as deltas to the previous record.
+ * FeatureLogReader maps the file and decodes single columns.
+ */
+
+import org.opencv.core.Rect;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+public class FeatureLog {
+    public static final int MAGIC = 0x4c464748; // "HGFL" read little-endian
+    public static final int BLOCK_MAGIC = 0x4b4c4248; // "HBLK"
+    public static final int VERSION = 1;
+    public static final int BLOCK_RECORDS = 1024;
+    public static final int MAX_HULL = 32; // hull points kept per record
+
+    // columns and their bytes per record
+    public static final int COL_TIMESTAMP = 0; // long, System.nanoTime() of the frame
+    public static final int COL_MILLIS = 1; // float, processing time
+    public static final int COL_FINGERS = 2; // byte, -1 when unknown
+    public static final int COL_DEFECTS = 3; // byte
+    public static final int COL_RECT = 4; // 4 shorts x, y, width, height, all 0 without a hand
+    public static final int COL_HULL_COUNT = 5; // short, hull points of the record in COL_HULL
+    public static final int COL_HULL = 6; // variable, short x and y per hull point
+    public static final int COL_COLOR_SPACE = 7; // byte, ColorSpace ordinal
+    public static final int COL_CALIBRATION = 8; // 12 floats, see Frame.logFeatures()
+    public static final int COLUMNS = 9;
+    public static final int CALIBRATION_VALUES = 12;
+    static final int[] WIDTH = {8, 4, 1, 1, 8, 2, 4, 1, 4 * CALIBRATION_VALUES};
+
+    private final FileChannel channel;
+    private final BlockingQueue<Block> empty = new ArrayBlockingQueue<>(2);
+    private final BlockingQueue<Block> full = new ArrayBlockingQueue<>(3);
+    private final Thread writer;
+    private final int[] offset = new int[COLUMNS]; // start of each column in a staging block
+    private Block current; // being filled by the camera thread, null while both are taken
+    private volatile long dropped = 0;
+    private volatile IOException error;
+
+    // writer thread state
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private byte[] raw = new byte[0];
+    private byte[] compressed = new byte[0];
+    private ByteBuffer out = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+    private static final Block CLOSE = new Block(null);
+
+    public FeatureLog(File file) throws IOException {
+        int size = 0;
+        for (int c = 0; c < COLUMNS; c++) {
+            offset[c] = size;
+            size += capacity(c);
+        }
+        for (int i = 0; i < 2; i++)
+            empty.add(new Block(ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN)));
+
+        channel = new FileOutputStream(file).getChannel();
+        ByteBuffer header = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(COLUMNS).putInt(BLOCK_RECORDS).flip();
+        write(header);
+
+        writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        }, "FeatureLog");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private static int capacity(int column) {
+        return column == COL_HULL ? BLOCK_RECORDS * MAX_HULL * WIDTH[COL_HULL] : BLOCK_RECORDS * WIDTH[column];
+    }
+
+    public long getDropped() {
+        /**
+         * Records dropped because the writer was still busy with both blocks
+         */
+        return dropped;
+    }
+
+    public boolean append(long timestamp, float millis, int fingers, int defects, Rect rect,
+                          int[] hullXY, int hullCount, int colorSpace, float[] calibration) {
+        /**
+         * Stages one record, returning false when it had to be dropped.
+         * rect may be null, hullXY holds hullCount x, y pairs of which at most
+         * MAX_HULL are kept. Only called from one thread.
+         */
+        if (current == null) {
+            current = empty.poll();
+            if (current == null) {
+                dropped++;
+                return false;
+            }
+        }
+        ByteBuffer b = current.data;
+        int i = current.records;
+        b.putLong(offset[COL_TIMESTAMP] + 8 * i, timestamp);
+        b.putFloat(offset[COL_MILLIS] + 4 * i, millis);
+        b.put(offset[COL_FINGERS] + i, (byte) fingers);
+        b.put(offset[COL_DEFECTS] + i, (byte) Math.min(defects, 127));
+        int r = offset[COL_RECT] + 8 * i;
+        b.putShort(r, (short) (rect != null ? rect.x : 0));
+        b.putShort(r + 2, (short) (rect != null ? rect.y : 0));
+        b.putShort(r + 4, (short) (rect != null ? rect.width : 0));
+        b.putShort(r + 6, (short) (rect != null ? rect.height : 0));
+        int n = Math.min(hullCount, MAX_HULL);
+        b.putShort(offset[COL_HULL_COUNT] + 2 * i, (short) n);
+        int h = offset[COL_HULL] + 4 * current.hullPoints;
+        for (int j = 0; j < n; j++, h += 4) {
+            b.putShort(h, (short) hullXY[2 * j]);
+            b.putShort(h + 2, (short) hullXY[2 * j + 1]);
+        }
+        current.hullPoints += n;
+        b.put(offset[COL_COLOR_SPACE] + i, (byte) colorSpace);
+        int c = offset[COL_CALIBRATION] + 4 * CALIBRATION_VALUES * i;
+        for (int j = 0; j < CALIBRATION_VALUES; j++) b.putFloat(c + 4 * j, calibration[j]);
+
+        if (++current.records == BLOCK_RECORDS) {
+            full.add(current);
+            current = null;
+        }
+        return true;
+    }
+
+    public void flush() {
+        /**
+         * Hands the partly filled block to the writer, e.g. when tracking pauses
+         */
+        if (current != null && current.records > 0) {
+            full.add(current);
+            current = null;
+        }
+    }
+
+    public void close() throws IOException {
+        /**
+         * Writes the staged records and closes the file
+         */
+        flush();
+        full.add(CLOSE);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the log");
+        } finally {
+            deflater.end();
+            channel.close();
+        }
+        if (error != null) throw error;
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                Block b = full.take();
+                if (b == CLOSE) return;
+                if (error == null) {
+                    try {
+                        writeBlock(b);
+                    } catch (IOException e) {
+                        error = e; // reported by close(), records keep being dropped silently
+                    }
+                }
+                b.records = 0;
+                b.hullPoints = 0;
+                empty.add(b);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeBlock(Block b) throws IOException {
+        out.clear();
+        out.putInt(BLOCK_MAGIC).putInt(b.records);
+        for (int c = 0; c < COLUMNS; c++) {
+            int length = c == COL_HULL ? WIDTH[COL_HULL] * b.hullPoints : WIDTH[c] * b.records;
+            if (raw.length < length) raw = new byte[length];
+            ByteBuffer column = b.data.duplicate();
+            column.limit(offset[c] + length).position(offset[c]);
+            column.get(raw, 0, length);
+            if (c == COL_TIMESTAMP) toDeltas(raw, b.records);
+
+            deflater.reset();
+            deflater.setInput(raw, 0, length);
+            deflater.finish();
+            int compressedLength = 0;
+            while (!deflater.finished()) {
+                if (compressedLength == compressed.length)
+                    compressed = Arrays.copyOf(compressed, Math.max(1024, 2 * compressed.length));
+                compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+            }
+            if (out.remaining() < 8 + compressedLength) {
+                ByteBuffer bigger = ByteBuffer.allocate(2 * (out.capacity() + compressedLength)).order(ByteOrder.LITTLE_ENDIAN);
+                out.flip();
+                bigger.put(out);
+                out = bigger;
+            }
+            out.putInt(length).putInt(compressedLength).put(compressed, 0, compressedLength);
+        }
+        out.flip();
+        write(out);
+    }
+
+    private static void toDeltas(byte[] longs, int n) {
+        ByteBuffer v = ByteBuffer.wrap(longs).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = n - 1; i > 0; i--) v.putLong(8 * i, v.getLong(8 * i) - v.getLong(8 * (i - 1)));
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    private static class Block {
+        final ByteBuffer data;
+        int records;
+        int hullPoints;
+
+        Block(ByteBuffer data) {
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Reads a FeatureLog file through a read-only memory map. Opening only walks the
+ * block headers; a column is inflated when asked for, so scanning one column
+ * touches none of the compressed bytes of the others.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+public class FeatureLogReader {
+    private final MappedByteBuffer map;
+    private final List<int[]> blocks = new ArrayList<>(); // record count, then the position of each column
+    private int records = 0;
+    private final Inflater inflater = new Inflater();
+    private byte[] compressed = new byte[0];
+
+    public FeatureLogReader(File file) throws IOException {
+        try (RandomAccessFile f = new RandomAccessFile(file, "r")) {
+            map = f.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, f.length());
+        }
+        map.order(ByteOrder.LITTLE_ENDIAN);
+        if (map.remaining() < 16 || map.getInt(0) != FeatureLog.MAGIC) throw new IOException("Not a feature log");
+        if (map.getInt(4) != FeatureLog.VERSION) throw new IOException("Unsupported feature log version " + map.getInt(4));
+        if (map.getInt(8) != FeatureLog.COLUMNS) throw new IOException("Unexpected column count " + map.getInt(8));
+
+        int pos = 16;
+        // a block cut short by a crash ends the log
+        while (pos + 8 <= map.limit() && map.getInt(pos) == FeatureLog.BLOCK_MAGIC) {
+            int[] block = new int[1 + FeatureLog.COLUMNS];
+            block[0] = map.getInt(pos + 4);
+            int p = pos + 8;
+            for (int c = 0; c < FeatureLog.COLUMNS && p + 8 <= map.limit(); c++) {
+                block[1 + c] = p;
+                p += 8 + map.getInt(p + 4);
+            }
+            if (p > map.limit() || block[FeatureLog.COLUMNS] == 0) break;
+            blocks.add(block);
+            records += block[0];
+            pos = p;
+        }
+    }
+
+    public int getRecordCount() {
+        return records;
+    }
+
+    public int getBlockCount() {
+        return blocks.size();
+    }
+
+    public int getBlockRecords(int block) {
+        return blocks.get(block)[0];
+    }
+
+    public ByteBuffer readColumn(int block, int column) throws IOException {
+        /**
+         * Inflates one column of one block into a little-endian buffer of
+         * FeatureLog.WIDTH[column] bytes per record (per hull point for COL_HULL),
+         * with absolute timestamps
+         */
+        int[] b = blocks.get(block);
+        int pos = b[1 + column];
+        int rawLength = map.getInt(pos), compressedLength = map.getInt(pos + 4);
+        if (compressed.length < compressedLength) compressed = new byte[compressedLength];
+        ByteBuffer src = map.duplicate();
+        src.position(pos + 8);
+        src.get(compressed, 0, compressedLength);
+
+        byte[] raw = new byte[rawLength];
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedLength);
+        try {
+            if (inflater.inflate(raw) != rawLength) throw new IOException("Truncated column " + column);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt column " + column, e);
+        }
+        ByteBuffer v = ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN);
+        if (column == FeatureLog.COL_TIMESTAMP) {
+            for (int i = 1; i < b[0]; i++) v.putLong(8 * i, v.getLong(8 * i) + v.getLong(8 * (i - 1)));
+        }
+        return v;
+    }
+
+    public long[] readTimestamps() throws IOException {
+        long[] values = new long[records];
+        int n = 0;
+        for (int block = 0; block < blocks.size(); block++) {
+            ByteBuffer v = readColumn(block, FeatureLog.COL_TIMESTAMP);
+            for (int i = 0; i < getBlockRecords(block); i++) values[n++] = v.getLong(8 * i);
+        }
+        return values;
+    }
+
+    public float[] readFloats(int column) throws IOException {
+        /**
+         * All values of a float column, FeatureLog.CALIBRATION_VALUES per record for COL_CALIBRATION
+         */
+        int width = FeatureLog.WIDTH[column] / 4;
+        float[] values = new float[records * width];
+        int n = 0;
+        for (int block = 0; block < blocks.size(); block++) {
+            ByteBuffer v = readColumn(block, column);
+            for (int i = 0; i < getBlockRecords(block) * width; i++) values[n++] = v.getFloat(4 * i);
+        }
+        return values;
+    }
+
+    public int[] readInts(int column) throws IOException {
+        /**
+         * All values of a byte or short column, 4 per record for COL_RECT;
+         * for COL_HULL the x, y pairs of all records in order, split by COL_HULL_COUNT
+         */
+        int size = column == FeatureLog.COL_HULL || column == FeatureLog.COL_RECT ? 2 : FeatureLog.WIDTH[column];
+        int length = 0;
+        List<ByteBuffer> columns = new ArrayList<>(blocks.size());
+        for (int block = 0; block < blocks.size(); block++) {
+            ByteBuffer v = readColumn(block, column);
+            columns.add(v);
+            length += v.capacity() / size;
+        }
+        int[] values = new int[length];
+        int n = 0;
+        for (ByteBuffer v : columns) {
+            for (int i = 0; i < v.capacity() / size; i++) values[n++] = size == 1 ? v.get(i) : v.getShort(2 * i);
+        }
+        return values;
+    }
+
+    public void close() {
+        inflater.end();
+    }
+}
@@ -0,0 +1,98 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Standardizes HandFeatures rows column by column: the training mean is
+ * subtracted and the result divided by the training standard deviation, so
+ * that the log scaled Hu moments do not outweigh the ratios and the defect
+ * statistics in the distances of the k-nearest-neighbour and RBF models.
+ * GestureTrainer fits it and writes it next to the model as a small versioned
+ * binary record: magic, version, feature count, then the mean and deviation of
+ * every feature as floats.
+ */
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+public class FeatureScaler {
+    private static final int MAGIC = 0x48474653; // "HGFS"
+    public static final int VERSION = 1;
+    private static final String SUFFIX = ".scale"; // appended to the model file name
+
+    private final float[] mean = new float[HandFeatures.SIZE];
+    private final float[] std = new float[HandFeatures.SIZE];
+
+    public FeatureScaler() {
+        /**
+         * Leaves the features unchanged, as for models trained before scaling
+         */
+        Arrays.fill(std, 1);
+    }
+
+    public static FeatureScaler fit(List<float[]> rows) {
+        /**
+         * Mean and standard deviation of every column of rows. Constant columns
+         * keep a deviation of 1, so they are only centered
+         */
+        FeatureScaler scaler = new FeatureScaler();
+        if (rows.isEmpty()) return scaler;
+        for (int j = 0; j < HandFeatures.SIZE; j++) {
+            double sum = 0;
+            for (float[] row : rows) sum += row[j];
+            double m = sum / rows.size(), var = 0;
+            for (float[] row : rows) var += (row[j] - m) * (row[j] - m);
+            double s = Math.sqrt(var / rows.size());
+            scaler.mean[j] = (float) m;
+            scaler.std[j] = s > 1e-6 ? (float) s : 1;
+        }
+        return scaler;
+    }
+
+    public void apply(float[] row) {
+        for (int j = 0; j < HandFeatures.SIZE; j++) row[j] = (row[j] - mean[j]) / std[j];
+    }
+
+    public float getMean(int feature) {
+        return mean[feature];
+    }
+
+    public float getStd(int feature) {
+        return std[feature];
+    }
+
+    public static File fileFor(File model) {
+        return new File(model.getPath() + SUFFIX);
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(HandFeatures.SIZE);
+        for (int j = 0; j < HandFeatures.SIZE; j++) {
+            out.writeFloat(mean[j]);
+            out.writeFloat(std[j]);
+        }
+    }
+
+    public static FeatureScaler readFrom(DataInputStream in) throws IOException {
+        /**
+         * Reads a scaler written by writeTo(), throwing IOException when the
+         * record is not a scaler or does not fit HandFeatures
+         */
+        if (in.readInt() != MAGIC) throw new IOException("Not a feature scaler");
+        int version = in.readInt();
+        if (version != VERSION) throw new IOException("Unsupported scaler version " + version);
+        int size = in.readInt();
+        if (size != HandFeatures.SIZE) throw new IOException("Scaler expects " + size + " features");
+        FeatureScaler scaler = new FeatureScaler();
+        for (int j = 0; j < size; j++) {
+            scaler.mean[j] = in.readFloat();
+            scaler.std[j] = in.readFloat();
+            if (!(scaler.std[j] > 0)) throw new IOException("Invalid deviation " + scaler.std[j]);
+        }
+        return scaler;
+    }
+}
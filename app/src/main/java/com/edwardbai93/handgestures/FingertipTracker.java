@@ -0,0 +1,228 @@
+package com.edwardbai93.handgestures;
+
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.core.MatOfFloat;
+import org.opencv.core.MatOfPoint2f;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.List;
+
+import static org.opencv.video.Video.calcOpticalFlowPyrLK;
+
+public class FingertipTracker {
+    private static final int KEYFRAME_INTERVAL = 10; // max frames tracked before a forced re-detection
+    private static final int MAX_POINTS = 16; // fingertips and defects kept per keyframe
+    private static final double FB_MAX_ERROR = 2.0; // max forward-backward distance in pixels
+    private static final double MIN_SURVIVORS = 0.75; // fraction of points that must survive a frame
+    private static final double SMOOTHING = 0.5; // weight of the newest position in the running average
+    private static final int ROI_MARGIN = 24; // pixels added around the tracked points
+    private static final Size WIN_SIZE = new Size(15, 15);
+    private static final int MAX_LEVEL = 2;
+
+    private Mat mPrevGray = new Mat();
+    private Mat mCurrGray = new Mat();
+    private Mat mKeyGray = new Mat(); // whole keyframe, converted before anything is drawn on it
+    private MatOfPoint2f prevPts = new MatOfPoint2f();
+    private MatOfPoint2f nextPts = new MatOfPoint2f();
+    private MatOfPoint2f backPts = new MatOfPoint2f();
+    private MatOfByte status = new MatOfByte();
+    private MatOfByte backStatus = new MatOfByte();
+    private MatOfFloat err = new MatOfFloat();
+
+    // Tracked coordinates relative to the frame, fingertips first then defects
+    private float[] coords = new float[MAX_POINTS * 2];
+    private float[] smoothed = new float[MAX_POINTS * 2];
+    private float[] roiCoords = new float[MAX_POINTS * 2];
+    private float[] forward = new float[MAX_POINTS * 2];
+    private float[] backward = new float[MAX_POINTS * 2];
+    private byte[] fwdStatus = new byte[MAX_POINTS];
+    private byte[] bwdStatus = new byte[MAX_POINTS];
+    private int fingertipNum = 0;
+    private int defectNum = 0;
+
+    private Rect roi = new Rect();
+    private int framesSinceKeyframe = KEYFRAME_INTERVAL;
+    private String gesture = "";
+
+    public boolean needsKeyframe() {
+        /**
+         * Returns true when the next frame should run the full contour detection
+         */
+        return framesSinceKeyframe >= KEYFRAME_INTERVAL || fingertipNum + defectNum == 0;
+    }
+
+    public void reset() {
+        /**
+         * Drops the tracked points so that the next frame becomes a keyframe
+         */
+        fingertipNum = 0;
+        defectNum = 0;
+        framesSinceKeyframe = KEYFRAME_INTERVAL;
+        gesture = "";
+    }
+
+    public void prepareKeyframe(Mat rgba) {
+        /**
+         * Keeps the gray pixels of a frame that may become a keyframe. Must be
+         * called before any overlay is painted into rgba, since the painted
+         * pixels would be missing from the next frame and break the tracking
+         */
+        Imgproc.cvtColor(rgba, mKeyGray, Imgproc.COLOR_RGBA2GRAY);
+    }
+
+    public void keyframe(List<Point> fingertips, List<Point> defects, String result) {
+        /**
+         * Stores the fingertips and defect points detected on the frame given to
+         * prepareKeyframe() together with the gray ROI they will be tracked on
+         */
+        fingertipNum = Math.min(fingertips.size(), MAX_POINTS);
+        defectNum = Math.min(defects.size(), MAX_POINTS - fingertipNum);
+        for (int i = 0; i < fingertipNum; i++) {
+            coords[2 * i] = (float) fingertips.get(i).x;
+            coords[2 * i + 1] = (float) fingertips.get(i).y;
+        }
+        for (int i = 0; i < defectNum; i++) {
+            coords[2 * (fingertipNum + i)] = (float) defects.get(i).x;
+            coords[2 * (fingertipNum + i) + 1] = (float) defects.get(i).y;
+        }
+        System.arraycopy(coords, 0, smoothed, 0, 2 * (fingertipNum + defectNum));
+        gesture = result;
+        framesSinceKeyframe = 0;
+        if (updateRoi(mKeyGray.cols(), mKeyGray.rows())) {
+            Mat roiMat = mKeyGray.submat(roi);
+            roiMat.copyTo(mPrevGray);
+            roiMat.release();
+        }
+    }
+
+    public boolean track(Mat rgba) {
+        /**
+         * Tracks the stored points into the new frame with pyramidal Lucas-Kanade
+         * Returns false when too many points fail the forward-backward check,
+         * in which case the caller should re-detect on this frame
+         */
+        int num = fingertipNum + defectNum;
+        if (num == 0) return false;
+
+        Mat roiMat = rgba.submat(roi);
+        Imgproc.cvtColor(roiMat, mCurrGray, Imgproc.COLOR_RGBA2GRAY);
+        roiMat.release();
+        for (int i = 0; i < num; i++) {
+            roiCoords[2 * i] = coords[2 * i] - roi.x;
+            roiCoords[2 * i + 1] = coords[2 * i + 1] - roi.y;
+        }
+        prevPts.alloc(num);
+        prevPts.put(0, 0, roiCoords); // only the first num points fit into the allocated Mat
+
+        calcOpticalFlowPyrLK(mPrevGray, mCurrGray, prevPts, nextPts, status, err, WIN_SIZE, MAX_LEVEL);
+        calcOpticalFlowPyrLK(mCurrGray, mPrevGray, nextPts, backPts, backStatus, err, WIN_SIZE, MAX_LEVEL);
+        nextPts.get(0, 0, forward);
+        backPts.get(0, 0, backward);
+        status.get(0, 0, fwdStatus);
+        backStatus.get(0, 0, bwdStatus);
+
+        int survivors = 0;
+        boolean fingertipLost = false;
+        for (int i = 0; i < num; i++) {
+            float dx = backward[2 * i] - roiCoords[2 * i];
+            float dy = backward[2 * i + 1] - roiCoords[2 * i + 1];
+            if (fwdStatus[i] != 0 && bwdStatus[i] != 0 && dx * dx + dy * dy < FB_MAX_ERROR * FB_MAX_ERROR) {
+                survivors++;
+                coords[2 * i] = forward[2 * i] + roi.x;
+                coords[2 * i + 1] = forward[2 * i + 1] + roi.y;
+                smoothed[2 * i] += SMOOTHING * (coords[2 * i] - smoothed[2 * i]);
+                smoothed[2 * i + 1] += SMOOTHING * (coords[2 * i + 1] - smoothed[2 * i + 1]);
+            } else if (i < fingertipNum) {
+                fingertipLost = true;
+            }
+        }
+
+        // a lost fingertip would change the finger count, so it always forces a re-detection
+        if (fingertipLost || survivors < num * MIN_SURVIVORS) {
+            reset();
+            return false;
+        }
+
+        framesSinceKeyframe++;
+        if (updateRoi(rgba.cols(), rgba.rows())) {
+            // the reference of the next frame; nothing has been drawn into rgba yet
+            roiMat = rgba.submat(roi);
+            Imgproc.cvtColor(roiMat, mPrevGray, Imgproc.COLOR_RGBA2GRAY);
+            roiMat.release();
+        }
+        return true;
+    }
+
+    private boolean updateRoi(int width, int height) {
+        /**
+         * Recenters the ROI on the tracked points, returning false and dropping
+         * the points when it would be empty
+         */
+        int num = fingertipNum + defectNum;
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < num; i++) {
+            minX = Math.min(minX, coords[2 * i]);
+            maxX = Math.max(maxX, coords[2 * i]);
+            minY = Math.min(minY, coords[2 * i + 1]);
+            maxY = Math.max(maxY, coords[2 * i + 1]);
+        }
+        int x0 = Math.max(0, (int) minX - ROI_MARGIN);
+        int y0 = Math.max(0, (int) minY - ROI_MARGIN);
+        int x1 = Math.min(width, (int) maxX + ROI_MARGIN + 1);
+        int y1 = Math.min(height, (int) maxY + ROI_MARGIN + 1);
+        if (num == 0 || x1 <= x0 || y1 <= y0) {
+            reset();
+            return false;
+        }
+        roi.x = x0;
+        roi.y = y0;
+        roi.width = x1 - x0;
+        roi.height = y1 - y0;
+        return true;
+    }
+
+    public int getFingertipNum() {
+        return fingertipNum;
+    }
+
+    public int getDefectNum() {
+        return defectNum;
+    }
+
+    public String getGesture() {
+        return gesture;
+    }
+
+    public void getFingertip(int i, Point out) {
+        /**
+         * Writes the smoothed position of the i-th fingertip into out
+         */
+        out.x = smoothed[2 * i];
+        out.y = smoothed[2 * i + 1];
+    }
+
+    public void getDefect(int i, Point out) {
+        /**
+         * Writes the smoothed position of the i-th defect point into out
+         */
+        out.x = smoothed[2 * (fingertipNum + i)];
+        out.y = smoothed[2 * (fingertipNum + i) + 1];
+    }
+
+    public void release() {
+        reset();
+        mPrevGray.release();
+        mCurrGray.release();
+        mKeyGray.release();
+        prevPts.release();
+        nextPts.release();
+        backPts.release();
+        status.release();
+        backStatus.release();
+        err.release();
+    }
+}
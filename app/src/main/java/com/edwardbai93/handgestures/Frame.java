@@ -16,12 +16,21 @@ import org.opencv.core.CvType;
 import org.opencv.core.Mat;
 import org.opencv.core.MatOfPoint;
 import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.RotatedRect;
 import org.opencv.core.Scalar;
 import org.opencv.core.Size;
 import org.opencv.imgproc.Imgproc;
+import org.opencv.utils.FlatPoints;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.opencv.core.Core.FONT_HERSHEY_SIMPLEX;
 import static org.opencv.core.Core.bitwise_and;
@@ -46,45 +55,143 @@ import static org.opencv.imgproc.Imgproc.morphologyEx;
 
 public class Frame {
     private Mat mRgba, mIntermediateMat, mFGMask; // frames to be utilized
-    private static final int SAMPLE_NUM = 8; // number of sample points in sample mode
+    public static final int DEFAULT_SAMPLE_NUM = 8; // number of sample points in sample mode
+    public static final int MAX_SAMPLE_NUM = 16;
+    private static volatile int headerSink; // result of benchmarkHeaderReads(), never read
+    private int sampleNum = DEFAULT_SAMPLE_NUM;
     private Point[][] samplePoints;
     private double[][] avgHandColor;
     private double[][] avgBackgroundColor;
     private Scalar lowerBound = new Scalar(0, 0, 0);
     private Scalar upperBound = new Scalar(0, 0, 0);
     private Mat[] sampleMats;
+    private Point trackedPoint = new Point(); // reused when drawing tracked fingertips
+
+    // Bit-packed masks used instead of sampleMats when packedMasks is set
+    private boolean packedMasks = false;
+    private PackedMask packedHand = new PackedMask();
+    private PackedMask packedBack = new PackedMask();
+
+    // Kernel-size independent median and morphology used when fastFilters is set
+    private boolean fastFilters = false;
+    private BinaryFilters binaryFilters = new BinaryFilters();
+
+    // Traces only the hand blob instead of every contour when blobContours is set
+    private boolean blobContours = false;
+    private BlobExtractor blobExtractor = new BlobExtractor();
+    private FlatPoints flatContours = new FlatPoints(); // every contour of the mask, in two reused arrays
+
+    // Linear-time hull and defects over the primitive arrays of each Hand when linearHull is set
+    private boolean linearHull = false;
+
+    private List<Future<?>> handFutures = new ArrayList<>(); // hands analyzed on the shared pool
+
+    // Learned gesture labels replacing the finger count heuristic when a classifier is set
+    private GestureClassifier classifier;
+    private HandFeatures handFeatures = new HandFeatures();
+    private Mat mFeatures = new Mat();
+    private Mat mPredictions = new Mat();
+    private float[] featureRow = new float[HandFeatures.SIZE];
+    private float[] predictions = new float[0];
+    private List<Hand> classified = new ArrayList<>();
+
+    // Scratch of logFeatures()
+    private int[] hullXY = new int[2 * FeatureLog.MAX_HULL];
+    private float[] calibrationValues = new float[FeatureLog.CALIBRATION_VALUES];
+
+    // Box statistics of the samples, and per-sample radii used when adaptiveRadii is set
+    private boolean adaptiveRadii = false;
+    private ColorSampler colorSampler = new ColorSampler();
+    private double[] sampleVariance = new double[3];
+    private double[][] handSampleRadius;
+    private double[][] backSampleRadius;
+
+    // Distinct color ranges thresholded by produceBinaryImage()
+    private ColorRanges handRanges = new ColorRanges();
+    private ColorRanges backRanges = new ColorRanges();
+    private double mergeRatio = ColorRanges.DEFAULT_MERGE_RATIO;
+    private double[] rangeLower = new double[3];
+    private double[] rangeUpper = new double[3];
+
+    private AutoCalibrator autoCalibrator = new AutoCalibrator();
+
+    // chroma histogram back-projection used instead of the color boxes when backProjection is set
+    private boolean backProjection = false;
+    private BackProjector backProjector = new BackProjector();
+
+    // Blur, conversion and color box segmentation on parallel stripes when tiled is set
+    private boolean tiled = false;
+    private TiledSegmenter tiledSegmenter;
+
+    // Pure Java thresholding and filtering on pixel arrays when javaKernels is set
+    private boolean javaKernels = false;
+    private byte[] colorPixels = new byte[0];
+    private byte[] handPixels = new byte[0];
+    private byte[] backPixels = new byte[0];
+    private byte[] tmpPixels = new byte[0];
 
     // Constant threshold values of average color
     private double[] handColorLowerRadius = new double[3];
     private double[] handColorUpperRadius = new double[3];
     private double[] handColorBackLowerRadius = new double[3];
     private double[] handColorBackUpperRadius = new double[3];
-    private static final int COLOR_SPACE = Imgproc.COLOR_RGB2Lab;
+    private ColorConverter colorConverter = new ColorConverter(); // converts into the thresholding color space
 
     public void initFrame() {
+        initFrame(DEFAULT_SAMPLE_NUM);
+    }
+
+    public void initFrame(int sampleNum) {
         /**
          * Called during onCreate() method to
          * 1. create new instances for various data structures
          * 2. initialize constants
+         * sampleNum sample points are placed in sample modes, at most MAX_SAMPLE_NUM
          */
-        samplePoints = new Point[SAMPLE_NUM][2];
-        for (int i = 0; i < SAMPLE_NUM; i++) {
+        if (sampleNum < 1 || sampleNum > MAX_SAMPLE_NUM)
+            throw new IllegalArgumentException("sampleNum must be between 1 and " + MAX_SAMPLE_NUM);
+        this.sampleNum = sampleNum;
+        samplePoints = new Point[sampleNum][2];
+        for (int i = 0; i < sampleNum; i++) {
             for (int j = 0; j < 2; j++) {
                 samplePoints[i][j] = new Point();
             }
         }
 
-        avgHandColor = new double[SAMPLE_NUM][3];
-        avgBackgroundColor = new double[SAMPLE_NUM][3];
+        avgHandColor = new double[sampleNum][3];
+        avgBackgroundColor = new double[sampleNum][3];
+        handSampleRadius = new double[sampleNum][3];
+        backSampleRadius = new double[sampleNum][3];
 
-        if (sampleMats == null) {
-            sampleMats = new Mat[SAMPLE_NUM];
-            for (int i = 0; i < SAMPLE_NUM; i++)
+        if (sampleMats == null || sampleMats.length != sampleNum) {
+            sampleMats = new Mat[sampleNum];
+            for (int i = 0; i < sampleNum; i++)
                 sampleMats[i] = new Mat();
         }
 
-        initCLowerUpper(40, 40, 10, 10, 10, 10);
-        initCBackLowerUpper(50, 50, 3, 3, 3, 3);
+        initDefaultRadii();
+    }
+
+    public void setColorSpace(ColorSpace space) {
+        /**
+         * Selects the color space frames are thresholded in and restores its
+         * default radii. Colors sampled in another space no longer apply,
+         * so the hand has to be calibrated again.
+         */
+        colorConverter.setColorSpace(space);
+        initDefaultRadii();
+        backProjector.reset();
+    }
+
+    public ColorSpace getColorSpace() {
+        return colorConverter.getColorSpace();
+    }
+
+    private void initDefaultRadii() {
+        double[] h = colorConverter.getColorSpace().handRadii;
+        double[] b = colorConverter.getColorSpace().backRadii;
+        initCLowerUpper(h[0], h[1], h[2], h[3], h[4], h[5]);
+        initCBackLowerUpper(b[0], b[1], b[2], b[3], b[4], b[5]);
     }
 
     public void startFrame(int width, int height) {
@@ -104,6 +211,10 @@ public class Frame {
         mRgba.release();
         mIntermediateMat.release();
         mFGMask.release();
+        autoCalibrator.release();
+        backProjector.release();
+        handFeatures.release();
+        if (tiledSegmenter != null) tiledSegmenter.release();
     }
 
     public Mat getRGBAFrame() {
@@ -124,9 +235,26 @@ public class Frame {
         /**
          * Read input frame and pre-process the colors
          */
+        if (tiled) {
+            mRgba = tiledSegmenter.blurAndConvert(inputFrame.rgba(), colorConverter.getColorSpace(), mIntermediateMat);
+            return;
+        }
         mRgba = inputFrame.rgba();
         GaussianBlur(mRgba, mRgba, new Size(5, 5), 5, 5);
-        Imgproc.cvtColor(mRgba, mIntermediateMat, COLOR_SPACE);
+        colorConverter.convert(mRgba, mIntermediateMat);
+    }
+
+    public void readInputFrame(Mat rgba) {
+        /**
+         * Same as above for a frame that did not come from the camera,
+         * rgba itself is left untouched
+         */
+        if (tiled) {
+            mRgba = tiledSegmenter.blurAndConvert(rgba, colorConverter.getColorSpace(), mIntermediateMat);
+            return;
+        }
+        GaussianBlur(rgba, mRgba, new Size(5, 5), 5, 5);
+        colorConverter.convert(mRgba, mIntermediateMat);
     }
 
     public void draw(Hand hand) {
@@ -137,10 +265,176 @@ public class Frame {
          */
         hand.contours.clear();
         hand.defect_points.clear();
+        hand.fingertip_points.clear();
+        hand.gesture = "";
+
+        if (fastFilters) binaryFilters.medianBlur(mFGMask, mFGMask, 5);
+        else medianBlur(mFGMask, mFGMask, 5);
+        if (blobContours) {
+            MatOfPoint blob = new MatOfPoint();
+            if (blobExtractor.extract(mFGMask, blob)) {
+                hand.contours.add(blob);
+                hand.contourMaxId = 0;
+            } else {
+                hand.contourMaxId = -1;
+            }
+        } else {
+            // flat, so that only the biggest contour becomes a MatOfPoint
+            findContours(mFGMask, flatContours, hand.hierachy, RETR_EXTERNAL, CHAIN_APPROX_NONE);
+            hand.findBiggestContour(flatContours);
+        }
+        analyze(hand);
+        if (classifier != null) classify(Collections.singletonList(hand));
+        putText(mRgba, hand.gesture, new Point(500,100), FONT_HERSHEY_SIMPLEX, 4,new Scalar(108,230,94),2);
 
-        medianBlur(mFGMask, mFGMask, 5);
-        findContours(mFGMask, hand.contours, hand.hierachy, RETR_EXTERNAL, CHAIN_APPROX_NONE);
-        hand.findBiggestContour();
+        if (hand.isHand(mRgba)) {
+            rectangle(mRgba, hand.bounding_rect.tl(), hand.bounding_rect.br(), new Scalar(0, 0, 255), 3);
+            drawContours(mRgba, hand.hull_point, hand.contourMaxId, new Scalar(255, 0, 0), 2);
+            drawContours(mRgba, hand.contours, hand.contourMaxId, new Scalar(0, 255, 0), 3);
+            for (Point defect : hand.defect_points) circle(mRgba, defect, 5, new Scalar(255, 255, 0), 2);
+        }
+        /////////////////////////////////////
+    }
+
+    public List<Hand> drawHands(MultiHandTracker tracker) {
+        /**
+         * Multi-hand counterpart of draw(): selects up to the tracker's number of
+         * hand blobs, analyzes them in parallel and draws each with its id.
+         * Returns the hands ordered by id.
+         */
+        if (fastFilters) binaryFilters.medianBlur(mFGMask, mFGMask, 5);
+        else medianBlur(mFGMask, mFGMask, 5);
+        findContours(mFGMask, tracker.contours, tracker.hierarchy, RETR_EXTERNAL, CHAIN_APPROX_NONE);
+        List<Hand> hands = tracker.select(mFGMask.cols(), mFGMask.rows());
+        analyzeAll(hands);
+        if (classifier != null) classify(hands);
+
+        for (Hand hand : hands) {
+            rectangle(mRgba, hand.bounding_rect.tl(), hand.bounding_rect.br(), new Scalar(0, 0, 255), 3);
+            drawContours(mRgba, hand.hull_point, hand.contourMaxId, new Scalar(255, 0, 0), 2);
+            drawContours(mRgba, hand.contours, hand.contourMaxId, new Scalar(0, 255, 0), 3);
+            for (Point defect : hand.defect_points) circle(mRgba, defect, 5, new Scalar(255, 255, 0), 2);
+            putText(mRgba, hand.id + ": " + hand.gesture, hand.bounding_rect.tl(), FONT_HERSHEY_SIMPLEX, 2,
+                    new Scalar(108, 230, 94), 2);
+        }
+        return hands;
+    }
+
+    private void classify(List<Hand> hands) {
+        /**
+         * Replaces the gesture of every hand with the label predicted from its
+         * HandFeatures, scaled as in training, all hands in a single prediction call
+         */
+        classified.clear();
+        for (Hand hand : hands) {
+            if (hand.contourMaxId != -1 && handFeatures.extract(hand.contours.get(hand.contourMaxId), featureRow)) {
+                classifier.getScaler().apply(featureRow);
+                if (classified.isEmpty()) mFeatures.create(hands.size(), HandFeatures.SIZE, CvType.CV_32F);
+                mFeatures.put(classified.size(), 0, featureRow);
+                classified.add(hand);
+            }
+        }
+        if (classified.isEmpty()) return;
+        Mat rows = mFeatures.rowRange(0, classified.size());
+        classifier.predict(rows, mPredictions);
+        rows.release();
+        if (predictions.length < classified.size()) predictions = new float[classified.size()];
+        mPredictions.get(0, 0, predictions);
+        for (int i = 0; i < classified.size(); i++)
+            classified.get(i).gesture = String.valueOf(Math.round(predictions[i]));
+    }
+
+    public void logFeatures(FeatureLog log, Hand hand, boolean found, long timestamp, float millis) {
+        /**
+         * Appends the recognition data of hand after draw() to log, together with
+         * the calibration in use: mean hand and background colors of the samples,
+         * then the lower and upper hand radii
+         */
+        int fingers = -1, hullCount = 0;
+        if (found) {
+            fingers = hand.gesture.isEmpty() ? -1 : Integer.parseInt(hand.gesture);
+            if (hand.contourMaxId >= 0 && hand.contourMaxId < hand.hull_point.size()) {
+                MatOfPoint hull = hand.hull_point.get(hand.contourMaxId);
+                hullCount = (int) Math.min(hull.total(), FeatureLog.MAX_HULL);
+                if (hullCount > 0) hull.get(0, 0, hullXY); // at most MAX_HULL points fit
+            }
+        }
+        for (int j = 0; j < 3; j++) {
+            double handSum = 0, backSum = 0;
+            for (int i = 0; i < sampleNum; i++) {
+                handSum += avgHandColor[i][j];
+                backSum += avgBackgroundColor[i][j];
+            }
+            calibrationValues[j] = (float) (handSum / sampleNum);
+            calibrationValues[3 + j] = (float) (backSum / sampleNum);
+            calibrationValues[6 + j] = (float) handColorLowerRadius[j];
+            calibrationValues[9 + j] = (float) handColorUpperRadius[j];
+        }
+        log.append(timestamp, millis, fingers, found ? hand.defect_points.size() : 0, found ? hand.bounding_rect : null,
+                hullXY, hullCount, colorConverter.getColorSpace().ordinal(), calibrationValues);
+    }
+
+    public void setClassifier(GestureClassifier classifier) {
+        /**
+         * Sets the classifier whose labels replace the finger count heuristic,
+         * null restores the heuristic
+         */
+        this.classifier = classifier;
+    }
+
+    public String benchmarkClassifier(Hand hand, int runs) {
+        /**
+         * Times the contour analysis of the last frame's hand with the finger
+         * count heuristic alone and followed by feature extraction and prediction
+         */
+        if (classifier == null || hand.contourMaxId == -1) return "no classifier or hand";
+        long heuristic = Long.MAX_VALUE, learned = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            hand.defect_points.clear();
+            hand.fingertip_points.clear();
+            long t0 = System.nanoTime();
+            analyze(hand);
+            long t1 = System.nanoTime();
+            classify(Collections.singletonList(hand));
+            long t2 = System.nanoTime();
+            heuristic = Math.min(heuristic, t1 - t0);
+            learned = Math.min(learned, t2 - t0);
+        }
+        return String.format("heuristic %.3f ms, with classifier %.3f ms", heuristic / 1e6, learned / 1e6);
+    }
+
+    private void analyzeAll(List<Hand> hands) {
+        /**
+         * Analyzes every hand but the first on the shared pool while the
+         * calling thread takes the first one
+         */
+        handFutures.clear();
+        for (int i = 1; i < hands.size(); i++) {
+            final Hand hand = hands.get(i);
+            handFutures.add(TiledSegmenter.sharedPool().submit(new Runnable() {
+                @Override
+                public void run() {
+                    analyze(hand);
+                }
+            }));
+        }
+        if (!hands.isEmpty()) analyze(hands.get(0));
+        try {
+            for (Future<?> f : handFutures) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while analyzing hands", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Hand analysis failed", e.getCause());
+        }
+    }
+
+    private void analyze(Hand hand) {
+        /**
+         * Approximates the chosen contour of the hand and finds its convex hull,
+         * convexity defects, fingertips and finger count.
+         * Only the hand is written to, so different hands can be analyzed in parallel.
+         */
         if (hand.contourMaxId != -1) {
             hand.approx_contour.fromList(hand.contours.get(hand.contourMaxId).toList());
             approxPolyDP(hand.approx_contour, hand.approx_contour, 1, false);
@@ -149,12 +443,27 @@ public class Frame {
 
             hand.bounding_rect = boundingRect(hand.contours.get(hand.contourMaxId));
 
-            convexHull(hand.contours.get(hand.contourMaxId),hand.hullx,false);
+            int[] contourIdx;
+            int contourNum = 0;
+            if (linearHull) {
+                // monotone chain hull over a counting sort, straight from the contour coordinates
+                MatOfPoint contour = hand.contours.get(hand.contourMaxId);
+                contourNum = (int) contour.total();
+                if (hand.contourXY.length < 2 * contourNum) {
+                    hand.contourXY = new int[2 * contourNum];
+                    hand.hullIdx = new int[contourNum];
+                    hand.defectIdx = new int[4 * contourNum];
+                }
+                contour.get(0, 0, hand.contourXY);
+                contourIdx = Arrays.copyOf(hand.hullIdx, hand.polygonHull.hull(hand.contourXY, contourNum, false, hand.hullIdx));
+            } else {
+                convexHull(hand.contours.get(hand.contourMaxId),hand.hullx,false);
+                contourIdx = hand.hullx.toArray();
+            }
             hand.hull_point.clear();
             for (int i = 0; i < hand.contours.size(); i++)
                 hand.hull_point.add(new MatOfPoint());
 
-            int[] contourIdx = hand.hullx.toArray();
             List<Point> tmp = new ArrayList<>();
             Point[] contourPts = hand.contours.get(hand.contourMaxId).toArray();
 
@@ -167,8 +476,14 @@ public class Frame {
             tmp.clear();
 
             if (contourPts.length >= 5 && contourIdx.length >= 5) {
-                convexityDefects(hand.contours.get(hand.contourMaxId), hand.hullx, hand.defects);
-                int[] defect_list = hand.defects.toArray();
+                int[] defect_list;
+                if (linearHull) {
+                    int defectNum = hand.polygonHull.defects(hand.contourXY, contourNum, contourIdx, contourIdx.length, hand.defectIdx);
+                    defect_list = Arrays.copyOf(hand.defectIdx, 4 * defectNum);
+                } else {
+                    convexityDefects(hand.contours.get(hand.contourMaxId), hand.hullx, hand.defects);
+                    defect_list = hand.defects.toArray();
+                }
                 Point[] data = hand.contours.get(hand.contourMaxId).toArray();
                 for (int i = 0; i < defect_list.length; i = i + 4) {
                     Point start = data[defect_list[i]];
@@ -224,17 +539,37 @@ public class Frame {
                         break;
                     default: break;
                 }
-                putText(mRgba, result, new Point(500,100), FONT_HERSHEY_SIMPLEX, 4,new Scalar(108,230,94),2);
+                hand.fingertip_points.addAll(new_hull_p);
+                hand.gesture = result;
             }
         }
+    }
 
-        if (hand.isHand(mRgba)) {
-            rectangle(mRgba, hand.bounding_rect.tl(), hand.bounding_rect.br(), new Scalar(0, 0, 255), 3);
-            drawContours(mRgba, hand.hull_point, hand.contourMaxId, new Scalar(255, 0, 0), 2);
-            drawContours(mRgba, hand.contours, hand.contourMaxId, new Scalar(0, 255, 0), 3);
-            for (Point defect : hand.defect_points) circle(mRgba, defect, 5, new Scalar(255, 255, 0), 2);
+    public void drawTracked(Hand hand, FingertipTracker tracker) {
+        /**
+         * Runs the full segmentation and contour analysis of draw() on keyframes only,
+         * and tracks the fingertips and defect points with optical flow in between
+         */
+        if (!tracker.needsKeyframe() && tracker.track(mRgba)) {
+            for (int i = 0; i < tracker.getFingertipNum(); i++) {
+                tracker.getFingertip(i, trackedPoint);
+                circle(mRgba, trackedPoint, 8, new Scalar(255, 0, 0), 2);
+            }
+            for (int i = 0; i < tracker.getDefectNum(); i++) {
+                tracker.getDefect(i, trackedPoint);
+                circle(mRgba, trackedPoint, 5, new Scalar(255, 255, 0), 2);
+            }
+            putText(mRgba, tracker.getGesture(), new Point(500,100), FONT_HERSHEY_SIMPLEX, 4,new Scalar(108,230,94),2);
+            return;
         }
-        /////////////////////////////////////
+
+        tracker.prepareKeyframe(mRgba); // before draw() paints the overlays
+        produceBinaryImage();
+        draw(hand);
+        if (hand.isHand(mRgba))
+            tracker.keyframe(hand.fingertip_points, hand.defect_points, hand.gesture);
+        else
+            tracker.reset();
     }
 
     public void sampleHandColor() {
@@ -246,28 +581,34 @@ public class Frame {
         int rows = mRgba.rows();
         int squareLen = rows / 20;
 
-        samplePoints[0][0] = new Point(cols * 7 / 45, rows * 7 / 27);
-        samplePoints[1][0] = new Point(cols * 12 / 45, rows * 5 / 36);
-        samplePoints[2][0] = new Point(cols * 25 / 72, rows / 9);
-        samplePoints[3][0] = new Point(cols * 4 / 9, rows / 6);
-        samplePoints[4][0] = new Point(cols * 7 / 12, rows / 2);
-        samplePoints[5][0] = new Point(cols / 4, rows * 37 / 45);
-        samplePoints[6][0] = new Point(cols * 3 / 8, rows * 37 / 45);
-        samplePoints[7][0] = new Point(cols * 295 / 720, rows * 322 / 540);
+        placeSamples(new Point[]{
+                new Point(cols * 7 / 45, rows * 7 / 27),
+                new Point(cols * 12 / 45, rows * 5 / 36),
+                new Point(cols * 25 / 72, rows / 9),
+                new Point(cols * 4 / 9, rows / 6),
+                new Point(cols * 7 / 12, rows / 2),
+                new Point(cols / 4, rows * 37 / 45),
+                new Point(cols * 3 / 8, rows * 37 / 45),
+                new Point(cols * 295 / 720, rows * 322 / 540)});
 
-        for (int i = 0; i < SAMPLE_NUM; i++) {
+        for (int i = 0; i < sampleNum; i++) {
             samplePoints[i][1].x = samplePoints[i][0].x + squareLen;
             samplePoints[i][1].y = samplePoints[i][0].y + squareLen;
         }
 
-        for (int i = 0; i < SAMPLE_NUM; i++) {
+        for (int i = 0; i < sampleNum; i++) {
             Core.rectangle(mRgba, samplePoints[i][0], samplePoints[i][1], new Scalar(255,0,0),5);
         }
-        for (int i = 0; i < SAMPLE_NUM; i++) {
+        colorSampler.prepare(mIntermediateMat, samplePoints, sampleNum);
+        for (int i = 0; i < sampleNum; i++) {
+            colorSampler.sample(samplePoints[i][0], samplePoints[i][1], avgHandColor[i], sampleVariance);
             for (int j = 0; j < 3; j++) {
-                avgHandColor[i][j] = (mIntermediateMat.get((int)(samplePoints[i][0].y+squareLen/2), (int)(samplePoints[i][0].x+squareLen/2)))[j];
+                handSampleRadius[i][j] = ColorSampler.adaptiveRadius(sampleVariance[j],
+                        Math.min(handColorLowerRadius[j], handColorUpperRadius[j]) / 2,
+                        Math.max(handColorLowerRadius[j], handColorUpperRadius[j]) * 2);
             }
         }
+        backProjector.sampleHand(mIntermediateMat, samplePoints, sampleNum);
     }
 
     public void sampleBackgroundColor() {
@@ -279,24 +620,107 @@ public class Frame {
         int rows = mFGMask.rows();
         int squareLen = rows/20;
 
-        samplePoints[0][0] = new Point(cols / 6, rows / 3);
-        samplePoints[1][0] = new Point(cols / 6, rows * 2 / 3);
-        samplePoints[2][0] = new Point(cols / 2, rows / 6);
-        samplePoints[3][0] = new Point(cols / 3, rows / 2);
-        samplePoints[4][0] = new Point(cols * 2 / 3, rows / 2);
-        samplePoints[5][0] = new Point(cols / 2, rows * 5 / 6);
-        samplePoints[6][0] = new Point(cols * 5 / 6, rows / 3);
-        samplePoints[7][0] = new Point(cols * 5 / 6, rows * 2 / 3);
+        placeSamples(new Point[]{
+                new Point(cols / 6, rows / 3),
+                new Point(cols / 6, rows * 2 / 3),
+                new Point(cols / 2, rows / 6),
+                new Point(cols / 3, rows / 2),
+                new Point(cols * 2 / 3, rows / 2),
+                new Point(cols / 2, rows * 5 / 6),
+                new Point(cols * 5 / 6, rows / 3),
+                new Point(cols * 5 / 6, rows * 2 / 3)});
 
-        for (int i = 0; i < SAMPLE_NUM; i++) {
+        for (int i = 0; i < sampleNum; i++) {
             samplePoints[i][1].x = samplePoints[i][0].x + squareLen;
             samplePoints[i][1].y = samplePoints[i][0].y + squareLen;
             Core.rectangle(mRgba, samplePoints[i][0], samplePoints[i][1], new Scalar(0,0,255), 2);
         }
 
-        for (int i = 0; i < SAMPLE_NUM; i++) {
+        colorSampler.prepare(mIntermediateMat, samplePoints, sampleNum);
+        for (int i = 0; i < sampleNum; i++) {
+            colorSampler.sample(samplePoints[i][0], samplePoints[i][1], avgBackgroundColor[i], sampleVariance);
+            for (int j = 0; j < 3; j++) {
+                backSampleRadius[i][j] = ColorSampler.adaptiveRadius(sampleVariance[j],
+                        Math.min(handColorBackLowerRadius[j], handColorBackUpperRadius[j]) / 2,
+                        Math.max(handColorBackLowerRadius[j], handColorBackUpperRadius[j]) * 2);
+            }
+        }
+        backProjector.sampleBackground(mIntermediateMat, samplePoints, sampleNum);
+    }
+
+    public boolean autoCalibrate() {
+        /**
+         * Builds the hand and background color models from the current frame
+         * with k-means, replacing the SAMPLE_BACK and SAMPLE_MODE steps.
+         * Returns false when no hand color could be told apart from the background.
+         */
+        if (!autoCalibrator.calibrate(mIntermediateMat, sampleNum, avgHandColor, avgBackgroundColor,
+                handColorBackLowerRadius, handColorBackUpperRadius))
+            return false;
+        for (int i = 0; i < sampleNum; i++) {
             for (int j = 0; j < 3; j++) {
-                avgBackgroundColor[i][j] = (mIntermediateMat.get((int)(samplePoints[i][0].y + squareLen/2), (int)(samplePoints[i][0].x + squareLen/2)))[j];
+                handSampleRadius[i][j] = Math.max(handColorLowerRadius[j], handColorUpperRadius[j]);
+                backSampleRadius[i][j] = Math.max(handColorBackLowerRadius[j], handColorBackUpperRadius[j]);
+            }
+        }
+        backProjector.reset();
+        return true;
+    }
+
+    public CalibrationProfile getProfile(int cameraId) {
+        /**
+         * Copies the calibrated colors and radii into a profile keyed by
+         * the camera and the current frame size
+         */
+        CalibrationProfile p = new CalibrationProfile(cameraId, mRgba.cols(), mRgba.rows(), sampleNum,
+                colorConverter.getColorSpace());
+        for (int i = 0; i < sampleNum; i++) {
+            System.arraycopy(avgHandColor[i], 0, p.handColor[i], 0, 3);
+            System.arraycopy(avgBackgroundColor[i], 0, p.backColor[i], 0, 3);
+            System.arraycopy(handSampleRadius[i], 0, p.handSampleRadius[i], 0, 3);
+            System.arraycopy(backSampleRadius[i], 0, p.backSampleRadius[i], 0, 3);
+        }
+        System.arraycopy(handColorLowerRadius, 0, p.handLowerRadius, 0, 3);
+        System.arraycopy(handColorUpperRadius, 0, p.handUpperRadius, 0, 3);
+        System.arraycopy(handColorBackLowerRadius, 0, p.backLowerRadius, 0, 3);
+        System.arraycopy(handColorBackUpperRadius, 0, p.backUpperRadius, 0, 3);
+        return p;
+    }
+
+    public void applyProfile(CalibrationProfile p) {
+        /**
+         * Restores a saved calibration, re-initializing the samples
+         * when the profile was taken with a different sample count,
+         * and switching to the color space its colors were sampled in
+         */
+        if (p.sampleNum != sampleNum) initFrame(p.sampleNum);
+        colorConverter.setColorSpace(p.colorSpace);
+        for (int i = 0; i < sampleNum; i++) {
+            System.arraycopy(p.handColor[i], 0, avgHandColor[i], 0, 3);
+            System.arraycopy(p.backColor[i], 0, avgBackgroundColor[i], 0, 3);
+            System.arraycopy(p.handSampleRadius[i], 0, handSampleRadius[i], 0, 3);
+            System.arraycopy(p.backSampleRadius[i], 0, backSampleRadius[i], 0, 3);
+        }
+        System.arraycopy(p.handLowerRadius, 0, handColorLowerRadius, 0, 3);
+        System.arraycopy(p.handUpperRadius, 0, handColorUpperRadius, 0, 3);
+        System.arraycopy(p.backLowerRadius, 0, handColorBackLowerRadius, 0, 3);
+        System.arraycopy(p.backUpperRadius, 0, handColorBackUpperRadius, 0, 3);
+        backProjector.reset();
+    }
+
+    private void placeSamples(Point[] template) {
+        /**
+         * Places the top-left corners of the sample squares. The first samples use
+         * the template points, further ones lie halfway between consecutive points.
+         */
+        int n = template.length;
+        for (int i = 0; i < sampleNum; i++) {
+            Point a = template[i % n];
+            if (i < n) {
+                samplePoints[i][0] = a;
+            } else {
+                Point b = template[(i + 1) % n];
+                samplePoints[i][0] = new Point((int) ((a.x + b.x) / 2), (int) ((a.y + b.y) / 2));
             }
         }
     }
@@ -305,21 +729,24 @@ public class Frame {
         /**
          * Generates binary image thresholded only by sampled hand colors
          */
-        for (int i = 0; i < SAMPLE_NUM; i++) {
-            lowerBound.set(new double[]{avgHandColor[i][0]- handColorLowerRadius[0], avgHandColor[i][1]- handColorLowerRadius[1],
-                    avgHandColor[i][2]- handColorLowerRadius[2]});
-            upperBound.set(new double[]{avgHandColor[i][0]+ handColorUpperRadius[0], avgHandColor[i][1]+ handColorUpperRadius[1],
-                    avgHandColor[i][2]+ handColorUpperRadius[2]});
+        for (int i = 0; i < handRanges.count(); i++) {
+            lowerBound.set(handRanges.lower(i));
+            upperBound.set(handRanges.upper(i));
             inRange(imgIn, lowerBound, upperBound, sampleMats[i]);
         }
 
         imgOut.release();
         sampleMats[0].copyTo(imgOut);
 
-        for (int i = 1; i < SAMPLE_NUM; i++) {
+        for (int i = 1; i < handRanges.count(); i++) {
             Core.add(imgOut, sampleMats[i], imgOut);
         }
 
+        if (fastFilters) {
+            binaryFilters.medianBlur(imgOut, imgOut, 3);
+            binaryFilters.close(imgOut, imgOut, 7, 7);
+            return;
+        }
         Imgproc.medianBlur(imgOut, imgOut, 3);
         morphologyEx(imgOut, imgOut, MORPH_CLOSE, getStructuringElement(MORPH_RECT, new Size(7, 7)), new Point(-1, -1), 1);
     }
@@ -328,33 +755,411 @@ public class Frame {
         /**
          * Generates binary image thresholded only by sampled background colors
          */
-        for (int i = 0; i < SAMPLE_NUM; i++) {
-            lowerBound.set(new double[]{avgBackgroundColor[i][0]- handColorBackLowerRadius[0], avgBackgroundColor[i][1]- handColorBackLowerRadius[1],
-                    avgBackgroundColor[i][2]- handColorBackLowerRadius[2]});
-            upperBound.set(new double[]{avgBackgroundColor[i][0]+ handColorBackUpperRadius[0], avgBackgroundColor[i][1]+ handColorBackUpperRadius[1],
-                    avgBackgroundColor[i][2]+ handColorBackUpperRadius[2]});
-
+        for (int i = 0; i < backRanges.count(); i++) {
+            lowerBound.set(backRanges.lower(i));
+            upperBound.set(backRanges.upper(i));
             Core.inRange(imgIn, lowerBound, upperBound, sampleMats[i]);
         }
 
         imgOut.release();
         sampleMats[0].copyTo(imgOut);
 
-        for (int i = 1; i < SAMPLE_NUM; i++) {
+        for (int i = 1; i < backRanges.count(); i++) {
             Core.add(imgOut, sampleMats[i], imgOut);
         }
 
         Core.bitwise_not(imgOut, imgOut);
-        Imgproc.medianBlur(imgOut, imgOut, 7);
+        if (fastFilters) binaryFilters.medianBlur(imgOut, imgOut, 7);
+        else Imgproc.medianBlur(imgOut, imgOut, 7);
+    }
+
+    public void setPackedMasks(boolean packed) {
+        /**
+         * Selects whether produceBinaryImage() combines and filters the
+         * thresholded masks in bit-packed form
+         */
+        packedMasks = packed;
+    }
+
+    public void setFastFilters(boolean fast) {
+        /**
+         * Selects whether the median and closing filters run through
+         * BinaryFilters, whose cost does not grow with the kernel size
+         */
+        fastFilters = fast;
+    }
+
+    public void setDirectBuffers(boolean direct) {
+        /**
+         * Selects whether color sampling reads the frame in place through a
+         * direct buffer over the Mat data instead of copying the sampled region
+         */
+        colorSampler.setDirect(direct);
+    }
+
+    public void setBlobContours(boolean blob) {
+        /**
+         * Selects whether draw() labels the mask and traces only the hand blob
+         * instead of tracing every contour with findContours()
+         */
+        blobContours = blob;
+    }
+
+    public void setLinearHull(boolean linear) {
+        /**
+         * Selects whether draw() computes the hull and convexity defects with
+         * PolygonHull instead of convexHull() and convexityDefects()
+         */
+        linearHull = linear;
+    }
+
+    public void setAdaptiveRadii(boolean adaptive) {
+        /**
+         * Selects whether each sample is thresholded with radii derived from the
+         * color variance of its box instead of the constant radii
+         */
+        adaptiveRadii = adaptive;
+    }
+
+    public void setMergeRatio(double ratio) {
+        /**
+         * Sets how much of the bounding box two overlapping color ranges must
+         * cover to be merged. 1 (the default) only merges identical, contained
+         * or exactly adjoining ranges and keeps the mask unchanged; 0 merges every
+         * cluster of overlapping ranges into its bounding box, the fewest inRange
+         * passes at the cost of a looser mask.
+         */
+        mergeRatio = ratio;
+    }
+
+    private int readColorPixels() {
+        /**
+         * Copies the converted frame into colorPixels and returns its pixel count
+         */
+        int n = mIntermediateMat.cols() * mIntermediateMat.rows();
+        if (tmpPixels.length < n) {
+            colorPixels = new byte[3 * n];
+            handPixels = new byte[n];
+            backPixels = new byte[n];
+            tmpPixels = new byte[n];
+        }
+        mIntermediateMat.get(0, 0, colorPixels);
+        return n;
+    }
+
+    private void producePackedMask(ColorRanges ranges, int n, PackedMask out) {
+        /**
+         * Thresholds all color ranges at once on colorPixels and packs the
+         * result, 8 pixels per step
+         */
+        PixelKernels.get().inRange(colorPixels, n, ranges, tmpPixels);
+        out.fromBytes(tmpPixels, mIntermediateMat.cols(), mIntermediateMat.rows());
+    }
+
+    private void produceBinaryImagePacked() {
+        /**
+         * Bit-packed counterpart of produceBinaryImage(). The frame is read
+         * once and mFGMask written once, everything in between stays packed
+         */
+        handleBounds();
+        updateRanges();
+        int n = readColorPixels();
+        producePackedMask(handRanges, n, packedHand);
+        packedHand.median(3);
+        packedHand.close(7, 7);
+
+        producePackedMask(backRanges, n, packedBack);
+        packedBack.not();
+        packedBack.median(7);
+
+        packedHand.and(packedBack);
+        packedHand.toMat(mFGMask);
+    }
+
+    private void produceBinaryImageBackProjected() {
+        /**
+         * Thresholds the hand likelihood of every pixel instead of the color boxes,
+         * followed by the same filtering as produceBinaryHandImage()
+         */
+        if (!backProjector.isReady()) {
+            // color model came from auto calibration or a profile, derive the histograms from it
+            handleBounds();
+            updateRanges();
+            backProjector.fromRanges(handRanges, backRanges);
+        }
+        backProjector.project(mIntermediateMat, mFGMask);
+        if (fastFilters) {
+            binaryFilters.medianBlur(mFGMask, mFGMask, 3);
+            binaryFilters.close(mFGMask, mFGMask, 7, 7);
+        } else {
+            medianBlur(mFGMask, mFGMask, 3);
+            morphologyEx(mFGMask, mFGMask, MORPH_CLOSE, getStructuringElement(MORPH_RECT, new Size(7, 7)), new Point(-1, -1), 1);
+        }
+    }
+
+    public Mat getLikelihoodMap() {
+        /**
+         * Returns the hand likelihood map (0 ~ 255) of the last back-projected frame,
+         * usable as the probability image of CamShift
+         */
+        return backProjector.getLikelihoodMap();
+    }
+
+    public RotatedRect trackHand(Rect window) {
+        /**
+         * Runs CamShift on the last likelihood map, updating window in place
+         */
+        return backProjector.camShift(window);
+    }
+
+    public String benchmarkPacked(Mat rgba) {
+        /**
+         * Times the Mat and the bit-packed color box paths of produceBinaryImage()
+         * on rgba scaled to 1280x720 and 1920x1080, and counts the pixels where
+         * the masks differ (the packed filters treat the border differently).
+         * The frame keeps the Mat path result of rgba itself.
+         */
+        final int runs = 5;
+        final Size[] sizes = {new Size(1280, 720), new Size(1920, 1080)};
+        boolean wasPacked = packedMasks, wasJava = javaKernels, wasTiled = tiled, wasBackProjection = backProjection;
+        javaKernels = false;
+        tiled = false;
+        backProjection = false;
+        Mat scaled = new Mat();
+        Mat reference = new Mat();
+        Mat diff = new Mat();
+        StringBuilder report = new StringBuilder();
+
+        for (Size size : sizes) {
+            Imgproc.resize(rgba, scaled, size);
+            readInputFrame(scaled);
+            packedMasks = false;
+            double mat = timeBinaryImage(runs);
+            mFGMask.copyTo(reference);
+            packedMasks = true;
+            double packed = timeBinaryImage(runs);
+            Core.compare(reference, mFGMask, diff, Core.CMP_NE);
+            if (report.length() > 0) report.append(", ");
+            report.append(String.format("%dx%d Mat %.2f ms, packed %.2f ms (x%.2f, %d pixels differ)",
+                    (int) size.width, (int) size.height, mat, packed, mat / packed, Core.countNonZero(diff)));
+        }
+
+        packedMasks = false;
+        readInputFrame(rgba);
+        produceBinaryImage();
+        packedMasks = wasPacked;
+        javaKernels = wasJava;
+        tiled = wasTiled;
+        backProjection = wasBackProjection;
+        scaled.release();
+        reference.release();
+        diff.release();
+        return report.toString();
+    }
+
+    private double timeBinaryImage(int runs) {
+        /**
+         * Fastest of runs produceBinaryImage() calls on the current frame, in milliseconds
+         */
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long t0 = System.nanoTime();
+            produceBinaryImage();
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        return best / 1e6;
+    }
+
+    public String compareSegmentation() {
+        /**
+         * Segments the current frame with both the color boxes and back-projection,
+         * and reports the time of each and the overlap (IoU) of the two masks.
+         * mFGMask holds the color box result afterwards.
+         */
+        boolean wasBackProjection = backProjection;
+        Mat boxMask = new Mat();
+        Mat tmp = new Mat();
+
+        backProjection = false;
+        long t0 = System.nanoTime();
+        produceBinaryImage();
+        long t1 = System.nanoTime();
+        mFGMask.copyTo(boxMask);
+
+        backProjection = true;
+        long t2 = System.nanoTime();
+        produceBinaryImage();
+        long t3 = System.nanoTime();
+        backProjection = wasBackProjection;
+
+        bitwise_and(boxMask, mFGMask, tmp);
+        int intersection = Core.countNonZero(tmp);
+        Core.bitwise_or(boxMask, mFGMask, tmp);
+        int union = Core.countNonZero(tmp);
+        boxMask.copyTo(mFGMask);
+        boxMask.release();
+        tmp.release();
+
+        return String.format("boxes %.2f ms, back-projection %.2f ms, IoU %.3f",
+                (t1 - t0) / 1e6, (t3 - t2) / 1e6, union == 0 ? 1.0 : (double) intersection / union);
+    }
+
+    public void setBackProjection(boolean enabled) {
+        /**
+         * Selects whether produceBinaryImage() segments by histogram
+         * back-projection instead of thresholding the color boxes
+         */
+        backProjection = enabled;
+    }
+
+    private void produceBinaryImageJava() {
+        /**
+         * Counterpart of produceBinaryImage() on pixel arrays, thresholding
+         * with PixelKernels and filtering with the array API of BinaryFilters
+         */
+        handleBounds();
+        updateRanges();
+        int w = mIntermediateMat.cols(), h = mIntermediateMat.rows();
+        int n = readColorPixels();
+        PixelKernels kernels = PixelKernels.get();
+
+        kernels.inRange(colorPixels, n, handRanges, tmpPixels);
+        binaryFilters.medianBlur(tmpPixels, handPixels, w, h, 3);
+        binaryFilters.close(handPixels, handPixels, w, h, 7, 7);
+
+        kernels.inRange(colorPixels, n, backRanges, tmpPixels);
+        kernels.not(tmpPixels, tmpPixels, n);
+        binaryFilters.medianBlur(tmpPixels, backPixels, w, h, 7);
+
+        kernels.and(handPixels, backPixels, tmpPixels, n);
+        mFGMask.put(0, 0, tmpPixels); // only the first n values fit into the mask
+    }
+
+    public void setJavaKernels(boolean enabled) {
+        /**
+         * Selects whether produceBinaryImage() runs the color box path in Java
+         * on pixel arrays instead of through OpenCV
+         */
+        javaKernels = enabled;
+    }
+
+    public void setTiled(boolean enabled) {
+        /**
+         * Selects whether readInputFrame() and the color box path of
+         * produceBinaryImage() run on parallel stripes of the frame
+         */
+        if (enabled && tiledSegmenter == null) tiledSegmenter = new TiledSegmenter();
+        tiled = enabled;
+    }
+
+    public String benchmarkTiles(Mat rgba, int maxThreads) {
+        /**
+         * Times blur, conversion and segmentation of an RGBA frame serially and
+         * with 1 ~ maxThreads stripes on as many threads, checking that every
+         * tiled mask equals the serial one. The frame keeps the serial result.
+         */
+        final int runs = 5;
+        boolean wasTiled = tiled;
+        TiledSegmenter wasSegmenter = tiledSegmenter;
+        Mat reference = new Mat();
+        Mat diff = new Mat();
+        StringBuilder report = new StringBuilder();
+
+        tiled = false;
+        double serial = timeSegmentation(rgba, runs);
+        mFGMask.copyTo(reference);
+        report.append(String.format("serial %.2f ms", serial));
+
+        tiled = true;
+        for (int n = 1; n <= maxThreads; n++) {
+            ExecutorService pool = Executors.newFixedThreadPool(n);
+            tiledSegmenter = new TiledSegmenter(pool, n);
+            double millis = timeSegmentation(rgba, runs);
+            Core.compare(reference, mFGMask, diff, Core.CMP_NE);
+            boolean exact = Core.countNonZero(diff) == 0;
+            tiledSegmenter.release();
+            pool.shutdown();
+            report.append(String.format(", %d threads %.2f ms (x%.2f%s)", n, millis, serial / millis,
+                    exact ? "" : ", MISMATCH"));
+        }
+
+        // redo the serial pass, mRgba still refers to the blurred frame of the last stripe benchmark
+        tiled = false;
+        readInputFrame(rgba);
+        produceBinaryImage();
+        tiled = wasTiled;
+        tiledSegmenter = wasSegmenter;
+        reference.release();
+        diff.release();
+        return report.toString();
+    }
+
+    private double timeSegmentation(Mat rgba, int runs) {
+        /**
+         * Fastest of runs conversions and segmentations of rgba, in milliseconds
+         */
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long t0 = System.nanoTime();
+            readInputFrame(rgba);
+            produceBinaryImage();
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        return best / 1e6;
+    }
+
+    public static String benchmarkHeaderReads(Mat img, int reads) {
+        /**
+         * Times reading rows(), cols() and type() of img from the Java-side
+         * header cache, and with the cache dropped before every read so that
+         * each field costs a JNI call as it did before the cache
+         */
+        final int runs = 5;
+        long cached = Long.MAX_VALUE, uncached = Long.MAX_VALUE;
+        int sum = 0;
+        for (int r = 0; r < runs; r++) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < reads; i++) sum += img.rows() + img.cols() + img.type();
+            long t1 = System.nanoTime();
+            for (int i = 0; i < reads; i++) {
+                img.invalidate();
+                sum += img.rows() + img.cols() + img.type();
+            }
+            long t2 = System.nanoTime();
+            cached = Math.min(cached, t1 - t0);
+            uncached = Math.min(uncached, t2 - t1);
+        }
+        headerSink = sum; // keeps the loops from being optimized away
+        return String.format("cached %.1f ns, JNI %.1f ns per 3 fields (x%.1f)", (double) cached / reads,
+                (double) uncached / reads, (double) uncached / Math.max(1, cached));
     }
 
     public void produceBinaryImage() {
         /**
          * Generates the overall binary image for display and detection
          */
+        if (backProjection) {
+            produceBinaryImageBackProjected();
+            return;
+        }
+        if (packedMasks) {
+            produceBinaryImagePacked();
+            return;
+        }
+        if (javaKernels) {
+            produceBinaryImageJava();
+            return;
+        }
+        if (tiled) {
+            handleBounds();
+            updateRanges();
+            tiledSegmenter.segment(mIntermediateMat, handRanges, backRanges, fastFilters, mFGMask);
+            return;
+        }
         Mat binTmpMat = new Mat();
         Mat binTmpMat2 = new Mat();
         handleBounds();
+        updateRanges();
         produceBinaryHandImage(mIntermediateMat, binTmpMat);
         produceBinaryBackgroundImage(mIntermediateMat, binTmpMat2);
 
@@ -363,11 +1168,42 @@ public class Frame {
         binTmpMat.copyTo(mFGMask);
     }
 
+    private void updateRanges() {
+        /**
+         * Builds the color ranges around every sampled color and merges the
+         * overlapping ones, so that thresholding runs once per distinct range
+         */
+        handRanges.clear();
+        backRanges.clear();
+        for (int i = 0; i < sampleNum; i++) {
+            addRange(handRanges, avgHandColor[i], handColorLowerRadius, handColorUpperRadius, handSampleRadius[i]);
+            addRange(backRanges, avgBackgroundColor[i], handColorBackLowerRadius, handColorBackUpperRadius,
+                    backSampleRadius[i]);
+        }
+        handRanges.merge(mergeRatio);
+        backRanges.merge(mergeRatio);
+    }
+
+    private void addRange(ColorRanges ranges, double[] avgColor, double[] lowerRadius, double[] upperRadius,
+                          double[] sampleRadius) {
+        /**
+         * Adds the range around one sampled color, using the radii derived
+         * from the sample's variance when adaptiveRadii is set
+         */
+        double[] lower = adaptiveRadii ? sampleRadius : lowerRadius;
+        double[] upper = adaptiveRadii ? sampleRadius : upperRadius;
+        for (int j = 0; j < 3; j++) {
+            rangeLower[j] = avgColor[j] - lower[j];
+            rangeUpper[j] = avgColor[j] + upper[j];
+        }
+        ranges.add(rangeLower, rangeUpper);
+    }
+
     private void handleBounds() {
         /**
          * Prevents color value from exceeding range 0 ~ 255
          */
-        for (int i = 0; i < SAMPLE_NUM; i++) {
+        for (int i = 0; i < sampleNum; i++) {
             for (int j = 0; j < 3; j++) {
                 if (avgHandColor[i][j] < handColorLowerRadius[j])
                     handColorLowerRadius[j] = avgHandColor[i][j];
@@ -0,0 +1,82 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Learned mapping from HandFeatures rows to integer gesture labels, backed by
+ * one of the models of the OpenCV ml module. The model file type picks the
+ * implementation: OpenCV's own XML/YAML files hold an SVM, anything else the
+ * training set of a k-nearest-neighbour model. The FeatureScaler the model was
+ * trained with lives next to it, in the model file name plus ".scale".
+ */
+
+import org.opencv.core.Mat;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+public abstract class GestureClassifier {
+    private FeatureScaler scaler = new FeatureScaler(); // applied to every row before predict()
+
+    public static GestureClassifier create(File model) {
+        /**
+         * Returns an untrained classifier of the type matching the file name
+         */
+        String name = model.getName();
+        if (name.endsWith(".xml") || name.endsWith(".yml")) return new SvmGestureClassifier();
+        return new KnnGestureClassifier();
+    }
+
+    public static GestureClassifier load(File model) throws IOException {
+        /**
+         * Reads the model and its scaler. Models without a scaler file were
+         * trained on unscaled features and keep them
+         */
+        GestureClassifier classifier = create(model);
+        classifier.read(model);
+        File scaling = FeatureScaler.fileFor(model);
+        if (scaling.isFile()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(scaling)))) {
+                classifier.scaler = FeatureScaler.readFrom(in);
+            }
+        }
+        return classifier;
+    }
+
+    public void save(File model) throws IOException {
+        write(model);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(FeatureScaler.fileFor(model))))) {
+            scaler.writeTo(out);
+        }
+    }
+
+    public FeatureScaler getScaler() {
+        return scaler;
+    }
+
+    public void setScaler(FeatureScaler scaler) {
+        this.scaler = scaler;
+    }
+
+    /**
+     * Trains on CV_32F samples, one HandFeatures row each after the scaler, and a
+     * CV_32F column of labels
+     */
+    public abstract void train(Mat samples, Mat labels);
+
+    /**
+     * Predicts all rows of samples at once, writing a CV_32F column of labels to results
+     */
+    public abstract void predict(Mat samples, Mat results);
+
+    public abstract void read(File model) throws IOException;
+
+    public abstract void write(File model) throws IOException;
+
+    public abstract void release();
+}
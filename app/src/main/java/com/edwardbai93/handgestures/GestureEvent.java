@@ -0,0 +1,56 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Immutable gesture event delivered by GestureEventStream
+ */
+
+public final class GestureEvent {
+    public enum Type {
+        HAND_ENTERED, // a hand came into view
+        HAND_LEFT, // a hand is no longer in view
+        FINGER_COUNT_CHANGED, // the finger count changed and stayed stable for the debounce time
+        POSE_HELD, // the finger count stayed unchanged for the hold time
+        MOTION // the hand trajectory matched a motion template, named by motion
+    }
+
+    public final Type type;
+    public final long sequence; // increases by one per event emitted, including dropped ones
+    public final long timestamp; // System.nanoTime() of the frame that caused the event
+    public final int handId;
+    public final int fingerCount; // -1 when unknown, e.g. for HAND_LEFT
+    public final int previousFingerCount; // count before a FINGER_COUNT_CHANGED, -1 otherwise
+    public final String motion; // template name of a MOTION, null otherwise
+
+    GestureEvent(Type type, long sequence, long timestamp, int handId, int fingerCount, int previousFingerCount,
+                 String motion) {
+        this.type = type;
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.handId = handId;
+        this.fingerCount = fingerCount;
+        this.previousFingerCount = previousFingerCount;
+        this.motion = motion;
+    }
+
+    boolean coalescesWith(GestureEvent other) {
+        /**
+         * Finger count changes of the same hand replace each other while queued,
+         * subscribers only need the latest count
+         */
+        return type == Type.FINGER_COUNT_CHANGED && other.type == Type.FINGER_COUNT_CHANGED && handId == other.handId;
+    }
+
+    GestureEvent mergedWith(GestureEvent newer) {
+        /**
+         * The newer event of a coalescing pair, changing from the count this one started at
+         */
+        return new GestureEvent(newer.type, newer.sequence, newer.timestamp, newer.handId, newer.fingerCount,
+                previousFingerCount, newer.motion);
+    }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + type + " hand " + handId + " fingers " + fingerCount +
+                (motion != null ? " " + motion : "");
+    }
+}
@@ -0,0 +1,219 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Turns the per-frame hand results into gesture events and delivers them to
+ * listeners on a separate dispatch thread.
+ * The camera thread only appends to a bounded queue and never waits on a
+ * listener: a queued finger count change is updated in place by a newer one of
+ * the same hand, as long as no other event of that hand came in between, and
+ * when the queue is full the oldest event is dropped and counted.
+ */
+
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class GestureEventStream {
+    private static final String TAG = "GestureEventStream";
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 150;
+    public static final long DEFAULT_HOLD_MILLIS = 1000;
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final long debounceNanos;
+    private final long holdNanos;
+    private final int capacity;
+    private final List<GestureListener> listeners = new CopyOnWriteArrayList<>();
+
+    // camera thread state
+    private final Map<Integer, HandState> states = new HashMap<>();
+    private long nextSequence = 0;
+
+    // shared with the dispatch thread, guarded by queue
+    private final LinkedList<GestureEvent> queue = new LinkedList<>();
+    private long dropped = 0;
+    private boolean stopped = false;
+    private final Thread dispatcher;
+
+    public GestureEventStream() {
+        this(DEFAULT_DEBOUNCE_MILLIS, DEFAULT_HOLD_MILLIS, DEFAULT_CAPACITY);
+    }
+
+    public GestureEventStream(long debounceMillis, long holdMillis, int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        debounceNanos = debounceMillis * 1000000L;
+        holdNanos = holdMillis * 1000000L;
+        this.capacity = capacity;
+        dispatcher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                dispatch();
+            }
+        }, "GestureEvents");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    public void addListener(GestureListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(GestureListener listener) {
+        listeners.remove(listener);
+    }
+
+    public long getDropped() {
+        /**
+         * Number of events dropped because the queue was full
+         */
+        synchronized (queue) {
+            return dropped;
+        }
+    }
+
+    public void update(List<HandResult> hands, long timestamp) {
+        /**
+         * Called by the camera thread with the hands of every analyzed frame
+         */
+        for (HandState state : states.values()) state.seen = false;
+        for (HandResult hand : hands) {
+            HandState state = states.get(hand.id);
+            if (state == null) {
+                state = new HandState(hand.fingerCount, timestamp);
+                states.put(hand.id, state);
+                emit(GestureEvent.Type.HAND_ENTERED, timestamp, hand.id, hand.fingerCount, -1);
+            }
+            state.seen = true;
+            updateCount(state, hand, timestamp);
+        }
+        for (Iterator<Map.Entry<Integer, HandState>> it = states.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Integer, HandState> entry = it.next();
+            if (!entry.getValue().seen) {
+                it.remove();
+                emit(GestureEvent.Type.HAND_LEFT, timestamp, entry.getKey(), -1, -1);
+            }
+        }
+    }
+
+    private void updateCount(HandState state, HandResult hand, long timestamp) {
+        /**
+         * A new count only replaces the stable one after it was seen for the
+         * whole debounce time; the pose is held once the stable count lasts
+         * for the hold time
+         */
+        if (hand.fingerCount != state.candidateCount) {
+            state.candidateCount = hand.fingerCount;
+            state.candidateSince = timestamp;
+        }
+        if (state.candidateCount != state.stableCount && timestamp - state.candidateSince >= debounceNanos) {
+            emit(GestureEvent.Type.FINGER_COUNT_CHANGED, timestamp, hand.id, state.candidateCount, state.stableCount);
+            state.stableCount = state.candidateCount;
+            state.stableSince = state.candidateSince;
+            state.holdReported = false;
+        }
+        if (!state.holdReported && state.stableCount >= 0 && state.candidateCount == state.stableCount &&
+                timestamp - state.stableSince >= holdNanos) {
+            emit(GestureEvent.Type.POSE_HELD, timestamp, hand.id, state.stableCount, -1);
+            state.holdReported = true;
+        }
+    }
+
+    public void motion(int handId, String name, long timestamp) {
+        /**
+         * Called by the camera thread when the trajectory of a hand matched a motion template
+         */
+        emit(GestureEvent.Type.MOTION, timestamp, handId, -1, -1, name);
+    }
+
+    private void emit(GestureEvent.Type type, long timestamp, int handId, int fingerCount, int previous) {
+        emit(type, timestamp, handId, fingerCount, previous, null);
+    }
+
+    private void emit(GestureEvent.Type type, long timestamp, int handId, int fingerCount, int previous,
+                      String motion) {
+        GestureEvent event = new GestureEvent(type, nextSequence++, timestamp, handId, fingerCount, previous, motion);
+        synchronized (queue) {
+            if (stopped) return;
+            if (coalesce(event)) return;
+            if (queue.size() == capacity) {
+                queue.pollFirst();
+                dropped++;
+            }
+            queue.addLast(event);
+            queue.notify();
+        }
+    }
+
+    private boolean coalesce(GestureEvent event) {
+        /**
+         * Merges event into the latest queued event of the same hand when they
+         * coalesce, keeping its position and its previous finger count. A merged
+         * change back to the previous count is removed. Returns false when the
+         * event still has to be queued. Called with the queue lock held
+         */
+        for (ListIterator<GestureEvent> it = queue.listIterator(queue.size()); it.hasPrevious(); ) {
+            GestureEvent queued = it.previous();
+            if (queued.handId != event.handId) continue;
+            if (!queued.coalescesWith(event)) return false;
+            GestureEvent merged = queued.mergedWith(event);
+            if (merged.fingerCount == merged.previousFingerCount) it.remove();
+            else it.set(merged);
+            return true;
+        }
+        return false;
+    }
+
+    private void dispatch() {
+        while (true) {
+            GestureEvent event;
+            synchronized (queue) {
+                while (queue.isEmpty() && !stopped) {
+                    try {
+                        queue.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (stopped) return;
+                event = queue.pollFirst();
+            }
+            for (GestureListener listener : listeners) {
+                try {
+                    listener.onGestureEvent(event);
+                } catch (RuntimeException e) {
+                    Log.w(TAG, "Listener failed on " + event, e);
+                }
+            }
+        }
+    }
+
+    public void shutdown() {
+        /**
+         * Stops the dispatch thread, pending events are discarded
+         */
+        synchronized (queue) {
+            stopped = true;
+            queue.clear();
+            queue.notify();
+        }
+    }
+
+    private static class HandState {
+        int stableCount; // last reported finger count
+        long stableSince;
+        int candidateCount; // count of the latest frames, waiting for the debounce time
+        long candidateSince;
+        boolean holdReported;
+        boolean seen; // found in the current frame
+
+        HandState(int fingerCount, long timestamp) {
+            stableCount = candidateCount = fingerCount;
+            stableSince = candidateSince = timestamp;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.edwardbai93.handgestures;
+
+public interface GestureListener {
+    /**
+     * Called on the dispatch thread of GestureEventStream, never on the camera thread
+     */
+    void onGestureEvent(GestureEvent event);
+}
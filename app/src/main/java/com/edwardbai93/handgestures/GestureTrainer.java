@@ -0,0 +1,159 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Offline trainer for GestureClassifier, run on a desktop JVM with the OpenCV
+ * Java bindings:
+ *
+ *   java -cp opencv-248.jar:classes -Djava.library.path=... \
+ *       com.edwardbai93.handgestures.GestureTrainer data gesture_svm.xml
+ *
+ * data holds one sub-directory per integer label with binary hand masks. The
+ * largest blob of each mask goes through the same contour approximation as
+ * Frame.draw() and HandFeatures. Every fifth sample is held out to report the
+ * accuracy, then the model is trained on all samples and written together with
+ * the FeatureScaler fitted to them.
+ */
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfPoint;
+import org.opencv.core.MatOfPoint2f;
+import org.opencv.highgui.Highgui;
+import org.opencv.imgproc.Imgproc;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class GestureTrainer {
+    private static final int HOLDOUT = 5; // every fifth sample tests the model
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: GestureTrainer <data dir> <model file>");
+            System.exit(2);
+        }
+        System.loadLibrary(Core.NATIVE_LIBRARY_NAME);
+        File model = new File(args[1]);
+
+        List<float[]> features = new ArrayList<>();
+        List<Float> labels = new ArrayList<>();
+        load(new File(args[0]), features, labels);
+        if (features.isEmpty()) throw new IOException("No usable samples in " + args[0]);
+        System.out.println(features.size() + " samples");
+
+        Mat trainSamples = new Mat(), trainLabels = new Mat(), testSamples = new Mat(), testLabels = new Mat();
+        split(features, labels, trainSamples, trainLabels, testSamples, testLabels);
+        GestureClassifier classifier = GestureClassifier.create(model);
+        if (testSamples.rows() > 0 && trainSamples.rows() > 0) {
+            classifier.train(trainSamples, trainLabels);
+            Mat predicted = new Mat();
+            classifier.predict(testSamples, predicted);
+            float[] p = new float[testSamples.rows()], t = new float[testSamples.rows()];
+            predicted.get(0, 0, p);
+            testLabels.get(0, 0, t);
+            int correct = 0;
+            for (int i = 0; i < p.length; i++) if (Math.round(p[i]) == Math.round(t[i])) correct++;
+            System.out.printf("held-out accuracy %.1f%% (%d/%d)%n", 100.0 * correct / p.length, correct, p.length);
+        }
+
+        FeatureScaler scaler = FeatureScaler.fit(features);
+        Mat allSamples = toMat(features, scaler), allLabels = new Mat(labels.size(), 1, CvType.CV_32F);
+        for (int i = 0; i < labels.size(); i++) allLabels.put(i, 0, labels.get(i));
+        classifier.setScaler(scaler);
+        classifier.train(allSamples, allLabels);
+        classifier.save(model);
+        System.out.println("wrote " + model);
+    }
+
+    private static void load(File dir, List<float[]> features, List<Float> labels) throws IOException {
+        File[] labelDirs = dir.listFiles();
+        if (labelDirs == null) throw new IOException("Cannot list " + dir);
+        Arrays.sort(labelDirs);
+        HandFeatures extractor = new HandFeatures();
+        for (File labelDir : labelDirs) {
+            if (!labelDir.isDirectory()) continue;
+            float label;
+            try {
+                label = Integer.parseInt(labelDir.getName());
+            } catch (NumberFormatException e) {
+                System.err.println("skipping " + labelDir + ", not an integer label");
+                continue;
+            }
+            File[] images = labelDir.listFiles();
+            if (images == null) continue;
+            Arrays.sort(images);
+            for (File image : images) {
+                MatOfPoint contour = largestContour(image);
+                float[] row = new float[HandFeatures.SIZE];
+                if (contour != null && extractor.extract(contour, row)) {
+                    features.add(row);
+                    labels.add(label);
+                } else {
+                    System.err.println("skipping " + image + ", no hand");
+                }
+            }
+        }
+        extractor.release();
+    }
+
+    private static MatOfPoint largestContour(File image) {
+        Mat mask = Highgui.imread(image.getPath(), Highgui.CV_LOAD_IMAGE_GRAYSCALE);
+        if (mask.empty()) return null;
+        Imgproc.threshold(mask, mask, 127, 255, Imgproc.THRESH_BINARY);
+        List<MatOfPoint> contours = new ArrayList<>();
+        Imgproc.findContours(mask, contours, new Mat(), Imgproc.RETR_EXTERNAL, Imgproc.CHAIN_APPROX_NONE);
+        mask.release();
+        MatOfPoint largest = null;
+        double maxArea = 0;
+        for (MatOfPoint c : contours) {
+            double area = Imgproc.contourArea(c);
+            if (area > maxArea) {
+                maxArea = area;
+                largest = c;
+            }
+        }
+        if (largest == null) return null;
+        // same approximation as Frame.draw()
+        MatOfPoint2f approx = new MatOfPoint2f(largest.toArray());
+        Imgproc.approxPolyDP(approx, approx, 1, false);
+        largest.fromArray(approx.toArray());
+        return largest;
+    }
+
+    private static void split(List<float[]> features, List<Float> labels, Mat trainSamples, Mat trainLabels,
+                              Mat testSamples, Mat testLabels) {
+        /**
+         * Holds out every HOLDOUT-th sample, scaling both sets with the scaler of
+         * the training set alone
+         */
+        List<float[]> train = new ArrayList<>(), test = new ArrayList<>();
+        List<Float> trainL = new ArrayList<>(), testL = new ArrayList<>();
+        for (int i = 0; i < features.size(); i++) {
+            boolean held = i % HOLDOUT == HOLDOUT - 1;
+            (held ? test : train).add(features.get(i));
+            (held ? testL : trainL).add(labels.get(i));
+        }
+        FeatureScaler scaler = FeatureScaler.fit(train);
+        toMat(train, scaler).copyTo(trainSamples);
+        toMat(test, scaler).copyTo(testSamples);
+        trainLabels.create(trainL.size(), 1, CvType.CV_32F);
+        testLabels.create(testL.size(), 1, CvType.CV_32F);
+        for (int i = 0; i < trainL.size(); i++) trainLabels.put(i, 0, trainL.get(i));
+        for (int i = 0; i < testL.size(); i++) testLabels.put(i, 0, testL.get(i));
+    }
+
+    private static Mat toMat(List<float[]> rows, FeatureScaler scaler) {
+        Mat m = new Mat(rows.size(), HandFeatures.SIZE, CvType.CV_32F);
+        float[] scaled = new float[HandFeatures.SIZE];
+        for (int i = 0; i < rows.size(); i++) {
+            System.arraycopy(rows.get(i), 0, scaled, 0, scaled.length);
+            scaler.apply(scaled);
+            m.put(i, 0, scaled);
+        }
+        return m;
+    }
+}
@@ -1,5 +1,6 @@
 package com.edwardbai93.handgestures;
 
+import org.opencv.core.CvType;
 import org.opencv.core.Mat;
 import org.opencv.core.MatOfInt;
 import org.opencv.core.MatOfInt4;
@@ -7,18 +8,21 @@ import org.opencv.core.MatOfPoint;
 import org.opencv.core.MatOfPoint2f;
 import org.opencv.core.Point;
 import org.opencv.core.Rect;
+import org.opencv.utils.FlatPoints;
 
 import java.util.ArrayList;
 import java.util.List;
 
-import static org.opencv.imgproc.Imgproc.contourArea;
-
 
 public class Hand {
+    public int id = -1; // stable across frames when tracked by MultiHandTracker
+
     // Data structures for approximating contours
     public List<MatOfPoint> contours = new ArrayList<>();
     public int contourMaxId = -1;
     public Mat hierachy = new Mat();
+    private MatOfPoint selected = new MatOfPoint(); // the one contour copied out of the flat contours
+    private int[] selectedXY = new int[0];
     public MatOfPoint2f approx_contour = new MatOfPoint2f();
 
     // Data structures for calculating convex hull
@@ -29,28 +33,84 @@ public class Hand {
     public MatOfInt4 defects = new MatOfInt4();
     public List<Point> defect_points = new ArrayList<>();
 
+    // Filtered convex hull points standing for the fingertips, and the recognized count
+    public List<Point> fingertip_points = new ArrayList<>();
+    public String gesture = "";
+
     // Bounding rectangle of the hand
     public Rect bounding_rect;
 
-    public void findBiggestContour() {
+    // Scratch space of the linear-time hull, per hand so that hands can be analyzed in parallel
+    PolygonHull polygonHull = new PolygonHull();
+    int[] contourXY = new int[0];
+    int[] hullIdx = new int[0];
+    int[] defectIdx = new int[0];
+
+    public void findBiggestContour(FlatPoints all) {
         /**
          * Mutate contourMaxId of the hand object
          * Select largest contour based on contour area
-         * and number of contour points
+         * and number of contour points, and copy only that one into contours
          */
         int idx = -1;
         int cNum = 0;
         double max_area = 0.0;
-        for (int i = 0; i < contours.size(); i++) {
-            int curNum = contours.get(i).toList().size();
-            double m = contourArea(contours.get(i));
+        for (int i = 0; i < all.count; i++) {
+            int curNum = all.size(i);
+            double m = area(all, i);
             if (m > max_area || curNum > cNum) {
                 idx = i;
                 max_area =  Math.max(max_area,m);
                 cNum = Math.max(cNum, curNum);
             }
         }
-        contourMaxId = idx;
+        contours.clear();
+        contourMaxId = -1;
+        if (idx != -1) setContour(all, idx);
+    }
+
+    void setContour(FlatPoints all, int i) {
+        /**
+         * Makes contour i of all the only contour of the hand
+         */
+        int n = all.size(i);
+        if (selectedXY.length < 2 * n) selectedXY = new int[2 * n];
+        System.arraycopy(all.xy, 2 * all.offsets[i], selectedXY, 0, 2 * n);
+        selected.create(n, 1, CvType.CV_32SC2);
+        if (n > 0) selected.put(0, 0, selectedXY); // put() stops at the end of the Mat
+        contours.clear();
+        contours.add(selected);
+        contourMaxId = 0;
+    }
+
+    static double area(FlatPoints all, int i) {
+        /**
+         * Same as Imgproc.contourArea() of contour i, without a Mat
+         */
+        int from = all.offsets[i], n = all.size(i);
+        if (n < 3) return 0;
+        long twice = 0;
+        for (int k = 0, j = n - 1; k < n; j = k++) {
+            int a = 2 * (from + j), b = 2 * (from + k);
+            twice += (long) all.xy[a] * all.xy[b + 1] - (long) all.xy[b] * all.xy[a + 1];
+        }
+        return Math.abs(twice) / 2.0;
+    }
+
+    static Rect boundingRect(FlatPoints all, int i) {
+        /**
+         * Same as Imgproc.boundingRect() of contour i, without a Mat
+         */
+        int from = all.offsets[i], to = all.offsets[i + 1];
+        if (from == to) return new Rect();
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int k = from; k < to; k++) {
+            minX = Math.min(minX, all.xy[2 * k]);
+            maxX = Math.max(maxX, all.xy[2 * k]);
+            minY = Math.min(minY, all.xy[2 * k + 1]);
+            maxY = Math.max(maxY, all.xy[2 * k + 1]);
+        }
+        return new Rect(minX, minY, maxX - minX + 1, maxY - minY + 1);
     }
 
     public boolean isHand(Mat img) {
@@ -0,0 +1,98 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Fixed-length shape features of a hand contour for GestureClassifier:
+ * the seven Hu moments (log scaled, the seventh without its sign, which flips
+ * when the hand is mirrored), statistics of the convexity defect depths
+ * and angles relative to the hand height, and the contour/hull/rectangle area
+ * ratios. Only needs the contour, so the offline trainer computes exactly the
+ * same features from mask images as the app does from camera frames. The
+ * features are unscaled; FeatureScaler standardizes them for the classifier.
+ */
+
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfInt;
+import org.opencv.core.MatOfInt4;
+import org.opencv.core.MatOfPoint;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.imgproc.Imgproc;
+import org.opencv.imgproc.Moments;
+
+public class HandFeatures {
+    public static final int SIZE = 15;
+    private static final double DEEP_DEFECT = 0.1; // depth, relative to the hand height, of a defect between fingers
+
+    private Mat mHu = new Mat();
+    private MatOfInt hull = new MatOfInt();
+    private MatOfInt4 defects = new MatOfInt4();
+    private MatOfPoint hullPoints = new MatOfPoint();
+    private double[] hu = new double[7];
+
+    public boolean extract(MatOfPoint contour, float[] out) {
+        /**
+         * Writes the SIZE features of the contour to out, returning false
+         * (and leaving out untouched) for degenerate contours
+         */
+        Point[] pts = contour.toArray();
+        if (pts.length < 5) return false;
+        double area = Imgproc.contourArea(contour);
+        Rect rect = Imgproc.boundingRect(contour);
+        if (area <= 0 || rect.height == 0) return false;
+
+        Moments m = Imgproc.moments(contour);
+        Imgproc.HuMoments(m, mHu);
+        mHu.get(0, 0, hu);
+        hu[6] = Math.abs(hu[6]); // a left and a right hand showing the same gesture
+        for (int i = 0; i < 7; i++)
+            out[i] = hu[i] == 0 ? 0 : (float) (-Math.signum(hu[i]) * Math.log10(Math.abs(hu[i])));
+
+        Imgproc.convexHull(contour, hull, false);
+        int[] hullIdx = hull.toArray();
+        Point[] hullPts = new Point[hullIdx.length];
+        for (int i = 0; i < hullIdx.length; i++) hullPts[i] = pts[hullIdx[i]];
+        hullPoints.fromArray(hullPts);
+        double hullArea = Imgproc.contourArea(hullPoints);
+
+        int deep = 0, num = 0;
+        double depthSum = 0, maxDepth = 0, angleSum = 0, minAngle = 180;
+        if (hullIdx.length >= 3) {
+            Imgproc.convexityDefects(contour, hull, defects);
+            int[] d = defects.toArray();
+            for (int i = 0; i < d.length; i += 4) {
+                double depth = d[i + 3] / 256.0 / rect.height;
+                num++;
+                depthSum += depth;
+                maxDepth = Math.max(maxDepth, depth);
+                if (depth > DEEP_DEFECT) {
+                    double angle = angle(pts[d[i]], pts[d[i + 2]], pts[d[i + 1]]);
+                    deep++;
+                    angleSum += angle;
+                    minAngle = Math.min(minAngle, angle);
+                }
+            }
+        }
+        out[7] = deep;
+        out[8] = num > 0 ? (float) (depthSum / num) : 0;
+        out[9] = (float) maxDepth;
+        out[10] = deep > 0 ? (float) (angleSum / deep / 180) : 1;
+        out[11] = (float) (minAngle / 180);
+        out[12] = hullArea > 0 ? (float) (area / hullArea) : 1;
+        out[13] = (float) (area / rect.area());
+        out[14] = (float) rect.width / rect.height;
+        return true;
+    }
+
+    private static double angle(Point start, Point far, Point end) {
+        double ax = start.x - far.x, ay = start.y - far.y, bx = end.x - far.x, by = end.y - far.y;
+        double l = Math.sqrt((ax * ax + ay * ay) * (bx * bx + by * by));
+        return l == 0 ? 180 : Math.toDegrees(Math.acos(Math.max(-1, Math.min(1, (ax * bx + ay * by) / l))));
+    }
+
+    public void release() {
+        mHu.release();
+        hull.release();
+        defects.release();
+        hullPoints.release();
+    }
+}
@@ -0,0 +1,66 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Immutable snapshot of one analyzed hand, safe to read from any thread.
+ * Unlike Hand, which the camera thread reuses every frame, a HandResult never
+ * changes after construction; coordinates are kept in flat int arrays of x, y
+ * pairs that are only reachable through the getters.
+ */
+
+public final class HandResult {
+    public final long timestamp; // System.nanoTime() of the frame
+    public final int id; // MultiHandTracker id, -1 in single-hand mode
+    public final int fingerCount; // recognized number of fingers, -1 when unknown
+    public final int x, y, width, height; // bounding rectangle
+    public final double centroidX, centroidY; // center of mass of the contour
+    private final int[] fingertips;
+    private final int[] defects;
+
+    HandResult(long timestamp, int id, int fingerCount, int x, int y, int width, int height,
+               double centroidX, double centroidY, int[] fingertips, int[] defects) {
+        /**
+         * Takes ownership of both arrays, which must not be modified afterwards
+         */
+        this.timestamp = timestamp;
+        this.id = id;
+        this.fingerCount = fingerCount;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.centroidX = centroidX;
+        this.centroidY = centroidY;
+        this.fingertips = fingertips;
+        this.defects = defects;
+    }
+
+    public int getFingertipNum() {
+        return fingertips.length / 2;
+    }
+
+    public int getFingertipX(int i) {
+        return fingertips[2 * i];
+    }
+
+    public int getFingertipY(int i) {
+        return fingertips[2 * i + 1];
+    }
+
+    public int getDefectNum() {
+        return defects.length / 2;
+    }
+
+    public int getDefectX(int i) {
+        return defects[2 * i];
+    }
+
+    public int getDefectY(int i) {
+        return defects[2 * i + 1];
+    }
+
+    @Override
+    public String toString() {
+        return "HandResult{id=" + id + ", fingers=" + fingerCount + ", rect=" + x + "," + y + " " + width + "x" +
+                height + ", fingertips=" + getFingertipNum() + ", defects=" + getDefectNum() + "}";
+    }
+}
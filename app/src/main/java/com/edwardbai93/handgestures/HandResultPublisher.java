@@ -0,0 +1,73 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Publishes the hands of the latest analyzed frame as HandResult snapshots.
+ * The camera thread builds the snapshots, each owning exactly sized coordinate
+ * arrays, and swaps a single volatile reference; readers on any thread get a
+ * consistent list without locking or copying.
+ */
+
+import org.opencv.core.MatOfPoint;
+import org.opencv.core.Point;
+import org.opencv.imgproc.Imgproc;
+import org.opencv.imgproc.Moments;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class HandResultPublisher {
+    private volatile List<HandResult> latest = Collections.emptyList();
+
+    public List<HandResult> getLatest() {
+        /**
+         * Unmodifiable hands of the last published frame, empty when none was found
+         */
+        return latest;
+    }
+
+    public HandResult getLatestHand() {
+        List<HandResult> hands = latest;
+        return hands.isEmpty() ? null : hands.get(0);
+    }
+
+    public void publish(Hand hand, boolean found, long timestamp) {
+        /**
+         * Publishes the single hand analyzed by Frame.draw(), or no hand
+         * when found is false
+         */
+        latest = found ? Collections.singletonList(snapshot(hand, timestamp)) : Collections.<HandResult>emptyList();
+    }
+
+    public void publish(List<Hand> hands, long timestamp) {
+        /**
+         * Publishes the hands analyzed by Frame.drawHands()
+         */
+        List<HandResult> results = new ArrayList<>(hands.size());
+        for (Hand hand : hands) {
+            if (hand.contourMaxId != -1) results.add(snapshot(hand, timestamp));
+        }
+        latest = Collections.unmodifiableList(results);
+    }
+
+    private HandResult snapshot(Hand hand, long timestamp) {
+        MatOfPoint contour = hand.contours.get(hand.contourMaxId);
+        Moments m = Imgproc.moments(contour);
+        double cx = m.get_m00() != 0 ? m.get_m10() / m.get_m00() : hand.bounding_rect.x + hand.bounding_rect.width / 2.0;
+        double cy = m.get_m00() != 0 ? m.get_m01() / m.get_m00() : hand.bounding_rect.y + hand.bounding_rect.height / 2.0;
+        int fingers = hand.gesture.isEmpty() ? -1 : Integer.parseInt(hand.gesture);
+        return new HandResult(timestamp, hand.id, fingers, hand.bounding_rect.x, hand.bounding_rect.y,
+                hand.bounding_rect.width, hand.bounding_rect.height, cx, cy,
+                coordinates(hand.fingertip_points), coordinates(hand.defect_points));
+    }
+
+    private static int[] coordinates(List<Point> points) {
+        int[] xy = new int[2 * points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            Point p = points.get(i);
+            xy[2 * i] = (int) Math.round(p.x);
+            xy[2 * i + 1] = (int) Math.round(p.y);
+        }
+        return xy;
+    }
+}
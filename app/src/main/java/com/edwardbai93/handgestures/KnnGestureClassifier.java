@@ -0,0 +1,94 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * GestureClassifier on CvKNearest. CvKNearest cannot be saved, so the model
+ * file holds the training set itself (magic, version, sample and feature
+ * counts, then every sample followed by its label, all floats), and reading
+ * it trains the model once.
+ */
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.ml.CvKNearest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+public class KnnGestureClassifier extends GestureClassifier {
+    private static final int MAGIC = 0x48474b4e; // "HGKN"
+    private static final int VERSION = 1;
+    public static final int K = 5;
+
+    private CvKNearest knn = new CvKNearest();
+    private Mat mSamples = new Mat();
+    private Mat mLabels = new Mat();
+    private Mat mNeighbors = new Mat();
+    private Mat mDists = new Mat();
+
+    @Override
+    public void train(Mat samples, Mat labels) {
+        samples.copyTo(mSamples);
+        labels.copyTo(mLabels);
+        knn.train(mSamples, mLabels);
+    }
+
+    @Override
+    public void predict(Mat samples, Mat results) {
+        knn.find_nearest(samples, Math.min(K, mSamples.rows()), results, mNeighbors, mDists);
+    }
+
+    @Override
+    public void read(File model) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(model)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a k-nearest-neighbour model");
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("Unsupported model version " + version);
+            int rows = in.readInt(), cols = in.readInt();
+            if (rows < 1 || cols != HandFeatures.SIZE)
+                throw new IOException("Invalid model size " + rows + "x" + cols);
+            float[] samples = new float[rows * cols], labels = new float[rows];
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) samples[i * cols + j] = in.readFloat();
+                labels[i] = in.readFloat();
+            }
+            Mat s = new Mat(rows, cols, CvType.CV_32F), l = new Mat(rows, 1, CvType.CV_32F);
+            s.put(0, 0, samples);
+            l.put(0, 0, labels);
+            train(s, l);
+            s.release();
+            l.release();
+        }
+    }
+
+    @Override
+    public void write(File model) throws IOException {
+        int rows = mSamples.rows(), cols = mSamples.cols();
+        float[] samples = new float[rows * cols], labels = new float[rows];
+        mSamples.get(0, 0, samples);
+        mLabels.get(0, 0, labels);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(model)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(rows);
+            out.writeInt(cols);
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) out.writeFloat(samples[i * cols + j]);
+                out.writeFloat(labels[i]);
+            }
+        }
+    }
+
+    @Override
+    public void release() {
+        mSamples.release();
+        mLabels.release();
+        mNeighbors.release();
+        mDists.release();
+    }
+}
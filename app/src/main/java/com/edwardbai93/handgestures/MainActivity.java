@@ -14,16 +14,35 @@ import org.opencv.android.LoaderCallbackInterface;
 import org.opencv.android.OpenCVLoader;
 import org.opencv.core.Mat;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
 public class MainActivity extends Activity implements CvCameraViewListener2 {
     private ProjectView mOpenCvCameraView;
     Hand hand = new Hand();
     Frame frame = new Frame();
+    FingertipTracker tracker = new FingertipTracker();
+    MultiHandTracker multiHandTracker = new MultiHandTracker();
+    HandResultPublisher results = new HandResultPublisher(); // latest hands, readable from any thread
+    GestureEventStream gestureEvents = new GestureEventStream();
+    TrajectoryRecorder trajectory = new TrajectoryRecorder(DtwMatcher.WINDOWS[DtwMatcher.WINDOWS.length - 1]);
+    DtwMatcher motionMatcher = new DtwMatcher();
+    CalibrationStore profileStore;
+    private Future<CalibrationProfile> pendingProfile; // profile being loaded for the current resolution
+    private volatile boolean saveProfile = false; // set once a manual calibration completes
+    private static final boolean LOG_FEATURES = false; // record every tracked frame for offline analysis
+    private FeatureLog featureLog;
 
+    public static final int AUTO_MODE = -2; // calibrate hand and background colors from a single frame
     public static final int SAMPLE_BACK = -1; // sample average color of background area
     public static final int SAMPLE_MODE = 0; // sample average color of the hand
     public static final int DETECTION_MODE = 1; // generates binary image for review
     public static final int TRACKING_MODE = 2; // draw contour and recognize gesture
-    private int mode = SAMPLE_BACK; // set initial mode
+    public static final int KEYFRAME_MODE = 3; // detect on keyframes and track fingertips in between
+    public static final int MULTI_HAND_MODE = 4; // draw contours and gestures of several hands
+    private int mode = AUTO_MODE; // set initial mode
 
     // Load libraries
     static {
@@ -54,6 +73,15 @@ public class MainActivity extends Activity implements CvCameraViewListener2 {
         setContentView(R.layout.activity_main);
 
         frame.initFrame();
+        profileStore = new CalibrationStore(getFilesDir());
+        motionMatcher.addDefaultTemplates();
+        loadClassifier();
+        gestureEvents.addListener(new GestureListener() {
+            @Override
+            public void onGestureEvent(GestureEvent event) {
+                Log.i("Hand Gesture", event.toString());
+            }
+        });
 
         mOpenCvCameraView = (ProjectView) findViewById(R.id.main_activity_java_surface_view);
         mOpenCvCameraView.setVisibility(SurfaceView.VISIBLE);
@@ -77,20 +105,52 @@ public class MainActivity extends Activity implements CvCameraViewListener2 {
         super.onDestroy();
         if (mOpenCvCameraView != null)
             mOpenCvCameraView.disableView();
+        profileStore.shutdown();
+        gestureEvents.shutdown();
     }
 
     public void onCameraViewStarted(int width, int height) {
         frame.startFrame(width, height);
+        // Start reading the saved calibration now, so it is usually ready for the first frame
+        pendingProfile = profileStore.loadAsync(mOpenCvCameraView.getOpenedCameraIndex(), width, height);
+        if (LOG_FEATURES) {
+            try {
+                featureLog = new FeatureLog(new File(getExternalFilesDir(null), "features_" + System.currentTimeMillis() + ".hgfl"));
+            } catch (IOException e) {
+                Log.w("Hand Gesture", "Cannot open feature log", e);
+            }
+        }
     }
 
     public void onCameraViewStopped() {
         frame.releaseFrame();
+        tracker.release();
+        if (featureLog != null) {
+            try {
+                featureLog.close();
+                Log.i("Hand Gesture", "Feature log closed, " + featureLog.getDropped() + " records dropped");
+            } catch (IOException e) {
+                Log.w("Hand Gesture", "Cannot write feature log", e);
+            }
+            featureLog = null;
+        }
     }
 
     public void switchMode(View view) {
         if (mode == SAMPLE_BACK) mode = SAMPLE_MODE;
-        else if (mode == SAMPLE_MODE) mode = DETECTION_MODE;
+        else if (mode == SAMPLE_MODE) {
+            saveProfile = true;
+            mode = DETECTION_MODE;
+        }
         else if (mode == DETECTION_MODE) mode = TRACKING_MODE;
+        else if (mode == TRACKING_MODE) {
+            tracker.reset();
+            mode = KEYFRAME_MODE;
+        }
+        else if (mode == KEYFRAME_MODE) {
+            multiHandTracker.reset();
+            mode = MULTI_HAND_MODE;
+        }
         else mode = DETECTION_MODE;
     }
 
@@ -98,10 +158,82 @@ public class MainActivity extends Activity implements CvCameraViewListener2 {
         mode = SAMPLE_BACK;
     }
 
+    public void autoCalibrate(View view) {
+        mode = AUTO_MODE;
+    }
+
+    private void pollProfile() {
+        /**
+         * Applies the saved calibration once it has been loaded, as long as
+         * no calibration has been started in the meantime. Clears
+         * pendingProfile once the load has finished, found or not
+         */
+        if (pendingProfile == null || !pendingProfile.isDone()) return;
+        try {
+            CalibrationProfile profile = pendingProfile.get();
+            if (profile != null && mode == AUTO_MODE) {
+                frame.applyProfile(profile);
+                mode = TRACKING_MODE;
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            Log.w("Hand Gesture", "Cannot load calibration profile", e);
+        }
+        pendingProfile = null;
+    }
+
+    private void loadClassifier() {
+        /**
+         * Uses a trained gesture model from the app's files, if one was
+         * installed, instead of the finger count heuristic
+         */
+        for (String name : new String[]{"gesture_svm.xml", "gesture_knn.bin"}) {
+            File model = new File(getFilesDir(), name);
+            if (!model.isFile()) continue;
+            try {
+                frame.setClassifier(GestureClassifier.load(model));
+                Log.i("Hand Gesture", "Loaded gesture model " + name);
+                return;
+            } catch (IOException e) {
+                Log.w("Hand Gesture", "Cannot load gesture model " + name, e);
+            }
+        }
+    }
+
+    private void matchMotion(HandResult hand) {
+        /**
+         * Records the trajectory of the hand and reports a motion once it
+         * matches a template, starting over afterwards
+         */
+        if (hand == null) {
+            trajectory.clear();
+            return;
+        }
+        trajectory.add(hand);
+        int template = motionMatcher.match(trajectory);
+        if (template >= 0) {
+            gestureEvents.motion(hand.id, motionMatcher.getName(template), hand.timestamp);
+            trajectory.clear();
+        }
+    }
+
     public Mat onCameraFrame(CvCameraViewFrame inputFrame) {
+        long timestamp = System.nanoTime();
         frame.readInputFrame(inputFrame);
+        pollProfile();
+        if (saveProfile) {
+            saveProfile = false;
+            profileStore.saveAsync(frame.getProfile(mOpenCvCameraView.getOpenedCameraIndex()));
+        }
 
-        if (mode == SAMPLE_BACK) {
+        if (mode == AUTO_MODE) {
+            // Hold the hand in the middle of the frame, tracking starts once calibrated.
+            // Waits for the saved profile first, so that it is neither raced nor overwritten
+            if (pendingProfile == null && frame.autoCalibrate()) {
+                mode = TRACKING_MODE;
+                profileStore.saveAsync(frame.getProfile(mOpenCvCameraView.getOpenedCameraIndex()));
+            }
+            return frame.getRGBAFrame();
+        } else if (mode == SAMPLE_BACK) {
             frame.sampleBackgroundColor();
             return frame.getRGBAFrame();
         } else if (mode == SAMPLE_MODE) {
@@ -116,6 +248,22 @@ public class MainActivity extends Activity implements CvCameraViewListener2 {
             // Tracks hand and draws contours on the frame
             frame.produceBinaryImage();
             frame.draw(hand);
+            boolean found = hand.isHand(frame.getRGBAFrame());
+            results.publish(hand, found, timestamp);
+            if (featureLog != null)
+                frame.logFeatures(featureLog, hand, found, timestamp, (System.nanoTime() - timestamp) / 1e6f);
+            gestureEvents.update(results.getLatest(), timestamp);
+            matchMotion(results.getLatestHand());
+            return frame.getRGBAFrame();
+        } else if (mode == KEYFRAME_MODE) {
+            // Tracks fingertips between keyframes, re-detecting when tracking fails
+            frame.drawTracked(hand, tracker);
+            return frame.getRGBAFrame();
+        } else if (mode == MULTI_HAND_MODE) {
+            // Analyzes every hand in view in parallel, each keeping its id
+            frame.produceBinaryImage();
+            results.publish(frame.drawHands(multiHandTracker), timestamp);
+            gestureEvents.update(results.getLatest(), timestamp);
             return frame.getRGBAFrame();
         }
         else return frame.getRGBAFrame();
@@ -0,0 +1,148 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Keeps up to maxHands Hand objects, one per blob of the mask that looks like a hand.
+ * Blobs are ranked by area, weighted towards the bottom of the frame where hands
+ * enter (a face near the top ranks lower than a hand of the same size).
+ * Each selected blob is matched to the nearest hand of the previous frame, so a
+ * hand keeps its id while it stays in view; unmatched blobs get new ids.
+ */
+
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.opencv.utils.FlatPoints;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public class MultiHandTracker {
+    public static final int DEFAULT_MAX_HANDS = 2;
+    private static final double MIN_AREA_FRACTION = 0.01; // blobs below 1% of the frame are noise
+
+    private final int maxHands;
+    FlatPoints contours = new FlatPoints(); // filled by Frame.drawHands()
+    Mat hierarchy = new Mat();
+
+    private List<Hand> hands = new ArrayList<>(); // hands of the last frame, ordered by id
+    private List<Hand> spare = new ArrayList<>(); // hands that left view, reused for new ones
+    private List<Hand> previous = new ArrayList<>();
+    private List<Candidate> candidates = new ArrayList<>();
+    private int nextId = 0;
+
+    private static final Comparator<Candidate> BY_SCORE = new Comparator<Candidate>() {
+        @Override
+        public int compare(Candidate a, Candidate b) {
+            return Double.compare(b.score, a.score);
+        }
+    };
+    private static final Comparator<Hand> BY_ID = new Comparator<Hand>() {
+        @Override
+        public int compare(Hand a, Hand b) {
+            return a.id < b.id ? -1 : (a.id == b.id ? 0 : 1);
+        }
+    };
+
+    public MultiHandTracker() {
+        this(DEFAULT_MAX_HANDS);
+    }
+
+    public MultiHandTracker(int maxHands) {
+        if (maxHands < 1) throw new IllegalArgumentException("maxHands must be positive");
+        this.maxHands = maxHands;
+    }
+
+    public List<Hand> getHands() {
+        /**
+         * Hands found in the last frame, ordered by id
+         */
+        return hands;
+    }
+
+    public void reset() {
+        spare.addAll(hands);
+        hands.clear();
+    }
+
+    List<Hand> select(int cols, int rows) {
+        /**
+         * Picks the hand blobs among contours and assigns each one a Hand,
+         * keeping the id of the closest hand of the previous frame.
+         * The returned hands hold their blob as their only contour; the
+         * other blobs never leave the flat contours.
+         */
+        candidates.clear();
+        double minArea = MIN_AREA_FRACTION * cols * rows;
+        for (int i = 0; i < contours.count; i++) {
+            double area = Hand.area(contours, i);
+            if (area < minArea) continue;
+            Rect rect = Hand.boundingRect(contours, i);
+            double centerY = rect.y + rect.height / 2.0;
+            candidates.add(new Candidate(i, rect, area * (0.5 + 0.5 * centerY / rows)));
+        }
+        Collections.sort(candidates, BY_SCORE);
+        if (candidates.size() > maxHands) candidates.subList(maxHands, candidates.size()).clear();
+
+        // greedy matching, closest pairs first
+        previous.clear();
+        previous.addAll(hands);
+        hands.clear();
+        while (true) {
+            Candidate bestCandidate = null;
+            Hand bestHand = null;
+            double best = Double.MAX_VALUE;
+            for (Candidate c : candidates) {
+                if (c.hand != null) continue;
+                for (Hand h : previous) {
+                    double d = distance(c.rect, h.bounding_rect);
+                    // a hand moves less than its own size between frames
+                    if (d < Math.max(h.bounding_rect.width, h.bounding_rect.height) && d < best) {
+                        best = d;
+                        bestCandidate = c;
+                        bestHand = h;
+                    }
+                }
+            }
+            if (bestCandidate == null) break;
+            bestCandidate.hand = bestHand;
+            previous.remove(bestHand);
+        }
+        spare.addAll(previous);
+
+        for (Candidate c : candidates) {
+            Hand hand = c.hand;
+            if (hand == null) {
+                hand = spare.isEmpty() ? new Hand() : spare.remove(spare.size() - 1);
+                hand.id = nextId++;
+            }
+            hand.setContour(contours, c.contour);
+            hand.bounding_rect = c.rect;
+            hand.defect_points.clear();
+            hand.fingertip_points.clear();
+            hand.gesture = "";
+            hands.add(hand);
+        }
+        Collections.sort(hands, BY_ID);
+        return hands;
+    }
+
+    private static double distance(Rect a, Rect b) {
+        double dx = (a.x + a.width / 2.0) - (b.x + b.width / 2.0);
+        double dy = (a.y + a.height / 2.0) - (b.y + b.height / 2.0);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static class Candidate {
+        final int contour; // index into contours
+        final Rect rect;
+        final double score;
+        Hand hand; // matched hand of the previous frame
+
+        Candidate(int contour, Rect rect, double score) {
+            this.contour = contour;
+            this.rect = rect;
+            this.score = score;
+        }
+    }
+}
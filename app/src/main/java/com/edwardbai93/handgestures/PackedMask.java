@@ -0,0 +1,376 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Binary mask storing 64 pixels per long, so that OR/AND/NOT, counting
+ * and filtering touch one eighth of the memory of a CV_8UC1 mask.
+ * Pixel (x, y) is bit (x & 63) of word y * wordsPerRow + (x >> 6).
+ * Padding bits past the last column are always kept at zero.
+ * Byte masks are packed and unpacked 8 pixels per long.
+ */
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class PackedMask {
+    private static final long LOW7 = 0x7f7f7f7f7f7f7f7fL; // all but the top bit of every byte
+    private static final long H = 0x8080808080808080L; // top bit of every byte
+    private static final long GATHER = 0x0102040810204080L; // moves bit 0 of byte k to bit 56 + k
+    private static final long[] SPREAD = new long[256]; // byte k is 0xFF where bit k of the index is set
+
+    static {
+        for (int i = 0; i < 256; i++)
+            for (int k = 0; k < 8; k++)
+                if ((i >> k & 1) != 0) SPREAD[i] |= 0xFFL << (8 * k);
+    }
+
+    private int width, height, wordsPerRow;
+    private long lastWordMask; // valid bits of the last word of each row
+    private long[] bits = new long[0];
+    private long[] tmp = new long[0]; // scratch rows for the filters
+    private byte[] pixels = new byte[0]; // scratch buffer for Mat conversions
+
+    public PackedMask() {
+    }
+
+    public PackedMask(int width, int height) {
+        create(width, height);
+    }
+
+    public void create(int width, int height) {
+        /**
+         * (Re)allocates the mask for the given size and clears it
+         */
+        this.width = width;
+        this.height = height;
+        wordsPerRow = (width + 63) >> 6;
+        int rem = width & 63;
+        lastWordMask = rem == 0 ? -1L : (1L << rem) - 1;
+        int size = wordsPerRow * height;
+        if (bits.length < size) {
+            bits = new long[size];
+            tmp = new long[size];
+        } else {
+            java.util.Arrays.fill(bits, 0, size, 0L);
+        }
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int wordsPerRow() {
+        return wordsPerRow;
+    }
+
+    public long[] words() {
+        return bits;
+    }
+
+    public boolean get(int x, int y) {
+        return (bits[y * wordsPerRow + (x >> 6)] >>> (x & 63) & 1L) != 0;
+    }
+
+    public void set(int x, int y, boolean value) {
+        int i = y * wordsPerRow + (x >> 6);
+        if (value) bits[i] |= 1L << (x & 63);
+        else bits[i] &= ~(1L << (x & 63));
+    }
+
+    public void fromMat(Mat mask) {
+        /**
+         * Packs a continuous CV_8UC1 mask, any non-zero byte becomes a set bit
+         */
+        if (mask.type() != CvType.CV_8UC1 || !mask.isContinuous())
+            throw new IllegalArgumentException("Mask must be a continuous CV_8UC1 Mat");
+        int w = mask.cols();
+        int h = mask.rows();
+        if (w != width || h != height) create(w, h);
+        int total = w * h;
+        if (pixels.length < total) pixels = new byte[total];
+        mask.get(0, 0, pixels);
+        fromBytes(pixels, w, h);
+    }
+
+    public void fromBytes(byte[] mask, int w, int h) {
+        /**
+         * Packs a w x h byte mask stored row by row, any non-zero byte becomes a set bit
+         */
+        if (w != width || h != height) create(w, h);
+        ByteBuffer in = ByteBuffer.wrap(mask).order(ByteOrder.LITTLE_ENDIAN);
+        for (int y = 0; y < h; y++) {
+            int p = y * w;
+            int base = y * wordsPerRow;
+            for (int wi = 0; wi < wordsPerRow; wi++) {
+                int x0 = wi << 6;
+                int n = Math.min(64, w - x0);
+                long word = 0;
+                int b = 0;
+                for (; b + 8 <= n; b += 8) word |= (long) pack8(in.getLong(p + x0 + b)) << b;
+                for (; b < n; b++) {
+                    if (mask[p + x0 + b] != 0) word |= 1L << b;
+                }
+                bits[base + wi] = word;
+            }
+        }
+    }
+
+    static int pack8(long v) {
+        /**
+         * Bit k of the result is set when byte k of v is non-zero
+         */
+        long nonZero = (((v & LOW7) + LOW7) | v) & H;
+        return (int) (((nonZero >>> 7) * GATHER) >>> 56);
+    }
+
+    public void toMat(Mat mask) {
+        /**
+         * Unpacks into a CV_8UC1 mask holding 0 and 255
+         */
+        mask.create(height, width, CvType.CV_8UC1);
+        int total = width * height;
+        if (pixels.length < total) pixels = new byte[total];
+        toBytes(pixels);
+        mask.put(0, 0, pixels); // only the first width * height values fit into the mask
+    }
+
+    public void toBytes(byte[] mask) {
+        /**
+         * Unpacks into a byte mask of 0 and 255 stored row by row, which must
+         * hold at least width * height bytes
+         */
+        ByteBuffer out = ByteBuffer.wrap(mask).order(ByteOrder.LITTLE_ENDIAN);
+        for (int y = 0; y < height; y++) {
+            int p = y * width;
+            int base = y * wordsPerRow;
+            for (int wi = 0; wi < wordsPerRow; wi++) {
+                int x0 = wi << 6;
+                int n = Math.min(64, width - x0);
+                long word = bits[base + wi];
+                int b = 0;
+                for (; b + 8 <= n; b += 8) out.putLong(p + x0 + b, SPREAD[(int) (word >>> b) & 0xFF]);
+                for (; b < n; b++) {
+                    mask[p + x0 + b] = (byte) -(int) (word >>> b & 1L);
+                }
+            }
+        }
+    }
+
+    public void copyTo(PackedMask dst) {
+        if (dst.width != width || dst.height != height) dst.create(width, height);
+        System.arraycopy(bits, 0, dst.bits, 0, wordsPerRow * height);
+    }
+
+    public void or(PackedMask other) {
+        checkSize(other);
+        int size = wordsPerRow * height;
+        for (int i = 0; i < size; i++) bits[i] |= other.bits[i];
+    }
+
+    public void and(PackedMask other) {
+        checkSize(other);
+        int size = wordsPerRow * height;
+        for (int i = 0; i < size; i++) bits[i] &= other.bits[i];
+    }
+
+    public void not() {
+        int size = wordsPerRow * height;
+        for (int i = 0; i < size; i++) bits[i] = ~bits[i];
+        clearPadding(bits);
+    }
+
+    public int popCount() {
+        /**
+         * Returns the number of set pixels
+         */
+        int size = wordsPerRow * height;
+        int count = 0;
+        for (int i = 0; i < size; i++) count += Long.bitCount(bits[i]);
+        return count;
+    }
+
+    public int rowRuns(int y, int[] runs) {
+        /**
+         * Writes the [start, end) columns of every run of set pixels in row y
+         * into runs as consecutive pairs, and returns the number of runs written.
+         * Stops early when runs is full.
+         */
+        int base = y * wordsPerRow;
+        int count = 0;
+        int start = -1;
+        for (int wi = 0; wi < wordsPerRow; wi++) {
+            long word = bits[base + wi];
+            // inside a run we look for the next zero bit, outside for the next one bit
+            long pending = start < 0 ? word : ~word;
+            int offset = 0;
+            while (offset < 64) {
+                long shifted = pending >>> offset;
+                if (shifted == 0) break;
+                offset += Long.numberOfTrailingZeros(shifted);
+                if (offset >= 64) break;
+                int x = (wi << 6) + offset;
+                if (start < 0) {
+                    start = x;
+                } else {
+                    if (2 * count + 1 >= runs.length) return count;
+                    runs[2 * count] = start;
+                    runs[2 * count + 1] = Math.min(x, width);
+                    count++;
+                    start = -1;
+                }
+                pending = ~pending;
+            }
+        }
+        if (start >= 0 && 2 * count + 1 < runs.length) {
+            runs[2 * count] = start;
+            runs[2 * count + 1] = width;
+            count++;
+        }
+        return count;
+    }
+
+    public void median(int ksize) {
+        /**
+         * Binary median over a ksize x ksize square: a pixel is set when more than
+         * half of its window is set. Windows are counted 64 pixels at a time with
+         * bit-sliced adders. Pixels outside the mask count as unset.
+         */
+        if (ksize < 3 || (ksize & 1) == 0)
+            throw new IllegalArgumentException("ksize must be odd and >= 3");
+        int r = ksize / 2;
+        int threshold = ksize * ksize / 2 + 1;
+        int sliceNum = 32 - Integer.numberOfLeadingZeros(ksize * ksize);
+        long[] slices = new long[sliceNum];
+
+        for (int y = 0; y < height; y++) {
+            int dst = y * wordsPerRow;
+            for (int wi = 0; wi < wordsPerRow; wi++) {
+                java.util.Arrays.fill(slices, 0L);
+                for (int yy = y - r; yy <= y + r; yy++) {
+                    if (yy < 0 || yy >= height) continue;
+                    int row = yy * wordsPerRow;
+                    for (int d = -r; d <= r; d++) {
+                        // ripple-carry add of one bit per pixel into the counters
+                        long carry = shifted(bits, row, wi, d);
+                        for (int s = 0; s < sliceNum && carry != 0; s++) {
+                            long t = slices[s] & carry;
+                            slices[s] ^= carry;
+                            carry = t;
+                        }
+                    }
+                }
+                tmp[dst + wi] = atLeast(slices, threshold);
+            }
+        }
+        clearPadding(tmp);
+        swap();
+    }
+
+    public void dilate(int kwidth, int kheight) {
+        /**
+         * Dilation with a kwidth x kheight rectangle centered on each pixel,
+         * pixels outside the mask count as unset
+         */
+        int rx = kwidth / 2;
+        int ry = kheight / 2;
+        for (int y = 0; y < height; y++) {
+            int row = y * wordsPerRow;
+            for (int wi = 0; wi < wordsPerRow; wi++) {
+                long acc = 0;
+                for (int d = -rx; d <= kwidth - 1 - rx; d++) acc |= shifted(bits, row, wi, d);
+                tmp[row + wi] = acc;
+            }
+        }
+        clearPadding(tmp);
+        for (int y = 0; y < height; y++) {
+            int row = y * wordsPerRow;
+            int y0 = Math.max(0, y - ry);
+            int y1 = Math.min(height - 1, y + kheight - 1 - ry);
+            for (int wi = 0; wi < wordsPerRow; wi++) {
+                long acc = 0;
+                for (int yy = y0; yy <= y1; yy++) acc |= tmp[yy * wordsPerRow + wi];
+                bits[row + wi] = acc;
+            }
+        }
+    }
+
+    public void erode(int kwidth, int kheight) {
+        /**
+         * Erosion with a kwidth x kheight rectangle, pixels outside the mask
+         * count as set, matching the default border of Imgproc.erode
+         */
+        not();
+        dilate(kwidth, kheight);
+        not();
+    }
+
+    public void close(int kwidth, int kheight) {
+        /**
+         * Dilation followed by erosion, the packed counterpart of MORPH_CLOSE
+         */
+        dilate(kwidth, kheight);
+        erode(kwidth, kheight);
+    }
+
+    private long shifted(long[] src, int row, int wi, int d) {
+        /**
+         * Returns the word whose bit b holds pixel (64 * wi + b + d) of the row
+         */
+        if (d == 0) return src[row + wi];
+        if (d > 0) {
+            int w = wi + (d >> 6);
+            int s = d & 63;
+            long lo = w < wordsPerRow ? src[row + w] : 0L;
+            if (s == 0) return lo;
+            long hi = w + 1 < wordsPerRow ? src[row + w + 1] : 0L;
+            return (lo >>> s) | (hi << (64 - s));
+        } else {
+            int e = -d;
+            int w = wi - (e >> 6);
+            int s = e & 63;
+            long hi = w >= 0 ? src[row + w] : 0L;
+            if (s == 0) return hi;
+            long lo = w - 1 >= 0 ? src[row + w - 1] : 0L;
+            return (hi << s) | (lo >>> (64 - s));
+        }
+    }
+
+    private static long atLeast(long[] slices, int value) {
+        /**
+         * Bit-sliced comparison: sets each bit whose counter is >= value
+         */
+        long gt = 0;
+        long eq = -1L;
+        for (int s = slices.length - 1; s >= 0; s--) {
+            if ((value >> s & 1) != 0) {
+                eq &= slices[s];
+            } else {
+                gt |= eq & slices[s];
+                eq &= ~slices[s];
+            }
+        }
+        return gt | eq;
+    }
+
+    private void clearPadding(long[] words) {
+        if (lastWordMask == -1L) return;
+        for (int y = 0; y < height; y++) words[y * wordsPerRow + wordsPerRow - 1] &= lastWordMask;
+    }
+
+    private void swap() {
+        long[] t = bits;
+        bits = tmp;
+        tmp = t;
+    }
+
+    private void checkSize(PackedMask other) {
+        if (other.width != width || other.height != height)
+            throw new IllegalArgumentException("Mask sizes differ");
+    }
+}
@@ -0,0 +1,144 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Per-pixel kernels of the pure Java segmentation path: thresholding a
+ * 3-channel image against every color range at once, and AND/NOT of masks.
+ * Two implementations exist, a plain scalar one and one working on 8 bytes
+ * per long (SWAR). The faster one of each kernel on this device is picked once
+ * at startup, after checking that both give identical masks; setting the system
+ * property handgestures.kernels to "scalar" or "swar" overrides the choice.
+ */
+
+import java.util.Random;
+
+public abstract class PixelKernels {
+    private static final int CALIBRATION_PIXELS = 160 * 120;
+    private static final int WARMUP_RUNS = 20;
+    private static final int TIMED_RUNS = 5;
+    private static final PixelKernels INSTANCE = choose();
+
+    public static PixelKernels get() {
+        return INSTANCE;
+    }
+
+    public abstract String name();
+
+    /**
+     * Sets mask to 255 where the pixel lies inside any of the ranges
+     * (bounds inclusive like Core.inRange) and to 0 elsewhere
+     */
+    public abstract void inRange(byte[] img, int pixels, ColorRanges ranges, byte[] mask);
+
+    public abstract void and(byte[] a, byte[] b, byte[] out, int n);
+
+    public abstract void not(byte[] a, byte[] out, int n);
+
+    public static String benchmark(int pixels, int rangeNum, int runs) {
+        /**
+         * Times every kernel of both implementations on random data and
+         * reports the speedup of SWAR over scalar per kernel
+         */
+        PixelKernels scalar = new ScalarKernels(), swar = new SwarKernels();
+        Random random = new Random(1);
+        byte[] img = new byte[pixels * 3], a = new byte[pixels], b = new byte[pixels], out = new byte[pixels];
+        random.nextBytes(img);
+        random.nextBytes(a);
+        random.nextBytes(b);
+        ColorRanges ranges = randomRanges(random, rangeNum);
+
+        StringBuilder report = new StringBuilder("selected " + INSTANCE.name());
+        for (int kernel = 0; kernel < 3; kernel++) {
+            double scalarMillis = time(scalar, kernel, img, pixels, ranges, a, b, out, runs);
+            double swarMillis = time(swar, kernel, img, pixels, ranges, a, b, out, runs);
+            report.append(String.format(", %s %.3f / %.3f ms (x%.2f)", new String[]{"inRange", "and", "not"}[kernel],
+                    scalarMillis, swarMillis, scalarMillis / swarMillis));
+        }
+        return report.toString();
+    }
+
+    static int bound(double v) {
+        /**
+         * Rounds and saturates a range bound to 0 ~ 255, as Core.inRange
+         * does for 8-bit images
+         */
+        return (int) Math.max(0, Math.min(255, Math.rint(v)));
+    }
+
+    private static PixelKernels choose() {
+        final PixelKernels scalar = new ScalarKernels(), swar = new SwarKernels();
+        String forced = System.getProperty("handgestures.kernels");
+        if (scalar.name().equals(forced)) return scalar;
+        if (swar.name().equals(forced)) return swar;
+
+        Random random = new Random(1);
+        int n = CALIBRATION_PIXELS;
+        byte[] img = new byte[n * 3], a = new byte[n], b = new byte[n], out = new byte[n];
+        random.nextBytes(img);
+        random.nextBytes(a);
+        random.nextBytes(b);
+        ColorRanges ranges = randomRanges(random, Frame.DEFAULT_SAMPLE_NUM);
+        scalar.inRange(img, n, ranges, out);
+        swar.inRange(img, n, ranges, a);
+        for (int i = 0; i < n; i++) if (out[i] != a[i]) return scalar;
+
+        // each kernel independently, after warming both up since the first calls run interpreted
+        final PixelKernels[] chosen = new PixelKernels[3];
+        for (int kernel = 0; kernel < 3; kernel++) {
+            time(scalar, kernel, img, n, ranges, a, b, out, WARMUP_RUNS);
+            time(swar, kernel, img, n, ranges, a, b, out, WARMUP_RUNS);
+            chosen[kernel] = time(swar, kernel, img, n, ranges, a, b, out, TIMED_RUNS) <
+                    time(scalar, kernel, img, n, ranges, a, b, out, TIMED_RUNS) ? swar : scalar;
+        }
+        if (chosen[0] == chosen[1] && chosen[1] == chosen[2]) return chosen[0];
+        return new PixelKernels() {
+            @Override
+            public String name() {
+                return chosen[0].name() + "/" + chosen[1].name() + "/" + chosen[2].name();
+            }
+
+            @Override
+            public void inRange(byte[] img, int pixels, ColorRanges ranges, byte[] mask) {
+                chosen[0].inRange(img, pixels, ranges, mask);
+            }
+
+            @Override
+            public void and(byte[] a, byte[] b, byte[] out, int n) {
+                chosen[1].and(a, b, out, n);
+            }
+
+            @Override
+            public void not(byte[] a, byte[] out, int n) {
+                chosen[2].not(a, out, n);
+            }
+        };
+    }
+
+    private static double time(PixelKernels k, int kernel, byte[] img, int n, ColorRanges ranges,
+                               byte[] a, byte[] b, byte[] out, int runs) {
+        /**
+         * Fastest of runs calls of one kernel, in milliseconds
+         */
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long t0 = System.nanoTime();
+            if (kernel == 0) k.inRange(img, n, ranges, out);
+            else if (kernel == 1) k.and(a, b, out, n);
+            else k.not(a, out, n);
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        return best / 1e6;
+    }
+
+    private static ColorRanges randomRanges(Random random, int num) {
+        ColorRanges ranges = new ColorRanges();
+        double[] lo = new double[3], hi = new double[3];
+        for (int i = 0; i < num; i++) {
+            for (int j = 0; j < 3; j++) {
+                lo[j] = random.nextInt(256);
+                hi[j] = lo[j] + random.nextInt(256 - (int) lo[j]);
+            }
+            ranges.add(lo, hi);
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,158 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Convex hull and convexity defects of a contour held in a flat x, y int
+ * array, without the native round trips of Imgproc.convexHull.
+ * The hull is computed with Andrew's monotone chain over the points sorted by
+ * x, then y. The sort is a two-pass counting sort over the bounding box, so a
+ * hull costs O(n + width + height), and unlike Melkman's algorithm it does not
+ * require a simple polygon: traced contours revisit pixels along one pixel wide
+ * necks and spurs, and approxPolyDP can make them touch themselves.
+ * Output follows Imgproc.convexHull and Imgproc.convexityDefects: hull indices
+ * start at the point with the largest x (then largest y), and each defect is
+ * start index, end index, farthest index and fixed-point depth (x256).
+ */
+
+public class PolygonHull {
+    private int[] chain = new int[0];
+    private int[] order = new int[0]; // point indices sorted by x, then y
+    private int[] sorted = new int[0]; // point indices sorted by y, first pass of the sort
+    private int[] counts = new int[0];
+
+    public int hull(int[] pts, int n, boolean clockwise, int[] out) {
+        /**
+         * Writes the indices of the hull vertices of the n points in pts to out
+         * and returns their number. clockwise has the meaning of the
+         * Imgproc.convexHull flag, with the y axis assumed to point up.
+         */
+        if (n < 3) {
+            for (int i = 0; i < n; i++) out[i] = i;
+            return n;
+        }
+        sort(pts, n);
+
+        // lower hull left to right, then upper hull right to left, keeping left turns only
+        if (chain.length < 2 * n + 1) chain = new int[2 * n + 1];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            int p = order[i];
+            while (k >= 2 && cross(pts, chain[k - 2], chain[k - 1], p) <= 0) k--;
+            chain[k++] = p;
+        }
+        for (int i = n - 2, lower = k + 1; i >= 0; i--) {
+            int p = order[i];
+            while (k >= lower && cross(pts, chain[k - 2], chain[k - 1], p) <= 0) k--;
+            chain[k++] = p;
+        }
+        int num = k - 1; // the last point repeats the first
+
+        if (num < 3) {
+            // all points on a line: its two ends starting at the max x one, or one point
+            int first = order[0], last = order[n - 1];
+            out[0] = last;
+            out[1] = first;
+            return dist2(pts, first, last) == 0 ? 1 : 2;
+        }
+
+        // chain[0..num-1] is counterclockwise with y up, start at the max x vertex like Imgproc.convexHull
+        int startPos = 0;
+        for (int i = 1; i < num; i++) {
+            int c = chain[i], s = chain[startPos];
+            if (pts[2 * c] > pts[2 * s] || (pts[2 * c] == pts[2 * s] && pts[2 * c + 1] > pts[2 * s + 1]))
+                startPos = i;
+        }
+        for (int i = 0; i < num; i++) {
+            int pos = clockwise ? (startPos - i + num) % num : (startPos + i) % num;
+            out[i] = chain[pos];
+        }
+        return num;
+    }
+
+    private void sort(int[] pts, int n) {
+        /**
+         * Fills order with the point indices sorted by x, then y: a counting
+         * sort by y followed by a stable counting sort by x
+         */
+        int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, pts[2 * i]);
+            maxX = Math.max(maxX, pts[2 * i]);
+            minY = Math.min(minY, pts[2 * i + 1]);
+            maxY = Math.max(maxY, pts[2 * i + 1]);
+        }
+        if (order.length < n) {
+            order = new int[n];
+            sorted = new int[n];
+        }
+        int range = Math.max(maxX - minX, maxY - minY) + 2;
+        if (counts.length < range) counts = new int[range];
+
+        java.util.Arrays.fill(counts, 0, maxY - minY + 2, 0);
+        for (int i = 0; i < n; i++) counts[pts[2 * i + 1] - minY + 1]++;
+        for (int v = 1; v <= maxY - minY; v++) counts[v] += counts[v - 1];
+        for (int i = 0; i < n; i++) sorted[counts[pts[2 * i + 1] - minY]++] = i;
+
+        java.util.Arrays.fill(counts, 0, maxX - minX + 2, 0);
+        for (int i = 0; i < n; i++) counts[pts[2 * i] - minX + 1]++;
+        for (int v = 1; v <= maxX - minX; v++) counts[v] += counts[v - 1];
+        for (int i = 0; i < n; i++) {
+            int p = sorted[i];
+            order[counts[pts[2 * p] - minX]++] = p;
+        }
+    }
+
+    public int defects(int[] pts, int n, int[] hull, int hullNum, int[] out) {
+        /**
+         * Writes the convexity defects between consecutive hull vertices to out
+         * as groups of four ints and returns the number of defects. Mirrors
+         * Imgproc.convexityDefects, including its orientation handling.
+         */
+        if (hullNum < 3) return 0;
+        boolean reversed = ((hull[1] > hull[0] ? 1 : 0) + (hull[2] > hull[1] ? 1 : 0) +
+                (hull[0] > hull[2] ? 1 : 0)) != 2;
+        int count = 0;
+        int hcurr = hull[reversed ? 0 : hullNum - 1];
+
+        for (int i = 0; i < hullNum; i++) {
+            int hnext = hull[reversed ? hullNum - i - 1 : i];
+            double x0 = pts[2 * hcurr], y0 = pts[2 * hcurr + 1];
+            double dx0 = pts[2 * hnext] - x0;
+            double dy0 = pts[2 * hnext + 1] - y0;
+            double scale = dx0 == 0 && dy0 == 0 ? 0 : 1 / Math.sqrt(dx0 * dx0 + dy0 * dy0);
+
+            int deepest = -1;
+            double depth = 0;
+            for (int j = hcurr + 1 >= n ? 0 : hcurr + 1; j != hnext; j = j + 1 >= n ? 0 : j + 1) {
+                double dist = Math.abs(-dy0 * (pts[2 * j] - x0) + dx0 * (pts[2 * j + 1] - y0)) * scale;
+                if (dist > depth) {
+                    depth = dist;
+                    deepest = j;
+                }
+            }
+
+            if (deepest != -1) {
+                out[4 * count] = hcurr;
+                out[4 * count + 1] = hnext;
+                out[4 * count + 2] = deepest;
+                out[4 * count + 3] = (int) Math.round(depth * 256);
+                count++;
+            }
+            hcurr = hnext;
+        }
+        return count;
+    }
+
+    private static long cross(int[] pts, int a, int b, int c) {
+        /**
+         * Positive when a, b, c turn counterclockwise with the y axis pointing up
+         */
+        long abx = pts[2 * b] - pts[2 * a], aby = pts[2 * b + 1] - pts[2 * a + 1];
+        long acx = pts[2 * c] - pts[2 * a], acy = pts[2 * c + 1] - pts[2 * a + 1];
+        return abx * acy - aby * acx;
+    }
+
+    private static long dist2(int[] pts, int a, int b) {
+        long dx = pts[2 * b] - pts[2 * a], dy = pts[2 * b + 1] - pts[2 * a + 1];
+        return dx * dx + dy * dy;
+    }
+}
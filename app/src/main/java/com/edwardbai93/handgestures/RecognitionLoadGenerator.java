@@ -0,0 +1,199 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Load generator for RecognitionServer, needing no OpenCV library:
+ *
+ *   java -cp classes com.edwardbai93.handgestures.RecognitionLoadGenerator \
+ *       [-host h] [-port n] [-streams 1,2,4,8,16,32,64] [-frames n] [-size 640x480]
+ *
+ * For every stream count, that many connections each send frames synthetic RGB
+ * frames (a skin colored hand shape moving over a gray background), keeping the
+ * server's inflight window full. Prints throughput and end-to-end latency
+ * percentiles per stream count.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+
+public class RecognitionLoadGenerator {
+    private static final int POSES = 16; // precomputed frames the streams cycle through
+
+    private final String host;
+    private final int port;
+    private final int width, height;
+    private final byte[][] poses;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String host = "127.0.0.1";
+        int port = RecognitionServer.DEFAULT_PORT, frames = 300, width = 640, height = 480;
+        int[] levels = {1, 2, 4, 8, 16, 32, 64};
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            if (args[i].equals("-host")) host = value;
+            else if (args[i].equals("-port")) port = Integer.parseInt(value);
+            else if (args[i].equals("-frames")) frames = Integer.parseInt(value);
+            else if (args[i].equals("-size")) {
+                String[] wh = value.split("x");
+                width = Integer.parseInt(wh[0]);
+                height = Integer.parseInt(wh[1]);
+            } else if (args[i].equals("-streams")) {
+                String[] parts = value.split(",");
+                levels = new int[parts.length];
+                for (int j = 0; j < parts.length; j++) levels[j] = Integer.parseInt(parts[j]);
+            } else {
+                System.err.println("Usage: RecognitionLoadGenerator [-host h] [-port n] [-streams list] [-frames n] [-size WxH]");
+                System.exit(2);
+            }
+        }
+
+        RecognitionLoadGenerator generator = new RecognitionLoadGenerator(host, port, width, height);
+        System.out.println("streams  frames/s  p50 ms  p95 ms  p99 ms  server ms");
+        for (int streams : levels) System.out.println(generator.run(streams, frames));
+    }
+
+    public RecognitionLoadGenerator(String host, int port, int width, int height) {
+        this.host = host;
+        this.port = port;
+        this.width = width;
+        this.height = height;
+        poses = new byte[POSES][];
+        for (int i = 0; i < POSES; i++) poses[i] = pose(i);
+    }
+
+    public String run(int streams, int frames) throws IOException, InterruptedException {
+        /**
+         * Runs streams connections of frames frames each and returns the report line
+         */
+        Stream[] running = new Stream[streams];
+        for (int i = 0; i < streams; i++) running[i] = new Stream(frames, i);
+        long start = System.nanoTime();
+        for (Stream s : running) s.start();
+        for (Stream s : running) s.join();
+        long wall = System.nanoTime() - start;
+
+        long[] latency = new long[streams * frames];
+        long serverMicros = 0;
+        int n = 0;
+        for (Stream s : running) {
+            if (s.error != null) throw new IOException("Stream failed", s.error);
+            System.arraycopy(s.latency, 0, latency, n, s.received);
+            n += s.received;
+            serverMicros += s.serverMicros;
+        }
+        Arrays.sort(latency, 0, n);
+        return String.format(Locale.US, "%7d  %8.1f  %6.2f  %6.2f  %6.2f  %9.2f", streams, n * 1e9 / wall,
+                percentile(latency, n, 0.50), percentile(latency, n, 0.95), percentile(latency, n, 0.99),
+                n > 0 ? serverMicros / 1e3 / n : 0);
+    }
+
+    private static double percentile(long[] sorted, int n, double p) {
+        return n == 0 ? 0 : sorted[Math.min(n - 1, (int) (p * n))] / 1e6;
+    }
+
+    private byte[] pose(int i) {
+        /**
+         * RGB frame with a palm and five fingers, shifted a little per pose
+         */
+        byte[] rgb = new byte[width * height * 3];
+        int cx = width / 2 + (i - POSES / 2) * width / (4 * POSES), cy = height * 3 / 5;
+        int palm = Math.min(width, height) / 6, finger = palm / 4;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int dx = x - cx, dy = y - cy;
+                boolean skin = dx * dx + dy * dy < palm * palm;
+                for (int f = -2; f <= 2 && !skin; f++) {
+                    int fx = cx + f * palm * 2 / 5;
+                    skin = Math.abs(x - fx) < finger / 2 && y < cy && y > cy - palm * 2;
+                }
+                int o = 3 * (y * width + x);
+                rgb[o] = (byte) (skin ? 224 : 96);
+                rgb[o + 1] = (byte) (skin ? 172 : 104);
+                rgb[o + 2] = (byte) (skin ? 140 : 112);
+            }
+        }
+        return rgb;
+    }
+
+    private class Stream extends Thread {
+        final int frames;
+        final long[] latency;
+        int received;
+        long serverMicros;
+        volatile Throwable error;
+
+        Stream(int frames, int id) {
+            super("LoadStream-" + id);
+            this.frames = frames;
+            latency = new long[frames];
+        }
+
+        @Override
+        public void run() {
+            try (Socket socket = new Socket(host, port)) {
+                socket.setTcpNoDelay(true);
+                final DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+                out.writeInt(RecognitionServer.MAGIC);
+                out.writeInt(RecognitionServer.VERSION);
+                out.flush();
+                if (in.readInt() != RecognitionServer.MAGIC || in.readInt() != RecognitionServer.VERSION)
+                    throw new IOException("Unknown server");
+                final Semaphore window = new Semaphore(in.readInt());
+
+                Thread receiver = new Thread(getName() + "-results") {
+                    @Override
+                    public void run() {
+                        try {
+                            for (int i = 0; i < frames; i++) {
+                                readResult(in);
+                                window.release();
+                            }
+                        } catch (IOException e) {
+                            error = e;
+                            window.release(frames);
+                        }
+                    }
+                };
+                receiver.start();
+
+                int length = RecognitionServer.payloadLength(RecognitionServer.FORMAT_RGB, width, height);
+                for (int i = 0; i < frames && error == null; i++) {
+                    window.acquire();
+                    out.writeInt(i);
+                    out.writeLong(System.nanoTime()); // echoed back in the result
+                    out.writeByte(RecognitionServer.FORMAT_RGB);
+                    out.writeShort(width);
+                    out.writeShort(height);
+                    out.writeInt(length);
+                    out.write(poses[i % POSES], 0, length);
+                    out.flush();
+                }
+                receiver.join();
+                socket.shutdownOutput();
+            } catch (IOException | RuntimeException e) {
+                error = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void readResult(DataInputStream in) throws IOException {
+            int seq = in.readInt();
+            long timestamp = in.readLong();
+            int micros = in.readInt();
+            in.skipBytes(2 + 6 * 2); // flags, fingers, rect and centroid
+            int tips = in.readUnsignedByte();
+            in.skipBytes(tips * 4);
+            if (seq < 0 || seq >= frames) throw new IOException("Unexpected result " + seq);
+            latency[received++] = System.nanoTime() - timestamp;
+            serverMicros += micros;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Gesture recognition service for thin clients on the local network, run on a
+ * desktop JVM with the OpenCV Java bindings:
+ *
+ *   java -cp opencv-248.jar:classes -Djava.library.path=... \
+ *       com.edwardbai93.handgestures.RecognitionServer [-port n] [-window n] [-profile file]
+ *
+ * Every connection is one camera stream with its own Frame, Hand and calibration,
+ * auto-calibrated from its first frames unless a profile is given.
+ * All numbers are big-endian. After the client's hello (MAGIC, VERSION) the server
+ * answers with MAGIC, VERSION and the inflight window, then the client sends frames
+ *
+ *   int seq, long timestamp, byte format, short width, short height, int length, payload
+ *
+ * with a GRAY, RGB or NV21 payload, and gets one result record per frame, in order:
+ *
+ *   int seq, long timestamp, int micros, byte flags, byte fingers,
+ *   short x, y, width, height, centroidX, centroidY, byte tips, tips * (short x, short y)
+ *
+ * A client may have up to window frames without result; the server stops reading
+ * from a connection with window frames queued, so a fast client is slowed down by
+ * TCP instead of growing a backlog. Each connection has a reader thread blocked on
+ * its socket, while the recognition itself runs on one worker per core: a connection
+ * with queued frames is scheduled on the worker pool, processes a window of frames,
+ * flushes their results in one write and yields to the other connections.
+ */
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.imgproc.Imgproc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RecognitionServer {
+    public static final int MAGIC = 0x48475256; // "HGRV"
+    public static final int VERSION = 1;
+    public static final int DEFAULT_PORT = 7377;
+    public static final int DEFAULT_WINDOW = 4;
+
+    public static final byte FORMAT_GRAY = 0;
+    public static final byte FORMAT_RGB = 1;
+    public static final byte FORMAT_NV21 = 2;
+
+    public static final int FLAG_CALIBRATED = 1;
+    public static final int FLAG_FOUND = 2;
+
+    private static final int MAX_SIZE = 4096; // largest accepted width and height
+
+    private final int window;
+    private final CalibrationProfile profile; // null to auto-calibrate every stream
+    private final ExecutorService workers;
+    private final ExecutorService readers;
+    private final AtomicInteger streams = new AtomicInteger();
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT, window = DEFAULT_WINDOW;
+        CalibrationProfile profile = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("-port")) port = Integer.parseInt(args[i + 1]);
+            else if (args[i].equals("-window")) window = Integer.parseInt(args[i + 1]);
+            else if (args[i].equals("-profile")) profile = readProfile(new File(args[i + 1]));
+            else {
+                System.err.println("Usage: RecognitionServer [-port n] [-window n] [-profile file]");
+                System.exit(2);
+            }
+        }
+        System.loadLibrary(Core.NATIVE_LIBRARY_NAME);
+        RecognitionServer server = new RecognitionServer(window, profile, Runtime.getRuntime().availableProcessors());
+        System.err.println("listening on port " + port);
+        server.serve(new ServerSocket(port, 64, InetAddress.getLoopbackAddress()));
+    }
+
+    public RecognitionServer(int window, CalibrationProfile profile, int threads) {
+        if (window < 1) throw new IllegalArgumentException("window must be positive");
+        if (threads < 1) throw new IllegalArgumentException("threads must be positive");
+        this.window = window;
+        this.profile = profile;
+        workers = Executors.newFixedThreadPool(threads, daemonThreads("Recognizer-"));
+        readers = Executors.newCachedThreadPool(daemonThreads("Stream-"));
+    }
+
+    private static ThreadFactory daemonThreads(final String prefix) {
+        return new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, prefix + count.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            }
+        };
+    }
+
+    public void serve(ServerSocket server) throws IOException {
+        /**
+         * Accepts connections until the server socket is closed
+         */
+        try {
+            while (true) {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                readers.execute(new Connection(socket, streams.getAndIncrement()));
+            }
+        } finally {
+            server.close();
+        }
+    }
+
+    public void shutdown() {
+        readers.shutdownNow();
+        workers.shutdown();
+    }
+
+    private static CalibrationProfile readProfile(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return CalibrationProfile.readFrom(in);
+        }
+    }
+
+    static int payloadLength(int format, int width, int height) {
+        /**
+         * Bytes of a frame payload, -1 for an unknown format
+         */
+        switch (format) {
+            case FORMAT_GRAY:
+                return width * height;
+            case FORMAT_RGB:
+                return width * height * 3;
+            case FORMAT_NV21:
+                return width * height * 3 / 2;
+            default:
+                return -1;
+        }
+    }
+
+    private static class Request {
+        int seq;
+        long timestamp;
+        int format, width, height;
+        byte[] payload = new byte[0];
+    }
+
+    private static final Request END = new Request(); // queued by the reader once the stream ends
+
+    private class Connection implements Runnable {
+        final Socket socket;
+        final int id;
+        final BlockingQueue<Request> free = new ArrayBlockingQueue<>(window);
+        final BlockingQueue<Request> pending = new ArrayBlockingQueue<>(window + 1);
+        final AtomicBoolean scheduled = new AtomicBoolean(false);
+        final Runnable drain = new Runnable() {
+            @Override
+            public void run() {
+                process();
+            }
+        };
+        DataOutputStream out;
+
+        // recognition state, only touched by the worker running drain
+        final Frame frame = new Frame();
+        final Hand hand = new Hand();
+        final HandResultPublisher results = new HandResultPublisher();
+        final Mat mInput = new Mat();
+        final Mat mRgba = new Mat();
+        int width = -1, height = -1;
+        boolean calibrated;
+        volatile boolean closed = false;
+        long frames, processNanos;
+
+        Connection(Socket socket, int id) {
+            this.socket = socket;
+            this.id = id;
+            for (int i = 0; i < window; i++) free.add(new Request());
+        }
+
+        @Override
+        public void run() {
+            /**
+             * Reader side: handshake, then queues frames for the workers
+             */
+            try {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+                out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 14));
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) throw new IOException("Unknown protocol");
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(window);
+                out.flush();
+
+                while (true) {
+                    int seq;
+                    try {
+                        seq = in.readInt();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    Request r = free.take();
+                    r.seq = seq;
+                    r.timestamp = in.readLong();
+                    r.format = in.readByte();
+                    r.width = in.readUnsignedShort();
+                    r.height = in.readUnsignedShort();
+                    int length = in.readInt();
+                    if (r.width < 1 || r.height < 1 || r.width > MAX_SIZE || r.height > MAX_SIZE)
+                        throw new IOException("Bad frame size " + r.width + "x" + r.height);
+                    if (r.format == FORMAT_NV21 && (r.width % 2 != 0 || r.height % 2 != 0))
+                        throw new IOException("NV21 frames need an even size");
+                    int expected = payloadLength(r.format, r.width, r.height);
+                    // before the length check, as a length of -1 would match an unknown format
+                    if (expected < 0) throw new IOException("Unknown frame format " + r.format);
+                    if (length != expected)
+                        throw new IOException("Bad payload of " + length + " bytes for format " + r.format);
+                    if (r.payload.length < length) r.payload = new byte[length];
+                    in.readFully(r.payload, 0, length);
+                    enqueue(r);
+                }
+            } catch (IOException e) {
+                if (!closed) System.err.println("stream " + id + ": " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                try {
+                    enqueue(END);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void enqueue(Request r) throws InterruptedException {
+            pending.put(r);
+            if (scheduled.compareAndSet(false, true)) workers.execute(drain);
+        }
+
+        private void process() {
+            /**
+             * Worker side: recognizes up to a window of queued frames, then
+             * flushes their results and reschedules if more are waiting
+             */
+            boolean ended = false;
+            for (int i = 0; i < window; i++) {
+                Request r = pending.poll();
+                if (r == null) break;
+                if (r == END) {
+                    ended = true;
+                    break;
+                }
+                if (!closed) {
+                    try {
+                        recognize(r);
+                    } catch (IOException | RuntimeException e) {
+                        System.err.println("stream " + id + ": " + e);
+                        close();
+                    }
+                }
+                free.add(r);
+            }
+            if (!closed) {
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    close();
+                }
+            }
+            if (ended) {
+                close();
+                release();
+                return;
+            }
+            scheduled.set(false);
+            // a frame queued between the last poll and the reset would otherwise wait forever
+            if (!pending.isEmpty() && scheduled.compareAndSet(false, true)) workers.execute(drain);
+        }
+
+        private void recognize(Request r) throws IOException {
+            if (r.width != width || r.height != height) {
+                if (width == -1) {
+                    frame.initFrame();
+                    if (profile != null) frame.applyProfile(profile);
+                } else {
+                    frame.releaseFrame();
+                }
+                width = r.width;
+                height = r.height;
+                frame.startFrame(width, height);
+                calibrated = profile != null;
+            }
+
+            long t0 = System.nanoTime();
+            toRgba(r);
+            frame.readInputFrame(mRgba);
+            boolean found = false;
+            HandResult result = null;
+            if (!calibrated) {
+                calibrated = frame.autoCalibrate();
+            } else {
+                frame.produceBinaryImage();
+                frame.draw(hand);
+                found = hand.isHand(frame.getRGBAFrame());
+                results.publish(hand, found, r.timestamp);
+                result = results.getLatestHand();
+            }
+            long t = System.nanoTime() - t0;
+            processNanos += t;
+            frames++;
+
+            out.writeInt(r.seq);
+            out.writeLong(r.timestamp);
+            out.writeInt((int) Math.min(Integer.MAX_VALUE, t / 1000));
+            out.writeByte((calibrated ? FLAG_CALIBRATED : 0) | (found ? FLAG_FOUND : 0));
+            if (result == null) {
+                out.writeByte(-1);
+                for (int i = 0; i < 6; i++) out.writeShort(0);
+                out.writeByte(0);
+                return;
+            }
+            out.writeByte(result.fingerCount);
+            out.writeShort(result.x);
+            out.writeShort(result.y);
+            out.writeShort(result.width);
+            out.writeShort(result.height);
+            out.writeShort((int) Math.round(result.centroidX));
+            out.writeShort((int) Math.round(result.centroidY));
+            int tips = Math.min(255, result.getFingertipNum());
+            out.writeByte(tips);
+            for (int i = 0; i < tips; i++) {
+                out.writeShort(result.getFingertipX(i));
+                out.writeShort(result.getFingertipY(i));
+            }
+        }
+
+        private void toRgba(Request r) {
+            switch (r.format) {
+                case FORMAT_GRAY:
+                    mInput.create(r.height, r.width, CvType.CV_8UC1);
+                    mInput.put(0, 0, r.payload);
+                    Imgproc.cvtColor(mInput, mRgba, Imgproc.COLOR_GRAY2RGBA);
+                    break;
+                case FORMAT_RGB:
+                    mInput.create(r.height, r.width, CvType.CV_8UC3);
+                    mInput.put(0, 0, r.payload);
+                    Imgproc.cvtColor(mInput, mRgba, Imgproc.COLOR_RGB2RGBA);
+                    break;
+                default:
+                    mInput.create(r.height * 3 / 2, r.width, CvType.CV_8UC1);
+                    mInput.put(0, 0, r.payload);
+                    Imgproc.cvtColor(mInput, mRgba, Imgproc.COLOR_YUV2RGBA_NV21);
+                    break;
+            }
+        }
+
+        private void close() {
+            if (closed) return;
+            closed = true;
+            try {
+                socket.close(); // also ends the reader
+            } catch (IOException ignored) {
+            }
+            if (frames > 0)
+                System.err.printf("stream %d: %d frames, %.2f ms/frame%n", id, frames, processNanos / 1e6 / frames);
+        }
+
+        private void release() {
+            if (width != -1) frame.releaseFrame();
+            mInput.release();
+            mRgba.release();
+        }
+    }
+}
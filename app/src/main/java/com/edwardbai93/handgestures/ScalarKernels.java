@@ -0,0 +1,48 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Plain per-byte implementation of PixelKernels
+ */
+
+class ScalarKernels extends PixelKernels {
+    private int[] bounds = new int[0]; // lower and upper bound of every channel, per range
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public void inRange(byte[] img, int pixels, ColorRanges ranges, byte[] mask) {
+        int num = ranges.count();
+        if (bounds.length < num * 6) bounds = new int[num * 6];
+        for (int r = 0; r < num; r++) {
+            for (int j = 0; j < 3; j++) {
+                bounds[r * 6 + j] = bound(ranges.lower(r)[j]);
+                bounds[r * 6 + 3 + j] = bound(ranges.upper(r)[j]);
+            }
+        }
+        for (int p = 0, i = 0; p < pixels; p++, i += 3) {
+            int c0 = img[i] & 0xFF, c1 = img[i + 1] & 0xFF, c2 = img[i + 2] & 0xFF;
+            byte v = 0;
+            for (int k = 0; k < num * 6; k += 6) {
+                if (c0 >= bounds[k] && c0 <= bounds[k + 3] && c1 >= bounds[k + 1] && c1 <= bounds[k + 4] &&
+                        c2 >= bounds[k + 2] && c2 <= bounds[k + 5]) {
+                    v = (byte) 255;
+                    break;
+                }
+            }
+            mask[p] = v;
+        }
+    }
+
+    @Override
+    public void and(byte[] a, byte[] b, byte[] out, int n) {
+        for (int i = 0; i < n; i++) out[i] = (byte) (a[i] & b[i]);
+    }
+
+    @Override
+    public void not(byte[] a, byte[] out, int n) {
+        for (int i = 0; i < n; i++) out[i] = (byte) ~a[i];
+    }
+}
@@ -0,0 +1,344 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Index of hand-shape templates for vocabularies too large to compare one by one.
+ * Every template is described by its seven log-scaled Hu moments and eight
+ * Fourier descriptor magnitudes of its outline, stored in one flat float array.
+ * A vantage-point tree over these vectors finds the nearest templates, pruning
+ * subtrees by the triangle inequality and abandoning distances that already
+ * exceed the k-th best; only those few candidates are verified with
+ * Imgproc.matchShapes against the query contour.
+ */
+
+import org.opencv.core.MatOfPoint;
+import org.opencv.imgproc.Imgproc;
+import org.opencv.imgproc.Moments;
+import org.opencv.core.Mat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ShapeIndex {
+    private static final int HU = 7;
+    private static final int FOURIER = 8; // harmonics 2 ~ 9, harmonic 1 normalizes the scale
+    public static final int DIMS = HU + FOURIER;
+    private static final int SAMPLES = 64; // outline points the Fourier descriptors are taken from
+    private static final float FOURIER_WEIGHT = 10; // brings the magnitudes (0 ~ 1) to the scale of the Hu terms
+    public static final int DEFAULT_CANDIDATES = 8;
+
+    private float[] vectors = new float[0]; // template t at t * DIMS
+    private int[] labels = new int[0];
+    private List<MatOfPoint> contours = new ArrayList<>();
+    private int count = 0;
+
+    // vantage-point tree over the template indices: the node of a subrange [lo, hi)
+    // is items[lo], with radius[lo] splitting items[lo + 1, split[lo]) inside from [split[lo], hi) outside
+    private int[] items = new int[0];
+    private float[] radius = new float[0];
+    private int[] split = new int[0];
+    private boolean dirty = false;
+    private float[] buildDist = new float[0];
+
+    // search state
+    private final float[] query = new float[DIMS];
+    private int[] best = new int[0];
+    private float[] bestDist = new float[0];
+    private int found;
+    private int visited;
+
+    // descriptor scratch
+    private Mat mHu = new Mat();
+    private double[] hu = new double[HU];
+    private float[] outline = new float[2 * SAMPLES];
+    private double[] magnitude = new double[FOURIER + 2];
+    private int[] xy = new int[0];
+    private double lastScore = Double.MAX_VALUE;
+
+    public int add(MatOfPoint contour, int label) {
+        /**
+         * Adds a template and returns its index, or -1 if the contour is degenerate.
+         * The contour must not be modified afterwards.
+         */
+        if (count * DIMS + DIMS > vectors.length) {
+            int size = Math.max(16, count * 2);
+            vectors = Arrays.copyOf(vectors, size * DIMS);
+            labels = Arrays.copyOf(labels, size);
+        }
+        if (!describe(contour, vectors, count * DIMS)) return -1;
+        labels[count] = label;
+        contours.add(contour);
+        dirty = true;
+        return count++;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getLabel(int template) {
+        return labels[template];
+    }
+
+    public double getLastScore() {
+        /**
+         * matchShapes distance of the template returned by the last match()
+         */
+        return lastScore;
+    }
+
+    public int getLastVisited() {
+        /**
+         * Templates whose descriptor distance was computed by the last search
+         */
+        return visited;
+    }
+
+    public int match(MatOfPoint contour, int candidates) {
+        /**
+         * Returns the template closest to contour by matchShapes among the
+         * candidates nearest in descriptor space, -1 if the index is empty
+         */
+        lastScore = Double.MAX_VALUE;
+        if (!describe(contour, query, 0)) return -1;
+        int n = search(query, candidates);
+        int bestTemplate = -1;
+        for (int i = 0; i < n; i++) {
+            double score = Imgproc.matchShapes(contour, contours.get(best[i]), Imgproc.CV_CONTOURS_MATCH_I1, 0);
+            if (score < lastScore) {
+                lastScore = score;
+                bestTemplate = best[i];
+            }
+        }
+        return bestTemplate;
+    }
+
+    public int search(float[] descriptor, int k) {
+        /**
+         * Finds the k templates nearest to descriptor and returns their number;
+         * getNearest(i) gives them closest first
+         */
+        if (dirty) build();
+        if (best.length < k) {
+            best = new int[k];
+            bestDist = new float[k];
+        }
+        found = 0;
+        visited = 0;
+        if (k > 0) search(descriptor, k, 0, count);
+        return found;
+    }
+
+    public int getNearest(int i) {
+        return best[i];
+    }
+
+    private void search(float[] q, int k, int lo, int hi) {
+        while (lo < hi) {
+            int v = items[lo];
+            float tau = found == k ? bestDist[k - 1] : Float.MAX_VALUE;
+            if (hi - lo == 1) {
+                float d = distance(q, v, tau);
+                if (d < tau) insert(v, d, k);
+                return;
+            }
+            // the exact distance to a vantage point is needed for pruning, so it is never abandoned
+            float d = distance(q, v, Float.MAX_VALUE);
+            if (d < tau) insert(v, d, k);
+
+            float r = radius[lo];
+            int mid = split[lo];
+            // descend into the side holding q, then the other side only if the ball around q reaches it
+            if (d < r) {
+                search(q, k, lo + 1, mid);
+                tau = found == k ? bestDist[k - 1] : Float.MAX_VALUE;
+                if (d + tau < r) return;
+                lo = mid;
+            } else {
+                search(q, k, mid, hi);
+                tau = found == k ? bestDist[k - 1] : Float.MAX_VALUE;
+                if (d - tau > r) return;
+                hi = mid;
+                lo = lo + 1;
+            }
+        }
+    }
+
+    private void insert(int template, float d, int k) {
+        int i = found < k ? found++ : k - 1;
+        while (i > 0 && bestDist[i - 1] > d) {
+            best[i] = best[i - 1];
+            bestDist[i] = bestDist[i - 1];
+            i--;
+        }
+        best[i] = template;
+        bestDist[i] = d;
+    }
+
+    private float distance(float[] q, int template, float bound) {
+        /**
+         * Euclidean distance, abandoned with a value above bound once the partial sum exceeds it
+         */
+        visited++;
+        int base = template * DIMS;
+        float bound2 = bound == Float.MAX_VALUE ? Float.MAX_VALUE : bound * bound;
+        float sum = 0;
+        for (int j = 0; j < DIMS; j++) {
+            float diff = q[j] - vectors[base + j];
+            sum += diff * diff;
+            if (sum > bound2) return Float.MAX_VALUE;
+        }
+        return (float) Math.sqrt(sum);
+    }
+
+    private void build() {
+        if (items.length < count) {
+            items = new int[count];
+            radius = new float[count];
+            split = new int[count];
+            buildDist = new float[count];
+        }
+        for (int i = 0; i < count; i++) items[i] = i;
+        build(0, count);
+        dirty = false;
+    }
+
+    private void build(int lo, int hi) {
+        /**
+         * Makes items[lo] the vantage point of [lo, hi) and splits the rest at
+         * their median distance to it
+         */
+        if (hi - lo <= 1) return;
+        int v = items[lo];
+        for (int i = lo + 1; i < hi; i++) buildDist[i] = distance(vectors, v * DIMS, items[i]);
+        sortByDist(lo + 1, hi);
+        int mid = (lo + 1 + hi) / 2;
+        radius[lo] = buildDist[mid];
+        // points at the median distance all go outside, so inside is strictly closer than the radius
+        while (mid > lo + 1 && buildDist[mid - 1] == radius[lo]) mid--;
+        split[lo] = mid;
+        build(lo + 1, mid);
+        build(mid, hi);
+    }
+
+    private float distance(float[] a, int aBase, int template) {
+        int base = template * DIMS;
+        float sum = 0;
+        for (int j = 0; j < DIMS; j++) {
+            float diff = a[aBase + j] - vectors[base + j];
+            sum += diff * diff;
+        }
+        return (float) Math.sqrt(sum);
+    }
+
+    private void sortByDist(int lo, int hi) {
+        // insertion sort for short ranges, otherwise quicksort on the pairs
+        if (hi - lo < 16) {
+            for (int i = lo + 1; i < hi; i++) {
+                float d = buildDist[i];
+                int t = items[i], j = i - 1;
+                while (j >= lo && buildDist[j] > d) {
+                    buildDist[j + 1] = buildDist[j];
+                    items[j + 1] = items[j];
+                    j--;
+                }
+                buildDist[j + 1] = d;
+                items[j + 1] = t;
+            }
+            return;
+        }
+        float pivot = buildDist[(lo + hi) >>> 1];
+        int i = lo, j = hi - 1;
+        while (i <= j) {
+            while (buildDist[i] < pivot) i++;
+            while (buildDist[j] > pivot) j--;
+            if (i <= j) {
+                float d = buildDist[i];
+                buildDist[i] = buildDist[j];
+                buildDist[j] = d;
+                int t = items[i];
+                items[i] = items[j];
+                items[j] = t;
+                i++;
+                j--;
+            }
+        }
+        sortByDist(lo, j + 1);
+        sortByDist(i, hi);
+    }
+
+    public boolean describe(MatOfPoint contour, float[] out, int offset) {
+        /**
+         * Writes the DIMS descriptor values of contour to out at offset,
+         * returning false for contours too small to describe
+         */
+        int n = (int) contour.total();
+        if (n < 3) return false;
+        if (xy.length < 2 * n) xy = new int[2 * n];
+        contour.get(0, 0, xy);
+
+        Moments m = Imgproc.moments(contour);
+        if (m.get_m00() == 0) return false;
+        Imgproc.HuMoments(m, mHu);
+        mHu.get(0, 0, hu);
+        for (int i = 0; i < HU; i++)
+            out[offset + i] = hu[i] == 0 ? 0 : (float) (-Math.signum(hu[i]) * Math.log10(Math.abs(hu[i])));
+
+        if (!resample(xy, n)) return false;
+        // DFT of the outline as complex numbers x + iy; translation only affects
+        // harmonic 0, rotation and start point only the phases
+        double norm = 0;
+        double[] mag = magnitude;
+        for (int k = 1; k <= FOURIER + 1; k++) {
+            double pr = 0, pi = 0, nr = 0, ni = 0;
+            for (int s = 0; s < SAMPLES; s++) {
+                double a = 2 * Math.PI * k * s / SAMPLES;
+                double c = Math.cos(a), sn = Math.sin(a);
+                double x = outline[2 * s], y = outline[2 * s + 1];
+                pr += x * c + y * sn;
+                pi += y * c - x * sn;
+                nr += x * c - y * sn;
+                ni += y * c + x * sn;
+            }
+            // both directions of harmonic k, so the traversal direction does not matter
+            mag[k] = Math.hypot(pr, pi) + Math.hypot(nr, ni);
+            if (k == 1) norm = mag[1];
+        }
+        if (norm == 0) return false;
+        for (int k = 2; k <= FOURIER + 1; k++) out[offset + HU + k - 2] = (float) (FOURIER_WEIGHT * mag[k] / norm);
+        return true;
+    }
+
+    private boolean resample(int[] xy, int n) {
+        /**
+         * Places SAMPLES points evenly along the closed outline
+         */
+        double perimeter = 0;
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            perimeter += Math.hypot(xy[2 * j] - xy[2 * i], xy[2 * j + 1] - xy[2 * i + 1]);
+        }
+        if (perimeter == 0) return false;
+        double step = perimeter / SAMPLES, walked = 0;
+        int seg = 0;
+        double segLen = Math.hypot(xy[2] - xy[0], xy[3] - xy[1]);
+        for (int s = 0; s < SAMPLES; s++) {
+            double target = s * step;
+            while (walked + segLen < target && seg < n - 1) {
+                walked += segLen;
+                seg++;
+                int j = (seg + 1) % n;
+                segLen = Math.hypot(xy[2 * j] - xy[2 * seg], xy[2 * j + 1] - xy[2 * seg + 1]);
+            }
+            int j = (seg + 1) % n;
+            double f = segLen > 0 ? (target - walked) / segLen : 0;
+            outline[2 * s] = (float) (xy[2 * seg] + (xy[2 * j] - xy[2 * seg]) * f);
+            outline[2 * s + 1] = (float) (xy[2 * seg + 1] + (xy[2 * j + 1] - xy[2 * seg + 1]) * f);
+        }
+        return true;
+    }
+
+    public void release() {
+        mHu.release();
+    }
+}
@@ -0,0 +1,52 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * GestureClassifier on an RBF CvSVM, stored in OpenCV's XML/YAML model format.
+ * Training picks C and gamma by cross-validation with train_auto.
+ */
+
+import org.opencv.core.Mat;
+import org.opencv.ml.CvSVM;
+import org.opencv.ml.CvSVMParams;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+public class SvmGestureClassifier extends GestureClassifier {
+    private CvSVM svm = new CvSVM();
+    private Mat mNoIdx = new Mat();
+
+    @Override
+    public void train(Mat samples, Mat labels) {
+        CvSVMParams params = new CvSVMParams();
+        params.set_svm_type(CvSVM.C_SVC);
+        params.set_kernel_type(CvSVM.RBF);
+        svm.train_auto(samples, labels, mNoIdx, mNoIdx, params);
+    }
+
+    @Override
+    public void predict(Mat samples, Mat results) {
+        svm.predict_all(samples, results);
+    }
+
+    @Override
+    public void read(File model) throws IOException {
+        if (!model.isFile()) throw new FileNotFoundException(model.getPath());
+        svm.load(model.getPath());
+        if (svm.get_var_count() != HandFeatures.SIZE)
+            throw new IOException("Model expects " + svm.get_var_count() + " features");
+    }
+
+    @Override
+    public void write(File model) throws IOException {
+        svm.save(model.getPath());
+        if (!model.isFile()) throw new IOException("Cannot write " + model.getPath());
+    }
+
+    @Override
+    public void release() {
+        svm.clear();
+        mNoIdx.release();
+    }
+}
@@ -0,0 +1,111 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * PixelKernels working on 8 bytes at a time in a long (SIMD within a register).
+ * inRange takes 8 pixels (24 bytes, three longs) per step: every byte is
+ * compared with the bound of its channel by a carry-free unsigned comparison,
+ * the per-byte results are gathered into a 24-bit mask with one multiply per
+ * long, and a pixel passes when the bits of its three channels are all set.
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+class SwarKernels extends PixelKernels {
+    private static final long H = 0x8080808080808080L; // top bit of every byte
+    private static final long LOW = 0x0101010101010101L;
+    private static final long GATHER = 0x0102040810204080L; // moves bit 0 of byte k to bit 56 + k
+    private static final int PIXEL_BITS = 0x249249; // bit 3p of every pixel p in a 24-bit mask
+
+    private long[] bounds = new long[0]; // three lower, then three upper bound longs per range
+
+    @Override
+    public String name() {
+        return "swar";
+    }
+
+    @Override
+    public void inRange(byte[] img, int pixels, ColorRanges ranges, byte[] mask) {
+        int num = prepare(ranges);
+        ByteBuffer in = ByteBuffer.wrap(img).order(ByteOrder.LITTLE_ENDIAN);
+        int blocks = pixels / 8;
+        for (int blk = 0, i = 0, o = 0; blk < blocks; blk++, i += 24, o += 8) {
+            long x0 = in.getLong(i), x1 = in.getLong(i + 8), x2 = in.getLong(i + 16);
+            int hit = 0;
+            for (int k = 0; k < num * 6; k += 6) {
+                long g0 = ge(x0, bounds[k]) & ge(bounds[k + 3], x0);
+                long g1 = ge(x1, bounds[k + 1]) & ge(bounds[k + 4], x1);
+                long g2 = ge(x2, bounds[k + 2]) & ge(bounds[k + 5], x2);
+                int m = gather(g0) | gather(g1) << 8 | gather(g2) << 16;
+                hit |= m & (m >>> 1) & (m >>> 2) & PIXEL_BITS;
+            }
+            for (int p = 0; p < 8; p++) mask[o + p] = (byte) -((hit >>> (3 * p)) & 1);
+        }
+        // remaining pixels one by one
+        for (int p = blocks * 8; p < pixels; p++) {
+            byte v = 0;
+            for (int r = 0; r < num && v == 0; r++) {
+                boolean inside = true;
+                for (int j = 0; j < 3 && inside; j++) {
+                    int c = img[p * 3 + j] & 0xFF;
+                    inside = c >= bound(ranges.lower(r)[j]) && c <= bound(ranges.upper(r)[j]);
+                }
+                if (inside) v = (byte) 255;
+            }
+            mask[p] = v;
+        }
+    }
+
+    @Override
+    public void and(byte[] a, byte[] b, byte[] out, int n) {
+        ByteBuffer bufA = ByteBuffer.wrap(a).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer bufB = ByteBuffer.wrap(b).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer bufOut = ByteBuffer.wrap(out).order(ByteOrder.LITTLE_ENDIAN);
+        int i = 0;
+        for (; i + 8 <= n; i += 8) bufOut.putLong(i, bufA.getLong(i) & bufB.getLong(i));
+        for (; i < n; i++) out[i] = (byte) (a[i] & b[i]);
+    }
+
+    @Override
+    public void not(byte[] a, byte[] out, int n) {
+        ByteBuffer bufA = ByteBuffer.wrap(a).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer bufOut = ByteBuffer.wrap(out).order(ByteOrder.LITTLE_ENDIAN);
+        int i = 0;
+        for (; i + 8 <= n; i += 8) bufOut.putLong(i, ~bufA.getLong(i));
+        for (; i < n; i++) out[i] = (byte) ~a[i];
+    }
+
+    private int prepare(ColorRanges ranges) {
+        /**
+         * Lays every bound out in the channel order of the three longs of a block,
+         * byte k of long q belonging to channel (8q + k) % 3
+         */
+        int num = ranges.count();
+        if (bounds.length < num * 6) bounds = new long[num * 6];
+        for (int r = 0; r < num; r++) {
+            for (int q = 0; q < 3; q++) {
+                long lo = 0, hi = 0;
+                for (int k = 0; k < 8; k++) {
+                    int channel = (8 * q + k) % 3;
+                    lo |= (long) bound(ranges.lower(r)[channel]) << (8 * k);
+                    hi |= (long) bound(ranges.upper(r)[channel]) << (8 * k);
+                }
+                bounds[r * 6 + q] = lo;
+                bounds[r * 6 + 3 + q] = hi;
+            }
+        }
+        return num;
+    }
+
+    private static long ge(long x, long y) {
+        /**
+         * Top bit of every byte set where the byte of x >= the byte of y, unsigned
+         */
+        long t = (x | H) - (y & ~H); // compares the low 7 bits without borrows between bytes
+        return ((x & ~y) | (~(x ^ y) & t)) & H;
+    }
+
+    private static int gather(long g) {
+        return (int) (((g >>> 7) & LOW) * GATHER >>> 56);
+    }
+}
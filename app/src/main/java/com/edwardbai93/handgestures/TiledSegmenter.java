@@ -0,0 +1,216 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Runs the blur, color conversion and color box segmentation of Frame on
+ * horizontal stripes in parallel. Each stripe is processed together with halo
+ * rows from its neighbours, as many as the kernels can spread a border effect,
+ * so the rows it writes are bit-exact with processing the whole frame at once.
+ * Stripes write their rows straight into the shared output Mats.
+ */
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+public class TiledSegmenter {
+    private static final int BLUR_HALO = 2; // 5x5 Gaussian
+    private static final int HAND_HALO = 1 + 3 + 3; // median 3, then dilate and erode of the 7x7 closing
+    private static final int BACK_HALO = 3; // median 7
+    private static final int MIN_STRIPE_ROWS = 16; // keeps the halo a small fraction of each stripe
+
+    private static ExecutorService sharedPool;
+
+    private final ExecutorService pool;
+    private final Stripe[] stripes;
+    private final List<Future<Void>> futures = new ArrayList<>();
+    private Mat mBlurred = new Mat();
+
+    // shared by the stripes of the current call, read-only while they run
+    private Mat src, dst;
+    private ColorRanges handRanges, backRanges;
+    private boolean fastFilters;
+    private boolean blurPhase;
+
+    public TiledSegmenter() {
+        this(sharedPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    public TiledSegmenter(ExecutorService pool, int stripeNum) {
+        /**
+         * Splits frames into stripeNum stripes run on pool, which is
+         * not shut down by this class
+         */
+        if (stripeNum < 1) throw new IllegalArgumentException("stripeNum must be positive");
+        this.pool = pool;
+        stripes = new Stripe[stripeNum];
+        for (int i = 0; i < stripeNum; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public static synchronized ExecutorService sharedPool() {
+        /**
+         * One daemon thread per core, shared by every TiledSegmenter
+         */
+        if (sharedPool == null) {
+            sharedPool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+                private int count = 0;
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "Segmenter-" + count++);
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        return sharedPool;
+    }
+
+    public Mat blurAndConvert(Mat rgba, ColorSpace space, Mat converted) {
+        /**
+         * Tiled counterpart of the Gaussian blur and color conversion in
+         * Frame.readInputFrame(). Returns the blurred frame, owned by this object.
+         */
+        int rows = rgba.rows(), cols = rgba.cols();
+        mBlurred.create(rows, cols, rgba.type());
+        converted.create(rows, cols, CvType.CV_8UC3); // so the stripes write into converted itself
+        for (Stripe s : stripes) s.converter.setColorSpace(space);
+        src = rgba;
+        dst = converted;
+        blurPhase = true;
+        run(rows, BLUR_HALO);
+        return mBlurred;
+    }
+
+    public void segment(Mat converted, ColorRanges hand, ColorRanges back, boolean fast, Mat mask) {
+        /**
+         * Tiled counterpart of the color box path of Frame.produceBinaryImage()
+         */
+        mask.create(converted.rows(), converted.cols(), CvType.CV_8UC1);
+        src = converted;
+        dst = mask;
+        handRanges = hand;
+        backRanges = back;
+        fastFilters = fast;
+        blurPhase = false;
+        run(converted.rows(), Math.max(HAND_HALO, BACK_HALO));
+    }
+
+    private void run(int rows, int halo) {
+        int n = Math.max(1, Math.min(stripes.length, rows / MIN_STRIPE_ROWS));
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe s = stripes[i];
+            s.start = rows * i / n;
+            s.end = i < n ? rows * (i + 1) / n : s.start;
+            s.haloStart = Math.max(0, s.start - halo);
+            s.haloEnd = Math.min(rows, s.end + halo);
+        }
+        try {
+            // the calling thread waits anyway, so it takes the first stripe itself
+            futures.clear();
+            for (int i = 1; i < n; i++) futures.add(pool.submit(stripes[i]));
+            stripes[0].call();
+            for (Future<Void> f : futures) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while segmenting", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Stripe failed", e.getCause());
+        }
+    }
+
+    public void release() {
+        mBlurred.release();
+        for (Stripe s : stripes) s.release();
+    }
+
+    private class Stripe implements Callable<Void> {
+        int start, end, haloStart, haloEnd;
+        final ColorConverter converter = new ColorConverter();
+        final BinaryFilters binaryFilters = new BinaryFilters();
+        final Scalar lowerBound = new Scalar(0, 0, 0);
+        final Scalar upperBound = new Scalar(0, 0, 0);
+        final Mat mBuf = new Mat();
+        final Mat mHand = new Mat();
+        final Mat mBack = new Mat();
+        final Mat mRange = new Mat();
+        final Mat kernel = Imgproc.getStructuringElement(Imgproc.MORPH_RECT, new Size(7, 7));
+
+        @Override
+        public Void call() {
+            if (start == end) return null;
+            Mat in = src.submat(haloStart, haloEnd, 0, src.cols());
+            Mat out = dst.submat(start, end, 0, dst.cols());
+            if (blurPhase) {
+                Imgproc.GaussianBlur(in, mBuf, new Size(5, 5), 5, 5);
+                Mat core = mBuf.submat(start - haloStart, end - haloStart, 0, mBuf.cols());
+                Mat blurred = mBlurred.submat(start, end, 0, mBlurred.cols());
+                core.copyTo(blurred);
+                converter.convert(core, out);
+                core.release();
+                blurred.release();
+            } else {
+                threshold(in, handRanges, mHand);
+                if (fastFilters) {
+                    binaryFilters.medianBlur(mHand, mHand, 3);
+                    binaryFilters.close(mHand, mHand, 7, 7);
+                } else {
+                    Imgproc.medianBlur(mHand, mHand, 3);
+                    Imgproc.morphologyEx(mHand, mHand, Imgproc.MORPH_CLOSE, kernel, new Point(-1, -1), 1);
+                }
+
+                threshold(in, backRanges, mBack);
+                Core.bitwise_not(mBack, mBack);
+                if (fastFilters) binaryFilters.medianBlur(mBack, mBack, 7);
+                else Imgproc.medianBlur(mBack, mBack, 7);
+
+                Mat hand = mHand.submat(start - haloStart, end - haloStart, 0, mHand.cols());
+                Mat back = mBack.submat(start - haloStart, end - haloStart, 0, mBack.cols());
+                Core.bitwise_and(hand, back, out);
+                hand.release();
+                back.release();
+            }
+            in.release();
+            out.release();
+            return null;
+        }
+
+        private void threshold(Mat in, ColorRanges ranges, Mat out) {
+            /**
+             * ORs the inRange masks of all ranges, with the same saturating
+             * add as Frame so that the result is identical
+             */
+            for (int i = 0; i < ranges.count(); i++) {
+                lowerBound.set(ranges.lower(i));
+                upperBound.set(ranges.upper(i));
+                if (i == 0) {
+                    Core.inRange(in, lowerBound, upperBound, out);
+                } else {
+                    Core.inRange(in, lowerBound, upperBound, mRange);
+                    Core.add(out, mRange, out);
+                }
+            }
+        }
+
+        void release() {
+            mBuf.release();
+            mHand.release();
+            mBack.release();
+            mRange.release();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.edwardbai93.handgestures;
+
+/**
+ * Fixed-size ring buffer of hand centroids and sizes, one entry per frame.
+ * The size of a hand is the square root of its bounding rectangle area, so
+ * pushing the hand towards the camera shows as a growing size.
+ */
+
+public class TrajectoryRecorder {
+    private final double[] xs, ys, sizes;
+    private final long[] timestamps;
+    private int head = 0; // index of the next entry
+    private int count = 0;
+
+    public TrajectoryRecorder(int capacity) {
+        if (capacity < 2) throw new IllegalArgumentException("capacity must be at least 2");
+        xs = new double[capacity];
+        ys = new double[capacity];
+        sizes = new double[capacity];
+        timestamps = new long[capacity];
+    }
+
+    public void add(HandResult hand) {
+        add(hand.centroidX, hand.centroidY, Math.sqrt((double) hand.width * hand.height), hand.timestamp);
+    }
+
+    public void add(double x, double y, double size, long timestamp) {
+        xs[head] = x;
+        ys[head] = y;
+        sizes[head] = size;
+        timestamps[head] = timestamp;
+        head = (head + 1) % xs.length;
+        if (count < xs.length) count++;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int capacity() {
+        return xs.length;
+    }
+
+    public double getX(int i) {
+        /**
+         * i-th of the recorded entries, 0 being the oldest
+         */
+        return xs[index(i)];
+    }
+
+    public double getY(int i) {
+        return ys[index(i)];
+    }
+
+    public double getSize(int i) {
+        return sizes[index(i)];
+    }
+
+    public long getTimestamp(int i) {
+        return timestamps[index(i)];
+    }
+
+    private int index(int i) {
+        if (i < 0 || i >= count) throw new IndexOutOfBoundsException("No entry " + i);
+        return (head - count + i + xs.length) % xs.length;
+    }
+}
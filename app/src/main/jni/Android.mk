@@ -9,7 +9,7 @@ OPENCV_INSTALL_MODULES:=on
 OPENCV_LIB_TYPE:=SHARED
 include ${OPENCVROOT}/sdk/native/jni/OpenCV.mk
 
-LOCAL_SRC_FILES := com_example_ndk_opencv_androidstudio_NativeClass.cpp
+LOCAL_SRC_FILES := com_example_ndk_opencv_androidstudio_NativeClass.cpp org_opencv_core_Mat_buffer.cpp
 LOCAL_LDLIBS += -llog
 LOCAL_MODULE := MyLib
 
@@ -0,0 +1,14 @@
+#include <jni.h>
+
+// Direct ByteBuffer over Mat data for org.opencv.core.Mat.dataBuffer(), which the
+// prebuilt opencv_java library does not provide. The Java side passes Mat::data
+// and the byte span of the rows; the buffer does not own the memory.
+
+extern "C" {
+
+JNIEXPORT jobject JNICALL Java_org_opencv_core_Mat_n_1dataBuffer
+  (JNIEnv * env, jclass, jlong addr, jlong size){
+    return env->NewDirectByteBuffer(reinterpret_cast<void*>(addr), size);
+}
+
+}
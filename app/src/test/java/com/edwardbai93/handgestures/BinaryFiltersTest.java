@@ -0,0 +1,100 @@
+package com.edwardbai93.handgestures;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the running sum median and the van Herk/Gil-Werman morphology with
+ * direct window scans, on random masks whose pixels are any non-zero value.
+ */
+public class BinaryFiltersTest {
+    private final BinaryFilters filters = new BinaryFilters();
+
+    @Test
+    public void medianBlur_matchesWindowCount() throws Exception {
+        Random random = new Random(29);
+        for (int t = 0; t < 300; t++) {
+            int w = 1 + random.nextInt(40), h = 1 + random.nextInt(40), ksize = 3 + 2 * random.nextInt(4);
+            byte[] in = randomMask(random, w, h);
+            byte[] out = new byte[w * h];
+            filters.medianBlur(in, out, w, h, ksize);
+            assertArrayEquals(naiveMedian(in, w, h, ksize), out);
+        }
+    }
+
+    @Test
+    public void morph_matchesWindowScan() throws Exception {
+        Random random = new Random(31);
+        for (int t = 0; t < 300; t++) {
+            int w = 1 + random.nextInt(40), h = 1 + random.nextInt(40);
+            int kw = 1 + random.nextInt(9), kh = 1 + random.nextInt(9);
+            byte[] in = randomMask(random, w, h);
+            byte[] out = new byte[w * h];
+            for (boolean dilate : new boolean[]{true, false}) {
+                filters.morph(in, out, w, h, kw, kh, dilate);
+                assertArrayEquals(naiveMorph(in, w, h, kw, kh, dilate), out);
+            }
+            filters.close(in, out, w, h, kw, kh);
+            assertArrayEquals(naiveMorph(naiveMorph(in, w, h, kw, kh, true), w, h, kw, kh, false), out);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void medianBlur_rejectsEvenKernels() throws Exception {
+        filters.medianBlur(new byte[16], new byte[16], 4, 4, 4);
+    }
+
+    static byte[] randomMask(Random random, int w, int h) {
+        /**
+         * Blobs rather than noise, so that the filters leave something behind
+         */
+        byte[] mask = new byte[w * h];
+        double density = random.nextDouble();
+        for (int i = 0; i < mask.length; i++) {
+            if (random.nextDouble() < density) mask[i] = (byte) (1 + random.nextInt(255));
+            else if (i > 0 && random.nextInt(3) == 0) mask[i] = mask[i - 1];
+        }
+        return mask;
+    }
+
+    private static byte[] naiveMedian(byte[] in, int w, int h, int ksize) {
+        // rows and columns outside the mask replicate the border
+        int r = ksize / 2;
+        byte[] out = new byte[w * h];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int count = 0;
+                for (int dy = -r; dy <= r; dy++)
+                    for (int dx = -r; dx <= r; dx++)
+                        if (in[clamp(y + dy, h) * w + clamp(x + dx, w)] != 0) count++;
+                out[y * w + x] = count > ksize * ksize / 2 ? (byte) 255 : 0;
+            }
+        }
+        return out;
+    }
+
+    private static byte[] naiveMorph(byte[] in, int w, int h, int kw, int kh, boolean dilate) {
+        // window anchored at the kernel center, outside is 0 for dilation and 255 for erosion
+        byte[] out = new byte[w * h];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                boolean result = !dilate;
+                for (int yy = y - kh / 2; yy < y - kh / 2 + kh; yy++) {
+                    for (int xx = x - kw / 2; xx < x - kw / 2 + kw; xx++) {
+                        boolean set = yy >= 0 && yy < h && xx >= 0 && xx < w ? in[yy * w + xx] != 0 : !dilate;
+                        result = dilate ? result | set : result & set;
+                    }
+                }
+                out[y * w + x] = result ? (byte) 255 : 0;
+            }
+        }
+        return out;
+    }
+
+    private static int clamp(int i, int n) {
+        return i < 0 ? 0 : (i >= n ? n - 1 : i);
+    }
+}
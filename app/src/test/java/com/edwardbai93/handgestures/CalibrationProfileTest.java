@@ -0,0 +1,95 @@
+package com.edwardbai93.handgestures;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CalibrationProfileTest {
+
+    @Test
+    public void writeTo_roundTrips() throws Exception {
+        Random random = new Random(67);
+        for (ColorSpace colorSpace : ColorSpace.values()) {
+            CalibrationProfile p = new CalibrationProfile(1, 1280, 720, 7, colorSpace);
+            for (int i = 0; i < p.sampleNum; i++) {
+                fill(random, p.handColor[i]);
+                fill(random, p.backColor[i]);
+                fill(random, p.handSampleRadius[i]);
+                fill(random, p.backSampleRadius[i]);
+            }
+            fill(random, p.handLowerRadius);
+            fill(random, p.handUpperRadius);
+            fill(random, p.backLowerRadius);
+            fill(random, p.backUpperRadius);
+
+            CalibrationProfile q = CalibrationProfile.readFrom(input(bytes(p)));
+            assertTrue(q.matches(1, 1280, 720));
+            assertFalse(q.matches(0, 1280, 720));
+            assertEquals(p.sampleNum, q.sampleNum);
+            assertEquals(colorSpace, q.colorSpace);
+            for (int i = 0; i < p.sampleNum; i++) {
+                assertArrayEquals(p.handColor[i], q.handColor[i], 0);
+                assertArrayEquals(p.backColor[i], q.backColor[i], 0);
+                assertArrayEquals(p.handSampleRadius[i], q.handSampleRadius[i], 0);
+                assertArrayEquals(p.backSampleRadius[i], q.backSampleRadius[i], 0);
+            }
+            assertArrayEquals(p.handLowerRadius, q.handLowerRadius, 0);
+            assertArrayEquals(p.handUpperRadius, q.handUpperRadius, 0);
+            assertArrayEquals(p.backLowerRadius, q.backLowerRadius, 0);
+            assertArrayEquals(p.backUpperRadius, q.backUpperRadius, 0);
+        }
+    }
+
+    @Test
+    public void readFrom_readsVersion1AsLab() throws Exception {
+        CalibrationProfile p = new CalibrationProfile(0, 640, 480, 1, ColorSpace.YCRCB);
+        p.handColor[0][0] = 12;
+        byte[] v2 = bytes(p);
+        // version 1 is version 2 without the color space after the sample count
+        ByteArrayOutputStream v1 = new ByteArrayOutputStream();
+        v1.write(v2, 0, 4);
+        v1.write(new byte[]{0, 0, 0, 1}, 0, 4);
+        v1.write(v2, 8, 16);
+        v1.write(v2, 28, v2.length - 28);
+
+        CalibrationProfile q = CalibrationProfile.readFrom(input(v1.toByteArray()));
+        assertEquals(ColorSpace.LAB, q.colorSpace);
+        assertEquals(12, q.handColor[0][0], 0);
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_rejectsNewerVersions() throws Exception {
+        byte[] data = bytes(new CalibrationProfile(0, 640, 480, 1, ColorSpace.LAB));
+        data[7] = (byte) (CalibrationProfile.VERSION + 1);
+        CalibrationProfile.readFrom(input(data));
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_rejectsOtherRecords() throws Exception {
+        CalibrationProfile.readFrom(input(new byte[64]));
+    }
+
+    private static void fill(Random random, double[] values) {
+        // float values, which the record stores exactly
+        for (int i = 0; i < values.length; i++) values[i] = (float) (random.nextDouble() * 255);
+    }
+
+    private static byte[] bytes(CalibrationProfile p) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        p.writeTo(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static DataInputStream input(byte[] data) {
+        return new DataInputStream(new ByteArrayInputStream(data));
+    }
+}
@@ -0,0 +1,92 @@
+package com.edwardbai93.handgestures;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ColorRangesTest {
+
+    @Test
+    public void merge_byDefaultOnlyCombinesIdenticalAndContainedRanges() throws Exception {
+        ColorRanges ranges = new ColorRanges();
+        ranges.add(new double[]{10, 10, 10}, new double[]{30, 30, 30});
+        ranges.add(new double[]{10, 10, 10}, new double[]{30, 30, 30});
+        ranges.add(new double[]{15, 12, 20}, new double[]{25, 30, 22});
+        ranges.add(new double[]{31, 10, 10}, new double[]{40, 30, 30}); // adjoins the first one exactly
+        ranges.add(new double[]{12, 11, 10}, new double[]{33, 32, 31}); // overlaps, but sticks out
+        ranges.merge(ColorRanges.DEFAULT_MERGE_RATIO);
+        assertEquals(2, ranges.count());
+        assertArrayEquals(new double[]{10, 10, 10}, ranges.lower(0), 0);
+        assertArrayEquals(new double[]{40, 30, 30}, ranges.upper(0), 0);
+    }
+
+    @Test
+    public void merge_withRatioZeroUnitesEveryOverlappingCluster() throws Exception {
+        // eight samples of the same skin color, a little noise on every mean
+        Random random = new Random(3);
+        ColorRanges ranges = new ColorRanges();
+        for (int i = 0; i < 8; i++) {
+            double[] mean = {120 + random.nextDouble() * 3, 150 + random.nextDouble() * 3, 100 + random.nextDouble() * 3};
+            ranges.add(new double[]{mean[0] - 12, mean[1] - 7, mean[2] - 7}, new double[]{mean[0] + 12, mean[1] + 7, mean[2] + 7});
+        }
+        ranges.add(new double[]{10, 10, 10}, new double[]{30, 30, 30});
+        ranges.merge(0);
+        assertEquals(2, ranges.count());
+    }
+
+    @Test
+    public void merge_neverAddsRangesAndKeepsEverySampledColor() throws Exception {
+        Random random = new Random(5);
+        for (int t = 0; t < 200; t++) {
+            double ratio = random.nextInt(3) / 2.0;
+            ColorRanges ranges = new ColorRanges();
+            int num = 1 + random.nextInt(8);
+            int[][] lo = new int[num][3], hi = new int[num][3];
+            for (int i = 0; i < num; i++) {
+                for (int j = 0; j < 3; j++) {
+                    lo[i][j] = random.nextInt(40);
+                    hi[i][j] = lo[i][j] + random.nextInt(20);
+                }
+                ranges.add(new double[]{lo[i][0], lo[i][1], lo[i][2]}, new double[]{hi[i][0], hi[i][1], hi[i][2]});
+            }
+            ranges.merge(ratio);
+            assertTrue(ranges.count() <= num);
+
+            for (int c0 = 0; c0 < 64; c0 += 3) {
+                for (int c1 = 0; c1 < 64; c1 += 2) {
+                    for (int c2 = 0; c2 < 64; c2++) {
+                        int[] c = {c0, c1, c2};
+                        boolean expected = false;
+                        for (int i = 0; i < num; i++) expected |= inside(c, lo[i], hi[i]);
+                        int hits = 0;
+                        for (int i = 0; i < ranges.count(); i++) {
+                            if (inside(c, ranges.lower(i), ranges.upper(i))) hits++;
+                        }
+                        // ratio 1 keeps the mask, ratio 0 leaves disjoint boxes
+                        if (expected) assertTrue(hits > 0);
+                        if (ratio == 1) assertEquals(expected, hits > 0);
+                        if (ratio == 0) assertTrue(hits <= 1);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void add_snapsBoundsToTheValuesInRangeUses() throws Exception {
+        ColorRanges ranges = new ColorRanges();
+        ranges.add(new double[]{-5, 10.4, 10.6}, new double[]{300, 20.5, 21.5});
+        assertArrayEquals(new double[]{0, 10, 11}, ranges.lower(0), 0);
+        assertArrayEquals(new double[]{255, 20, 22}, ranges.upper(0), 0);
+    }
+
+    private static boolean inside(int[] c, int[] lo, int[] hi) {
+        return c[0] >= lo[0] && c[0] <= hi[0] && c[1] >= lo[1] && c[1] <= hi[1] && c[2] >= lo[2] && c[2] <= hi[2];
+    }
+
+    private static boolean inside(int[] c, double[] lo, double[] hi) {
+        return c[0] >= lo[0] && c[0] <= hi[0] && c[1] >= lo[1] && c[1] <= hi[1] && c[2] >= lo[2] && c[2] <= hi[2];
+    }
+}
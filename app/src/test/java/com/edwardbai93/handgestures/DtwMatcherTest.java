@@ -0,0 +1,261 @@
+package com.edwardbai93.handgestures;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the LB_Keogh pruning and early abandoning of DtwMatcher never
+ * change the result: match() must pick the same template and distance as
+ * aligning every window with every template in full. Then checks that the
+ * jitter of a hand held still does not match the small push and pull motions.
+ */
+public class DtwMatcherTest {
+    private static final int LENGTH = DtwMatcher.LENGTH;
+    private static final int BAND = 4; // DtwMatcher.BAND
+    private static final int STILL_FRAMES = 300; // frames a still hand is matched for
+
+    @Test
+    public void match_equalsExhaustiveSearch() throws Exception {
+        Random random = new Random(59);
+        DtwMatcher matcher = new DtwMatcher();
+        matcher.addDefaultTemplates();
+        matcher.setThreshold(1e9); // always report the closest template
+        double[][] templates = defaultTemplates();
+        double[] energies = new double[templates.length];
+        for (int k = 0; k < templates.length; k++)
+            for (double v : templates[k]) energies[k] += v * v;
+        int pruned = 0;
+
+        for (int t = 0; t < 300; t++) {
+            TrajectoryRecorder recorder = new TrajectoryRecorder(DtwMatcher.WINDOWS[DtwMatcher.WINDOWS.length - 1]);
+            int frames = 16 + random.nextInt(40);
+            randomMotion(random, recorder, frames);
+
+            int expected = -1;
+            double best = Double.MAX_VALUE;
+            for (int w : DtwMatcher.WINDOWS) {
+                if (w > recorder.size()) break;
+                double[] query = window(recorder, w);
+                double energy = 0;
+                for (double v : query) energy += v * v;
+                if (energy < 0.005 * LENGTH) continue;
+                for (int k = 0; k < templates.length; k++) {
+                    double banded = dtw(query, templates[k], BAND);
+                    // the band only removes alignments, it never lowers the distance
+                    assertTrue(dtw(query, templates[k], LENGTH) <= banded + 1e-9);
+                    if (energy < DtwMatcher.MIN_SHARE * energies[k]) continue;
+                    if (banded < Math.min(best, DtwMatcher.RELATIVE_THRESHOLD * energies[k])) {
+                        best = banded;
+                        expected = k;
+                    }
+                }
+            }
+
+            assertEquals(expected, matcher.match(recorder));
+            if (expected >= 0) assertEquals(best / LENGTH, matcher.getLastDistance(), 1e-9);
+            pruned += matcher.getLastPruned();
+        }
+        assertTrue("the lower bound never pruned anything", pruned > 0);
+    }
+
+    @Test
+    public void match_recognizesNoisySwipes() throws Exception {
+        Random random = new Random(61);
+        DtwMatcher matcher = new DtwMatcher();
+        matcher.addDefaultTemplates();
+        for (int t = 0; t < 50; t++) {
+            TrajectoryRecorder recorder = new TrajectoryRecorder(48);
+            int frames = 16 + random.nextInt(33);
+            double size = 60 + random.nextInt(60), x0 = random.nextInt(400), y0 = random.nextInt(300);
+            for (int i = 0; i < frames; i++) {
+                double f = (double) i / (frames - 1);
+                recorder.add(x0 + 3 * size * f + random.nextGaussian() * 2, y0 + random.nextGaussian() * 2,
+                        size + random.nextGaussian(), i);
+            }
+            assertEquals("swipe right", matcher.getName(matcher.match(recorder)));
+        }
+    }
+
+    @Test
+    public void match_ignoresAStillHand() throws Exception {
+        DtwMatcher matcher = new DtwMatcher();
+        matcher.addDefaultTemplates();
+        TrajectoryRecorder recorder = new TrajectoryRecorder(48);
+        for (int i = 0; i < 48; i++) recorder.add(200, 150, 80, i);
+        assertEquals(-1, matcher.match(recorder));
+    }
+
+    @Test
+    public void match_recognizesNoisyPushAndPull() throws Exception {
+        Random random = new Random(67);
+        DtwMatcher matcher = new DtwMatcher();
+        matcher.addDefaultTemplates();
+        int recognized = 0;
+        for (int t = 0; t < 100; t++) {
+            boolean push = t % 2 == 0;
+            TrajectoryRecorder recorder = new TrajectoryRecorder(48);
+            int frames = 16 + random.nextInt(33);
+            double size = 60 + random.nextInt(60), x = random.nextInt(400), y = random.nextInt(300);
+            for (int i = 0; i < frames; i++) {
+                double f = (double) i / (frames - 1);
+                double s = size * (push ? 1 + 0.5 * f : 1.5 - 0.5 * f);
+                recorder.add(x + random.nextGaussian() * 0.02 * s, y + random.nextGaussian() * 0.02 * s,
+                        s * (1 + random.nextGaussian() * 0.02), i);
+            }
+            int matched = matcher.match(recorder);
+            if (matched >= 0 && matcher.getName(matched).equals(push ? "push" : "pull")) recognized++;
+        }
+        assertTrue("recognized " + recognized + " of 100", recognized >= 90);
+    }
+
+    @Test
+    public void match_ignoresAHandJitteringInPlace() throws Exception {
+        // 5% of the hand size in both the centroid and the size
+        assertEquals(0, stillHandsMatched(new Random(71), 0.05, 0.05, 50));
+    }
+
+    @Test
+    public void match_ignoresAHandWhoseSizeJitters() throws Exception {
+        // a contour that flickers in size only, which looks most like push and pull
+        assertTrue(stillHandsMatched(new Random(73), 0, 0.06, 50) <= 1);
+    }
+
+    private static int stillHandsMatched(Random random, double centroidJitter, double sizeJitter, int hands) {
+        /**
+         * Holds each hand still for STILL_FRAMES frames with gaussian jitter,
+         * matching after every frame, and counts the hands that matched any
+         * template at least once
+         */
+        DtwMatcher matcher = new DtwMatcher();
+        matcher.addDefaultTemplates();
+        int matched = 0;
+        for (int h = 0; h < hands; h++) {
+            TrajectoryRecorder recorder = new TrajectoryRecorder(48);
+            double size = 60 + random.nextInt(60), x = random.nextInt(400), y = random.nextInt(300);
+            for (int i = 0; i < STILL_FRAMES; i++) {
+                recorder.add(x + random.nextGaussian() * centroidJitter * size,
+                        y + random.nextGaussian() * centroidJitter * size,
+                        size * (1 + random.nextGaussian() * sizeJitter), i);
+                if (matcher.match(recorder) >= 0) {
+                    matched++;
+                    break;
+                }
+            }
+        }
+        return matched;
+    }
+
+    private static void randomMotion(Random random, TrajectoryRecorder recorder, int frames) {
+        /**
+         * A random walk mixed with a default motion, so that some templates are
+         * close and others far away
+         */
+        double size = 50 + random.nextInt(100);
+        double x = random.nextInt(400), y = random.nextInt(300), s = size;
+        double vx = random.nextGaussian() * 5, vy = random.nextGaussian() * 5;
+        for (int i = 0; i < frames; i++) {
+            vx += random.nextGaussian() * 2;
+            vy += random.nextGaussian() * 2;
+            x += vx;
+            y += vy;
+            s = Math.max(10, s + random.nextGaussian() * 2);
+            recorder.add(x, y, s, i);
+        }
+    }
+
+    private static double[] window(TrajectoryRecorder recorder, int w) {
+        int n = recorder.size();
+        double[] xs = new double[w], ys = new double[w], sizes = new double[w];
+        for (int i = 0; i < w; i++) {
+            xs[i] = recorder.getX(n - w + i);
+            ys[i] = recorder.getY(n - w + i);
+            sizes[i] = recorder.getSize(n - w + i);
+        }
+        return normalized(xs, ys, sizes, w);
+    }
+
+    private static double[] normalized(double[] xs, double[] ys, double[] sizes, int n) {
+        /**
+         * Resampled to LENGTH points, centered and divided by the mean size
+         */
+        double[] v = new double[3 * LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            double pos = (double) i * (n - 1) / (LENGTH - 1);
+            int k = (int) pos, k1 = Math.min(k + 1, n - 1);
+            double f = pos - k;
+            v[3 * i] = xs[k] + (xs[k1] - xs[k]) * f;
+            v[3 * i + 1] = ys[k] + (ys[k1] - ys[k]) * f;
+            v[3 * i + 2] = sizes[k] + (sizes[k1] - sizes[k]) * f;
+        }
+        double[] mean = new double[3];
+        for (int i = 0; i < LENGTH; i++)
+            for (int d = 0; d < 3; d++) mean[d] += v[3 * i + d] / LENGTH;
+        double scale = mean[2] > 0 ? mean[2] : 1;
+        for (int i = 0; i < LENGTH; i++)
+            for (int d = 0; d < 3; d++) v[3 * i + d] = (v[3 * i + d] - mean[d]) / scale;
+        return v;
+    }
+
+    private static double[][] defaultTemplates() {
+        /**
+         * The motions of DtwMatcher.addDefaultTemplates(), in the same order
+         */
+        double[][] templates = new double[8][];
+        double[] x = new double[LENGTH], y = new double[LENGTH], s = new double[LENGTH];
+        double[][] dirs = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        for (int k = 0; k < 4; k++) {
+            for (int i = 0; i < LENGTH; i++) {
+                double f = (double) i / (LENGTH - 1);
+                x[i] = 3 * f * dirs[k][0];
+                y[i] = 3 * f * dirs[k][1];
+                s[i] = 1;
+            }
+            templates[k] = normalized(x, y, s, LENGTH);
+        }
+        for (int k = 0; k < 2; k++) {
+            int dir = k == 0 ? 1 : -1;
+            for (int i = 0; i < LENGTH; i++) {
+                double a = 2 * Math.PI * i / (LENGTH - 1);
+                x[i] = 1.5 * Math.cos(a);
+                y[i] = 1.5 * dir * Math.sin(a);
+                s[i] = 1;
+            }
+            templates[4 + k] = normalized(x, y, s, LENGTH);
+        }
+        for (int k = 0; k < 2; k++) {
+            for (int i = 0; i < LENGTH; i++) {
+                double f = (double) i / (LENGTH - 1);
+                x[i] = 0;
+                y[i] = 0;
+                s[i] = 1 + 0.5 * (k == 0 ? f : 1 - f);
+            }
+            templates[6 + k] = normalized(x, y, s, LENGTH);
+        }
+        return templates;
+    }
+
+    private static double dtw(double[] a, double[] b, int band) {
+        /**
+         * Full DTW table with squared Euclidean point costs, cells further than
+         * band from the diagonal left out
+         */
+        double[][] d = new double[LENGTH][LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            for (int j = 0; j < LENGTH; j++) {
+                d[i][j] = Double.MAX_VALUE;
+                if (Math.abs(i - j) > band) continue;
+                double cost = 0;
+                for (int k = 0; k < 3; k++) cost += (a[3 * i + k] - b[3 * j + k]) * (a[3 * i + k] - b[3 * j + k]);
+                double m = i == 0 && j == 0 ? 0 : Double.MAX_VALUE;
+                if (i > 0) m = Math.min(m, d[i - 1][j]);
+                if (j > 0) m = Math.min(m, d[i][j - 1]);
+                if (i > 0 && j > 0) m = Math.min(m, d[i - 1][j - 1]);
+                if (m != Double.MAX_VALUE) d[i][j] = m + cost;
+            }
+        }
+        return d[LENGTH - 1][LENGTH - 1];
+    }
+}
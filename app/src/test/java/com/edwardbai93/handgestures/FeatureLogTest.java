@@ -0,0 +1,117 @@
+package com.edwardbai93.handgestures;
+
+import org.junit.Test;
+import org.opencv.core.Rect;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Writes records through FeatureLog and reads every column back with
+ * FeatureLogReader, across block boundaries and a partly filled last block.
+ */
+public class FeatureLogTest {
+
+    @Test
+    public void append_roundTripsEveryColumn() throws Exception {
+        int n = 2 * FeatureLog.BLOCK_RECORDS + 77;
+        Random random = new Random(71);
+        long[] timestamps = new long[n];
+        float[] millis = new float[n];
+        int[] fingers = new int[n], defects = new int[n], hullCounts = new int[n];
+        Rect[] rects = new Rect[n];
+        int[][] hulls = new int[n][];
+        int[] colorSpaces = new int[n];
+        float[][] calibrations = new float[n][FeatureLog.CALIBRATION_VALUES];
+
+        File file = File.createTempFile("features", ".hgfl");
+        try {
+            FeatureLog log = new FeatureLog(file);
+            long t = 1000000000L;
+            for (int i = 0; i < n; i++) {
+                t += 30000000L + random.nextInt(5000000);
+                timestamps[i] = t;
+                millis[i] = random.nextFloat() * 40;
+                fingers[i] = random.nextInt(7) - 1;
+                defects[i] = random.nextInt(200); // stored up to 127
+                rects[i] = random.nextInt(5) == 0 ? null :
+                        new Rect(random.nextInt(640), random.nextInt(480), random.nextInt(640), random.nextInt(480));
+                hullCounts[i] = random.nextInt(FeatureLog.MAX_HULL + 10); // stored up to MAX_HULL
+                hulls[i] = new int[2 * hullCounts[i]];
+                for (int j = 0; j < hulls[i].length; j++) hulls[i][j] = random.nextInt(1920);
+                colorSpaces[i] = random.nextInt(ColorSpace.values().length);
+                for (int j = 0; j < FeatureLog.CALIBRATION_VALUES; j++) calibrations[i][j] = random.nextFloat() * 255;
+
+                // give the writer time, since a full queue drops records by design
+                while (!log.append(timestamps[i], millis[i], fingers[i], defects[i], rects[i], hulls[i], hullCounts[i],
+                        colorSpaces[i], calibrations[i]))
+                    Thread.sleep(1);
+            }
+            log.close();
+
+            FeatureLogReader reader = new FeatureLogReader(file);
+            assertEquals(n, reader.getRecordCount());
+            assertEquals(3, reader.getBlockCount());
+            assertArrayEquals(timestamps, reader.readTimestamps());
+
+            float[] readMillis = reader.readFloats(FeatureLog.COL_MILLIS);
+            int[] readFingers = reader.readInts(FeatureLog.COL_FINGERS);
+            int[] readDefects = reader.readInts(FeatureLog.COL_DEFECTS);
+            int[] readRects = reader.readInts(FeatureLog.COL_RECT);
+            int[] readHullCounts = reader.readInts(FeatureLog.COL_HULL_COUNT);
+            int[] readHulls = reader.readInts(FeatureLog.COL_HULL);
+            int[] readColorSpaces = reader.readInts(FeatureLog.COL_COLOR_SPACE);
+            float[] readCalibrations = reader.readFloats(FeatureLog.COL_CALIBRATION);
+            reader.close();
+
+            int h = 0;
+            for (int i = 0; i < n; i++) {
+                assertEquals(millis[i], readMillis[i], 0);
+                assertEquals(fingers[i], readFingers[i]);
+                assertEquals(Math.min(defects[i], 127), readDefects[i]);
+                Rect r = rects[i] != null ? rects[i] : new Rect();
+                assertArrayEquals(new int[]{r.x, r.y, r.width, r.height},
+                        new int[]{readRects[4 * i], readRects[4 * i + 1], readRects[4 * i + 2], readRects[4 * i + 3]});
+                int count = Math.min(hullCounts[i], FeatureLog.MAX_HULL);
+                assertEquals(count, readHullCounts[i]);
+                for (int j = 0; j < 2 * count; j++) assertEquals(hulls[i][j], readHulls[h++]);
+                assertEquals(colorSpaces[i], readColorSpaces[i]);
+                for (int j = 0; j < FeatureLog.CALIBRATION_VALUES; j++)
+                    assertEquals(calibrations[i][j], readCalibrations[FeatureLog.CALIBRATION_VALUES * i + j], 0);
+            }
+            assertEquals(readHulls.length, h);
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void reader_stopsAtATruncatedBlock() throws Exception {
+        File file = File.createTempFile("features", ".hgfl");
+        try {
+            FeatureLog log = new FeatureLog(file);
+            float[] calibration = new float[FeatureLog.CALIBRATION_VALUES];
+            for (int i = 0; i < FeatureLog.BLOCK_RECORDS + 5; i++) {
+                while (!log.append(i, 1, 2, 3, null, new int[0], 0, 0, calibration)) Thread.sleep(1);
+            }
+            log.close();
+
+            // cut the last block short, as a crash while writing would
+            RandomAccessFile f = new RandomAccessFile(file, "rw");
+            f.setLength(f.length() - 3);
+            f.close();
+
+            FeatureLogReader reader = new FeatureLogReader(file);
+            assertEquals(1, reader.getBlockCount());
+            assertEquals(FeatureLog.BLOCK_RECORDS, reader.getRecordCount());
+            long[] timestamps = reader.readTimestamps();
+            for (int i = 0; i < timestamps.length; i++) assertEquals(i, timestamps[i]);
+            reader.close();
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+}
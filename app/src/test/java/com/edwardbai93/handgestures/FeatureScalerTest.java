@@ -0,0 +1,78 @@
+package com.edwardbai93.handgestures;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class FeatureScalerTest {
+
+    @Test
+    public void fit_standardizesEveryColumn() throws Exception {
+        Random random = new Random(79);
+        List<float[]> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            float[] row = new float[HandFeatures.SIZE];
+            // columns as far apart as the log Hu moments and the area ratios
+            for (int j = 0; j < row.length; j++) row[j] = (float) (j * 10 + random.nextGaussian() * (j + 1));
+            row[7] = 3; // a constant column
+            rows.add(row);
+        }
+        FeatureScaler scaler = FeatureScaler.fit(rows);
+        for (float[] row : rows) scaler.apply(row);
+
+        for (int j = 0; j < HandFeatures.SIZE; j++) {
+            double sum = 0, squares = 0;
+            for (float[] row : rows) {
+                sum += row[j];
+                squares += row[j] * row[j];
+            }
+            assertEquals(0, sum / rows.size(), 1e-4);
+            assertEquals(j == 7 ? 0 : 1, squares / rows.size(), 1e-3);
+        }
+        assertEquals(1, scaler.getStd(7), 0);
+    }
+
+    @Test
+    public void apply_byDefaultLeavesTheRowUnchanged() throws Exception {
+        float[] row = new float[HandFeatures.SIZE];
+        for (int j = 0; j < row.length; j++) row[j] = j - 4.5f;
+        float[] expected = row.clone();
+        new FeatureScaler().apply(row);
+        assertArrayEquals(expected, row, 0);
+    }
+
+    @Test
+    public void writeTo_roundTrips() throws Exception {
+        Random random = new Random(83);
+        List<float[]> rows = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            float[] row = new float[HandFeatures.SIZE];
+            for (int j = 0; j < row.length; j++) row[j] = random.nextFloat() * 100;
+            rows.add(row);
+        }
+        FeatureScaler p = FeatureScaler.fit(rows);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        p.writeTo(new DataOutputStream(bytes));
+        FeatureScaler q = FeatureScaler.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        for (int j = 0; j < HandFeatures.SIZE; j++) {
+            assertEquals(p.getMean(j), q.getMean(j), 0);
+            assertEquals(p.getStd(j), q.getStd(j), 0);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_rejectsOtherRecords() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new CalibrationProfile(0, 640, 480, 7, ColorSpace.LAB).writeTo(new DataOutputStream(bytes));
+        FeatureScaler.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
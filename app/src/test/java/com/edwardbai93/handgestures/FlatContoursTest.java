@@ -0,0 +1,36 @@
+package com.edwardbai93.handgestures;
+
+import org.junit.Test;
+import org.opencv.core.Rect;
+import org.opencv.utils.FlatPoints;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the Mat-free contour area and bounding rectangle that select hand
+ * blobs from FlatPoints, on contours whose OpenCV results are known.
+ */
+public class FlatContoursTest {
+
+    @Test
+    public void area_isTheShoelaceAreaInEitherOrientation() throws Exception {
+        FlatPoints pts = new FlatPoints();
+        pts.add(new int[]{0, 0, 10, 0, 10, 5, 0, 5}, 4); // counterclockwise rectangle
+        pts.add(new int[]{0, 0, 0, 5, 10, 5, 10, 0}, 4); // clockwise
+        pts.add(new int[]{2, 2, 8, 2, 5, 8}, 3); // triangle
+        pts.add(new int[]{1, 1, 4, 4}, 2); // a line has no area
+        assertEquals(50, Hand.area(pts, 0), 0);
+        assertEquals(50, Hand.area(pts, 1), 0);
+        assertEquals(18, Hand.area(pts, 2), 0);
+        assertEquals(0, Hand.area(pts, 3), 0);
+    }
+
+    @Test
+    public void boundingRect_includesTheLastPixel() throws Exception {
+        FlatPoints pts = new FlatPoints();
+        pts.add(new int[]{3, 7, 9, 7, 9, 12, 3, 12}, 4);
+        pts.add(new int[]{5, 5}, 1);
+        assertEquals(new Rect(3, 7, 7, 6), Hand.boundingRect(pts, 0));
+        assertEquals(new Rect(5, 5, 1, 1), Hand.boundingRect(pts, 1));
+    }
+}
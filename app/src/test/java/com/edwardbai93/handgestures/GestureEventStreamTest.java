@@ -0,0 +1,156 @@
+package com.edwardbai93.handgestures;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Queues events behind a listener that blocks on the first one, then checks
+ * what the dispatch thread delivers once it is released.
+ */
+public class GestureEventStreamTest {
+    private static final long FRAME = 33000000L; // nanoseconds between frames
+
+    @Test
+    public void coalesce_keepsTheFirstPreviousCount() throws Exception {
+        BlockingListener listener = new BlockingListener();
+        GestureEventStream stream = start(listener, hand(1, 1));
+        stream.update(hands(hand(1, 2)), 2 * FRAME);
+        stream.update(hands(hand(1, 3)), 3 * FRAME);
+        stream.update(hands(hand(1, 4)), 4 * FRAME);
+        List<GestureEvent> events = listener.release(2);
+        stream.shutdown();
+
+        GestureEvent change = events.get(1);
+        assertEquals(GestureEvent.Type.FINGER_COUNT_CHANGED, change.type);
+        assertEquals(1, change.previousFingerCount);
+        assertEquals(4, change.fingerCount);
+        assertEquals(4 * FRAME, change.timestamp);
+    }
+
+    @Test
+    public void coalesce_keepsTheOrderOfTheSameHand() throws Exception {
+        BlockingListener listener = new BlockingListener();
+        GestureEventStream stream = start(listener, hand(1, 1), hand(2, 1));
+        stream.update(hands(hand(1, 2), hand(2, 1)), 2 * FRAME);
+        stream.update(hands(hand(1, 3), hand(2, 2)), 3 * FRAME);
+        stream.update(hands(hand(2, 2)), 4 * FRAME); // hand 1 leaves
+        stream.update(hands(hand(1, 5), hand(2, 3)), 5 * FRAME); // and comes back
+        stream.update(hands(hand(1, 4), hand(2, 3)), 6 * FRAME);
+        List<GestureEvent> events = listener.release(7);
+        stream.shutdown();
+
+        assertEquals("HAND_ENTERED 1 1, HAND_ENTERED 2 1, FINGER_COUNT_CHANGED 1 3 from 1, " +
+                        "FINGER_COUNT_CHANGED 2 3 from 1, HAND_LEFT 1 -1, HAND_ENTERED 1 5, " +
+                        "FINGER_COUNT_CHANGED 1 4 from 5",
+                describe(events));
+        // merged events take the newer sequence, which stays ordered within each hand
+        long[] last = {-1, -1, -1};
+        for (GestureEvent e : events) {
+            assertTrue(e.sequence > last[e.handId]);
+            last[e.handId] = e.sequence;
+        }
+    }
+
+    @Test
+    public void coalesce_dropsAChangeBackToThePreviousCount() throws Exception {
+        BlockingListener listener = new BlockingListener();
+        GestureEventStream stream = start(listener, hand(1, 2));
+        stream.update(hands(hand(1, 3)), 2 * FRAME);
+        stream.update(hands(hand(1, 2)), 3 * FRAME);
+        stream.update(hands(), 4 * FRAME);
+        List<GestureEvent> events = listener.release(2);
+        stream.shutdown();
+
+        assertEquals("HAND_ENTERED 1 2, HAND_LEFT 1 -1", describe(events));
+    }
+
+    @Test
+    public void emit_dropsTheOldestEventWhenFull() throws Exception {
+        BlockingListener listener = new BlockingListener();
+        GestureEventStream stream = new GestureEventStream(0, 100000, 2);
+        stream.addListener(listener);
+        stream.update(hands(hand(1, 1)), FRAME);
+        listener.awaitFirst();
+        for (int id = 2; id <= 4; id++) stream.motion(id, "swipe", id * FRAME);
+        List<GestureEvent> events = listener.release(3);
+        stream.shutdown();
+
+        assertEquals(1, stream.getDropped());
+        assertEquals(3, events.get(1).handId);
+        assertEquals(4, events.get(2).handId);
+    }
+
+    private static GestureEventStream start(BlockingListener listener, HandResult... first) throws Exception {
+        /**
+         * No debounce, so every count change is emitted on its own frame.
+         * Returns once the dispatch thread is blocked on the first event
+         */
+        GestureEventStream stream = new GestureEventStream(0, 100000, GestureEventStream.DEFAULT_CAPACITY);
+        stream.addListener(listener);
+        stream.update(hands(first), FRAME);
+        listener.awaitFirst();
+        return stream;
+    }
+
+    private static HandResult hand(int id, int fingerCount) {
+        return new HandResult(0, id, fingerCount, 0, 0, 10, 10, 5, 5, new int[0], new int[0]);
+    }
+
+    private static List<HandResult> hands(HandResult... hands) {
+        List<HandResult> list = new ArrayList<>();
+        Collections.addAll(list, hands);
+        return list;
+    }
+
+    private static String describe(List<GestureEvent> events) {
+        StringBuilder sb = new StringBuilder();
+        for (GestureEvent e : events) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(e.type).append(' ').append(e.handId).append(' ').append(e.fingerCount);
+            if (e.type == GestureEvent.Type.FINGER_COUNT_CHANGED) sb.append(" from ").append(e.previousFingerCount);
+        }
+        return sb.toString();
+    }
+
+    private static class BlockingListener implements GestureListener {
+        private final CountDownLatch first = new CountDownLatch(1);
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final List<GestureEvent> events = Collections.synchronizedList(new ArrayList<GestureEvent>());
+
+        @Override
+        public void onGestureEvent(GestureEvent event) {
+            events.add(event);
+            first.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void awaitFirst() throws InterruptedException {
+            assertTrue(first.await(5, TimeUnit.SECONDS));
+        }
+
+        List<GestureEvent> release(int expected) throws InterruptedException {
+            /**
+             * Lets the dispatch thread go and waits for the expected number of events
+             */
+            gate.countDown();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (events.size() < expected && System.currentTimeMillis() < deadline) Thread.sleep(5);
+            Thread.sleep(50); // would catch events beyond the expected ones
+            synchronized (events) {
+                assertEquals(expected, events.size());
+                return new ArrayList<>(events);
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.edwardbai93.handgestures;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the bit-parallel filters of PackedMask with direct window scans,
+ * with widths around the 64 pixel word boundaries.
+ */
+public class PackedMaskTest {
+
+    @Test
+    public void bytes_roundTrip() throws Exception {
+        Random random = new Random(37);
+        for (int t = 0; t < 200; t++) {
+            int w = 1 + random.nextInt(150), h = 1 + random.nextInt(10);
+            byte[] in = randomMask(random, w, h);
+            PackedMask mask = new PackedMask();
+            mask.fromBytes(in, w, h);
+            int set = 0;
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    assertEquals(in[y * w + x] != 0, mask.get(x, y));
+                    if (in[y * w + x] != 0) set++;
+                }
+            }
+            assertEquals(set, mask.popCount());
+
+            byte[] out = new byte[w * h];
+            mask.toBytes(out);
+            for (int i = 0; i < w * h; i++) assertEquals(in[i] != 0 ? (byte) 255 : 0, out[i]);
+        }
+    }
+
+    @Test
+    public void pack8_setsOneBitPerNonZeroByte() throws Exception {
+        Random random = new Random(41);
+        for (int t = 0; t < 10000; t++) {
+            long v = random.nextLong();
+            // clear some bytes, and keep some with only the top or the lowest bit set
+            for (int k = 0; k < 8; k++) {
+                int choice = random.nextInt(4);
+                if (choice == 0) v &= ~(0xFFL << (8 * k));
+                else if (choice == 1) v = (v & ~(0xFFL << (8 * k))) | ((random.nextBoolean() ? 0x80L : 0x01L) << (8 * k));
+            }
+            int expected = 0;
+            for (int k = 0; k < 8; k++) if ((v >>> (8 * k) & 0xFF) != 0) expected |= 1 << k;
+            assertEquals(expected, PackedMask.pack8(v));
+        }
+    }
+
+    @Test
+    public void median_matchesWindowCount() throws Exception {
+        Random random = new Random(43);
+        for (int t = 0; t < 150; t++) {
+            int w = 1 + random.nextInt(150), h = 1 + random.nextInt(20), ksize = 3 + 2 * random.nextInt(4);
+            byte[] in = randomMask(random, w, h);
+            PackedMask mask = new PackedMask();
+            mask.fromBytes(in, w, h);
+            mask.median(ksize);
+            assertMask(naiveMedian(in, w, h, ksize), mask);
+        }
+    }
+
+    @Test
+    public void morphology_matchesWindowScan() throws Exception {
+        Random random = new Random(47);
+        for (int t = 0; t < 150; t++) {
+            int w = 1 + random.nextInt(150), h = 1 + random.nextInt(20);
+            int kw = 1 + random.nextInt(9), kh = 1 + random.nextInt(9);
+            byte[] in = randomMask(random, w, h);
+            PackedMask mask = new PackedMask();
+
+            mask.fromBytes(in, w, h);
+            mask.dilate(kw, kh);
+            assertMask(naiveMorph(in, w, h, kw, kh, true), mask);
+
+            mask.fromBytes(in, w, h);
+            mask.erode(kw, kh);
+            assertMask(naiveMorph(in, w, h, kw, kh, false), mask);
+
+            mask.fromBytes(in, w, h);
+            mask.close(kw, kh);
+            assertMask(naiveMorph(naiveMorph(in, w, h, kw, kh, true), w, h, kw, kh, false), mask);
+        }
+    }
+
+    @Test
+    public void logic_keepsThePaddingClear() throws Exception {
+        Random random = new Random(53);
+        int w = 70, h = 3;
+        byte[] a = randomMask(random, w, h), b = randomMask(random, w, h);
+        PackedMask ma = new PackedMask(), mb = new PackedMask();
+        ma.fromBytes(a, w, h);
+        mb.fromBytes(b, w, h);
+        ma.and(mb);
+        ma.not();
+        ma.or(mb);
+        int set = 0;
+        for (int i = 0; i < w * h; i++) {
+            boolean expected = !(a[i] != 0 && b[i] != 0) || b[i] != 0;
+            assertEquals(expected, ma.get(i % w, i / w));
+            if (expected) set++;
+        }
+        assertEquals(set, ma.popCount());
+    }
+
+    private static byte[] randomMask(Random random, int w, int h) {
+        /**
+         * Blobs of arbitrary non-zero values rather than noise
+         */
+        byte[] mask = new byte[w * h];
+        double density = random.nextDouble();
+        for (int i = 0; i < mask.length; i++) {
+            if (random.nextDouble() < density) mask[i] = (byte) (1 + random.nextInt(255));
+            else if (i > 0 && random.nextInt(3) == 0) mask[i] = mask[i - 1];
+        }
+        return mask;
+    }
+
+    private static void assertMask(boolean[] expected, PackedMask mask) {
+        int w = mask.width();
+        for (int i = 0; i < expected.length; i++)
+            assertEquals("pixel " + i % w + ", " + i / w, expected[i], mask.get(i % w, i / w));
+    }
+
+    private static boolean[] naiveMedian(byte[] in, int w, int h, int ksize) {
+        // pixels outside the mask count as unset
+        int r = ksize / 2;
+        boolean[] out = new boolean[w * h];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int count = 0;
+                for (int yy = y - r; yy <= y + r; yy++)
+                    for (int xx = x - r; xx <= x + r; xx++)
+                        if (yy >= 0 && yy < h && xx >= 0 && xx < w && in[yy * w + xx] != 0) count++;
+                out[y * w + x] = count > ksize * ksize / 2;
+            }
+        }
+        return out;
+    }
+
+    private static boolean[] naiveMorph(boolean[] in, int w, int h, int kw, int kh, boolean dilate) {
+        byte[] bytes = new byte[w * h];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = in[i] ? (byte) 1 : 0;
+        return naiveMorph(bytes, w, h, kw, kh, dilate);
+    }
+
+    private static boolean[] naiveMorph(byte[] in, int w, int h, int kw, int kh, boolean dilate) {
+        // outside the mask is unset for dilation and set for erosion
+        boolean[] out = new boolean[w * h];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                boolean result = !dilate;
+                for (int yy = y - kh / 2; yy < y - kh / 2 + kh; yy++) {
+                    for (int xx = x - kw / 2; xx < x - kw / 2 + kw; xx++) {
+                        boolean set = yy >= 0 && yy < h && xx >= 0 && xx < w ? in[yy * w + xx] != 0 : !dilate;
+                        result = dilate ? result | set : result & set;
+                    }
+                }
+                out[y * w + x] = result;
+            }
+        }
+        return out;
+    }
+}
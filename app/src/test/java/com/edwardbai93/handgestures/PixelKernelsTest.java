@@ -0,0 +1,96 @@
+package com.edwardbai93.handgestures;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PixelKernelsTest {
+    private final PixelKernels scalar = new ScalarKernels();
+    private final PixelKernels swar = new SwarKernels();
+
+    @Test
+    public void inRange_swarMatchesScalarAndReference() throws Exception {
+        Random random = new Random(17);
+        for (int t = 0; t < 300; t++) {
+            // pixel counts that are not multiples of 8 exercise the remainder loop
+            int pixels = random.nextInt(200);
+            byte[] img = new byte[pixels * 3];
+            random.nextBytes(img);
+            ColorRanges ranges = new ColorRanges();
+            int num = random.nextInt(5);
+            for (int i = 0; i < num; i++) {
+                double[] lower = new double[3], upper = new double[3];
+                for (int j = 0; j < 3; j++) {
+                    // bounds past 0 and 255 and at the byte edges
+                    lower[j] = random.nextInt(280) - 20 + (random.nextBoolean() ? 0.4 : 0);
+                    upper[j] = lower[j] + random.nextInt(150);
+                }
+                ranges.add(lower, upper);
+            }
+
+            byte[] expected = new byte[pixels], fromScalar = new byte[pixels], fromSwar = new byte[pixels];
+            for (int p = 0; p < pixels; p++) {
+                for (int r = 0; r < ranges.count(); r++) {
+                    boolean inside = true;
+                    for (int j = 0; j < 3; j++) {
+                        int c = img[3 * p + j] & 0xFF;
+                        inside &= c >= Math.round(ranges.lower(r)[j]) && c <= Math.round(ranges.upper(r)[j]);
+                    }
+                    if (inside) expected[p] = (byte) 255;
+                }
+            }
+            scalar.inRange(img, pixels, ranges, fromScalar);
+            swar.inRange(img, pixels, ranges, fromSwar);
+            assertArrayEquals(expected, fromScalar);
+            assertArrayEquals(expected, fromSwar);
+        }
+    }
+
+    @Test
+    public void andNot_swarMatchesScalar() throws Exception {
+        Random random = new Random(19);
+        for (int n = 0; n < 100; n++) {
+            byte[] a = new byte[n], b = new byte[n];
+            random.nextBytes(a);
+            random.nextBytes(b);
+            byte[] expected = new byte[n], actual = new byte[n];
+
+            scalar.and(a, b, expected, n);
+            swar.and(a, b, actual, n);
+            assertArrayEquals(expected, actual);
+            for (int i = 0; i < n; i++) assertEquals((byte) (a[i] & b[i]), actual[i]);
+
+            scalar.not(a, expected, n);
+            swar.not(a, actual, n);
+            assertArrayEquals(expected, actual);
+            for (int i = 0; i < n; i++) assertEquals((byte) ~a[i], actual[i]);
+        }
+    }
+
+    @Test
+    public void get_selectedKernelsMatchScalar() throws Exception {
+        // the selection may mix both implementations, one per kernel
+        Random random = new Random(23);
+        int n = 1001;
+        byte[] img = new byte[3 * n], a = new byte[n], b = new byte[n];
+        random.nextBytes(img);
+        random.nextBytes(a);
+        random.nextBytes(b);
+        ColorRanges ranges = new ColorRanges();
+        ranges.add(new double[]{20, 60, 100}, new double[]{200, 180, 240});
+        ranges.add(new double[]{0, 0, 0}, new double[]{40, 255, 30});
+        byte[] expected = new byte[n], actual = new byte[n];
+
+        scalar.inRange(img, n, ranges, expected);
+        PixelKernels.get().inRange(img, n, ranges, actual);
+        assertArrayEquals(expected, actual);
+        scalar.and(a, b, expected, n);
+        PixelKernels.get().and(a, b, actual, n);
+        assertArrayEquals(expected, actual);
+        scalar.not(a, expected, n);
+        PixelKernels.get().not(a, actual, n);
+        assertArrayEquals(expected, actual);
+    }
+}
@@ -0,0 +1,193 @@
+package com.edwardbai93.handgestures;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares PolygonHull with a gift wrapping reference hull on contours that are
+ * not simple polygons: one pixel wide spurs and necks traced in both directions,
+ * and densified polygons touching themselves.
+ */
+public class PolygonHullTest {
+    private final PolygonHull polygonHull = new PolygonHull();
+
+    @Test
+    public void hull_matchesReferenceOnPolygonsWithSpurs() throws Exception {
+        Random random = new Random(7);
+        for (int t = 0; t < 2000; t++) {
+            List<int[]> polygon = densify(randomPolygon(random, 3 + random.nextInt(12)));
+            // out and back along a one pixel wide spur, revisiting its pixels
+            int at = random.nextInt(polygon.size());
+            int[] base = polygon.get(at);
+            int dx = random.nextInt(3) - 1, dy = random.nextInt(3) - 1, length = 1 + random.nextInt(40);
+            List<int[]> spur = new ArrayList<>();
+            for (int i = 1; i <= length; i++) spur.add(new int[]{base[0] + i * dx, base[1] + i * dy});
+            for (int i = length - 1; i >= 0; i--) spur.add(new int[]{base[0] + i * dx, base[1] + i * dy});
+            polygon.addAll(at + 1, spur);
+            checkHull(toArray(polygon));
+        }
+    }
+
+    @Test
+    public void hull_matchesReferenceOnTracedNecks() throws Exception {
+        Random random = new Random(11);
+        for (int t = 0; t < 500; t++) {
+            // two squares joined by a neck that the trace walks along twice
+            int size = 5 + random.nextInt(30), neck = 1 + random.nextInt(30), shift = random.nextInt(2 * size + 1) - size;
+            List<int[]> contour = new ArrayList<>();
+            square(contour, 0, 0, size);
+            for (int x = size + 1; x <= size + neck; x++) contour.add(new int[]{x, size / 2});
+            square(contour, size + neck + 1, size / 2 + shift - size / 2, size);
+            for (int x = size + neck; x >= size; x--) contour.add(new int[]{x, size / 2});
+            checkHull(toArray(contour));
+        }
+    }
+
+    @Test
+    public void hull_matchesReferenceOnSelfTouchingStars() throws Exception {
+        Random random = new Random(13);
+        for (int t = 0; t < 500; t++) {
+            // star polygons {p/q} visit their vertices in a crossing order
+            int p = 5 + random.nextInt(6), q = 2 + random.nextInt(2);
+            int r = 20 + random.nextInt(100);
+            List<int[]> star = new ArrayList<>();
+            for (int i = 0; i < p; i++) {
+                double a = 2 * Math.PI * ((i * q) % p) / p;
+                star.add(new int[]{(int) Math.round(r * Math.cos(a)), (int) Math.round(r * Math.sin(a))});
+            }
+            checkHull(toArray(densify(star)));
+        }
+    }
+
+    @Test
+    public void hull_handlesDegenerateInput() throws Exception {
+        int[] out = new int[8];
+        assertEquals(2, polygonHull.hull(new int[]{0, 0, 1, 1, 2, 2, 3, 3}, 4, false, out));
+        assertEquals(1, polygonHull.hull(new int[]{5, 5, 5, 5, 5, 5}, 3, false, out));
+    }
+
+    @Test
+    public void defects_findsTheNotchOfASquare() throws Exception {
+        // 10 x 10 square with a notch of depth 4 in the middle of its top edge
+        int[] pts = {0, 0, 10, 0, 10, 10, 6, 10, 5, 6, 4, 10, 0, 10};
+        int[] hull = new int[7];
+        int hullNum = polygonHull.hull(pts, 7, false, hull);
+        assertEquals(4, hullNum);
+        int[] defects = new int[4 * hullNum];
+        int num = polygonHull.defects(pts, 7, hull, hullNum, defects);
+        assertEquals(1, num);
+        assertEquals(4, defects[2]);
+        assertEquals(4 * 256, defects[3]);
+    }
+
+    private void checkHull(int[] pts) {
+        int n = pts.length / 2;
+        int[] out = new int[n];
+        int num = polygonHull.hull(pts, n, false, out);
+        Set<Long> expected = referenceHull(pts, n);
+        Set<Long> actual = new HashSet<>();
+        for (int i = 0; i < num; i++) actual.add(key(pts[2 * out[i]], pts[2 * out[i] + 1]));
+        assertEquals(expected.size(), num);
+        assertEquals(expected, actual);
+
+        // counterclockwise with y up, starting at the largest x, then largest y
+        for (int i = 0; i < n; i++) {
+            int s = out[0];
+            assertTrue(pts[2 * i] < pts[2 * s] || (pts[2 * i] == pts[2 * s] && pts[2 * i + 1] <= pts[2 * s + 1]));
+        }
+        for (int i = 0; i < num && num > 2; i++) {
+            int a = out[i], b = out[(i + 1) % num], c = out[(i + 2) % num];
+            long cross = (long) (pts[2 * b] - pts[2 * a]) * (pts[2 * c + 1] - pts[2 * a + 1]) -
+                    (long) (pts[2 * b + 1] - pts[2 * a + 1]) * (pts[2 * c] - pts[2 * a]);
+            assertTrue(cross > 0);
+        }
+    }
+
+    private static Set<Long> referenceHull(int[] pts, int n) {
+        /**
+         * Strict hull vertices by gift wrapping, taking the farthest point on ties
+         */
+        int start = 0;
+        for (int i = 1; i < n; i++)
+            if (pts[2 * i] < pts[2 * start] || (pts[2 * i] == pts[2 * start] && pts[2 * i + 1] < pts[2 * start + 1]))
+                start = i;
+        Set<Long> hull = new HashSet<>();
+        int current = start;
+        do {
+            hull.add(key(pts[2 * current], pts[2 * current + 1]));
+            int next = -1;
+            for (int i = 0; i < n; i++) {
+                if (pts[2 * i] == pts[2 * current] && pts[2 * i + 1] == pts[2 * current + 1]) continue;
+                if (next == -1) {
+                    next = i;
+                    continue;
+                }
+                long ax = pts[2 * next] - pts[2 * current], ay = pts[2 * next + 1] - pts[2 * current + 1];
+                long bx = pts[2 * i] - pts[2 * current], by = pts[2 * i + 1] - pts[2 * current + 1];
+                long cross = ax * by - ay * bx;
+                if (cross < 0 || (cross == 0 && bx * bx + by * by > ax * ax + ay * ay)) next = i;
+            }
+            if (next == -1) break;
+            current = next;
+        } while (pts[2 * current] != pts[2 * start] || pts[2 * current + 1] != pts[2 * start + 1]);
+        return hull;
+    }
+
+    private static List<int[]> randomPolygon(Random random, int vertices) {
+        /**
+         * Simple polygon around the origin with sorted angles and random radii
+         */
+        double[] angles = new double[vertices];
+        for (int i = 0; i < vertices; i++) angles[i] = random.nextDouble() * 2 * Math.PI;
+        java.util.Arrays.sort(angles);
+        List<int[]> polygon = new ArrayList<>();
+        for (double a : angles) {
+            double r = 10 + random.nextInt(100);
+            polygon.add(new int[]{(int) Math.round(200 + r * Math.cos(a)), (int) Math.round(200 + r * Math.sin(a))});
+        }
+        return polygon;
+    }
+
+    private static List<int[]> densify(List<int[]> polygon) {
+        /**
+         * Every integer point along the edges, like a CHAIN_APPROX_NONE contour
+         */
+        List<int[]> dense = new ArrayList<>();
+        for (int i = 0; i < polygon.size(); i++) {
+            int[] a = polygon.get(i), b = polygon.get((i + 1) % polygon.size());
+            int steps = Math.max(Math.abs(b[0] - a[0]), Math.abs(b[1] - a[1]));
+            for (int s = 0; s < Math.max(1, steps); s++) {
+                dense.add(new int[]{(int) Math.round(a[0] + (double) (b[0] - a[0]) * s / Math.max(1, steps)),
+                        (int) Math.round(a[1] + (double) (b[1] - a[1]) * s / Math.max(1, steps))});
+            }
+        }
+        return dense;
+    }
+
+    private static void square(List<int[]> out, int x0, int y0, int size) {
+        for (int x = x0; x < x0 + size; x++) out.add(new int[]{x, y0});
+        for (int y = y0; y < y0 + size; y++) out.add(new int[]{x0 + size, y});
+        for (int x = x0 + size; x > x0; x--) out.add(new int[]{x, y0 + size});
+        for (int y = y0 + size; y > y0; y--) out.add(new int[]{x0, y});
+    }
+
+    private static int[] toArray(List<int[]> points) {
+        int[] pts = new int[2 * points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            pts[2 * i] = points.get(i)[0];
+            pts[2 * i + 1] = points.get(i)[1];
+        }
+        return pts;
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+}
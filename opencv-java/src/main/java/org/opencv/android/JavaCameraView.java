@@ -38,6 +38,7 @@ public class JavaCameraView extends CameraBridgeViewBase implements PreviewCallb
     private boolean mStopThread;
 
     protected Camera mCamera;
+    protected int mOpenedCameraIndex = -1; // index of mCamera among Camera.getNumberOfCameras(), -1 while none is open
     protected JavaCameraFrame[] mCameraFrame;
     private SurfaceTexture mSurfaceTexture;
 
@@ -67,11 +68,13 @@ public class JavaCameraView extends CameraBridgeViewBase implements PreviewCallb
         boolean result = true;
         synchronized (this) {
             mCamera = null;
+            mOpenedCameraIndex = -1;
 
             if (mCameraIndex == CAMERA_ID_ANY) {
                 Log.d(TAG, "Trying to open camera with old open()");
                 try {
                     mCamera = Camera.open();
+                    mOpenedCameraIndex = firstCameraFacing(Camera.CameraInfo.CAMERA_FACING_BACK);
                 }
                 catch (Exception e){
                     Log.e(TAG, "Camera is not available (in use or does not exist): " + e.getLocalizedMessage());
@@ -83,6 +86,7 @@ public class JavaCameraView extends CameraBridgeViewBase implements PreviewCallb
                         Log.d(TAG, "Trying to open camera with new open(" + Integer.valueOf(camIdx) + ")");
                         try {
                             mCamera = Camera.open(camIdx);
+                            mOpenedCameraIndex = camIdx;
                             connected = true;
                         } catch (RuntimeException e) {
                             Log.e(TAG, "Camera #" + camIdx + "failed to open: " + e.getLocalizedMessage());
@@ -122,6 +126,7 @@ public class JavaCameraView extends CameraBridgeViewBase implements PreviewCallb
                         Log.d(TAG, "Trying to open camera with new open(" + Integer.valueOf(localCameraIndex) + ")");
                         try {
                             mCamera = Camera.open(localCameraIndex);
+                            mOpenedCameraIndex = localCameraIndex;
                         } catch (RuntimeException e) {
                             Log.e(TAG, "Camera #" + localCameraIndex + "failed to open: " + e.getLocalizedMessage());
                         }
@@ -208,8 +213,31 @@ public class JavaCameraView extends CameraBridgeViewBase implements PreviewCallb
         return result;
     }
 
+    private static int firstCameraFacing(int facing) {
+        // the camera that the old Camera.open() opens is the first one facing back
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.GINGERBREAD)
+            return 0;
+        Camera.CameraInfo cameraInfo = new Camera.CameraInfo();
+        for (int camIdx = 0; camIdx < Camera.getNumberOfCameras(); ++camIdx) {
+            Camera.getCameraInfo(camIdx, cameraInfo);
+            if (cameraInfo.facing == facing)
+                return camIdx;
+        }
+        return 0;
+    }
+
+    /**
+     * Index of the camera that is open, as given to Camera.open(int). Unlike
+     * the camera index of the view, it is never CAMERA_ID_ANY, CAMERA_ID_BACK
+     * or CAMERA_ID_FRONT while a camera is open, and -1 otherwise.
+     */
+    public int getOpenedCameraIndex() {
+        return mOpenedCameraIndex;
+    }
+
     protected void releaseCamera() {
         synchronized (this) {
+            mOpenedCameraIndex = -1;
             if (mCamera != null) {
                 mCamera.stopPreview();
                 mCamera.setPreviewCallback(null);
@@ -91,6 +91,7 @@ public class Utils {
         if (mat == null)
             throw new java.lang.IllegalArgumentException("mat == null");
         nBitmapToMat2(bmp, mat.nativeObj, unPremultiplyAlpha);
+        mat.invalidate();
     }
 
     /**
@@ -110,6 +110,11 @@ public class Calib3d {
     {
 
         double[] retVal = RQDecomp3x3_0(src.nativeObj, mtxR.nativeObj, mtxQ.nativeObj, Qx.nativeObj, Qy.nativeObj, Qz.nativeObj);
+        mtxR.invalidate();
+        mtxQ.invalidate();
+        Qx.invalidate();
+        Qy.invalidate();
+        Qz.invalidate();
 
         return retVal;
     }
@@ -138,6 +143,8 @@ public class Calib3d {
     {
 
         double[] retVal = RQDecomp3x3_1(src.nativeObj, mtxR.nativeObj, mtxQ.nativeObj);
+        mtxR.invalidate();
+        mtxQ.invalidate();
 
         return retVal;
     }
@@ -184,6 +191,8 @@ public class Calib3d {
     {
 
         Rodrigues_0(src.nativeObj, dst.nativeObj, jacobian.nativeObj);
+        dst.invalidate();
+        jacobian.invalidate();
 
         return;
     }
@@ -222,6 +231,7 @@ public class Calib3d {
     {
 
         Rodrigues_1(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -364,6 +374,8 @@ public class Calib3d {
         double retVal = calibrateCamera_0(objectPoints_mat.nativeObj, imagePoints_mat.nativeObj, imageSize.width, imageSize.height, cameraMatrix.nativeObj, distCoeffs.nativeObj, rvecs_mat.nativeObj, tvecs_mat.nativeObj, flags, criteria.type, criteria.maxCount, criteria.epsilon);
         Converters.Mat_to_vector_Mat(rvecs_mat, rvecs);
         Converters.Mat_to_vector_Mat(tvecs_mat, tvecs);
+        cameraMatrix.invalidate();
+        distCoeffs.invalidate();
         return retVal;
     }
 
@@ -498,6 +510,8 @@ public class Calib3d {
         double retVal = calibrateCamera_1(objectPoints_mat.nativeObj, imagePoints_mat.nativeObj, imageSize.width, imageSize.height, cameraMatrix.nativeObj, distCoeffs.nativeObj, rvecs_mat.nativeObj, tvecs_mat.nativeObj, flags);
         Converters.Mat_to_vector_Mat(rvecs_mat, rvecs);
         Converters.Mat_to_vector_Mat(tvecs_mat, tvecs);
+        cameraMatrix.invalidate();
+        distCoeffs.invalidate();
         return retVal;
     }
 
@@ -602,6 +616,8 @@ public class Calib3d {
         double retVal = calibrateCamera_2(objectPoints_mat.nativeObj, imagePoints_mat.nativeObj, imageSize.width, imageSize.height, cameraMatrix.nativeObj, distCoeffs.nativeObj, rvecs_mat.nativeObj, tvecs_mat.nativeObj);
         Converters.Mat_to_vector_Mat(rvecs_mat, rvecs);
         Converters.Mat_to_vector_Mat(tvecs_mat, tvecs);
+        cameraMatrix.invalidate();
+        distCoeffs.invalidate();
         return retVal;
     }
 
@@ -710,6 +726,16 @@ public class Calib3d {
     {
 
         composeRT_0(rvec1.nativeObj, tvec1.nativeObj, rvec2.nativeObj, tvec2.nativeObj, rvec3.nativeObj, tvec3.nativeObj, dr3dr1.nativeObj, dr3dt1.nativeObj, dr3dr2.nativeObj, dr3dt2.nativeObj, dt3dr1.nativeObj, dt3dt1.nativeObj, dt3dr2.nativeObj, dt3dt2.nativeObj);
+        rvec3.invalidate();
+        tvec3.invalidate();
+        dr3dr1.invalidate();
+        dr3dt1.invalidate();
+        dr3dr2.invalidate();
+        dr3dt2.invalidate();
+        dt3dr1.invalidate();
+        dt3dt1.invalidate();
+        dt3dr2.invalidate();
+        dt3dt2.invalidate();
 
         return;
     }
@@ -745,6 +771,8 @@ public class Calib3d {
     {
 
         composeRT_1(rvec1.nativeObj, tvec1.nativeObj, rvec2.nativeObj, tvec2.nativeObj, rvec3.nativeObj, tvec3.nativeObj);
+        rvec3.invalidate();
+        tvec3.invalidate();
 
         return;
     }
@@ -791,6 +819,7 @@ public class Calib3d {
     {
 
         computeCorrespondEpilines_0(points.nativeObj, whichImage, F.nativeObj, lines.nativeObj);
+        lines.invalidate();
 
         return;
     }
@@ -817,6 +846,7 @@ public class Calib3d {
     {
 
         convertPointsFromHomogeneous_0(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -842,6 +872,7 @@ public class Calib3d {
     {
 
         convertPointsToHomogeneous_0(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -875,6 +906,8 @@ public class Calib3d {
     {
 
         correctMatches_0(F.nativeObj, points1.nativeObj, points2.nativeObj, newPoints1.nativeObj, newPoints2.nativeObj);
+        newPoints1.invalidate();
+        newPoints2.invalidate();
 
         return;
     }
@@ -915,6 +948,13 @@ public class Calib3d {
     {
 
         decomposeProjectionMatrix_0(projMatrix.nativeObj, cameraMatrix.nativeObj, rotMatrix.nativeObj, transVect.nativeObj, rotMatrixX.nativeObj, rotMatrixY.nativeObj, rotMatrixZ.nativeObj, eulerAngles.nativeObj);
+        cameraMatrix.invalidate();
+        rotMatrix.invalidate();
+        transVect.invalidate();
+        rotMatrixX.invalidate();
+        rotMatrixY.invalidate();
+        rotMatrixZ.invalidate();
+        eulerAngles.invalidate();
 
         return;
     }
@@ -945,6 +985,9 @@ public class Calib3d {
     {
 
         decomposeProjectionMatrix_1(projMatrix.nativeObj, cameraMatrix.nativeObj, rotMatrix.nativeObj, transVect.nativeObj);
+        cameraMatrix.invalidate();
+        rotMatrix.invalidate();
+        transVect.invalidate();
 
         return;
     }
@@ -975,6 +1018,7 @@ public class Calib3d {
     {
         Mat corners_mat = corners;
         drawChessboardCorners_0(image.nativeObj, patternSize.width, patternSize.height, corners_mat.nativeObj, patternWasFound);
+        image.invalidate();
 
         return;
     }
@@ -1007,6 +1051,8 @@ public class Calib3d {
     {
 
         int retVal = estimateAffine3D_0(src.nativeObj, dst.nativeObj, out.nativeObj, inliers.nativeObj, ransacThreshold, confidence);
+        out.invalidate();
+        inliers.invalidate();
 
         return retVal;
     }
@@ -1028,6 +1074,8 @@ public class Calib3d {
     {
 
         int retVal = estimateAffine3D_1(src.nativeObj, dst.nativeObj, out.nativeObj, inliers.nativeObj);
+        out.invalidate();
+        inliers.invalidate();
 
         return retVal;
     }
@@ -1058,6 +1106,8 @@ public class Calib3d {
     {
 
         filterSpeckles_0(img.nativeObj, newVal, maxSpeckleSize, maxDiff, buf.nativeObj);
+        img.invalidate();
+        buf.invalidate();
 
         return;
     }
@@ -1081,6 +1131,7 @@ public class Calib3d {
     {
 
         filterSpeckles_1(img.nativeObj, newVal, maxSpeckleSize, maxDiff);
+        img.invalidate();
 
         return;
     }
@@ -1168,6 +1219,7 @@ public class Calib3d {
     {
         Mat corners_mat = corners;
         boolean retVal = findChessboardCorners_0(image.nativeObj, patternSize.width, patternSize.height, corners_mat.nativeObj, flags);
+        corners.invalidate();
 
         return retVal;
     }
@@ -1234,6 +1286,7 @@ public class Calib3d {
     {
         Mat corners_mat = corners;
         boolean retVal = findChessboardCorners_1(image.nativeObj, patternSize.width, patternSize.height, corners_mat.nativeObj);
+        corners.invalidate();
 
         return retVal;
     }
@@ -1254,6 +1307,7 @@ public class Calib3d {
     {
 
         boolean retVal = findCirclesGridDefault_0(image.nativeObj, patternSize.width, patternSize.height, centers.nativeObj, flags);
+        centers.invalidate();
 
         return retVal;
     }
@@ -1262,6 +1316,7 @@ public class Calib3d {
     {
 
         boolean retVal = findCirclesGridDefault_1(image.nativeObj, patternSize.width, patternSize.height, centers.nativeObj);
+        centers.invalidate();
 
         return retVal;
     }
@@ -1345,6 +1400,7 @@ public class Calib3d {
         Mat points1_mat = points1;
         Mat points2_mat = points2;
         Mat retVal = new Mat(findFundamentalMat_0(points1_mat.nativeObj, points2_mat.nativeObj, method, param1, param2, mask.nativeObj));
+        mask.invalidate();
 
         return retVal;
     }
@@ -1580,6 +1636,7 @@ public class Calib3d {
         Mat srcPoints_mat = srcPoints;
         Mat dstPoints_mat = dstPoints;
         Mat retVal = new Mat(findHomography_0(srcPoints_mat.nativeObj, dstPoints_mat.nativeObj, method, ransacReprojThreshold, mask.nativeObj));
+        mask.invalidate();
 
         return retVal;
     }
@@ -1932,6 +1989,8 @@ public class Calib3d {
     {
 
         matMulDeriv_0(A.nativeObj, B.nativeObj, dABdA.nativeObj, dABdB.nativeObj);
+        dABdA.invalidate();
+        dABdB.invalidate();
 
         return;
     }
@@ -1992,6 +2051,8 @@ public class Calib3d {
         Mat distCoeffs_mat = distCoeffs;
         Mat imagePoints_mat = imagePoints;
         projectPoints_0(objectPoints_mat.nativeObj, rvec.nativeObj, tvec.nativeObj, cameraMatrix.nativeObj, distCoeffs_mat.nativeObj, imagePoints_mat.nativeObj, jacobian.nativeObj, aspectRatio);
+        imagePoints.invalidate();
+        jacobian.invalidate();
 
         return;
     }
@@ -2039,6 +2100,7 @@ public class Calib3d {
         Mat distCoeffs_mat = distCoeffs;
         Mat imagePoints_mat = imagePoints;
         projectPoints_1(objectPoints_mat.nativeObj, rvec.nativeObj, tvec.nativeObj, cameraMatrix.nativeObj, distCoeffs_mat.nativeObj, imagePoints_mat.nativeObj);
+        imagePoints.invalidate();
 
         return;
     }
@@ -2057,6 +2119,13 @@ public class Calib3d {
         float retVal = rectify3Collinear_0(cameraMatrix1.nativeObj, distCoeffs1.nativeObj, cameraMatrix2.nativeObj, distCoeffs2.nativeObj, cameraMatrix3.nativeObj, distCoeffs3.nativeObj, imgpt1_mat.nativeObj, imgpt3_mat.nativeObj, imageSize.width, imageSize.height, R12.nativeObj, T12.nativeObj, R13.nativeObj, T13.nativeObj, R1.nativeObj, R2.nativeObj, R3.nativeObj, P1.nativeObj, P2.nativeObj, P3.nativeObj, Q.nativeObj, alpha, newImgSize.width, newImgSize.height, roi1_out, roi2_out, flags);
         if(roi1!=null){ roi1.x = (int)roi1_out[0]; roi1.y = (int)roi1_out[1]; roi1.width = (int)roi1_out[2]; roi1.height = (int)roi1_out[3]; }
         if(roi2!=null){ roi2.x = (int)roi2_out[0]; roi2.y = (int)roi2_out[1]; roi2.width = (int)roi2_out[2]; roi2.height = (int)roi2_out[3]; }
+        R1.invalidate();
+        R2.invalidate();
+        R3.invalidate();
+        P1.invalidate();
+        P2.invalidate();
+        P3.invalidate();
+        Q.invalidate();
         return retVal;
     }
 
@@ -2102,6 +2171,7 @@ public class Calib3d {
     {
 
         reprojectImageTo3D_0(disparity.nativeObj, _3dImage.nativeObj, Q.nativeObj, handleMissingValues, ddepth);
+        _3dImage.invalidate();
 
         return;
     }
@@ -2140,6 +2210,7 @@ public class Calib3d {
     {
 
         reprojectImageTo3D_1(disparity.nativeObj, _3dImage.nativeObj, Q.nativeObj, handleMissingValues);
+        _3dImage.invalidate();
 
         return;
     }
@@ -2173,6 +2244,7 @@ public class Calib3d {
     {
 
         reprojectImageTo3D_2(disparity.nativeObj, _3dImage.nativeObj, Q.nativeObj);
+        _3dImage.invalidate();
 
         return;
     }
@@ -2241,6 +2313,8 @@ public class Calib3d {
         Mat imagePoints_mat = imagePoints;
         Mat distCoeffs_mat = distCoeffs;
         boolean retVal = solvePnP_0(objectPoints_mat.nativeObj, imagePoints_mat.nativeObj, cameraMatrix.nativeObj, distCoeffs_mat.nativeObj, rvec.nativeObj, tvec.nativeObj, useExtrinsicGuess, flags);
+        rvec.invalidate();
+        tvec.invalidate();
 
         return retVal;
     }
@@ -2285,6 +2359,8 @@ public class Calib3d {
         Mat imagePoints_mat = imagePoints;
         Mat distCoeffs_mat = distCoeffs;
         boolean retVal = solvePnP_1(objectPoints_mat.nativeObj, imagePoints_mat.nativeObj, cameraMatrix.nativeObj, distCoeffs_mat.nativeObj, rvec.nativeObj, tvec.nativeObj);
+        rvec.invalidate();
+        tvec.invalidate();
 
         return retVal;
     }
@@ -2347,6 +2423,9 @@ public class Calib3d {
         Mat imagePoints_mat = imagePoints;
         Mat distCoeffs_mat = distCoeffs;
         solvePnPRansac_0(objectPoints_mat.nativeObj, imagePoints_mat.nativeObj, cameraMatrix.nativeObj, distCoeffs_mat.nativeObj, rvec.nativeObj, tvec.nativeObj, useExtrinsicGuess, iterationsCount, reprojectionError, minInliersCount, inliers.nativeObj, flags);
+        rvec.invalidate();
+        tvec.invalidate();
+        inliers.invalidate();
 
         return;
     }
@@ -2391,6 +2470,8 @@ public class Calib3d {
         Mat imagePoints_mat = imagePoints;
         Mat distCoeffs_mat = distCoeffs;
         solvePnPRansac_1(objectPoints_mat.nativeObj, imagePoints_mat.nativeObj, cameraMatrix.nativeObj, distCoeffs_mat.nativeObj, rvec.nativeObj, tvec.nativeObj);
+        rvec.invalidate();
+        tvec.invalidate();
 
         return;
     }
@@ -2514,6 +2595,14 @@ public class Calib3d {
         Mat imagePoints1_mat = Converters.vector_Mat_to_Mat(imagePoints1);
         Mat imagePoints2_mat = Converters.vector_Mat_to_Mat(imagePoints2);
         double retVal = stereoCalibrate_0(objectPoints_mat.nativeObj, imagePoints1_mat.nativeObj, imagePoints2_mat.nativeObj, cameraMatrix1.nativeObj, distCoeffs1.nativeObj, cameraMatrix2.nativeObj, distCoeffs2.nativeObj, imageSize.width, imageSize.height, R.nativeObj, T.nativeObj, E.nativeObj, F.nativeObj, criteria.type, criteria.maxCount, criteria.epsilon, flags);
+        cameraMatrix1.invalidate();
+        distCoeffs1.invalidate();
+        cameraMatrix2.invalidate();
+        distCoeffs2.invalidate();
+        R.invalidate();
+        T.invalidate();
+        E.invalidate();
+        F.invalidate();
 
         return retVal;
     }
@@ -2603,6 +2692,14 @@ public class Calib3d {
         Mat imagePoints1_mat = Converters.vector_Mat_to_Mat(imagePoints1);
         Mat imagePoints2_mat = Converters.vector_Mat_to_Mat(imagePoints2);
         double retVal = stereoCalibrate_1(objectPoints_mat.nativeObj, imagePoints1_mat.nativeObj, imagePoints2_mat.nativeObj, cameraMatrix1.nativeObj, distCoeffs1.nativeObj, cameraMatrix2.nativeObj, distCoeffs2.nativeObj, imageSize.width, imageSize.height, R.nativeObj, T.nativeObj, E.nativeObj, F.nativeObj);
+        cameraMatrix1.invalidate();
+        distCoeffs1.invalidate();
+        cameraMatrix2.invalidate();
+        distCoeffs2.invalidate();
+        R.invalidate();
+        T.invalidate();
+        E.invalidate();
+        F.invalidate();
 
         return retVal;
     }
@@ -2732,6 +2829,11 @@ public class Calib3d {
         stereoRectify_0(cameraMatrix1.nativeObj, distCoeffs1.nativeObj, cameraMatrix2.nativeObj, distCoeffs2.nativeObj, imageSize.width, imageSize.height, R.nativeObj, T.nativeObj, R1.nativeObj, R2.nativeObj, P1.nativeObj, P2.nativeObj, Q.nativeObj, flags, alpha, newImageSize.width, newImageSize.height, validPixROI1_out, validPixROI2_out);
         if(validPixROI1!=null){ validPixROI1.x = (int)validPixROI1_out[0]; validPixROI1.y = (int)validPixROI1_out[1]; validPixROI1.width = (int)validPixROI1_out[2]; validPixROI1.height = (int)validPixROI1_out[3]; }
         if(validPixROI2!=null){ validPixROI2.x = (int)validPixROI2_out[0]; validPixROI2.y = (int)validPixROI2_out[1]; validPixROI2.width = (int)validPixROI2_out[2]; validPixROI2.height = (int)validPixROI2_out[3]; }
+        R1.invalidate();
+        R2.invalidate();
+        P1.invalidate();
+        P2.invalidate();
+        Q.invalidate();
         return;
     }
 
@@ -2823,6 +2925,11 @@ public class Calib3d {
     {
 
         stereoRectify_1(cameraMatrix1.nativeObj, distCoeffs1.nativeObj, cameraMatrix2.nativeObj, distCoeffs2.nativeObj, imageSize.width, imageSize.height, R.nativeObj, T.nativeObj, R1.nativeObj, R2.nativeObj, P1.nativeObj, P2.nativeObj, Q.nativeObj);
+        R1.invalidate();
+        R2.invalidate();
+        P1.invalidate();
+        P2.invalidate();
+        Q.invalidate();
 
         return;
     }
@@ -2874,6 +2981,8 @@ public class Calib3d {
     {
 
         boolean retVal = stereoRectifyUncalibrated_0(points1.nativeObj, points2.nativeObj, F.nativeObj, imgSize.width, imgSize.height, H1.nativeObj, H2.nativeObj, threshold);
+        H1.invalidate();
+        H2.invalidate();
 
         return retVal;
     }
@@ -2915,6 +3024,8 @@ public class Calib3d {
     {
 
         boolean retVal = stereoRectifyUncalibrated_1(points1.nativeObj, points2.nativeObj, F.nativeObj, imgSize.width, imgSize.height, H1.nativeObj, H2.nativeObj);
+        H1.invalidate();
+        H2.invalidate();
 
         return retVal;
     }
@@ -2953,6 +3064,7 @@ public class Calib3d {
     {
 
         triangulatePoints_0(projMatr1.nativeObj, projMatr2.nativeObj, projPoints1.nativeObj, projPoints2.nativeObj, points4D.nativeObj);
+        points4D.invalidate();
 
         return;
     }
@@ -2966,6 +3078,7 @@ public class Calib3d {
     {
 
         validateDisparity_0(disparity.nativeObj, cost.nativeObj, minDisparity, numberOfDisparities, disp12MaxDisp);
+        disparity.invalidate();
 
         return;
     }
@@ -2974,6 +3087,7 @@ public class Calib3d {
     {
 
         validateDisparity_1(disparity.nativeObj, cost.nativeObj, minDisparity, numberOfDisparities);
+        disparity.invalidate();
 
         return;
     }
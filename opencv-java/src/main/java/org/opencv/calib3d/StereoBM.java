@@ -207,6 +207,7 @@ public class StereoBM {
     {
 
         compute_0(nativeObj, left.nativeObj, right.nativeObj, disparity.nativeObj, disptype);
+        disparity.invalidate();
 
         return;
     }
@@ -235,6 +236,7 @@ public class StereoBM {
     {
 
         compute_1(nativeObj, left.nativeObj, right.nativeObj, disparity.nativeObj);
+        disparity.invalidate();
 
         return;
     }
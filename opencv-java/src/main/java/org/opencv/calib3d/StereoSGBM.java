@@ -216,6 +216,7 @@ public class StereoSGBM {
     {
 
         compute_0(nativeObj, left.nativeObj, right.nativeObj, disp.nativeObj);
+        disp.invalidate();
 
         return;
     }
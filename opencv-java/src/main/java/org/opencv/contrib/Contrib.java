@@ -83,6 +83,7 @@ public class Contrib {
     {
 
         applyColorMap_0(src.nativeObj, dst.nativeObj, colormap);
+        dst.invalidate();
 
         return;
     }
@@ -98,6 +99,7 @@ public class Contrib {
         Mat cost_mat = cost;
         int retVal = chamerMatching_0(img.nativeObj, templ.nativeObj, results_mat.nativeObj, cost_mat.nativeObj, templScale, maxMatches, minMatchDistance, padX, padY, scales, minScale, maxScale, orientationWeight, truncate);
         Converters.Mat_to_vector_vector_Point(results_mat, results);
+        cost.invalidate();
         return retVal;
     }
 
@@ -107,6 +109,7 @@ public class Contrib {
         Mat cost_mat = cost;
         int retVal = chamerMatching_1(img.nativeObj, templ.nativeObj, results_mat.nativeObj, cost_mat.nativeObj);
         Converters.Mat_to_vector_vector_Point(results_mat, results);
+        cost.invalidate();
         return retVal;
     }
 
@@ -190,6 +190,7 @@ public class StereoVar {
     {
 
         compute_0(nativeObj, left.nativeObj, right.nativeObj, disp.nativeObj);
+        disp.invalidate();
 
         return;
     }
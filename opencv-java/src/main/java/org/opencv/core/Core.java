@@ -8,6 +8,7 @@ import java.lang.String;
 import java.util.ArrayList;
 import java.util.List;
 import org.opencv.utils.Converters;
+import org.opencv.utils.FlatPoints;
 
 public class Core {
 
@@ -151,6 +152,7 @@ public class Core {
     {
 
         LUT_0(src.nativeObj, lut.nativeObj, dst.nativeObj, interpolation);
+        dst.invalidate();
 
         return;
     }
@@ -184,6 +186,7 @@ public class Core {
     {
 
         LUT_1(src.nativeObj, lut.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -228,6 +231,7 @@ public class Core {
     {
 
         PCABackProject_0(data.nativeObj, mean.nativeObj, eigenvectors.nativeObj, result.nativeObj);
+        result.invalidate();
 
         return;
     }
@@ -241,6 +245,8 @@ public class Core {
     {
 
         PCACompute_0(data.nativeObj, mean.nativeObj, eigenvectors.nativeObj, maxComponents);
+        mean.invalidate();
+        eigenvectors.invalidate();
 
         return;
     }
@@ -249,6 +255,8 @@ public class Core {
     {
 
         PCACompute_1(data.nativeObj, mean.nativeObj, eigenvectors.nativeObj);
+        mean.invalidate();
+        eigenvectors.invalidate();
 
         return;
     }
@@ -262,6 +270,8 @@ public class Core {
     {
 
         PCAComputeVar_0(data.nativeObj, mean.nativeObj, eigenvectors.nativeObj, retainedVariance);
+        mean.invalidate();
+        eigenvectors.invalidate();
 
         return;
     }
@@ -275,6 +285,7 @@ public class Core {
     {
 
         PCAProject_0(data.nativeObj, mean.nativeObj, eigenvectors.nativeObj, result.nativeObj);
+        result.invalidate();
 
         return;
     }
@@ -288,6 +299,7 @@ public class Core {
     {
 
         SVBackSubst_0(w.nativeObj, u.nativeObj, vt.nativeObj, rhs.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -301,6 +313,9 @@ public class Core {
     {
 
         SVDecomp_0(src.nativeObj, w.nativeObj, u.nativeObj, vt.nativeObj, flags);
+        w.invalidate();
+        u.invalidate();
+        vt.invalidate();
 
         return;
     }
@@ -309,6 +324,9 @@ public class Core {
     {
 
         SVDecomp_1(src.nativeObj, w.nativeObj, u.nativeObj, vt.nativeObj);
+        w.invalidate();
+        u.invalidate();
+        vt.invalidate();
 
         return;
     }
@@ -363,6 +381,7 @@ public class Core {
     {
 
         absdiff_0(src1.nativeObj, src2.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -417,6 +436,7 @@ public class Core {
     {
 
         absdiff_1(src1.nativeObj, src2.val[0], src2.val[1], src2.val[2], src2.val[3], dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -497,6 +517,7 @@ public class Core {
     {
 
         add_0(src1.nativeObj, src2.nativeObj, dst.nativeObj, mask.nativeObj, dtype);
+        dst.invalidate();
 
         return;
     }
@@ -571,6 +592,7 @@ public class Core {
     {
 
         add_1(src1.nativeObj, src2.nativeObj, dst.nativeObj, mask.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -643,6 +665,7 @@ public class Core {
     {
 
         add_2(src1.nativeObj, src2.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -723,6 +746,7 @@ public class Core {
     {
 
         add_3(src1.nativeObj, src2.val[0], src2.val[1], src2.val[2], src2.val[3], dst.nativeObj, mask.nativeObj, dtype);
+        dst.invalidate();
 
         return;
     }
@@ -797,6 +821,7 @@ public class Core {
     {
 
         add_4(src1.nativeObj, src2.val[0], src2.val[1], src2.val[2], src2.val[3], dst.nativeObj, mask.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -869,6 +894,7 @@ public class Core {
     {
 
         add_5(src1.nativeObj, src2.val[0], src2.val[1], src2.val[2], src2.val[3], dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -921,6 +947,7 @@ public class Core {
     {
 
         addWeighted_0(src1.nativeObj, alpha, src2.nativeObj, beta, gamma, dst.nativeObj, dtype);
+        dst.invalidate();
 
         return;
     }
@@ -965,6 +992,7 @@ public class Core {
     {
 
         addWeighted_1(src1.nativeObj, alpha, src2.nativeObj, beta, gamma, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -995,6 +1023,7 @@ public class Core {
     {
 
         arrowedLine_0(img.nativeObj, pt1.x, pt1.y, pt2.x, pt2.y, color.val[0], color.val[1], color.val[2], color.val[3], thickness, line_type, shift, tipLength);
+        img.invalidate();
 
         return;
     }
@@ -1016,6 +1045,7 @@ public class Core {
     {
 
         arrowedLine_1(img.nativeObj, pt1.x, pt1.y, pt2.x, pt2.y, color.val[0], color.val[1], color.val[2], color.val[3]);
+        img.invalidate();
 
         return;
     }
@@ -1029,6 +1059,8 @@ public class Core {
     {
 
         batchDistance_0(src1.nativeObj, src2.nativeObj, dist.nativeObj, dtype, nidx.nativeObj, normType, K, mask.nativeObj, update, crosscheck);
+        dist.invalidate();
+        nidx.invalidate();
 
         return;
     }
@@ -1037,6 +1069,8 @@ public class Core {
     {
 
         batchDistance_1(src1.nativeObj, src2.nativeObj, dist.nativeObj, dtype, nidx.nativeObj, normType, K);
+        dist.invalidate();
+        nidx.invalidate();
 
         return;
     }
@@ -1045,6 +1079,8 @@ public class Core {
     {
 
         batchDistance_2(src1.nativeObj, src2.nativeObj, dist.nativeObj, dtype, nidx.nativeObj);
+        dist.invalidate();
+        nidx.invalidate();
 
         return;
     }
@@ -1097,6 +1133,7 @@ public class Core {
     {
 
         bitwise_and_0(src1.nativeObj, src2.nativeObj, dst.nativeObj, mask.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -1142,6 +1179,7 @@ public class Core {
     {
 
         bitwise_and_1(src1.nativeObj, src2.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -1173,6 +1211,7 @@ public class Core {
     {
 
         bitwise_not_0(src.nativeObj, dst.nativeObj, mask.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -1197,6 +1236,7 @@ public class Core {
     {
 
         bitwise_not_1(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -1249,6 +1289,7 @@ public class Core {
     {
 
         bitwise_or_0(src1.nativeObj, src2.nativeObj, dst.nativeObj, mask.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -1294,6 +1335,7 @@ public class Core {
     {
 
         bitwise_or_1(src1.nativeObj, src2.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -1347,6 +1389,7 @@ public class Core {
     {
 
         bitwise_xor_0(src1.nativeObj, src2.nativeObj, dst.nativeObj, mask.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -1393,6 +1436,7 @@ public class Core {
     {
 
         bitwise_xor_1(src1.nativeObj, src2.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -1470,6 +1514,8 @@ public class Core {
     {
 
         calcCovarMatrix_0(samples.nativeObj, covar.nativeObj, mean.nativeObj, flags, ctype);
+        covar.invalidate();
+        mean.invalidate();
 
         return;
     }
@@ -1541,6 +1587,8 @@ public class Core {
     {
 
         calcCovarMatrix_1(samples.nativeObj, covar.nativeObj, mean.nativeObj, flags);
+        covar.invalidate();
+        mean.invalidate();
 
         return;
     }
@@ -1582,6 +1630,8 @@ public class Core {
     {
 
         cartToPolar_0(x.nativeObj, y.nativeObj, magnitude.nativeObj, angle.nativeObj, angleInDegrees);
+        magnitude.invalidate();
+        angle.invalidate();
 
         return;
     }
@@ -1616,6 +1666,8 @@ public class Core {
     {
 
         cartToPolar_1(x.nativeObj, y.nativeObj, magnitude.nativeObj, angle.nativeObj);
+        magnitude.invalidate();
+        angle.invalidate();
 
         return;
     }
@@ -1704,6 +1756,7 @@ public class Core {
     {
 
         circle_0(img.nativeObj, center.x, center.y, radius, color.val[0], color.val[1], color.val[2], color.val[3], thickness, lineType, shift);
+        img.invalidate();
 
         return;
     }
@@ -1727,6 +1780,7 @@ public class Core {
     {
 
         circle_1(img.nativeObj, center.x, center.y, radius, color.val[0], color.val[1], color.val[2], color.val[3], thickness);
+        img.invalidate();
 
         return;
     }
@@ -1748,6 +1802,7 @@ public class Core {
     {
 
         circle_2(img.nativeObj, center.x, center.y, radius, color.val[0], color.val[1], color.val[2], color.val[3]);
+        img.invalidate();
 
         return;
     }
@@ -1852,6 +1907,7 @@ public class Core {
     {
 
         compare_0(src1.nativeObj, src2.nativeObj, dst.nativeObj, cmpop);
+        dst.invalidate();
 
         return;
     }
@@ -1927,6 +1983,7 @@ public class Core {
     {
 
         compare_1(src1.nativeObj, src2.val[0], src2.val[1], src2.val[2], src2.val[3], dst.nativeObj, cmpop);
+        dst.invalidate();
 
         return;
     }
@@ -1958,6 +2015,7 @@ public class Core {
     {
 
         completeSymm_0(mtx.nativeObj, lowerToUpper);
+        mtx.invalidate();
 
         return;
     }
@@ -1982,6 +2040,7 @@ public class Core {
     {
 
         completeSymm_1(mtx.nativeObj);
+        mtx.invalidate();
 
         return;
     }
@@ -2031,6 +2090,7 @@ public class Core {
     {
 
         convertScaleAbs_0(src.nativeObj, dst.nativeObj, alpha, beta);
+        dst.invalidate();
 
         return;
     }
@@ -2073,6 +2133,7 @@ public class Core {
     {
 
         convertScaleAbs_1(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -2225,6 +2286,7 @@ public class Core {
     {
 
         dct_0(src.nativeObj, dst.nativeObj, flags);
+        dst.invalidate();
 
         return;
     }
@@ -2309,6 +2371,7 @@ public class Core {
     {
 
         dct_1(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -2610,6 +2673,7 @@ public class Core {
     {
 
         dft_0(src.nativeObj, dst.nativeObj, flags, nonzeroRows);
+        dst.invalidate();
 
         return;
     }
@@ -2835,6 +2899,7 @@ public class Core {
     {
 
         dft_1(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -2880,6 +2945,7 @@ public class Core {
     {
 
         divide_0(src1.nativeObj, src2.nativeObj, dst.nativeObj, scale, dtype);
+        dst.invalidate();
 
         return;
     }
@@ -2916,6 +2982,7 @@ public class Core {
     {
 
         divide_1(src1.nativeObj, src2.nativeObj, dst.nativeObj, scale);
+        dst.invalidate();
 
         return;
     }
@@ -2951,6 +3018,7 @@ public class Core {
     {
 
         divide_2(src1.nativeObj, src2.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -2995,6 +3063,7 @@ public class Core {
     {
 
         divide_3(scale, src2.nativeObj, dst.nativeObj, dtype);
+        dst.invalidate();
 
         return;
     }
@@ -3030,6 +3099,7 @@ public class Core {
     {
 
         divide_4(scale, src2.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -3075,6 +3145,7 @@ public class Core {
     {
 
         divide_5(src1.nativeObj, src2.val[0], src2.val[1], src2.val[2], src2.val[3], dst.nativeObj, scale, dtype);
+        dst.invalidate();
 
         return;
     }
@@ -3111,6 +3182,7 @@ public class Core {
     {
 
         divide_6(src1.nativeObj, src2.val[0], src2.val[1], src2.val[2], src2.val[3], dst.nativeObj, scale);
+        dst.invalidate();
 
         return;
     }
@@ -3146,6 +3218,7 @@ public class Core {
     {
 
         divide_7(src1.nativeObj, src2.val[0], src2.val[1], src2.val[2], src2.val[3], dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -3186,6 +3259,8 @@ public class Core {
     {
 
         boolean retVal = eigen_0(src.nativeObj, computeEigenvectors, eigenvalues.nativeObj, eigenvectors.nativeObj);
+        eigenvalues.invalidate();
+        eigenvectors.invalidate();
 
         return retVal;
     }
@@ -3228,6 +3303,7 @@ public class Core {
     {
 
         ellipse_0(img.nativeObj, center.x, center.y, axes.width, axes.height, angle, startAngle, endAngle, color.val[0], color.val[1], color.val[2], color.val[3], thickness, lineType, shift);
+        img.invalidate();
 
         return;
     }
@@ -3262,6 +3338,7 @@ public class Core {
     {
 
         ellipse_1(img.nativeObj, center.x, center.y, axes.width, axes.height, angle, startAngle, endAngle, color.val[0], color.val[1], color.val[2], color.val[3], thickness);
+        img.invalidate();
 
         return;
     }
@@ -3294,6 +3371,7 @@ public class Core {
     {
 
         ellipse_2(img.nativeObj, center.x, center.y, axes.width, axes.height, angle, startAngle, endAngle, color.val[0], color.val[1], color.val[2], color.val[3]);
+        img.invalidate();
 
         return;
     }
@@ -3332,6 +3410,7 @@ public class Core {
     {
 
         ellipse_3(img.nativeObj, box.center.x, box.center.y, box.size.width, box.size.height, box.angle, color.val[0], color.val[1], color.val[2], color.val[3], thickness, lineType);
+        img.invalidate();
 
         return;
     }
@@ -3364,6 +3443,7 @@ public class Core {
     {
 
         ellipse_4(img.nativeObj, box.center.x, box.center.y, box.size.width, box.size.height, box.angle, color.val[0], color.val[1], color.val[2], color.val[3], thickness);
+        img.invalidate();
 
         return;
     }
@@ -3394,6 +3474,7 @@ public class Core {
     {
 
         ellipse_5(img.nativeObj, box.center.x, box.center.y, box.size.width, box.size.height, box.angle, color.val[0], color.val[1], color.val[2], color.val[3]);
+        img.invalidate();
 
         return;
     }
@@ -3426,6 +3507,7 @@ public class Core {
     {
         Mat pts_mat = pts;
         ellipse2Poly_0(center.x, center.y, axes.width, axes.height, angle, arcStart, arcEnd, delta, pts_mat.nativeObj);
+        pts.invalidate();
 
         return;
     }
@@ -3464,6 +3546,7 @@ public class Core {
     {
 
         exp_0(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -3477,6 +3560,7 @@ public class Core {
     {
 
         extractChannel_0(src.nativeObj, dst.nativeObj, coi);
+        dst.invalidate();
 
         return;
     }
@@ -3533,6 +3617,7 @@ public class Core {
     {
         Mat points_mat = points;
         fillConvexPoly_0(img.nativeObj, points_mat.nativeObj, color.val[0], color.val[1], color.val[2], color.val[3], lineType, shift);
+        img.invalidate();
 
         return;
     }
@@ -3557,6 +3642,7 @@ public class Core {
     {
         Mat points_mat = points;
         fillConvexPoly_1(img.nativeObj, points_mat.nativeObj, color.val[0], color.val[1], color.val[2], color.val[3]);
+        img.invalidate();
 
         return;
     }
@@ -3588,6 +3674,7 @@ public class Core {
         List<Mat> pts_tmplm = new ArrayList<Mat>((pts != null) ? pts.size() : 0);
         Mat pts_mat = Converters.vector_vector_Point_to_Mat(pts, pts_tmplm);
         fillPoly_0(img.nativeObj, pts_mat.nativeObj, color.val[0], color.val[1], color.val[2], color.val[3], lineType, shift, offset.x, offset.y);
+        img.invalidate();
 
         return;
     }
@@ -3611,11 +3698,33 @@ public class Core {
         List<Mat> pts_tmplm = new ArrayList<Mat>((pts != null) ? pts.size() : 0);
         Mat pts_mat = Converters.vector_vector_Point_to_Mat(pts, pts_tmplm);
         fillPoly_1(img.nativeObj, pts_mat.nativeObj, color.val[0], color.val[1], color.val[2], color.val[3]);
+        img.invalidate();
 
         return;
     }
 
 
+/**
+ * <p>Fills the area bounded by one or more polygons given as flat point arrays.</p>
+ *
+ * @param img Image.
+ * @param pts Array of polygons where each polygon is a span of the flat point arrays.
+ * @param color Polygon color.
+ *
+ * @see org.opencv.core.Core#fillPoly(Mat, List, Scalar)
+ */
+    public static void fillPoly(Mat img, FlatPoints pts, Scalar color)
+    {
+        List<Mat> pts_tmplm = new ArrayList<Mat>((pts != null) ? pts.count : 0);
+        Mat pts_mat = Converters.vector_vector_Point_to_Mat(pts, pts_tmplm);
+        fillPoly_1(img.nativeObj, pts_mat.nativeObj, color.val[0], color.val[1], color.val[2], color.val[3]);
+        pts_mat.release();
+        for (Mat m : pts_tmplm) m.delete();
+        img.invalidate();
+        return;
+    }
+
+
     //
     // C++:  void findNonZero(Mat src, Mat& idx)
     //
@@ -3624,6 +3733,7 @@ public class Core {
     {
 
         findNonZero_0(src.nativeObj, idx.nativeObj);
+        idx.invalidate();
 
         return;
     }
@@ -3676,6 +3786,7 @@ public class Core {
     {
 
         flip_0(src.nativeObj, dst.nativeObj, flipCode);
+        dst.invalidate();
 
         return;
     }
@@ -3727,6 +3838,7 @@ public class Core {
     {
 
         gemm_0(src1.nativeObj, src2.nativeObj, alpha, src3.nativeObj, beta, dst.nativeObj, flags);
+        dst.invalidate();
 
         return;
     }
@@ -3767,6 +3879,7 @@ public class Core {
     {
 
         gemm_1(src1.nativeObj, src2.nativeObj, alpha, src3.nativeObj, beta, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -3950,6 +4063,7 @@ public class Core {
     {
         Mat src_mat = Converters.vector_Mat_to_Mat(src);
         hconcat_0(src_mat.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -3979,6 +4093,7 @@ public class Core {
     {
 
         idct_0(src.nativeObj, dst.nativeObj, flags);
+        dst.invalidate();
 
         return;
     }
@@ -4002,6 +4117,7 @@ public class Core {
     {
 
         idct_1(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -4042,6 +4158,7 @@ public class Core {
     {
 
         idft_0(src.nativeObj, dst.nativeObj, flags, nonzeroRows);
+        dst.invalidate();
 
         return;
     }
@@ -4073,6 +4190,7 @@ public class Core {
     {
 
         idft_1(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -4123,6 +4241,7 @@ public class Core {
     {
 
         inRange_0(src.nativeObj, lowerb.val[0], lowerb.val[1], lowerb.val[2], lowerb.val[3], upperb.val[0], upperb.val[1], upperb.val[2], upperb.val[3], dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -4136,6 +4255,7 @@ public class Core {
     {
 
         insertChannel_0(src.nativeObj, dst.nativeObj, coi);
+        dst.invalidate();
 
         return;
     }
@@ -4187,6 +4307,7 @@ public class Core {
     {
 
         double retVal = invert_0(src.nativeObj, dst.nativeObj, flags);
+        dst.invalidate();
 
         return retVal;
     }
@@ -4226,6 +4347,7 @@ public class Core {
     {
 
         double retVal = invert_1(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return retVal;
     }
@@ -4300,6 +4422,8 @@ public class Core {
     {
 
         double retVal = kmeans_0(data.nativeObj, K, bestLabels.nativeObj, criteria.type, criteria.maxCount, criteria.epsilon, attempts, flags, centers.nativeObj);
+        bestLabels.invalidate();
+        centers.invalidate();
 
         return retVal;
     }
@@ -4367,6 +4491,7 @@ public class Core {
     {
 
         double retVal = kmeans_1(data.nativeObj, K, bestLabels.nativeObj, criteria.type, criteria.maxCount, criteria.epsilon, attempts, flags);
+        bestLabels.invalidate();
 
         return retVal;
     }
@@ -4406,6 +4531,7 @@ public class Core {
     {
 
         line_0(img.nativeObj, pt1.x, pt1.y, pt2.x, pt2.y, color.val[0], color.val[1], color.val[2], color.val[3], thickness, lineType, shift);
+        img.invalidate();
 
         return;
     }
@@ -4433,6 +4559,7 @@ public class Core {
     {
 
         line_1(img.nativeObj, pt1.x, pt1.y, pt2.x, pt2.y, color.val[0], color.val[1], color.val[2], color.val[3], thickness);
+        img.invalidate();
 
         return;
     }
@@ -4459,6 +4586,7 @@ public class Core {
     {
 
         line_2(img.nativeObj, pt1.x, pt1.y, pt2.x, pt2.y, color.val[0], color.val[1], color.val[2], color.val[3]);
+        img.invalidate();
 
         return;
     }
@@ -4498,6 +4626,7 @@ public class Core {
     {
 
         log_0(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -4531,6 +4660,7 @@ public class Core {
     {
 
         magnitude_0(x.nativeObj, y.nativeObj, magnitude.nativeObj);
+        magnitude.invalidate();
 
         return;
     }
@@ -4573,6 +4703,7 @@ public class Core {
     {
 
         max_0(src1.nativeObj, src2.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -4615,6 +4746,7 @@ public class Core {
     {
 
         max_1(src1.nativeObj, src2.val[0], src2.val[1], src2.val[2], src2.val[3], dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -4723,6 +4855,8 @@ public class Core {
         Mat mean_mat = mean;
         Mat stddev_mat = stddev;
         meanStdDev_0(src.nativeObj, mean_mat.nativeObj, stddev_mat.nativeObj, mask.nativeObj);
+        mean.invalidate();
+        stddev.invalidate();
 
         return;
     }
@@ -4763,6 +4897,8 @@ public class Core {
         Mat mean_mat = mean;
         Mat stddev_mat = stddev;
         meanStdDev_1(src.nativeObj, mean_mat.nativeObj, stddev_mat.nativeObj);
+        mean.invalidate();
+        stddev.invalidate();
 
         return;
     }
@@ -4798,6 +4934,7 @@ public class Core {
     {
         Mat mv_mat = Converters.vector_Mat_to_Mat(mv);
         merge_0(mv_mat.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -4840,6 +4977,7 @@ public class Core {
     {
 
         min_0(src1.nativeObj, src2.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -4882,6 +5020,7 @@ public class Core {
     {
 
         min_1(src1.nativeObj, src2.val[0], src2.val[1], src2.val[2], src2.val[3], dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -4995,6 +5134,7 @@ public class Core {
     {
 
         mulSpectrums_0(a.nativeObj, b.nativeObj, c.nativeObj, flags, conjB);
+        c.invalidate();
 
         return;
     }
@@ -5026,6 +5166,7 @@ public class Core {
     {
 
         mulSpectrums_1(a.nativeObj, b.nativeObj, c.nativeObj, flags);
+        c.invalidate();
 
         return;
     }
@@ -5080,6 +5221,7 @@ public class Core {
     {
 
         mulTransposed_0(src.nativeObj, dst.nativeObj, aTa, delta.nativeObj, scale, dtype);
+        dst.invalidate();
 
         return;
     }
@@ -5125,6 +5267,7 @@ public class Core {
     {
 
         mulTransposed_1(src.nativeObj, dst.nativeObj, aTa, delta.nativeObj, scale);
+        dst.invalidate();
 
         return;
     }
@@ -5161,6 +5304,7 @@ public class Core {
     {
 
         mulTransposed_2(src.nativeObj, dst.nativeObj, aTa);
+        dst.invalidate();
 
         return;
     }
@@ -5209,6 +5353,7 @@ public class Core {
     {
 
         multiply_0(src1.nativeObj, src2.nativeObj, dst.nativeObj, scale, dtype);
+        dst.invalidate();
 
         return;
     }
@@ -5251,6 +5396,7 @@ public class Core {
     {
 
         multiply_1(src1.nativeObj, src2.nativeObj, dst.nativeObj, scale);
+        dst.invalidate();
 
         return;
     }
@@ -5292,6 +5438,7 @@ public class Core {
     {
 
         multiply_2(src1.nativeObj, src2.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -5340,6 +5487,7 @@ public class Core {
     {
 
         multiply_3(src1.nativeObj, src2.val[0], src2.val[1], src2.val[2], src2.val[3], dst.nativeObj, scale, dtype);
+        dst.invalidate();
 
         return;
     }
@@ -5382,6 +5530,7 @@ public class Core {
     {
 
         multiply_4(src1.nativeObj, src2.val[0], src2.val[1], src2.val[2], src2.val[3], dst.nativeObj, scale);
+        dst.invalidate();
 
         return;
     }
@@ -5423,6 +5572,7 @@ public class Core {
     {
 
         multiply_5(src1.nativeObj, src2.val[0], src2.val[1], src2.val[2], src2.val[3], dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -5776,6 +5926,7 @@ public class Core {
     {
 
         normalize_0(src.nativeObj, dst.nativeObj, alpha, beta, norm_type, dtype, mask.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -5823,6 +5974,7 @@ public class Core {
     {
 
         normalize_1(src.nativeObj, dst.nativeObj, alpha, beta, norm_type, dtype);
+        dst.invalidate();
 
         return;
     }
@@ -5867,6 +6019,7 @@ public class Core {
     {
 
         normalize_2(src.nativeObj, dst.nativeObj, alpha, beta, norm_type);
+        dst.invalidate();
 
         return;
     }
@@ -5906,6 +6059,7 @@ public class Core {
     {
 
         normalize_3(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -5919,6 +6073,7 @@ public class Core {
     {
 
         patchNaNs_0(a.nativeObj, val);
+        a.invalidate();
 
         return;
     }
@@ -5927,6 +6082,7 @@ public class Core {
     {
 
         patchNaNs_1(a.nativeObj);
+        a.invalidate();
 
         return;
     }
@@ -5977,6 +6133,7 @@ public class Core {
     {
 
         perspectiveTransform_0(src.nativeObj, dst.nativeObj, m.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -6012,6 +6169,7 @@ public class Core {
     {
 
         phase_0(x.nativeObj, y.nativeObj, angle.nativeObj, angleInDegrees);
+        angle.invalidate();
 
         return;
     }
@@ -6040,6 +6198,7 @@ public class Core {
     {
 
         phase_1(x.nativeObj, y.nativeObj, angle.nativeObj);
+        angle.invalidate();
 
         return;
     }
@@ -6087,6 +6246,8 @@ public class Core {
     {
 
         polarToCart_0(magnitude.nativeObj, angle.nativeObj, x.nativeObj, y.nativeObj, angleInDegrees);
+        x.invalidate();
+        y.invalidate();
 
         return;
     }
@@ -6127,6 +6288,8 @@ public class Core {
     {
 
         polarToCart_1(magnitude.nativeObj, angle.nativeObj, x.nativeObj, y.nativeObj);
+        x.invalidate();
+        y.invalidate();
 
         return;
     }
@@ -6158,6 +6321,7 @@ public class Core {
         List<Mat> pts_tmplm = new ArrayList<Mat>((pts != null) ? pts.size() : 0);
         Mat pts_mat = Converters.vector_vector_Point_to_Mat(pts, pts_tmplm);
         polylines_0(img.nativeObj, pts_mat.nativeObj, isClosed, color.val[0], color.val[1], color.val[2], color.val[3], thickness, lineType, shift);
+        img.invalidate();
 
         return;
     }
@@ -6182,10 +6346,34 @@ public class Core {
         List<Mat> pts_tmplm = new ArrayList<Mat>((pts != null) ? pts.size() : 0);
         Mat pts_mat = Converters.vector_vector_Point_to_Mat(pts, pts_tmplm);
         polylines_1(img.nativeObj, pts_mat.nativeObj, isClosed, color.val[0], color.val[1], color.val[2], color.val[3], thickness);
+        img.invalidate();
 
         return;
     }
 
+
+/**
+ * <p>Draws several polygonal curves given as flat point arrays.</p>
+ *
+ * @param img Image.
+ * @param pts Array of polygonal curves, each a span of the flat point arrays.
+ * @param isClosed Flag indicating whether the drawn polylines are closed or not.
+ * @param color Polyline color.
+ * @param thickness Thickness of the polyline edges.
+ *
+ * @see org.opencv.core.Core#polylines(Mat, List, boolean, Scalar, int)
+ */
+    public static void polylines(Mat img, FlatPoints pts, boolean isClosed, Scalar color, int thickness)
+    {
+        List<Mat> pts_tmplm = new ArrayList<Mat>((pts != null) ? pts.count : 0);
+        Mat pts_mat = Converters.vector_vector_Point_to_Mat(pts, pts_tmplm);
+        polylines_1(img.nativeObj, pts_mat.nativeObj, isClosed, color.val[0], color.val[1], color.val[2], color.val[3], thickness);
+        pts_mat.release();
+        for (Mat m : pts_tmplm) m.delete();
+        img.invalidate();
+        return;
+    }
+
 /**
  * <p>Draws several polygonal curves.</p>
  *
@@ -6205,6 +6393,7 @@ public class Core {
         List<Mat> pts_tmplm = new ArrayList<Mat>((pts != null) ? pts.size() : 0);
         Mat pts_mat = Converters.vector_vector_Point_to_Mat(pts, pts_tmplm);
         polylines_2(img.nativeObj, pts_mat.nativeObj, isClosed, color.val[0], color.val[1], color.val[2], color.val[3]);
+        img.invalidate();
 
         return;
     }
@@ -6255,6 +6444,7 @@ public class Core {
     {
 
         pow_0(src.nativeObj, power, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -6371,6 +6561,7 @@ public class Core {
     {
 
         randShuffle_0(dst.nativeObj, iterFactor);
+        dst.invalidate();
 
         return;
     }
@@ -6379,6 +6570,7 @@ public class Core {
     {
 
         randShuffle_1(dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -6410,6 +6602,7 @@ public class Core {
     {
 
         randn_0(dst.nativeObj, mean, stddev);
+        dst.invalidate();
 
         return;
     }
@@ -6445,6 +6638,7 @@ public class Core {
     {
 
         randu_0(dst.nativeObj, low, high);
+        dst.invalidate();
 
         return;
     }
@@ -6477,6 +6671,7 @@ public class Core {
     {
 
         rectangle_0(img.nativeObj, pt1.x, pt1.y, pt2.x, pt2.y, color.val[0], color.val[1], color.val[2], color.val[3], thickness, lineType, shift);
+        img.invalidate();
 
         return;
     }
@@ -6502,6 +6697,7 @@ public class Core {
     {
 
         rectangle_1(img.nativeObj, pt1.x, pt1.y, pt2.x, pt2.y, color.val[0], color.val[1], color.val[2], color.val[3], thickness);
+        img.invalidate();
 
         return;
     }
@@ -6524,6 +6720,7 @@ public class Core {
     {
 
         rectangle_2(img.nativeObj, pt1.x, pt1.y, pt2.x, pt2.y, color.val[0], color.val[1], color.val[2], color.val[3]);
+        img.invalidate();
 
         return;
     }
@@ -6572,6 +6769,7 @@ public class Core {
     {
 
         reduce_0(src.nativeObj, dst.nativeObj, dim, rtype, dtype);
+        dst.invalidate();
 
         return;
     }
@@ -6612,6 +6810,7 @@ public class Core {
     {
 
         reduce_1(src.nativeObj, dst.nativeObj, dim, rtype);
+        dst.invalidate();
 
         return;
     }
@@ -6646,6 +6845,7 @@ public class Core {
     {
 
         repeat_0(src.nativeObj, ny, nx, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -6688,6 +6888,7 @@ public class Core {
     {
 
         scaleAdd_0(src1.nativeObj, alpha, src2.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -6737,6 +6938,7 @@ public class Core {
     {
 
         setIdentity_0(mtx.nativeObj, s.val[0], s.val[1], s.val[2], s.val[3]);
+        mtx.invalidate();
 
         return;
     }
@@ -6767,6 +6969,7 @@ public class Core {
     {
 
         setIdentity_1(mtx.nativeObj);
+        mtx.invalidate();
 
         return;
     }
@@ -6823,6 +7026,7 @@ public class Core {
     {
 
         boolean retVal = solve_0(src1.nativeObj, src2.nativeObj, dst.nativeObj, flags);
+        dst.invalidate();
 
         return retVal;
     }
@@ -6858,6 +7062,7 @@ public class Core {
     {
 
         boolean retVal = solve_1(src1.nativeObj, src2.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return retVal;
     }
@@ -6895,6 +7100,7 @@ public class Core {
     {
 
         int retVal = solveCubic_0(coeffs.nativeObj, roots.nativeObj);
+        roots.invalidate();
 
         return retVal;
     }
@@ -6923,6 +7129,7 @@ public class Core {
     {
 
         double retVal = solvePoly_0(coeffs.nativeObj, roots.nativeObj, maxIters);
+        roots.invalidate();
 
         return retVal;
     }
@@ -6945,6 +7152,7 @@ public class Core {
     {
 
         double retVal = solvePoly_1(coeffs.nativeObj, roots.nativeObj);
+        roots.invalidate();
 
         return retVal;
     }
@@ -6983,6 +7191,7 @@ public class Core {
     {
 
         sort_0(src.nativeObj, dst.nativeObj, flags);
+        dst.invalidate();
 
         return;
     }
@@ -7034,6 +7243,7 @@ public class Core {
     {
 
         sortIdx_0(src.nativeObj, dst.nativeObj, flags);
+        dst.invalidate();
 
         return;
     }
@@ -7096,6 +7306,7 @@ public class Core {
     {
 
         sqrt_0(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -7183,6 +7394,7 @@ public class Core {
     {
 
         subtract_0(src1.nativeObj, src2.nativeObj, dst.nativeObj, mask.nativeObj, dtype);
+        dst.invalidate();
 
         return;
     }
@@ -7264,6 +7476,7 @@ public class Core {
     {
 
         subtract_1(src1.nativeObj, src2.nativeObj, dst.nativeObj, mask.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -7343,6 +7556,7 @@ public class Core {
     {
 
         subtract_2(src1.nativeObj, src2.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -7430,6 +7644,7 @@ public class Core {
     {
 
         subtract_3(src1.nativeObj, src2.val[0], src2.val[1], src2.val[2], src2.val[3], dst.nativeObj, mask.nativeObj, dtype);
+        dst.invalidate();
 
         return;
     }
@@ -7511,6 +7726,7 @@ public class Core {
     {
 
         subtract_4(src1.nativeObj, src2.val[0], src2.val[1], src2.val[2], src2.val[3], dst.nativeObj, mask.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -7590,6 +7806,7 @@ public class Core {
     {
 
         subtract_5(src1.nativeObj, src2.val[0], src2.val[1], src2.val[2], src2.val[3], dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -7697,6 +7914,7 @@ public class Core {
     {
 
         transform_0(src.nativeObj, dst.nativeObj, m.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -7725,6 +7943,7 @@ public class Core {
     {
 
         transpose_0(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -7738,6 +7957,7 @@ public class Core {
     {
         Mat src_mat = Converters.vector_Mat_to_Mat(src);
         vconcat_0(src_mat.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
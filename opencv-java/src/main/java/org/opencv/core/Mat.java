@@ -418,6 +418,19 @@ public class Mat {
 
     public final long nativeObj;
 
+    // direct view over the data, see dataBuffer()
+    private java.nio.ByteBuffer dataBuffer;
+    private long dataBufferAddr;
+
+    // header fields read once through JNI and kept until invalidate()
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+    private int cachedRows = UNKNOWN;
+    private int cachedCols = UNKNOWN;
+    private int cachedType = UNKNOWN;
+
+    // set by delete(), so that finalize() does not free the header a second time
+    private boolean deleted = false;
+
     public Mat(long addr)
     {
         if (addr == 0)
@@ -723,6 +736,7 @@ public class Mat {
     {
 
         Mat retVal = new Mat(n_adjustROI(nativeObj, dtop, dbottom, dleft, dright));
+        invalidate(); // the ROI of this matrix moves as well
 
         return retVal;
     }
@@ -746,6 +760,7 @@ public class Mat {
     {
 
         n_assignTo(nativeObj, m.nativeObj, type);
+        m.invalidate();
 
         return;
     }
@@ -763,6 +778,7 @@ public class Mat {
     {
 
         n_assignTo(nativeObj, m.nativeObj);
+        m.invalidate();
 
         return;
     }
@@ -781,7 +797,7 @@ public class Mat {
     public int channels()
     {
 
-        int retVal = n_channels(nativeObj);
+        int retVal = CvType.channels(type());
 
         return retVal;
     }
@@ -924,7 +940,8 @@ public class Mat {
     public int cols()
     {
 
-        int retVal = n_cols(nativeObj);
+        if (cachedCols == UNKNOWN) cachedCols = n_cols(nativeObj);
+        int retVal = cachedCols;
 
         return retVal;
     }
@@ -957,6 +974,7 @@ public class Mat {
     {
 
         n_convertTo(nativeObj, m.nativeObj, rtype, alpha, beta);
+        m.invalidate();
 
         return;
     }
@@ -983,6 +1001,7 @@ public class Mat {
     {
 
         n_convertTo(nativeObj, m.nativeObj, rtype, alpha);
+        m.invalidate();
 
         return;
     }
@@ -1008,6 +1027,7 @@ public class Mat {
     {
 
         n_convertTo(nativeObj, m.nativeObj, rtype);
+        m.invalidate();
 
         return;
     }
@@ -1044,6 +1064,7 @@ public class Mat {
     {
 
         n_copyTo(nativeObj, m.nativeObj);
+        m.invalidate();
 
         return;
     }
@@ -1082,6 +1103,7 @@ public class Mat {
     {
 
         n_copyTo(nativeObj, m.nativeObj, mask.nativeObj);
+        m.invalidate();
 
         return;
     }
@@ -1140,6 +1162,7 @@ public class Mat {
     {
 
         n_create(nativeObj, rows, cols, type);
+        invalidate();
 
         return;
     }
@@ -1198,6 +1221,7 @@ public class Mat {
     {
 
         n_create(nativeObj, size.width, size.height, type);
+        invalidate();
 
         return;
     }
@@ -1265,7 +1289,7 @@ public class Mat {
     public int depth()
     {
 
-        int retVal = n_depth(nativeObj);
+        int retVal = CvType.depth(type());
 
         return retVal;
     }
@@ -1861,6 +1885,7 @@ public class Mat {
     {
 
         n_push_back(nativeObj, m.nativeObj);
+        invalidate();
 
         return;
     }
@@ -1891,6 +1916,7 @@ public class Mat {
     {
 
         n_release(nativeObj);
+        invalidate();
 
         return;
     }
@@ -2108,7 +2134,8 @@ public class Mat {
     public int rows()
     {
 
-        int retVal = n_rows(nativeObj);
+        if (cachedRows == UNKNOWN) cachedRows = n_rows(nativeObj);
+        int retVal = cachedRows;
 
         return retVal;
     }
@@ -2370,7 +2397,9 @@ public class Mat {
     public long total()
     {
 
-        long retVal = n_total(nativeObj);
+        // rows and cols are -1 for more than 2 dimensions
+        int rows = rows(), cols = cols();
+        long retVal = rows >= 0 ? (long) rows * cols : n_total(nativeObj);
 
         return retVal;
     }
@@ -2391,7 +2420,8 @@ public class Mat {
     public int type()
     {
 
-        int retVal = n_type(nativeObj);
+        if (cachedType == UNKNOWN) cachedType = n_type(nativeObj);
+        int retVal = cachedType;
 
         return retVal;
     }
@@ -2472,7 +2502,7 @@ public class Mat {
 
     @Override
     protected void finalize() throws Throwable {
-        n_delete(nativeObj);
+        if (!deleted) n_delete(nativeObj);
         super.finalize();
     }
 
@@ -2643,6 +2673,93 @@ public class Mat {
         return nativeObj;
     }
 
+/**
+ * <p>Returns a direct buffer over the matrix data, so that Java code can read
+ * and write elements without copying them and without a JNI call per access.</p>
+ *
+ * <p>The buffer starts at the first element and is in native byte order. Element
+ * <code>(row, col)</code> starts at byte <code>row * dataStride() + col *
+ * elemSize()</code>; for a continuous matrix the rows follow each other without
+ * gaps, for a submatrix the buffer also spans the parent's elements between the
+ * rows, which must not be touched. Use absolute get and put methods, the
+ * position and limit are reset by every call.</p>
+ *
+ * <p>The buffer does not keep the data alive. It becomes invalid, and must not be
+ * used any more, as soon as the data is released or reallocated: by "Mat.release",
+ * by "Mat.create" with another size or type, or by any OpenCV function that
+ * reallocates this matrix as its output. Call this method again after such
+ * calls; it returns the same buffer as long as the data did not move, and
+ * drops it on "Mat.invalidate".</p>
+ *
+ * @return the buffer, or null for an empty matrix.
+ */
+    public java.nio.ByteBuffer dataBuffer()
+    {
+        long addr = n_dataAddr(nativeObj);
+        if (addr == 0) {
+            dataBuffer = null;
+            return null;
+        }
+        if (dims() > 2)
+            throw new java.lang.UnsupportedOperationException("Only 2-dimensional matrices are supported");
+        long size = (long) (rows() - 1) * dataStride() + cols() * elemSize();
+        if (size > Integer.MAX_VALUE)
+            throw new java.lang.UnsupportedOperationException("Matrix data exceeds 2 GB");
+        if (dataBuffer == null || dataBufferAddr != addr || dataBuffer.capacity() != size) {
+            dataBuffer = n_dataBuffer(addr, size).order(java.nio.ByteOrder.nativeOrder());
+            dataBufferAddr = addr;
+        }
+        dataBuffer.clear();
+        return dataBuffer;
+    }
+
+/**
+ * <p>Returns the distance in bytes between the starts of two consecutive rows,
+ * the row stride of "Mat.dataBuffer".</p>
+ */
+    public int dataStride()
+    {
+        return (int) (step1(0) * elemSize1());
+    }
+
+/**
+ * <p>Drops the header fields and the data buffer kept on the Java side, so that
+ * the next "Mat.rows", "Mat.cols", "Mat.type" or "Mat.dataBuffer" call reads
+ * them from the native matrix again.</p>
+ *
+ * <p>Header reads cross JNI only once and are plain field loads afterwards. The
+ * methods of this class and the OpenCV functions of these bindings call this
+ * method for every matrix they may reallocate: <code>create</code>,
+ * <code>release</code>, <code>push_back</code>, the destination of
+ * <code>copyTo</code>, <code>convertTo</code> and <code>assignTo</code>, and
+ * the output arrays of functions such as <code>Imgproc.cvtColor</code>. Native
+ * code of the application that reallocates a matrix through its address must
+ * call it as well.</p>
+ */
+    public void invalidate()
+    {
+        cachedRows = UNKNOWN;
+        cachedCols = UNKNOWN;
+        cachedType = UNKNOWN;
+        dataBuffer = null;
+    }
+
+/**
+ * <p>Frees the native header together with its reference to the data right
+ * away instead of in <code>finalize</code>.</p>
+ *
+ * <p>Meant for temporary headers that are created in bulk, such as the
+ * vectors that <code>Converters</code> passes to or reads from the native
+ * side. The matrix cannot be used afterwards; further calls do nothing.</p>
+ */
+    public void delete()
+    {
+        if (deleted) return;
+        deleted = true;
+        n_delete(nativeObj);
+        invalidate();
+    }
+
     // C++: Mat::Mat()
     private static native long n_Mat();
 
@@ -2723,6 +2840,10 @@ public class Mat {
     // C++: long Mat::dataAddr()
     private static native long n_dataAddr(long nativeObj);
 
+    // wraps size bytes at addr in a direct ByteBuffer, implemented by the app's
+    // native library (app/src/main/jni) as the prebuilt opencv_java has no such call
+    private static native java.nio.ByteBuffer n_dataBuffer(long addr, long size);
+
     // C++: int Mat::depth()
     private static native int n_depth(long nativeObj);
 
@@ -105,6 +105,7 @@ public class DescriptorExtractor {
     {
         Mat keypoints_mat = keypoints;
         compute_0(nativeObj, image.nativeObj, keypoints_mat.nativeObj, descriptors.nativeObj);
+        keypoints.invalidate();
 
         return;
     }
@@ -407,6 +407,7 @@ public class DescriptorMatcher {
     {
         Mat matches_mat = matches;
         match_0(nativeObj, queryDescriptors.nativeObj, trainDescriptors.nativeObj, matches_mat.nativeObj, mask.nativeObj);
+        matches.invalidate();
 
         return;
     }
@@ -435,6 +436,7 @@ public class DescriptorMatcher {
     {
         Mat matches_mat = matches;
         match_1(nativeObj, queryDescriptors.nativeObj, trainDescriptors.nativeObj, matches_mat.nativeObj);
+        matches.invalidate();
 
         return;
     }
@@ -470,6 +472,7 @@ public class DescriptorMatcher {
         Mat matches_mat = matches;
         Mat masks_mat = Converters.vector_Mat_to_Mat(masks);
         match_2(nativeObj, queryDescriptors.nativeObj, matches_mat.nativeObj, masks_mat.nativeObj);
+        matches.invalidate();
 
         return;
     }
@@ -496,6 +499,7 @@ public class DescriptorMatcher {
     {
         Mat matches_mat = matches;
         match_3(nativeObj, queryDescriptors.nativeObj, matches_mat.nativeObj);
+        matches.invalidate();
 
         return;
     }
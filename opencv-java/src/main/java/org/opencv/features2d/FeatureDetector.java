@@ -165,6 +165,7 @@ public class FeatureDetector {
     {
         Mat keypoints_mat = keypoints;
         detect_0(nativeObj, image.nativeObj, keypoints_mat.nativeObj, mask.nativeObj);
+        keypoints.invalidate();
 
         return;
     }
@@ -182,6 +183,7 @@ public class FeatureDetector {
     {
         Mat keypoints_mat = keypoints;
         detect_1(nativeObj, image.nativeObj, keypoints_mat.nativeObj);
+        keypoints.invalidate();
 
         return;
     }
@@ -44,6 +44,7 @@ public class Features2d {
     {
         Mat keypoints_mat = keypoints;
         drawKeypoints_0(image.nativeObj, keypoints_mat.nativeObj, outImage.nativeObj, color.val[0], color.val[1], color.val[2], color.val[3], flags);
+        outImage.invalidate();
 
         return;
     }
@@ -63,6 +64,7 @@ public class Features2d {
     {
         Mat keypoints_mat = keypoints;
         drawKeypoints_1(image.nativeObj, keypoints_mat.nativeObj, outImage.nativeObj);
+        outImage.invalidate();
 
         return;
     }
@@ -149,6 +151,7 @@ public class Features2d {
         Mat matches1to2_mat = matches1to2;
         Mat matchesMask_mat = matchesMask;
         drawMatches_0(img1.nativeObj, keypoints1_mat.nativeObj, img2.nativeObj, keypoints2_mat.nativeObj, matches1to2_mat.nativeObj, outImg.nativeObj, matchColor.val[0], matchColor.val[1], matchColor.val[2], matchColor.val[3], singlePointColor.val[0], singlePointColor.val[1], singlePointColor.val[2], singlePointColor.val[3], matchesMask_mat.nativeObj, flags);
+        outImg.invalidate();
 
         return;
     }
@@ -220,6 +223,7 @@ public class Features2d {
         Mat keypoints2_mat = keypoints2;
         Mat matches1to2_mat = matches1to2;
         drawMatches_1(img1.nativeObj, keypoints1_mat.nativeObj, img2.nativeObj, keypoints2_mat.nativeObj, matches1to2_mat.nativeObj, outImg.nativeObj);
+        outImg.invalidate();
 
         return;
     }
@@ -308,6 +312,7 @@ public class Features2d {
         List<Mat> matchesMask_tmplm = new ArrayList<Mat>((matchesMask != null) ? matchesMask.size() : 0);
         Mat matchesMask_mat = Converters.vector_vector_char_to_Mat(matchesMask, matchesMask_tmplm);
         drawMatches2_0(img1.nativeObj, keypoints1_mat.nativeObj, img2.nativeObj, keypoints2_mat.nativeObj, matches1to2_mat.nativeObj, outImg.nativeObj, matchColor.val[0], matchColor.val[1], matchColor.val[2], matchColor.val[3], singlePointColor.val[0], singlePointColor.val[1], singlePointColor.val[2], singlePointColor.val[3], matchesMask_mat.nativeObj, flags);
+        outImg.invalidate();
 
         return;
     }
@@ -380,6 +385,7 @@ public class Features2d {
         List<Mat> matches1to2_tmplm = new ArrayList<Mat>((matches1to2 != null) ? matches1to2.size() : 0);
         Mat matches1to2_mat = Converters.vector_vector_DMatch_to_Mat(matches1to2, matches1to2_tmplm);
         drawMatches2_1(img1.nativeObj, keypoints1_mat.nativeObj, img2.nativeObj, keypoints2_mat.nativeObj, matches1to2_mat.nativeObj, outImg.nativeObj);
+        outImg.invalidate();
 
         return;
     }
@@ -191,6 +191,7 @@ public class GenericDescriptorMatcher {
         Mat queryKeypoints_mat = queryKeypoints;
         Mat trainKeypoints_mat = trainKeypoints;
         classify_0(nativeObj, queryImage.nativeObj, queryKeypoints_mat.nativeObj, trainImage.nativeObj, trainKeypoints_mat.nativeObj);
+        queryKeypoints.invalidate();
 
         return;
     }
@@ -226,6 +227,7 @@ public class GenericDescriptorMatcher {
     {
         Mat queryKeypoints_mat = queryKeypoints;
         classify_1(nativeObj, queryImage.nativeObj, queryKeypoints_mat.nativeObj);
+        queryKeypoints.invalidate();
 
         return;
     }
@@ -501,6 +503,7 @@ public class GenericDescriptorMatcher {
         Mat trainKeypoints_mat = trainKeypoints;
         Mat matches_mat = matches;
         match_0(nativeObj, queryImage.nativeObj, queryKeypoints_mat.nativeObj, trainImage.nativeObj, trainKeypoints_mat.nativeObj, matches_mat.nativeObj, mask.nativeObj);
+        matches.invalidate();
 
         return;
     }
@@ -536,6 +539,7 @@ public class GenericDescriptorMatcher {
         Mat trainKeypoints_mat = trainKeypoints;
         Mat matches_mat = matches;
         match_1(nativeObj, queryImage.nativeObj, queryKeypoints_mat.nativeObj, trainImage.nativeObj, trainKeypoints_mat.nativeObj, matches_mat.nativeObj);
+        matches.invalidate();
 
         return;
     }
@@ -575,6 +579,7 @@ public class GenericDescriptorMatcher {
         Mat matches_mat = matches;
         Mat masks_mat = Converters.vector_Mat_to_Mat(masks);
         match_2(nativeObj, queryImage.nativeObj, queryKeypoints_mat.nativeObj, matches_mat.nativeObj, masks_mat.nativeObj);
+        matches.invalidate();
 
         return;
     }
@@ -605,6 +610,7 @@ public class GenericDescriptorMatcher {
         Mat queryKeypoints_mat = queryKeypoints;
         Mat matches_mat = matches;
         match_3(nativeObj, queryImage.nativeObj, queryKeypoints_mat.nativeObj, matches_mat.nativeObj);
+        matches.invalidate();
 
         return;
     }
@@ -210,6 +210,7 @@ public class Highgui {
         Mat buf_mat = buf;
         Mat params_mat = params;
         boolean retVal = imencode_0(ext, img.nativeObj, buf_mat.nativeObj, params_mat.nativeObj);
+        buf.invalidate();
 
         return retVal;
     }
@@ -234,6 +235,7 @@ public class Highgui {
     {
         Mat buf_mat = buf;
         boolean retVal = imencode_1(ext, img.nativeObj, buf_mat.nativeObj);
+        buf.invalidate();
 
         return retVal;
     }
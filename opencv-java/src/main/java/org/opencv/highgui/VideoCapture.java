@@ -269,6 +269,7 @@ public class VideoCapture {
     {
 
         boolean retVal = n_read(nativeObj, image.nativeObj);
+        image.invalidate();
 
         return retVal;
     }
@@ -322,6 +323,7 @@ public class VideoCapture {
     {
 
         boolean retVal = n_retrieve(nativeObj, image.nativeObj, channel);
+        image.invalidate();
 
         return retVal;
     }
@@ -347,6 +349,7 @@ public class VideoCapture {
     {
 
         boolean retVal = n_retrieve(nativeObj, image.nativeObj);
+        image.invalidate();
 
         return retVal;
     }
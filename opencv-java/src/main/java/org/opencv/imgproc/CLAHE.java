@@ -22,6 +22,7 @@ public class CLAHE extends Algorithm {
     {
 
         apply_0(nativeObj, src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -19,6 +19,7 @@ import org.opencv.core.Scalar;
 import org.opencv.core.Size;
 import org.opencv.core.TermCriteria;
 import org.opencv.utils.Converters;
+import org.opencv.utils.FlatPoints;
 
 public class Imgproc {
 
@@ -413,6 +414,7 @@ public class Imgproc {
     {
 
         Canny_0(image.nativeObj, edges.nativeObj, threshold1, threshold2, apertureSize, L2gradient);
+        edges.invalidate();
 
         return;
     }
@@ -446,6 +448,7 @@ public class Imgproc {
     {
 
         Canny_1(image.nativeObj, edges.nativeObj, threshold1, threshold2);
+        edges.invalidate();
 
         return;
     }
@@ -492,6 +495,7 @@ public class Imgproc {
     {
 
         GaussianBlur_0(src.nativeObj, dst.nativeObj, ksize.width, ksize.height, sigmaX, sigmaY, borderType);
+        dst.invalidate();
 
         return;
     }
@@ -531,6 +535,7 @@ public class Imgproc {
     {
 
         GaussianBlur_1(src.nativeObj, dst.nativeObj, ksize.width, ksize.height, sigmaX, sigmaY);
+        dst.invalidate();
 
         return;
     }
@@ -563,6 +568,7 @@ public class Imgproc {
     {
 
         GaussianBlur_2(src.nativeObj, dst.nativeObj, ksize.width, ksize.height, sigmaX);
+        dst.invalidate();
 
         return;
     }
@@ -678,6 +684,7 @@ public class Imgproc {
     {
 
         HoughCircles_0(image.nativeObj, circles.nativeObj, method, dp, minDist, param1, param2, minRadius, maxRadius);
+        circles.invalidate();
 
         return;
     }
@@ -779,6 +786,7 @@ public class Imgproc {
     {
 
         HoughCircles_1(image.nativeObj, circles.nativeObj, method, dp, minDist);
+        circles.invalidate();
 
         return;
     }
@@ -828,6 +836,7 @@ public class Imgproc {
     {
 
         HoughLines_0(image.nativeObj, lines.nativeObj, rho, theta, threshold, srn, stn);
+        lines.invalidate();
 
         return;
     }
@@ -864,6 +873,7 @@ public class Imgproc {
     {
 
         HoughLines_1(image.nativeObj, lines.nativeObj, rho, theta, threshold);
+        lines.invalidate();
 
         return;
     }
@@ -992,6 +1002,7 @@ public class Imgproc {
     {
 
         HoughLinesP_0(image.nativeObj, lines.nativeObj, rho, theta, threshold, minLineLength, maxLineGap);
+        lines.invalidate();
 
         return;
     }
@@ -1111,6 +1122,7 @@ public class Imgproc {
     {
 
         HoughLinesP_1(image.nativeObj, lines.nativeObj, rho, theta, threshold);
+        lines.invalidate();
 
         return;
     }
@@ -1158,6 +1170,7 @@ public class Imgproc {
     {
 
         HuMoments_0(m.nativeObj, hu.nativeObj);
+        hu.invalidate();
 
         return;
     }
@@ -1208,6 +1221,7 @@ public class Imgproc {
     {
 
         Laplacian_0(src.nativeObj, dst.nativeObj, ddepth, ksize, scale, delta, borderType);
+        dst.invalidate();
 
         return;
     }
@@ -1251,6 +1265,7 @@ public class Imgproc {
     {
 
         Laplacian_1(src.nativeObj, dst.nativeObj, ddepth, ksize, scale, delta);
+        dst.invalidate();
 
         return;
     }
@@ -1288,6 +1303,7 @@ public class Imgproc {
     {
 
         Laplacian_2(src.nativeObj, dst.nativeObj, ddepth);
+        dst.invalidate();
 
         return;
     }
@@ -1344,6 +1360,7 @@ public class Imgproc {
     {
 
         Scharr_0(src.nativeObj, dst.nativeObj, ddepth, dx, dy, scale, delta, borderType);
+        dst.invalidate();
 
         return;
     }
@@ -1380,6 +1397,7 @@ public class Imgproc {
     {
 
         Scharr_1(src.nativeObj, dst.nativeObj, ddepth, dx, dy, scale, delta);
+        dst.invalidate();
 
         return;
     }
@@ -1412,6 +1430,7 @@ public class Imgproc {
     {
 
         Scharr_2(src.nativeObj, dst.nativeObj, ddepth, dx, dy);
+        dst.invalidate();
 
         return;
     }
@@ -1510,6 +1529,7 @@ public class Imgproc {
     {
 
         Sobel_0(src.nativeObj, dst.nativeObj, ddepth, dx, dy, ksize, scale, delta, borderType);
+        dst.invalidate();
 
         return;
     }
@@ -1601,6 +1621,7 @@ public class Imgproc {
     {
 
         Sobel_1(src.nativeObj, dst.nativeObj, ddepth, dx, dy, ksize, scale, delta);
+        dst.invalidate();
 
         return;
     }
@@ -1687,6 +1708,7 @@ public class Imgproc {
     {
 
         Sobel_2(src.nativeObj, dst.nativeObj, ddepth, dx, dy);
+        dst.invalidate();
 
         return;
     }
@@ -1725,6 +1747,7 @@ public class Imgproc {
     {
 
         accumulate_0(src.nativeObj, dst.nativeObj, mask.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -1757,6 +1780,7 @@ public class Imgproc {
     {
 
         accumulate_1(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -1794,6 +1818,7 @@ public class Imgproc {
     {
 
         accumulateProduct_0(src1.nativeObj, src2.nativeObj, dst.nativeObj, mask.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -1825,6 +1850,7 @@ public class Imgproc {
     {
 
         accumulateProduct_1(src1.nativeObj, src2.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -1859,6 +1885,7 @@ public class Imgproc {
     {
 
         accumulateSquare_0(src.nativeObj, dst.nativeObj, mask.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -1887,6 +1914,7 @@ public class Imgproc {
     {
 
         accumulateSquare_1(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -1926,6 +1954,7 @@ public class Imgproc {
     {
 
         accumulateWeighted_0(src.nativeObj, dst.nativeObj, alpha, mask.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -1959,6 +1988,7 @@ public class Imgproc {
     {
 
         accumulateWeighted_1(src.nativeObj, dst.nativeObj, alpha);
+        dst.invalidate();
 
         return;
     }
@@ -2003,6 +2033,7 @@ public class Imgproc {
     {
 
         adaptiveBilateralFilter_0(src.nativeObj, dst.nativeObj, ksize.width, ksize.height, sigmaSpace, maxSigmaColor, anchor.x, anchor.y, borderType);
+        dst.invalidate();
 
         return;
     }
@@ -2041,6 +2072,7 @@ public class Imgproc {
     {
 
         adaptiveBilateralFilter_1(src.nativeObj, dst.nativeObj, ksize.width, ksize.height, sigmaSpace, maxSigmaColor, anchor.x, anchor.y);
+        dst.invalidate();
 
         return;
     }
@@ -2072,6 +2104,7 @@ public class Imgproc {
     {
 
         adaptiveBilateralFilter_2(src.nativeObj, dst.nativeObj, ksize.width, ksize.height, sigmaSpace);
+        dst.invalidate();
 
         return;
     }
@@ -2136,6 +2169,7 @@ public class Imgproc {
     {
 
         adaptiveThreshold_0(src.nativeObj, dst.nativeObj, maxValue, adaptiveMethod, thresholdType, blockSize, C);
+        dst.invalidate();
 
         return;
     }
@@ -2177,6 +2211,7 @@ public class Imgproc {
         Mat curve_mat = curve;
         Mat approxCurve_mat = approxCurve;
         approxPolyDP_0(curve_mat.nativeObj, approxCurve_mat.nativeObj, epsilon, closed);
+        approxCurve.invalidate();
 
         return;
     }
@@ -2252,6 +2287,7 @@ public class Imgproc {
     {
 
         bilateralFilter_0(src.nativeObj, dst.nativeObj, d, sigmaColor, sigmaSpace, borderType);
+        dst.invalidate();
 
         return;
     }
@@ -2297,6 +2333,7 @@ public class Imgproc {
     {
 
         bilateralFilter_1(src.nativeObj, dst.nativeObj, d, sigmaColor, sigmaSpace);
+        dst.invalidate();
 
         return;
     }
@@ -2340,6 +2377,7 @@ public class Imgproc {
     {
 
         blur_0(src.nativeObj, dst.nativeObj, ksize.width, ksize.height, anchor.x, anchor.y, borderType);
+        dst.invalidate();
 
         return;
     }
@@ -2376,6 +2414,7 @@ public class Imgproc {
     {
 
         blur_1(src.nativeObj, dst.nativeObj, ksize.width, ksize.height, anchor.x, anchor.y);
+        dst.invalidate();
 
         return;
     }
@@ -2410,6 +2449,7 @@ public class Imgproc {
     {
 
         blur_2(src.nativeObj, dst.nativeObj, ksize.width, ksize.height);
+        dst.invalidate();
 
         return;
     }
@@ -2530,6 +2570,7 @@ public class Imgproc {
     {
 
         boxFilter_0(src.nativeObj, dst.nativeObj, ddepth, ksize.width, ksize.height, anchor.x, anchor.y, normalize, borderType);
+        dst.invalidate();
 
         return;
     }
@@ -2573,6 +2614,7 @@ public class Imgproc {
     {
 
         boxFilter_1(src.nativeObj, dst.nativeObj, ddepth, ksize.width, ksize.height, anchor.x, anchor.y, normalize);
+        dst.invalidate();
 
         return;
     }
@@ -2612,6 +2654,7 @@ public class Imgproc {
     {
 
         boxFilter_2(src.nativeObj, dst.nativeObj, ddepth, ksize.width, ksize.height);
+        dst.invalidate();
 
         return;
     }
@@ -2671,6 +2714,7 @@ public class Imgproc {
         Mat channels_mat = channels;
         Mat ranges_mat = ranges;
         calcBackProject_0(images_mat.nativeObj, channels_mat.nativeObj, hist.nativeObj, dst.nativeObj, ranges_mat.nativeObj, scale);
+        dst.invalidate();
 
         return;
     }
@@ -2828,6 +2872,7 @@ public class Imgproc {
         Mat histSize_mat = histSize;
         Mat ranges_mat = ranges;
         calcHist_0(images_mat.nativeObj, channels_mat.nativeObj, mask.nativeObj, hist.nativeObj, histSize_mat.nativeObj, ranges_mat.nativeObj, accumulate);
+        hist.invalidate();
 
         return;
     }
@@ -2976,6 +3021,7 @@ public class Imgproc {
         Mat histSize_mat = histSize;
         Mat ranges_mat = ranges;
         calcHist_1(images_mat.nativeObj, channels_mat.nativeObj, mask.nativeObj, hist.nativeObj, histSize_mat.nativeObj, ranges_mat.nativeObj);
+        hist.invalidate();
 
         return;
     }
@@ -3208,6 +3254,8 @@ public class Imgproc {
     {
 
         convertMaps_0(map1.nativeObj, map2.nativeObj, dstmap1.nativeObj, dstmap2.nativeObj, dstmap1type, nninterpolation);
+        dstmap1.invalidate();
+        dstmap2.invalidate();
 
         return;
     }
@@ -3250,6 +3298,8 @@ public class Imgproc {
     {
 
         convertMaps_1(map1.nativeObj, map2.nativeObj, dstmap1.nativeObj, dstmap2.nativeObj, dstmap1type);
+        dstmap1.invalidate();
+        dstmap2.invalidate();
 
         return;
     }
@@ -3293,6 +3343,7 @@ public class Imgproc {
         Mat points_mat = points;
         Mat hull_mat = hull;
         convexHull_0(points_mat.nativeObj, hull_mat.nativeObj, clockwise);
+        hull.invalidate();
 
         return;
     }
@@ -3327,6 +3378,7 @@ public class Imgproc {
         Mat points_mat = points;
         Mat hull_mat = hull;
         convexHull_1(points_mat.nativeObj, hull_mat.nativeObj);
+        hull.invalidate();
 
         return;
     }
@@ -3383,6 +3435,7 @@ public class Imgproc {
         Mat convexhull_mat = convexhull;
         Mat convexityDefects_mat = convexityDefects;
         convexityDefects_0(contour_mat.nativeObj, convexhull_mat.nativeObj, convexityDefects_mat.nativeObj);
+        convexityDefects.invalidate();
 
         return;
     }
@@ -3457,6 +3510,7 @@ public class Imgproc {
     {
 
         copyMakeBorder_0(src.nativeObj, dst.nativeObj, top, bottom, left, right, borderType, value.val[0], value.val[1], value.val[2], value.val[3]);
+        dst.invalidate();
 
         return;
     }
@@ -3525,6 +3579,7 @@ public class Imgproc {
     {
 
         copyMakeBorder_1(src.nativeObj, dst.nativeObj, top, bottom, left, right, borderType);
+        dst.invalidate();
 
         return;
     }
@@ -3583,6 +3638,7 @@ public class Imgproc {
     {
 
         cornerEigenValsAndVecs_0(src.nativeObj, dst.nativeObj, blockSize, ksize, borderType);
+        dst.invalidate();
 
         return;
     }
@@ -3635,6 +3691,7 @@ public class Imgproc {
     {
 
         cornerEigenValsAndVecs_1(src.nativeObj, dst.nativeObj, blockSize, ksize);
+        dst.invalidate();
 
         return;
     }
@@ -3671,6 +3728,7 @@ public class Imgproc {
     {
 
         cornerHarris_0(src.nativeObj, dst.nativeObj, blockSize, ksize, k, borderType);
+        dst.invalidate();
 
         return;
     }
@@ -3701,6 +3759,7 @@ public class Imgproc {
     {
 
         cornerHarris_1(src.nativeObj, dst.nativeObj, blockSize, ksize, k);
+        dst.invalidate();
 
         return;
     }
@@ -3731,6 +3790,7 @@ public class Imgproc {
     {
 
         cornerMinEigenVal_0(src.nativeObj, dst.nativeObj, blockSize, ksize, borderType);
+        dst.invalidate();
 
         return;
     }
@@ -3755,6 +3815,7 @@ public class Imgproc {
     {
 
         cornerMinEigenVal_1(src.nativeObj, dst.nativeObj, blockSize, ksize);
+        dst.invalidate();
 
         return;
     }
@@ -3778,6 +3839,7 @@ public class Imgproc {
     {
 
         cornerMinEigenVal_2(src.nativeObj, dst.nativeObj, blockSize);
+        dst.invalidate();
 
         return;
     }
@@ -3838,6 +3900,7 @@ public class Imgproc {
     {
         Mat corners_mat = corners;
         cornerSubPix_0(image.nativeObj, corners_mat.nativeObj, winSize.width, winSize.height, zeroZone.width, zeroZone.height, criteria.type, criteria.maxCount, criteria.epsilon);
+        corners.invalidate();
 
         return;
     }
@@ -3880,6 +3943,7 @@ public class Imgproc {
     {
 
         createHanningWindow_0(dst.nativeObj, winSize.width, winSize.height, type);
+        dst.invalidate();
 
         return;
     }
@@ -4242,6 +4306,7 @@ public class Imgproc {
     {
 
         cvtColor_0(src.nativeObj, dst.nativeObj, code, dstCn);
+        dst.invalidate();
 
         return;
     }
@@ -4596,6 +4661,7 @@ public class Imgproc {
     {
 
         cvtColor_1(src.nativeObj, dst.nativeObj, code);
+        dst.invalidate();
 
         return;
     }
@@ -4645,6 +4711,7 @@ public class Imgproc {
     {
 
         dilate_0(src.nativeObj, dst.nativeObj, kernel.nativeObj, anchor.x, anchor.y, iterations, borderType, borderValue.val[0], borderValue.val[1], borderValue.val[2], borderValue.val[3]);
+        dst.invalidate();
 
         return;
     }
@@ -4685,6 +4752,7 @@ public class Imgproc {
     {
 
         dilate_1(src.nativeObj, dst.nativeObj, kernel.nativeObj, anchor.x, anchor.y, iterations);
+        dst.invalidate();
 
         return;
     }
@@ -4722,6 +4790,7 @@ public class Imgproc {
     {
 
         dilate_2(src.nativeObj, dst.nativeObj, kernel.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -4816,6 +4885,7 @@ public class Imgproc {
     {
 
         distanceTransform_0(src.nativeObj, dst.nativeObj, distanceType, maskSize);
+        dst.invalidate();
 
         return;
     }
@@ -4918,6 +4988,8 @@ public class Imgproc {
     {
 
         distanceTransformWithLabels_0(src.nativeObj, dst.nativeObj, labels.nativeObj, distanceType, maskSize, labelType);
+        dst.invalidate();
+        labels.invalidate();
 
         return;
     }
@@ -5010,6 +5082,8 @@ public class Imgproc {
     {
 
         distanceTransformWithLabels_1(src.nativeObj, dst.nativeObj, labels.nativeObj, distanceType, maskSize);
+        dst.invalidate();
+        labels.invalidate();
 
         return;
     }
@@ -5122,6 +5196,7 @@ public class Imgproc {
         List<Mat> contours_tmplm = new ArrayList<Mat>((contours != null) ? contours.size() : 0);
         Mat contours_mat = Converters.vector_vector_Point_to_Mat(contours, contours_tmplm);
         drawContours_0(image.nativeObj, contours_mat.nativeObj, contourIdx, color.val[0], color.val[1], color.val[2], color.val[3], thickness, lineType, hierarchy.nativeObj, maxLevel, offset.x, offset.y);
+        image.invalidate();
 
         return;
     }
@@ -5219,6 +5294,7 @@ public class Imgproc {
         List<Mat> contours_tmplm = new ArrayList<Mat>((contours != null) ? contours.size() : 0);
         Mat contours_mat = Converters.vector_vector_Point_to_Mat(contours, contours_tmplm);
         drawContours_1(image.nativeObj, contours_mat.nativeObj, contourIdx, color.val[0], color.val[1], color.val[2], color.val[3], thickness);
+        image.invalidate();
 
         return;
     }
@@ -5313,11 +5389,59 @@ public class Imgproc {
         List<Mat> contours_tmplm = new ArrayList<Mat>((contours != null) ? contours.size() : 0);
         Mat contours_mat = Converters.vector_vector_Point_to_Mat(contours, contours_tmplm);
         drawContours_2(image.nativeObj, contours_mat.nativeObj, contourIdx, color.val[0], color.val[1], color.val[2], color.val[3]);
+        image.invalidate();
 
         return;
     }
 
 
+/**
+ * <p>Draws contours outlines or filled contours given as flat point arrays.</p>
+ *
+ * @param image Destination image.
+ * @param contours All the input contours.
+ * @param contourIdx Parameter indicating a contour to draw. If it is negative,
+ * all the contours are drawn.
+ * @param color Color of the contours.
+ * @param thickness Thickness of lines the contours are drawn with. If it is
+ * negative, the contour interiors are drawn.
+ *
+ * @see org.opencv.imgproc.Imgproc#drawContours(Mat, List, int, Scalar, int)
+ */
+    public static void drawContours(Mat image, FlatPoints contours, int contourIdx, Scalar color, int thickness)
+    {
+        List<Mat> contours_tmplm = new ArrayList<Mat>((contours != null) ? contours.count : 0);
+        Mat contours_mat = Converters.vector_vector_Point_to_Mat(contours, contours_tmplm);
+        drawContours_1(image.nativeObj, contours_mat.nativeObj, contourIdx, color.val[0], color.val[1], color.val[2], color.val[3], thickness);
+        contours_mat.release();
+        for (Mat m : contours_tmplm) m.delete();
+        image.invalidate();
+        return;
+    }
+
+/**
+ * <p>Draws contours outlines given as flat point arrays.</p>
+ *
+ * @param image Destination image.
+ * @param contours All the input contours.
+ * @param contourIdx Parameter indicating a contour to draw. If it is negative,
+ * all the contours are drawn.
+ * @param color Color of the contours.
+ *
+ * @see org.opencv.imgproc.Imgproc#drawContours(Mat, List, int, Scalar)
+ */
+    public static void drawContours(Mat image, FlatPoints contours, int contourIdx, Scalar color)
+    {
+        List<Mat> contours_tmplm = new ArrayList<Mat>((contours != null) ? contours.count : 0);
+        Mat contours_mat = Converters.vector_vector_Point_to_Mat(contours, contours_tmplm);
+        drawContours_2(image.nativeObj, contours_mat.nativeObj, contourIdx, color.val[0], color.val[1], color.val[2], color.val[3]);
+        contours_mat.release();
+        for (Mat m : contours_tmplm) m.delete();
+        image.invalidate();
+        return;
+    }
+
+
     //
     // C++:  void equalizeHist(Mat src, Mat& dst)
     //
@@ -5353,6 +5477,7 @@ public class Imgproc {
     {
 
         equalizeHist_0(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -5402,6 +5527,7 @@ public class Imgproc {
     {
 
         erode_0(src.nativeObj, dst.nativeObj, kernel.nativeObj, anchor.x, anchor.y, iterations, borderType, borderValue.val[0], borderValue.val[1], borderValue.val[2], borderValue.val[3]);
+        dst.invalidate();
 
         return;
     }
@@ -5442,6 +5568,7 @@ public class Imgproc {
     {
 
         erode_1(src.nativeObj, dst.nativeObj, kernel.nativeObj, anchor.x, anchor.y, iterations);
+        dst.invalidate();
 
         return;
     }
@@ -5479,6 +5606,7 @@ public class Imgproc {
     {
 
         erode_2(src.nativeObj, dst.nativeObj, kernel.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -5549,6 +5677,7 @@ public class Imgproc {
     {
 
         filter2D_0(src.nativeObj, dst.nativeObj, ddepth, kernel.nativeObj, anchor.x, anchor.y, delta, borderType);
+        dst.invalidate();
 
         return;
     }
@@ -5612,6 +5741,7 @@ public class Imgproc {
     {
 
         filter2D_1(src.nativeObj, dst.nativeObj, ddepth, kernel.nativeObj, anchor.x, anchor.y, delta);
+        dst.invalidate();
 
         return;
     }
@@ -5670,6 +5800,7 @@ public class Imgproc {
     {
 
         filter2D_2(src.nativeObj, dst.nativeObj, ddepth, kernel.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -5770,6 +5901,8 @@ public class Imgproc {
         Mat contours_mat = new Mat();
         findContours_0(image.nativeObj, contours_mat.nativeObj, hierarchy.nativeObj, mode, method, offset.x, offset.y);
         Converters.Mat_to_vector_vector_Point(contours_mat, contours);
+        image.invalidate();
+        hierarchy.invalidate();
         return;
     }
 
@@ -5861,6 +5994,61 @@ public class Imgproc {
         Mat contours_mat = new Mat();
         findContours_1(image.nativeObj, contours_mat.nativeObj, hierarchy.nativeObj, mode, method);
         Converters.Mat_to_vector_vector_Point(contours_mat, contours);
+        image.invalidate();
+        hierarchy.invalidate();
+        return;
+    }
+
+
+/**
+ * <p>Finds contours in a binary image, storing the points of all contours in the
+ * flat arrays of <code>contours</code> instead of one <code>MatOfPoint</code>
+ * per contour.</p>
+ *
+ * @param image Source, an 8-bit single-channel image.
+ * @param contours Detected contours, contour <code>i</code> spans the points
+ * <code>contours.offsets[i]</code> to <code>contours.offsets[i + 1]</code> of
+ * <code>contours.xy</code>.
+ * @param hierarchy Optional output vector containing information about the
+ * image topology.
+ * @param mode Contour retrieval mode.
+ * @param method Contour approximation method.
+ * @param offset Optional offset by which every contour point is shifted.
+ *
+ * @see org.opencv.imgproc.Imgproc#findContours(Mat, List, Mat, int, int, Point)
+ */
+    public static void findContours(Mat image, FlatPoints contours, Mat hierarchy, int mode, int method, Point offset)
+    {
+        Mat contours_mat = new Mat();
+        findContours_0(image.nativeObj, contours_mat.nativeObj, hierarchy.nativeObj, mode, method, offset.x, offset.y);
+        Converters.Mat_to_vector_vector_Point(contours_mat, contours);
+        contours_mat.release();
+        image.invalidate();
+        hierarchy.invalidate();
+        return;
+    }
+
+/**
+ * <p>Finds contours in a binary image, storing the points of all contours in the
+ * flat arrays of <code>contours</code>.</p>
+ *
+ * @param image Source, an 8-bit single-channel image.
+ * @param contours Detected contours.
+ * @param hierarchy Optional output vector containing information about the
+ * image topology.
+ * @param mode Contour retrieval mode.
+ * @param method Contour approximation method.
+ *
+ * @see org.opencv.imgproc.Imgproc#findContours(Mat, List, Mat, int, int)
+ */
+    public static void findContours(Mat image, FlatPoints contours, Mat hierarchy, int mode, int method)
+    {
+        Mat contours_mat = new Mat();
+        findContours_1(image.nativeObj, contours_mat.nativeObj, hierarchy.nativeObj, mode, method);
+        Converters.Mat_to_vector_vector_Point(contours_mat, contours);
+        contours_mat.release();
+        image.invalidate();
+        hierarchy.invalidate();
         return;
     }
 
@@ -5983,6 +6171,7 @@ public class Imgproc {
     {
 
         fitLine_0(points.nativeObj, line.nativeObj, distType, param, reps, aeps);
+        line.invalidate();
 
         return;
     }
@@ -6118,6 +6307,8 @@ public class Imgproc {
         double[] rect_out = new double[4];
         int retVal = floodFill_0(image.nativeObj, mask.nativeObj, seedPoint.x, seedPoint.y, newVal.val[0], newVal.val[1], newVal.val[2], newVal.val[3], rect_out, loDiff.val[0], loDiff.val[1], loDiff.val[2], loDiff.val[3], upDiff.val[0], upDiff.val[1], upDiff.val[2], upDiff.val[3], flags);
         if(rect!=null){ rect.x = (int)rect_out[0]; rect.y = (int)rect_out[1]; rect.width = (int)rect_out[2]; rect.height = (int)rect_out[3]; }
+        image.invalidate();
+        mask.invalidate();
         return retVal;
     }
 
@@ -6218,6 +6409,8 @@ public class Imgproc {
     {
 
         int retVal = floodFill_1(image.nativeObj, mask.nativeObj, seedPoint.x, seedPoint.y, newVal.val[0], newVal.val[1], newVal.val[2], newVal.val[3]);
+        image.invalidate();
+        mask.invalidate();
 
         return retVal;
     }
@@ -6377,6 +6570,8 @@ public class Imgproc {
     {
 
         getDerivKernels_0(kx.nativeObj, ky.nativeObj, dx, dy, ksize, normalize, ktype);
+        kx.invalidate();
+        ky.invalidate();
 
         return;
     }
@@ -6404,6 +6599,8 @@ public class Imgproc {
     {
 
         getDerivKernels_1(kx.nativeObj, ky.nativeObj, dx, dy, ksize);
+        kx.invalidate();
+        ky.invalidate();
 
         return;
     }
@@ -6583,6 +6780,7 @@ public class Imgproc {
     {
 
         getRectSubPix_0(image.nativeObj, patchSize.width, patchSize.height, center.x, center.y, patch.nativeObj, patchType);
+        patch.invalidate();
 
         return;
     }
@@ -6616,6 +6814,7 @@ public class Imgproc {
     {
 
         getRectSubPix_1(image.nativeObj, patchSize.width, patchSize.height, center.x, center.y, patch.nativeObj);
+        patch.invalidate();
 
         return;
     }
@@ -6820,6 +7019,7 @@ public class Imgproc {
     {
         Mat corners_mat = corners;
         goodFeaturesToTrack_0(image.nativeObj, corners_mat.nativeObj, maxCorners, qualityLevel, minDistance, mask.nativeObj, blockSize, useHarrisDetector, k);
+        corners.invalidate();
 
         return;
     }
@@ -6873,6 +7073,7 @@ public class Imgproc {
     {
         Mat corners_mat = corners;
         goodFeaturesToTrack_1(image.nativeObj, corners_mat.nativeObj, maxCorners, qualityLevel, minDistance);
+        corners.invalidate();
 
         return;
     }
@@ -6935,6 +7136,9 @@ public class Imgproc {
     {
 
         grabCut_0(img.nativeObj, mask.nativeObj, rect.x, rect.y, rect.width, rect.height, bgdModel.nativeObj, fgdModel.nativeObj, iterCount, mode);
+        mask.invalidate();
+        bgdModel.invalidate();
+        fgdModel.invalidate();
 
         return;
     }
@@ -6981,6 +7185,9 @@ public class Imgproc {
     {
 
         grabCut_1(img.nativeObj, mask.nativeObj, rect.x, rect.y, rect.width, rect.height, bgdModel.nativeObj, fgdModel.nativeObj, iterCount);
+        mask.invalidate();
+        bgdModel.invalidate();
+        fgdModel.invalidate();
 
         return;
     }
@@ -7070,6 +7277,8 @@ public class Imgproc {
     {
 
         initUndistortRectifyMap_0(cameraMatrix.nativeObj, distCoeffs.nativeObj, R.nativeObj, newCameraMatrix.nativeObj, size.width, size.height, m1type, map1.nativeObj, map2.nativeObj);
+        map1.invalidate();
+        map2.invalidate();
 
         return;
     }
@@ -7083,6 +7292,8 @@ public class Imgproc {
     {
 
         float retVal = initWideAngleProjMap_0(cameraMatrix.nativeObj, distCoeffs.nativeObj, imageSize.width, imageSize.height, destImageWidth, m1type, map1.nativeObj, map2.nativeObj, projType, alpha);
+        map1.invalidate();
+        map2.invalidate();
 
         return retVal;
     }
@@ -7091,6 +7302,8 @@ public class Imgproc {
     {
 
         float retVal = initWideAngleProjMap_1(cameraMatrix.nativeObj, distCoeffs.nativeObj, imageSize.width, imageSize.height, destImageWidth, m1type, map1.nativeObj, map2.nativeObj);
+        map1.invalidate();
+        map2.invalidate();
 
         return retVal;
     }
@@ -7145,6 +7358,7 @@ public class Imgproc {
     {
 
         integral_0(src.nativeObj, sum.nativeObj, sdepth);
+        sum.invalidate();
 
         return;
     }
@@ -7192,6 +7406,7 @@ public class Imgproc {
     {
 
         integral_1(src.nativeObj, sum.nativeObj);
+        sum.invalidate();
 
         return;
     }
@@ -7248,6 +7463,8 @@ public class Imgproc {
     {
 
         integral2_0(src.nativeObj, sum.nativeObj, sqsum.nativeObj, sdepth);
+        sum.invalidate();
+        sqsum.invalidate();
 
         return;
     }
@@ -7297,6 +7514,8 @@ public class Imgproc {
     {
 
         integral2_1(src.nativeObj, sum.nativeObj, sqsum.nativeObj);
+        sum.invalidate();
+        sqsum.invalidate();
 
         return;
     }
@@ -7355,6 +7574,9 @@ public class Imgproc {
     {
 
         integral3_0(src.nativeObj, sum.nativeObj, sqsum.nativeObj, tilted.nativeObj, sdepth);
+        sum.invalidate();
+        sqsum.invalidate();
+        tilted.invalidate();
 
         return;
     }
@@ -7406,6 +7628,9 @@ public class Imgproc {
     {
 
         integral3_1(src.nativeObj, sum.nativeObj, sqsum.nativeObj, tilted.nativeObj);
+        sum.invalidate();
+        sqsum.invalidate();
+        tilted.invalidate();
 
         return;
     }
@@ -7419,6 +7644,7 @@ public class Imgproc {
     {
 
         float retVal = intersectConvexConvex_0(_p1.nativeObj, _p2.nativeObj, _p12.nativeObj, handleNested);
+        _p12.invalidate();
 
         return retVal;
     }
@@ -7427,6 +7653,7 @@ public class Imgproc {
     {
 
         float retVal = intersectConvexConvex_1(_p1.nativeObj, _p2.nativeObj, _p12.nativeObj);
+        _p12.invalidate();
 
         return retVal;
     }
@@ -7457,6 +7684,7 @@ public class Imgproc {
     {
 
         invertAffineTransform_0(M.nativeObj, iM.nativeObj);
+        iM.invalidate();
 
         return;
     }
@@ -7635,6 +7863,7 @@ public class Imgproc {
     {
 
         matchTemplate_0(image.nativeObj, templ.nativeObj, result.nativeObj, method);
+        result.invalidate();
 
         return;
     }
@@ -7669,6 +7898,7 @@ public class Imgproc {
     {
 
         medianBlur_0(src.nativeObj, dst.nativeObj, ksize);
+        dst.invalidate();
 
         return;
     }
@@ -7988,6 +8218,7 @@ public class Imgproc {
     {
 
         morphologyEx_0(src.nativeObj, dst.nativeObj, op, kernel.nativeObj, anchor.x, anchor.y, iterations, borderType, borderValue.val[0], borderValue.val[1], borderValue.val[2], borderValue.val[3]);
+        dst.invalidate();
 
         return;
     }
@@ -8052,6 +8283,7 @@ public class Imgproc {
     {
 
         morphologyEx_1(src.nativeObj, dst.nativeObj, op, kernel.nativeObj, anchor.x, anchor.y, iterations);
+        dst.invalidate();
 
         return;
     }
@@ -8114,6 +8346,7 @@ public class Imgproc {
     {
 
         morphologyEx_2(src.nativeObj, dst.nativeObj, op, kernel.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -8364,6 +8597,7 @@ public class Imgproc {
     {
 
         preCornerDetect_0(src.nativeObj, dst.nativeObj, ksize, borderType);
+        dst.invalidate();
 
         return;
     }
@@ -8408,6 +8642,7 @@ public class Imgproc {
     {
 
         preCornerDetect_1(src.nativeObj, dst.nativeObj, ksize);
+        dst.invalidate();
 
         return;
     }
@@ -8451,6 +8686,7 @@ public class Imgproc {
     {
 
         pyrDown_0(src.nativeObj, dst.nativeObj, dstsize.width, dstsize.height, borderType);
+        dst.invalidate();
 
         return;
     }
@@ -8487,6 +8723,7 @@ public class Imgproc {
     {
 
         pyrDown_1(src.nativeObj, dst.nativeObj, dstsize.width, dstsize.height);
+        dst.invalidate();
 
         return;
     }
@@ -8522,6 +8759,7 @@ public class Imgproc {
     {
 
         pyrDown_2(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -8589,6 +8827,7 @@ public class Imgproc {
     {
 
         pyrMeanShiftFiltering_0(src.nativeObj, dst.nativeObj, sp, sr, maxLevel, termcrit.type, termcrit.maxCount, termcrit.epsilon);
+        dst.invalidate();
 
         return;
     }
@@ -8649,6 +8888,7 @@ public class Imgproc {
     {
 
         pyrMeanShiftFiltering_1(src.nativeObj, dst.nativeObj, sp, sr);
+        dst.invalidate();
 
         return;
     }
@@ -8693,6 +8933,7 @@ public class Imgproc {
     {
 
         pyrUp_0(src.nativeObj, dst.nativeObj, dstsize.width, dstsize.height, borderType);
+        dst.invalidate();
 
         return;
     }
@@ -8730,6 +8971,7 @@ public class Imgproc {
     {
 
         pyrUp_1(src.nativeObj, dst.nativeObj, dstsize.width, dstsize.height);
+        dst.invalidate();
 
         return;
     }
@@ -8766,6 +9008,7 @@ public class Imgproc {
     {
 
         pyrUp_2(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -8822,6 +9065,7 @@ public class Imgproc {
     {
 
         remap_0(src.nativeObj, dst.nativeObj, map1.nativeObj, map2.nativeObj, interpolation, borderMode, borderValue.val[0], borderValue.val[1], borderValue.val[2], borderValue.val[3]);
+        dst.invalidate();
 
         return;
     }
@@ -8867,6 +9111,7 @@ public class Imgproc {
     {
 
         remap_1(src.nativeObj, dst.nativeObj, map1.nativeObj, map2.nativeObj, interpolation);
+        dst.invalidate();
 
         return;
     }
@@ -8944,6 +9189,7 @@ public class Imgproc {
     {
 
         resize_0(src.nativeObj, dst.nativeObj, dsize.width, dsize.height, fx, fy, interpolation);
+        dst.invalidate();
 
         return;
     }
@@ -8997,6 +9243,7 @@ public class Imgproc {
     {
 
         resize_1(src.nativeObj, dst.nativeObj, dsize.width, dsize.height);
+        dst.invalidate();
 
         return;
     }
@@ -9052,6 +9299,7 @@ public class Imgproc {
     {
 
         sepFilter2D_0(src.nativeObj, dst.nativeObj, ddepth, kernelX.nativeObj, kernelY.nativeObj, anchor.x, anchor.y, delta, borderType);
+        dst.invalidate();
 
         return;
     }
@@ -9100,6 +9348,7 @@ public class Imgproc {
     {
 
         sepFilter2D_1(src.nativeObj, dst.nativeObj, ddepth, kernelX.nativeObj, kernelY.nativeObj, anchor.x, anchor.y, delta);
+        dst.invalidate();
 
         return;
     }
@@ -9145,6 +9394,7 @@ public class Imgproc {
     {
 
         sepFilter2D_2(src.nativeObj, dst.nativeObj, ddepth, kernelX.nativeObj, kernelY.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -9218,6 +9468,7 @@ public class Imgproc {
     {
 
         double retVal = threshold_0(src.nativeObj, dst.nativeObj, thresh, maxval, type);
+        dst.invalidate();
 
         return retVal;
     }
@@ -9272,6 +9523,7 @@ public class Imgproc {
     {
 
         undistort_0(src.nativeObj, dst.nativeObj, cameraMatrix.nativeObj, distCoeffs.nativeObj, newCameraMatrix.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -9318,6 +9570,7 @@ public class Imgproc {
     {
 
         undistort_1(src.nativeObj, dst.nativeObj, cameraMatrix.nativeObj, distCoeffs.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -9399,6 +9652,7 @@ public class Imgproc {
         Mat src_mat = src;
         Mat dst_mat = dst;
         undistortPoints_0(src_mat.nativeObj, dst_mat.nativeObj, cameraMatrix.nativeObj, distCoeffs.nativeObj, R.nativeObj, P.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -9469,6 +9723,7 @@ public class Imgproc {
         Mat src_mat = src;
         Mat dst_mat = dst;
         undistortPoints_1(src_mat.nativeObj, dst_mat.nativeObj, cameraMatrix.nativeObj, distCoeffs.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -9520,6 +9775,7 @@ public class Imgproc {
     {
 
         warpAffine_0(src.nativeObj, dst.nativeObj, M.nativeObj, dsize.width, dsize.height, flags, borderMode, borderValue.val[0], borderValue.val[1], borderValue.val[2], borderValue.val[3]);
+        dst.invalidate();
 
         return;
     }
@@ -9560,6 +9816,7 @@ public class Imgproc {
     {
 
         warpAffine_1(src.nativeObj, dst.nativeObj, M.nativeObj, dsize.width, dsize.height, flags);
+        dst.invalidate();
 
         return;
     }
@@ -9597,6 +9854,7 @@ public class Imgproc {
     {
 
         warpAffine_2(src.nativeObj, dst.nativeObj, M.nativeObj, dsize.width, dsize.height);
+        dst.invalidate();
 
         return;
     }
@@ -9644,6 +9902,7 @@ public class Imgproc {
     {
 
         warpPerspective_0(src.nativeObj, dst.nativeObj, M.nativeObj, dsize.width, dsize.height, flags, borderMode, borderValue.val[0], borderValue.val[1], borderValue.val[2], borderValue.val[3]);
+        dst.invalidate();
 
         return;
     }
@@ -9682,6 +9941,7 @@ public class Imgproc {
     {
 
         warpPerspective_1(src.nativeObj, dst.nativeObj, M.nativeObj, dsize.width, dsize.height, flags);
+        dst.invalidate();
 
         return;
     }
@@ -9717,6 +9977,7 @@ public class Imgproc {
     {
 
         warpPerspective_2(src.nativeObj, dst.nativeObj, M.nativeObj, dsize.width, dsize.height);
+        dst.invalidate();
 
         return;
     }
@@ -9770,6 +10031,7 @@ public class Imgproc {
     {
 
         watershed_0(image.nativeObj, markers.nativeObj);
+        markers.invalidate();
 
         return;
     }
@@ -147,6 +147,7 @@ public class Subdiv2D {
     {
         Mat edgeList_mat = edgeList;
         getEdgeList_0(nativeObj, edgeList_mat.nativeObj);
+        edgeList.invalidate();
 
         return;
     }
@@ -160,6 +161,7 @@ public class Subdiv2D {
     {
         Mat triangleList_mat = triangleList;
         getTriangleList_0(nativeObj, triangleList_mat.nativeObj);
+        triangleList.invalidate();
 
         return;
     }
@@ -197,6 +199,7 @@ public class Subdiv2D {
         Mat facetCenters_mat = facetCenters;
         getVoronoiFacetList_0(nativeObj, idx_mat.nativeObj, facetList_mat.nativeObj, facetCenters_mat.nativeObj);
         Converters.Mat_to_vector_vector_Point2f(facetList_mat, facetList);
+        facetCenters.invalidate();
         return;
     }
 
@@ -185,6 +185,7 @@ public class CvANN_MLP extends CvStatModel {
     {
 
         float retVal = predict_0(nativeObj, inputs.nativeObj, outputs.nativeObj);
+        outputs.invalidate();
 
         return retVal;
     }
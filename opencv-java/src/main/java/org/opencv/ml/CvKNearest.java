@@ -134,6 +134,9 @@ public class CvKNearest extends CvStatModel {
     {
 
         float retVal = find_nearest_0(nativeObj, samples.nativeObj, k, results.nativeObj, neighborResponses.nativeObj, dists.nativeObj);
+        results.invalidate();
+        neighborResponses.invalidate();
+        dists.invalidate();
 
         return retVal;
     }
@@ -120,6 +120,7 @@ public class CvNormalBayesClassifier extends CvStatModel {
     {
 
         float retVal = predict_0(nativeObj, samples.nativeObj, results.nativeObj);
+        results.invalidate();
 
         return retVal;
     }
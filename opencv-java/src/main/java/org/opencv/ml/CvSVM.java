@@ -230,6 +230,7 @@ public class CvSVM extends CvStatModel {
     {
 
         predict_all_0(nativeObj, samples.nativeObj, results.nativeObj);
+        results.invalidate();
 
         return;
     }
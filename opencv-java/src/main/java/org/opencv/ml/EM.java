@@ -140,6 +140,7 @@ public class EM extends Algorithm {
     {
 
         double[] retVal = predict_0(nativeObj, sample.nativeObj, probs.nativeObj);
+        probs.invalidate();
 
         return retVal;
     }
@@ -223,6 +224,9 @@ public class EM extends Algorithm {
     {
 
         boolean retVal = train_0(nativeObj, samples.nativeObj, logLikelihoods.nativeObj, labels.nativeObj, probs.nativeObj);
+        logLikelihoods.invalidate();
+        labels.invalidate();
+        probs.invalidate();
 
         return retVal;
     }
@@ -283,6 +287,9 @@ public class EM extends Algorithm {
     {
 
         boolean retVal = trainE_0(nativeObj, samples.nativeObj, means0.nativeObj, covs0.nativeObj, weights0.nativeObj, logLikelihoods.nativeObj, labels.nativeObj, probs.nativeObj);
+        logLikelihoods.invalidate();
+        labels.invalidate();
+        probs.invalidate();
 
         return retVal;
     }
@@ -304,6 +311,9 @@ public class EM extends Algorithm {
     {
 
         boolean retVal = trainM_0(nativeObj, samples.nativeObj, probs0.nativeObj, logLikelihoods.nativeObj, labels.nativeObj, probs.nativeObj);
+        logLikelihoods.invalidate();
+        labels.invalidate();
+        probs.invalidate();
 
         return retVal;
     }
@@ -98,6 +98,7 @@ public class CascadeClassifier {
     {
         Mat objects_mat = objects;
         detectMultiScale_0(nativeObj, image.nativeObj, objects_mat.nativeObj, scaleFactor, minNeighbors, flags, minSize.width, minSize.height, maxSize.width, maxSize.height);
+        objects.invalidate();
 
         return;
     }
@@ -125,6 +126,7 @@ public class CascadeClassifier {
     {
         Mat objects_mat = objects;
         detectMultiScale_1(nativeObj, image.nativeObj, objects_mat.nativeObj);
+        objects.invalidate();
 
         return;
     }
@@ -172,6 +174,7 @@ public class CascadeClassifier {
         Mat rejectLevels_mat = rejectLevels;
         Mat levelWeights_mat = levelWeights;
         detectMultiScale_2(nativeObj, image.nativeObj, objects_mat.nativeObj, rejectLevels_mat.nativeObj, levelWeights_mat.nativeObj, scaleFactor, minNeighbors, flags, minSize.width, minSize.height, maxSize.width, maxSize.height, outputRejectLevels);
+        objects.invalidate();
 
         return;
     }
@@ -203,6 +206,7 @@ public class CascadeClassifier {
         Mat rejectLevels_mat = rejectLevels;
         Mat levelWeights_mat = levelWeights;
         detectMultiScale_3(nativeObj, image.nativeObj, objects_mat.nativeObj, rejectLevels_mat.nativeObj, levelWeights_mat.nativeObj);
+        objects.invalidate();
 
         return;
     }
@@ -93,6 +93,7 @@ public class HOGDescriptor {
         Mat descriptors_mat = descriptors;
         Mat locations_mat = locations;
         compute_0(nativeObj, img.nativeObj, descriptors_mat.nativeObj, winStride.width, winStride.height, padding.width, padding.height, locations_mat.nativeObj);
+        descriptors.invalidate();
 
         return;
     }
@@ -101,6 +102,7 @@ public class HOGDescriptor {
     {
         Mat descriptors_mat = descriptors;
         compute_1(nativeObj, img.nativeObj, descriptors_mat.nativeObj);
+        descriptors.invalidate();
 
         return;
     }
@@ -114,6 +116,8 @@ public class HOGDescriptor {
     {
 
         computeGradient_0(nativeObj, img.nativeObj, grad.nativeObj, angleOfs.nativeObj, paddingTL.width, paddingTL.height, paddingBR.width, paddingBR.height);
+        grad.invalidate();
+        angleOfs.invalidate();
 
         return;
     }
@@ -122,6 +126,8 @@ public class HOGDescriptor {
     {
 
         computeGradient_1(nativeObj, img.nativeObj, grad.nativeObj, angleOfs.nativeObj);
+        grad.invalidate();
+        angleOfs.invalidate();
 
         return;
     }
@@ -137,6 +143,8 @@ public class HOGDescriptor {
         Mat weights_mat = weights;
         Mat searchLocations_mat = searchLocations;
         detect_0(nativeObj, img.nativeObj, foundLocations_mat.nativeObj, weights_mat.nativeObj, hitThreshold, winStride.width, winStride.height, padding.width, padding.height, searchLocations_mat.nativeObj);
+        foundLocations.invalidate();
+        weights.invalidate();
 
         return;
     }
@@ -146,6 +154,8 @@ public class HOGDescriptor {
         Mat foundLocations_mat = foundLocations;
         Mat weights_mat = weights;
         detect_1(nativeObj, img.nativeObj, foundLocations_mat.nativeObj, weights_mat.nativeObj);
+        foundLocations.invalidate();
+        weights.invalidate();
 
         return;
     }
@@ -160,6 +170,8 @@ public class HOGDescriptor {
         Mat foundLocations_mat = foundLocations;
         Mat foundWeights_mat = foundWeights;
         detectMultiScale_0(nativeObj, img.nativeObj, foundLocations_mat.nativeObj, foundWeights_mat.nativeObj, hitThreshold, winStride.width, winStride.height, padding.width, padding.height, scale, finalThreshold, useMeanshiftGrouping);
+        foundLocations.invalidate();
+        foundWeights.invalidate();
 
         return;
     }
@@ -169,6 +181,8 @@ public class HOGDescriptor {
         Mat foundLocations_mat = foundLocations;
         Mat foundWeights_mat = foundWeights;
         detectMultiScale_1(nativeObj, img.nativeObj, foundLocations_mat.nativeObj, foundWeights_mat.nativeObj);
+        foundLocations.invalidate();
+        foundWeights.invalidate();
 
         return;
     }
@@ -62,6 +62,8 @@ public class Objdetect {
         Mat rectList_mat = rectList;
         Mat weights_mat = weights;
         groupRectangles_0(rectList_mat.nativeObj, weights_mat.nativeObj, groupThreshold, eps);
+        rectList.invalidate();
+        weights.invalidate();
 
         return;
     }
@@ -91,6 +93,8 @@ public class Objdetect {
         Mat rectList_mat = rectList;
         Mat weights_mat = weights;
         groupRectangles_1(rectList_mat.nativeObj, weights_mat.nativeObj, groupThreshold);
+        rectList.invalidate();
+        weights.invalidate();
 
         return;
     }
@@ -55,6 +55,7 @@ public class Photo {
     {
 
         fastNlMeansDenoising_0(src.nativeObj, dst.nativeObj, h, templateWindowSize, searchWindowSize);
+        dst.invalidate();
 
         return;
     }
@@ -81,6 +82,7 @@ public class Photo {
     {
 
         fastNlMeansDenoising_1(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -116,6 +118,7 @@ public class Photo {
     {
 
         fastNlMeansDenoisingColored_0(src.nativeObj, dst.nativeObj, h, hColor, templateWindowSize, searchWindowSize);
+        dst.invalidate();
 
         return;
     }
@@ -136,6 +139,7 @@ public class Photo {
     {
 
         fastNlMeansDenoisingColored_1(src.nativeObj, dst.nativeObj);
+        dst.invalidate();
 
         return;
     }
@@ -181,6 +185,7 @@ public class Photo {
     {
         Mat srcImgs_mat = Converters.vector_Mat_to_Mat(srcImgs);
         fastNlMeansDenoisingColoredMulti_0(srcImgs_mat.nativeObj, dst.nativeObj, imgToDenoiseIndex, temporalWindowSize, h, hColor, templateWindowSize, searchWindowSize);
+        dst.invalidate();
 
         return;
     }
@@ -211,6 +216,7 @@ public class Photo {
     {
         Mat srcImgs_mat = Converters.vector_Mat_to_Mat(srcImgs);
         fastNlMeansDenoisingColoredMulti_1(srcImgs_mat.nativeObj, dst.nativeObj, imgToDenoiseIndex, temporalWindowSize);
+        dst.invalidate();
 
         return;
     }
@@ -254,6 +260,7 @@ public class Photo {
     {
         Mat srcImgs_mat = Converters.vector_Mat_to_Mat(srcImgs);
         fastNlMeansDenoisingMulti_0(srcImgs_mat.nativeObj, dst.nativeObj, imgToDenoiseIndex, temporalWindowSize, h, templateWindowSize, searchWindowSize);
+        dst.invalidate();
 
         return;
     }
@@ -283,6 +290,7 @@ public class Photo {
     {
         Mat srcImgs_mat = Converters.vector_Mat_to_Mat(srcImgs);
         fastNlMeansDenoisingMulti_1(srcImgs_mat.nativeObj, dst.nativeObj, imgToDenoiseIndex, temporalWindowSize);
+        dst.invalidate();
 
         return;
     }
@@ -326,6 +334,7 @@ public class Photo {
     {
 
         inpaint_0(src.nativeObj, inpaintMask.nativeObj, dst.nativeObj, inpaintRadius, flags);
+        dst.invalidate();
 
         return;
     }
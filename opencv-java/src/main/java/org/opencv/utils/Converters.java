@@ -1,5 +1,8 @@
 package org.opencv.utils;
 
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -187,6 +190,49 @@ public class Converters {
         }
     }
 
+    // Primitive overloads: Mat.put() and Mat.get() copy no more elements than
+    // the Mat holds, so arrays may be longer than count
+
+    public static Mat vector_Point_to_Mat(int[] xy, int count) {
+        Mat res;
+        if (count > 0) {
+            if (xy == null || xy.length < 2 * count)
+                throw new java.lang.IllegalArgumentException("xy holds less than " + count + " points");
+            res = new Mat(count, 1, CvType.CV_32SC2);
+            res.put(0, 0, xy);
+        } else {
+            res = new Mat();
+        }
+        return res;
+    }
+
+    public static Mat vector_Point_to_Mat(IntBuffer xy) {
+        int count = (xy != null) ? xy.remaining() / 2 : 0;
+        return vector_Point_to_Mat(count > 0 ? array(xy) : null, count);
+    }
+
+    public static int Mat_to_vector_Point(Mat m, int[] xy) {
+        // copies the x, y pairs of as many points as fit into xy, returns the number of points in m
+        if (xy == null || xy.length % 2 != 0)
+            throw new java.lang.IllegalArgumentException("xy must hold x, y pairs");
+        int count = m.rows();
+        if (CvType.CV_32SC2 != m.type() || m.cols() != 1)
+            throw new java.lang.IllegalArgumentException(
+                    "CvType.CV_32SC2 != m.type() ||  m.cols()!=1\n" + m);
+        if (count > 0 && xy.length > 0)
+            m.get(0, 0, xy);
+        return count;
+    }
+
+    public static int Mat_to_vector_Point(Mat m, IntBuffer xy) {
+        // fills xy from its position on, as far as it has room, returns the number of points in m
+        int room = xy.remaining() / 2;
+        int[] buff = new int[2 * Math.min(room, m.rows())];
+        int count = Mat_to_vector_Point(m, buff);
+        xy.put(buff);
+        return count;
+    }
+
     public static void Mat_to_vector_Point3i(Mat m, List<Point3> pts) {
         Mat_to_vector_Point3(m, pts);
     }
@@ -300,6 +346,43 @@ public class Converters {
         }
     }
 
+    public static Mat vector_float_to_Mat(float[] fs, int count) {
+        Mat res;
+        if (count > 0) {
+            if (fs == null || fs.length < count)
+                throw new java.lang.IllegalArgumentException("fs holds less than " + count + " values");
+            res = new Mat(count, 1, CvType.CV_32FC1);
+            res.put(0, 0, fs);
+        } else {
+            res = new Mat();
+        }
+        return res;
+    }
+
+    public static Mat vector_float_to_Mat(FloatBuffer fs) {
+        int count = (fs != null) ? fs.remaining() : 0;
+        return vector_float_to_Mat(count > 0 ? array(fs) : null, count);
+    }
+
+    public static int Mat_to_vector_float(Mat m, float[] fs) {
+        if (fs == null)
+            throw new java.lang.IllegalArgumentException("fs == null");
+        int count = m.rows();
+        if (CvType.CV_32FC1 != m.type() || m.cols() != 1)
+            throw new java.lang.IllegalArgumentException(
+                    "CvType.CV_32FC1 != m.type() ||  m.cols()!=1\n" + m);
+        if (count > 0 && fs.length > 0)
+            m.get(0, 0, fs);
+        return count;
+    }
+
+    public static int Mat_to_vector_float(Mat m, FloatBuffer fs) {
+        float[] buff = new float[Math.min(fs.remaining(), m.rows())];
+        int count = Mat_to_vector_float(m, buff);
+        fs.put(buff);
+        return count;
+    }
+
     public static Mat vector_uchar_to_Mat(List<Byte> bs) {
         Mat res;
         int count = (bs != null) ? bs.size() : 0;
@@ -333,6 +416,43 @@ public class Converters {
         }
     }
 
+    public static Mat vector_uchar_to_Mat(byte[] bs, int count) {
+        Mat res;
+        if (count > 0) {
+            if (bs == null || bs.length < count)
+                throw new java.lang.IllegalArgumentException("bs holds less than " + count + " values");
+            res = new Mat(count, 1, CvType.CV_8UC1);
+            res.put(0, 0, bs);
+        } else {
+            res = new Mat();
+        }
+        return res;
+    }
+
+    public static Mat vector_uchar_to_Mat(ByteBuffer bs) {
+        int count = (bs != null) ? bs.remaining() : 0;
+        return vector_uchar_to_Mat(count > 0 ? array(bs) : null, count);
+    }
+
+    public static int Mat_to_vector_uchar(Mat m, byte[] us) {
+        if (us == null)
+            throw new java.lang.IllegalArgumentException("Output array can't be null");
+        int count = m.rows();
+        if (CvType.CV_8UC1 != m.type() || m.cols() != 1)
+            throw new java.lang.IllegalArgumentException(
+                    "CvType.CV_8UC1 != m.type() ||  m.cols()!=1\n" + m);
+        if (count > 0 && us.length > 0)
+            m.get(0, 0, us);
+        return count;
+    }
+
+    public static int Mat_to_vector_uchar(Mat m, ByteBuffer us) {
+        byte[] buff = new byte[Math.min(us.remaining(), m.rows())];
+        int count = Mat_to_vector_uchar(m, buff);
+        us.put(buff);
+        return count;
+    }
+
     public static Mat vector_char_to_Mat(List<Byte> bs) {
         Mat res;
         int count = (bs != null) ? bs.size() : 0;
@@ -383,6 +503,43 @@ public class Converters {
         }
     }
 
+    public static Mat vector_int_to_Mat(int[] is, int count) {
+        Mat res;
+        if (count > 0) {
+            if (is == null || is.length < count)
+                throw new java.lang.IllegalArgumentException("is holds less than " + count + " values");
+            res = new Mat(count, 1, CvType.CV_32SC1);
+            res.put(0, 0, is);
+        } else {
+            res = new Mat();
+        }
+        return res;
+    }
+
+    public static Mat vector_int_to_Mat(IntBuffer is) {
+        int count = (is != null) ? is.remaining() : 0;
+        return vector_int_to_Mat(count > 0 ? array(is) : null, count);
+    }
+
+    public static int Mat_to_vector_int(Mat m, int[] is) {
+        if (is == null)
+            throw new java.lang.IllegalArgumentException("is == null");
+        int count = m.rows();
+        if (CvType.CV_32SC1 != m.type() || m.cols() != 1)
+            throw new java.lang.IllegalArgumentException(
+                    "CvType.CV_32SC1 != m.type() ||  m.cols()!=1\n" + m);
+        if (count > 0 && is.length > 0)
+            m.get(0, 0, is);
+        return count;
+    }
+
+    public static int Mat_to_vector_int(Mat m, IntBuffer is) {
+        int[] buff = new int[Math.min(is.remaining(), m.rows())];
+        int count = Mat_to_vector_int(m, buff);
+        is.put(buff);
+        return count;
+    }
+
     public static void Mat_to_vector_char(Mat m, List<Byte> bs) {
         if (bs == null)
             throw new java.lang.IllegalArgumentException("Output List can't be null");
@@ -496,12 +653,65 @@ public class Converters {
         if (m == null)
             throw new java.lang.IllegalArgumentException("Input Mat can't be null");
 
-        List<Mat> mats = new ArrayList<Mat>(m.rows());
-        Mat_to_vector_Mat(m, mats);
-        for (Mat mi : mats) {
-            MatOfPoint pt = new MatOfPoint(mi);
-            pts.add(pt);
+        // the addresses are headers allocated for us, wrapped without a second header per vector
+        int count = addresses(m);
+        int[] buff = new int[count * 2];
+        m.get(0, 0, buff);
+        for (int i = 0; i < count; i++) {
+            pts.add(MatOfPoint.fromNativeAddr(address(buff, i)));
+        }
+    }
+
+    public static int Mat_to_vector_vector_Point(Mat m, FlatPoints pts) {
+        // fills pts with the points of every vector, returns their number
+        if (pts == null)
+            throw new java.lang.IllegalArgumentException("Output FlatPoints can't be null");
+        if (m == null)
+            throw new java.lang.IllegalArgumentException("Input Mat can't be null");
+
+        int count = addresses(m);
+        int[] buff = new int[count * 2];
+        if (count > 0)
+            m.get(0, 0, buff);
+        pts.clear();
+        pts.ensureVectors(count);
+        for (int i = 0; i < count; i++) {
+            Mat mi = new Mat(address(buff, i));
+            int n = (int) mi.total();
+            if (n > 0) {
+                if (CvType.CV_32SC2 != mi.type())
+                    throw new java.lang.IllegalArgumentException("Incompatible Mat\n" + mi);
+                if (pts.scratch.length < 2 * n)
+                    pts.scratch = new int[Math.max(2 * n, 2 * pts.scratch.length)];
+                mi.get(0, 0, pts.scratch);
+                pts.ensurePoints(pts.offsets[i] + n);
+                System.arraycopy(pts.scratch, 0, pts.xy, 2 * pts.offsets[i], 2 * n);
+            }
+            mi.delete();
+            pts.offsets[i + 1] = pts.offsets[i] + n;
+            pts.count = i + 1;
+        }
+        return count;
+    }
+
+    public static Mat vector_vector_Point_to_Mat(FlatPoints pts, List<Mat> mats) {
+        // all points go to the native side in one copy, the vectors are row ranges of it
+        // added to mats, whose headers the caller deletes once the native call returns
+        Mat res;
+        int lCount = (pts != null) ? pts.count : 0;
+        if (lCount > 0) {
+            int total = pts.points();
+            Mat all = new Mat(Math.max(total, 1), 1, CvType.CV_32SC2);
+            if (total > 0)
+                all.put(0, 0, pts.xy);
+            for (int i = 0; i < lCount; i++)
+                mats.add(all.rowRange(pts.offsets[i], pts.offsets[i + 1]));
+            all.release(); // the row ranges keep the data
+            res = vector_Mat_to_Mat(mats);
+        } else {
+            res = new Mat();
         }
+        return res;
     }
 
     // vector_vector_Point2f
@@ -626,6 +836,31 @@ public class Converters {
         }
     }
 
+    public static Mat vector_double_to_Mat(double[] ds, int count) {
+        Mat res;
+        if (count > 0) {
+            if (ds == null || ds.length < count)
+                throw new java.lang.IllegalArgumentException("ds holds less than " + count + " values");
+            res = new Mat(count, 1, CvType.CV_64FC1);
+            res.put(0, 0, ds);
+        } else {
+            res = new Mat();
+        }
+        return res;
+    }
+
+    public static int Mat_to_vector_double(Mat m, double[] ds) {
+        if (ds == null)
+            throw new java.lang.IllegalArgumentException("ds == null");
+        int count = m.rows();
+        if (CvType.CV_64FC1 != m.type() || m.cols() != 1)
+            throw new java.lang.IllegalArgumentException(
+                    "CvType.CV_64FC1 != m.type() ||  m.cols()!=1\n" + m);
+        if (count > 0 && ds.length > 0)
+            m.get(0, 0, ds);
+        return count;
+    }
+
     public static Mat vector_DMatch_to_Mat(List<DMatch> matches) {
         Mat res;
         int count = (matches != null) ? matches.size() : 0;
@@ -721,4 +956,41 @@ public class Converters {
             llb.add(lb);
         }
     }
+
+    private static int addresses(Mat m) {
+        // number of Mat addresses in m, as written by the native vector_Mat conversion
+        if (CvType.CV_32SC2 != m.type() || m.cols() != 1)
+            throw new java.lang.IllegalArgumentException(
+                    "CvType.CV_32SC2 != m.type() ||  m.cols()!=1\n" + m);
+        return m.rows();
+    }
+
+    private static long address(int[] buff, int i) {
+        return (((long) buff[i * 2]) << 32) | (((long) buff[i * 2 + 1]) & 0xffffffffL);
+    }
+
+    private static int[] array(IntBuffer b) {
+        // the backing array when it starts at the buffer's position, otherwise a copy
+        if (b.hasArray() && b.arrayOffset() + b.position() == 0)
+            return b.array();
+        int[] a = new int[b.remaining()];
+        b.duplicate().get(a);
+        return a;
+    }
+
+    private static float[] array(FloatBuffer b) {
+        if (b.hasArray() && b.arrayOffset() + b.position() == 0)
+            return b.array();
+        float[] a = new float[b.remaining()];
+        b.duplicate().get(a);
+        return a;
+    }
+
+    private static byte[] array(ByteBuffer b) {
+        if (b.hasArray() && b.arrayOffset() + b.position() == 0)
+            return b.array();
+        byte[] a = new byte[b.remaining()];
+        b.duplicate().get(a);
+        return a;
+    }
 }
@@ -0,0 +1,48 @@
+package org.opencv.utils;
+
+import java.util.Arrays;
+
+/**
+ * A vector of integer point vectors (e.g. contours) stored in two flat arrays
+ * instead of one MatOfPoint per vector: the x, y coordinates of all points in
+ * xy, and vector i spanning points offsets[i] to offsets[i + 1].
+ * The arrays grow when Converters fills them and are reused afterwards.
+ */
+public class FlatPoints {
+    public int[] xy = new int[0];
+    public int[] offsets = new int[1];
+    public int count;
+
+    int[] scratch = new int[0];
+
+    public int size(int i) {
+        return offsets[i + 1] - offsets[i];
+    }
+
+    public int points() {
+        return offsets[count];
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public void add(int[] points, int n) {
+        // appends a vector of n points, given as x, y pairs
+        ensurePoints(offsets[count] + n);
+        ensureVectors(count + 1);
+        System.arraycopy(points, 0, xy, 2 * offsets[count], 2 * n);
+        offsets[count + 1] = offsets[count] + n;
+        count++;
+    }
+
+    void ensureVectors(int n) {
+        if (offsets.length < n + 1)
+            offsets = Arrays.copyOf(offsets, Math.max(n + 1, 2 * offsets.length));
+    }
+
+    void ensurePoints(int n) {
+        if (xy.length < 2 * n)
+            xy = Arrays.copyOf(xy, Math.max(2 * n, 2 * xy.length));
+    }
+}
@@ -55,6 +55,7 @@ public class BackgroundSubtractor extends Algorithm {
     {
 
         apply_0(nativeObj, image.nativeObj, fgmask.nativeObj, learningRate);
+        fgmask.invalidate();
 
         return;
     }
@@ -71,6 +72,7 @@ public class BackgroundSubtractor extends Algorithm {
     {
 
         apply_1(nativeObj, image.nativeObj, fgmask.nativeObj);
+        fgmask.invalidate();
 
         return;
     }
@@ -205,6 +205,8 @@ public class Video {
     {
 
         calcMotionGradient_0(mhi.nativeObj, mask.nativeObj, orientation.nativeObj, delta1, delta2, apertureSize);
+        mask.invalidate();
+        orientation.invalidate();
 
         return;
     }
@@ -251,6 +253,8 @@ public class Video {
     {
 
         calcMotionGradient_1(mhi.nativeObj, mask.nativeObj, orientation.nativeObj, delta1, delta2);
+        mask.invalidate();
+        orientation.invalidate();
 
         return;
     }
@@ -317,6 +321,7 @@ public class Video {
     {
 
         calcOpticalFlowFarneback_0(prev.nativeObj, next.nativeObj, flow.nativeObj, pyr_scale, levels, winsize, iterations, poly_n, poly_sigma, flags);
+        flow.invalidate();
 
         return;
     }
@@ -396,6 +401,9 @@ public class Video {
         Mat status_mat = status;
         Mat err_mat = err;
         calcOpticalFlowPyrLK_0(prevImg.nativeObj, nextImg.nativeObj, prevPts_mat.nativeObj, nextPts_mat.nativeObj, status_mat.nativeObj, err_mat.nativeObj, winSize.width, winSize.height, maxLevel, criteria.type, criteria.maxCount, criteria.epsilon, flags, minEigThreshold);
+        nextPts.invalidate();
+        status.invalidate();
+        err.invalidate();
 
         return;
     }
@@ -450,6 +458,9 @@ public class Video {
         Mat status_mat = status;
         Mat err_mat = err;
         calcOpticalFlowPyrLK_1(prevImg.nativeObj, nextImg.nativeObj, prevPts_mat.nativeObj, nextPts_mat.nativeObj, status_mat.nativeObj, err_mat.nativeObj, winSize.width, winSize.height, maxLevel);
+        nextPts.invalidate();
+        status.invalidate();
+        err.invalidate();
 
         return;
     }
@@ -499,6 +510,9 @@ public class Video {
         Mat status_mat = status;
         Mat err_mat = err;
         calcOpticalFlowPyrLK_2(prevImg.nativeObj, nextImg.nativeObj, prevPts_mat.nativeObj, nextPts_mat.nativeObj, status_mat.nativeObj, err_mat.nativeObj);
+        nextPts.invalidate();
+        status.invalidate();
+        err.invalidate();
 
         return;
     }
@@ -533,6 +547,7 @@ public class Video {
     {
 
         calcOpticalFlowSF_0(from.nativeObj, to.nativeObj, flow.nativeObj, layers, averaging_block_size, max_flow);
+        flow.invalidate();
 
         return;
     }
@@ -578,6 +593,7 @@ public class Video {
     {
 
         calcOpticalFlowSF_1(from.nativeObj, to.nativeObj, flow.nativeObj, layers, averaging_block_size, max_flow, sigma_dist, sigma_color, postprocess_window, sigma_dist_fix, sigma_color_fix, occ_thr, upscale_averaging_radius, upscale_sigma_dist, upscale_sigma_color, speed_up_thr);
+        flow.invalidate();
 
         return;
     }
@@ -713,6 +729,8 @@ public class Video {
     {
         Mat boundingRects_mat = boundingRects;
         segmentMotion_0(mhi.nativeObj, segmask.nativeObj, boundingRects_mat.nativeObj, timestamp, segThresh);
+        segmask.invalidate();
+        boundingRects.invalidate();
 
         return;
     }
@@ -754,6 +772,7 @@ public class Video {
     {
 
         updateMotionHistory_0(silhouette.nativeObj, mhi.nativeObj, timestamp, duration);
+        mhi.invalidate();
 
         return;
     }